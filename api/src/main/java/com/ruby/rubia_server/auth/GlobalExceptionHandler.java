@@ -1,8 +1,10 @@
 package com.ruby.rubia_server.auth;
 
+import com.ruby.rubia_server.core.exception.AIGatewayException;
 import com.ruby.rubia_server.core.exception.MessageTemplateRevisionException;
 import com.ruby.rubia_server.core.exception.MessageTemplateTransactionException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
@@ -105,6 +107,25 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(problemDetail);
     }
 
+    @ExceptionHandler(AIGatewayException.class)
+    public ResponseEntity<ProblemDetail> handleAIGatewayException(AIGatewayException ex) {
+        log.warn("AI gateway refused call to model {} ({}): {}", ex.getModel(), ex.getReason(), ex.getMessage());
+        
+        HttpStatus status = ex.isRetryable() ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.BAD_GATEWAY;
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status, ex.getMessage());
+        problemDetail.setType(URI.create("https://api.rubia.com/errors/ai-unavailable"));
+        problemDetail.setTitle("AI Model Unavailable");
+        problemDetail.setProperty("model", ex.getModel());
+        problemDetail.setProperty("reason", ex.getReason());
+        problemDetail.setProperty("timestamp", LocalDateTime.now());
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status);
+        if (ex.isRetryable()) {
+            response.header(HttpHeaders.RETRY_AFTER, "30");
+        }
+        return response.body(problemDetail);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<Map<String, String>> handleRuntimeException(RuntimeException ex) {
         log.error("Runtime exception: {}", ex.getMessage(), ex);
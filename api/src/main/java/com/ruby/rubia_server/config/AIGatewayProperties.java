@@ -0,0 +1,51 @@
+package com.ruby.rubia_server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Limites do AIGateway, a porta única para chamadas aos modelos da OpenAI
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "ai.gateway")
+public class AIGatewayProperties {
+
+    /**
+     * Chamadas simultâneas por modelo (threads do executor do modelo)
+     */
+    private int maxConcurrencyPerModel = 4;
+
+    /**
+     * Chamadas aguardando vaga por modelo; com a fila cheia a chamada é recusada na hora
+     */
+    private int queueCapacityPerModel = 50;
+
+    /**
+     * Chamadas simultâneas por chave de API, somando todos os modelos
+     */
+    private int maxInFlightPerKey = 8;
+
+    /**
+     * Prazo total (fila + chamada) de completions de chat
+     */
+    private Duration chatDeadline = Duration.ofSeconds(20);
+
+    /**
+     * Prazo total (fila + chamada) de transcrições de áudio
+     */
+    private Duration transcriptionDeadline = Duration.ofSeconds(60);
+
+    /**
+     * Falhas seguidas (erro ou prazo esgotado) que abrem o circuito do modelo
+     */
+    private int circuitFailureThreshold = 5;
+
+    /**
+     * Tempo com o circuito aberto antes da chamada de teste
+     */
+    private Duration circuitOpenDuration = Duration.ofSeconds(30);
+}
@@ -1,5 +1,6 @@
 package com.ruby.rubia_server.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -10,9 +11,19 @@ import java.util.concurrent.Executor;
 @Configuration
 public class AsyncConfig {
 
+    /**
+     * Com spring.threads.virtual.enabled=true (o mesmo flag que coloca o Tomcat em virtual
+     * threads) cada tarefa @Async ganha uma virtual thread, limitada por semáforo
+     */
     @Bean
     @Primary
-    public Executor taskExecutor() {
+    public Executor taskExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${async.virtual.max-concurrency:200}") int virtualMaxConcurrency) {
+        if (virtualThreads) {
+            return new BoundedVirtualThreadExecutor("RubiaAsync-", virtualMaxConcurrency);
+        }
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(8);
         executor.setMaxPoolSize(16);
@@ -21,4 +32,4 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+}
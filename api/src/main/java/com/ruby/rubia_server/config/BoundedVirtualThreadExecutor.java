@@ -0,0 +1,49 @@
+package com.ruby.rubia_server.config;
+
+import org.springframework.core.task.TaskExecutor;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Executor que cria uma virtual thread por tarefa, com a concorrência limitada por semáforo.
+ *
+ * Diferente de um pool, quem submete nunca bloqueia nem recebe rejeição: a tarefa excedente
+ * aguarda a permissão dentro da própria virtual thread, o que custa apenas memória de heap.
+ * O limite protege os recursos de baixo (Z-API, OpenAI, pool do banco), não as threads.
+ */
+public class BoundedVirtualThreadExecutor implements TaskExecutor {
+
+    private final ThreadFactory threadFactory;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+
+    public BoundedVirtualThreadExecutor(String threadNamePrefix, int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency deve ser positivo: " + maxConcurrency);
+        }
+        this.threadFactory = Thread.ofVirtual().name(threadNamePrefix, 0).factory();
+        this.permits = new Semaphore(maxConcurrency);
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        threadFactory.newThread(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        }).start();
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getActiveCount() {
+        return maxConcurrency - permits.availablePermits();
+    }
+}
@@ -0,0 +1,71 @@
+package com.ruby.rubia_server.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuração dos clientes HTTP de saída, um por upstream.
+ * Cada cliente mantém seu próprio pool de conexões keep-alive e seu limite por rota (host).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "http.clients")
+public class HttpClientProperties {
+
+    /**
+     * Chamadas à Z-API (envio de mensagens, status e ativação de instâncias)
+     */
+    private Client zapi = new Client(Duration.ofSeconds(5), Duration.ofSeconds(30), 50, Duration.ofSeconds(5), true);
+
+    /**
+     * Chamadas à OpenAI: REST direto (transcrição de áudio) e clientes do Spring AI (OpenAiClientConfig).
+     * O timeout de leitura efetivo é limitado pelos prazos do AIGateway.
+     */
+    private Client openai = new Client(Duration.ofSeconds(5), Duration.ofSeconds(60), 10, Duration.ofSeconds(10), true);
+
+    /**
+     * Download de mídia recebida por webhook (URLs de CDN do provedor)
+     */
+    private Client media = new Client(Duration.ofSeconds(5), Duration.ofSeconds(60), 20, Duration.ofSeconds(10), true);
+
+    /**
+     * Cliente padrão para os demais usos do RestTemplate
+     */
+    private Client defaults = new Client(Duration.ofSeconds(5), Duration.ofSeconds(30), 20, Duration.ofSeconds(5), true);
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Client {
+
+        /**
+         * Tempo máximo para abrir a conexão TCP/TLS
+         */
+        private Duration connectTimeout = Duration.ofSeconds(5);
+
+        /**
+         * Tempo máximo aguardando a resposta depois de enviada a requisição
+         */
+        private Duration readTimeout = Duration.ofSeconds(30);
+
+        /**
+         * Requisições simultâneas por rota (scheme + host + porta)
+         */
+        private int maxConcurrentPerRoute = 20;
+
+        /**
+         * Quanto uma requisição espera por vaga na rota antes de falhar
+         */
+        private Duration acquireTimeout = Duration.ofSeconds(5);
+
+        /**
+         * Prefere HTTP/2 quando o servidor suporta (cai para HTTP/1.1 com keep-alive)
+         */
+        private boolean http2 = true;
+    }
+}
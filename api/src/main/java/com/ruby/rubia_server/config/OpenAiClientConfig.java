@@ -0,0 +1,59 @@
+package com.ruby.rubia_server.config;
+
+import org.springframework.boot.web.client.RestClientCustomizer;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.reactive.JdkClientHttpConnector;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Timeouts dos clientes HTTP que o Spring AI cria a partir dos builders do Boot (RestClient para chat e
+ * embeddings, WebClient para chat em streaming). Sem isso não há timeout de leitura: um prazo esgotado no
+ * AIGateway só cancela a espera, e a thread do modelo e a vaga da chave ficam presas até a OpenAI responder.
+ *
+ * O timeout de leitura é o de http.clients.openai limitado ao prazo de chat do gateway, para que o prazo
+ * também valha no socket. Só o Spring AI usa esses builders nesta aplicação.
+ */
+@Configuration
+public class OpenAiClientConfig {
+
+    @Bean
+    public RestClientCustomizer openAiRestClientTimeouts(HttpClientProperties httpClientProperties,
+                                                         AIGatewayProperties gatewayProperties) {
+        HttpClientProperties.Client settings = httpClientProperties.getOpenai();
+        return builder -> {
+            JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient(settings));
+            requestFactory.setReadTimeout(readTimeout(settings, gatewayProperties));
+            builder.requestFactory(requestFactory);
+        };
+    }
+
+    @Bean
+    public WebClientCustomizer openAiWebClientTimeouts(HttpClientProperties httpClientProperties,
+                                                       AIGatewayProperties gatewayProperties) {
+        HttpClientProperties.Client settings = httpClientProperties.getOpenai();
+        return builder -> {
+            JdkClientHttpConnector connector = new JdkClientHttpConnector(httpClient(settings));
+            connector.setReadTimeout(readTimeout(settings, gatewayProperties));
+            builder.clientConnector(connector);
+        };
+    }
+
+    static Duration readTimeout(HttpClientProperties.Client settings, AIGatewayProperties gatewayProperties) {
+        Duration configured = settings.getReadTimeout();
+        Duration deadline = gatewayProperties.getChatDeadline();
+        return configured.compareTo(deadline) <= 0 ? configured : deadline;
+    }
+
+    private static HttpClient httpClient(HttpClientProperties.Client settings) {
+        return HttpClient.newBuilder()
+            .version(settings.isHttp2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+            .connectTimeout(settings.getConnectTimeout())
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+    }
+}
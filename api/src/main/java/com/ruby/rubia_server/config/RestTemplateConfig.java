@@ -1,14 +1,72 @@
 package com.ruby.rubia_server.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Clientes HTTP de saída, um por upstream, sobre o java.net.http.HttpClient:
+ * pool de conexões keep-alive (sem novo handshake TLS a cada chamada), HTTP/2 quando
+ * disponível, timeouts de conexão e leitura e limite de requisições simultâneas por rota.
+ */
 @Configuration
 public class RestTemplateConfig {
 
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    @Primary
+    public RestTemplate restTemplate(RestTemplateBuilder builder, HttpClientProperties properties,
+                                     MeterRegistry meterRegistry) {
+        return create(builder, "default", properties.getDefaults(), meterRegistry);
+    }
+
+    @Bean
+    public RestTemplate zapiRestTemplate(RestTemplateBuilder builder, HttpClientProperties properties,
+                                         MeterRegistry meterRegistry) {
+        return create(builder, "zapi", properties.getZapi(), meterRegistry);
+    }
+
+    /**
+     * Transcrições de áudio: o timeout de leitura não passa do prazo de transcrição do AIGateway
+     */
+    @Bean
+    public RestTemplate openAiRestTemplate(RestTemplateBuilder builder, HttpClientProperties properties,
+                                           AIGatewayProperties gatewayProperties, MeterRegistry meterRegistry) {
+        HttpClientProperties.Client settings = properties.getOpenai();
+        Duration deadline = gatewayProperties.getTranscriptionDeadline();
+        if (settings.getReadTimeout().compareTo(deadline) > 0) {
+            settings = new HttpClientProperties.Client(settings.getConnectTimeout(), deadline,
+                settings.getMaxConcurrentPerRoute(), settings.getAcquireTimeout(), settings.isHttp2());
+        }
+        return create(builder, "openai", settings, meterRegistry);
+    }
+
+    @Bean
+    public RestTemplate mediaRestTemplate(RestTemplateBuilder builder, HttpClientProperties properties,
+                                          MeterRegistry meterRegistry) {
+        return create(builder, "media", properties.getMedia(), meterRegistry);
+    }
+
+    static RestTemplate create(RestTemplateBuilder builder, String name, HttpClientProperties.Client settings,
+                               MeterRegistry meterRegistry) {
+        HttpClient httpClient = HttpClient.newBuilder()
+            .version(settings.isHttp2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+            .connectTimeout(settings.getConnectTimeout())
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(settings.getReadTimeout());
+
+        return builder
+            .requestFactory(() -> requestFactory)
+            .additionalInterceptors(new UpstreamRequestInterceptor(name, settings, meterRegistry))
+            .build();
     }
-}
\ No newline at end of file
+}
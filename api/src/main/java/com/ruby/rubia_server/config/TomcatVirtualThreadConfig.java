@@ -0,0 +1,29 @@
+package com.ruby.rubia_server.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class TomcatVirtualThreadConfig {
+
+    /**
+     * O Spring Boot coloca o Tomcat num executor de virtual threads sem limite; uma rajada de
+     * webhooks viraria milhares de requisições simultâneas contra o pool do banco. Roda depois
+     * do customizer do Boot e troca o executor por um BoundedVirtualThreadExecutor com o mesmo
+     * teto do pool de plataforma (server.tomcat.threads.max)
+     */
+    @Bean
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> boundedVirtualThreadTomcatCustomizer(
+            @Value("${server.tomcat.virtual.max-concurrency:${server.tomcat.threads.max:200}}") int maxConcurrency) {
+        return factory -> factory.addProtocolHandlerCustomizers(protocolHandler ->
+            protocolHandler.setExecutor(new BoundedVirtualThreadExecutor("tomcat-handler-", maxConcurrency)));
+    }
+}
@@ -0,0 +1,168 @@
+package com.ruby.rubia_server.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limita requisições simultâneas por rota e publica métricas de uso e latência de um cliente HTTP.
+ *
+ * A vaga da rota fica presa até a resposta ser fechada, para que downloads longos contem
+ * como conexão ocupada enquanto o corpo é lido. Sem vaga dentro do acquireTimeout a requisição
+ * falha com IOException, que o RestTemplate converte em ResourceAccessException.
+ *
+ * Métricas (tag client):
+ * <ul>
+ *   <li>http.client.upstream.requests - timer até o recebimento dos headers (tags host, status)</li>
+ *   <li>http.client.upstream.in_flight - requisições com vaga ocupada</li>
+ *   <li>http.client.upstream.max_per_route - limite configurado por rota</li>
+ *   <li>http.client.upstream.rejected - requisições recusadas por falta de vaga (tag host)</li>
+ * </ul>
+ */
+@Slf4j
+public class UpstreamRequestInterceptor implements ClientHttpRequestInterceptor {
+
+    private final String clientName;
+    private final int maxConcurrentPerRoute;
+    private final Duration acquireTimeout;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Semaphore> routePermits = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public UpstreamRequestInterceptor(String clientName, HttpClientProperties.Client settings, MeterRegistry meterRegistry) {
+        this.clientName = clientName;
+        this.maxConcurrentPerRoute = settings.getMaxConcurrentPerRoute();
+        this.acquireTimeout = settings.getAcquireTimeout();
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("http.client.upstream.in_flight", inFlight, AtomicInteger::get)
+            .tag("client", clientName)
+            .register(meterRegistry);
+        Gauge.builder("http.client.upstream.max_per_route", () -> maxConcurrentPerRoute)
+            .tag("client", clientName)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        URI uri = request.getURI();
+        String host = uri.getHost() != null ? uri.getHost() : "unknown";
+        Semaphore permits = routePermits.computeIfAbsent(route(uri), route -> new Semaphore(maxConcurrentPerRoute, true));
+
+        acquire(permits, host);
+        inFlight.incrementAndGet();
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String status = "IO_ERROR";
+        boolean handedOver = false;
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            status = String.valueOf(response.getStatusCode().value());
+            handedOver = true;
+            return new PermitReleasingResponse(response, permits);
+        } catch (CancellationException e) {
+            // O JdkClientHttpRequest cancela o future no read timeout e, dependendo da corrida,
+            // a CancellationException escapa sem ser convertida; trata como timeout de I/O
+            throw new HttpTimeoutException("Read timeout na chamada para " + host);
+        } finally {
+            sample.stop(meterRegistry.timer("http.client.upstream.requests",
+                "client", clientName, "host", host, "status", status));
+            if (!handedOver) {
+                release(permits);
+            }
+        }
+    }
+
+    private void acquire(Semaphore permits, String host) throws IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrompido aguardando conexão para " + host, e);
+        }
+
+        if (!acquired) {
+            meterRegistry.counter("http.client.upstream.rejected", "client", clientName, "host", host).increment();
+            log.warn("🚦 Cliente HTTP {} sem vaga para {} após {}ms (limite {} por rota)",
+                clientName, host, acquireTimeout.toMillis(), maxConcurrentPerRoute);
+            throw new IOException("Limite de " + maxConcurrentPerRoute + " requisições simultâneas para "
+                + host + " atingido");
+        }
+    }
+
+    private void release(Semaphore permits) {
+        inFlight.decrementAndGet();
+        permits.release();
+    }
+
+    private static String route(URI uri) {
+        return uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort();
+    }
+
+    /**
+     * Devolve a vaga da rota quando o RestTemplate fecha a resposta (após ler o corpo)
+     */
+    private final class PermitReleasingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final Semaphore permits;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private PermitReleasingResponse(ClientHttpResponse delegate, Semaphore permits) {
+            this.delegate = delegate;
+            this.permits = permits;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    release(permits);
+                }
+            }
+        }
+    }
+}
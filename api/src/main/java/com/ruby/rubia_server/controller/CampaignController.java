@@ -3,14 +3,17 @@ package com.ruby.rubia_server.controller;
 import com.ruby.rubia_server.core.base.BaseCompanyEntityController;
 import com.ruby.rubia_server.core.base.BaseCompanyEntityService;
 import com.ruby.rubia_server.core.entity.Campaign;
+import com.ruby.rubia_server.core.service.CampaignImportService;
 import com.ruby.rubia_server.core.service.CampaignProcessingService;
 import com.ruby.rubia_server.core.service.CampaignService;
 import com.ruby.rubia_server.core.util.CompanyContextUtil;
 import com.ruby.rubia_server.dto.campaign.CreateCampaignDTO;
 import com.ruby.rubia_server.dto.campaign.UpdateCampaignDTO;
 import com.ruby.rubia_server.dto.campaign.CampaignDTO;
+import com.ruby.rubia_server.dto.campaign.CampaignImportJobDTO;
 import com.ruby.rubia_server.dto.campaign.ProcessCampaignDTO;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -30,12 +33,15 @@ import java.util.UUID;
 public class CampaignController extends BaseCompanyEntityController<Campaign, CreateCampaignDTO, UpdateCampaignDTO, CampaignDTO> {
 
     private final CampaignProcessingService campaignProcessingService;
+    private final CampaignImportService campaignImportService;
 
     public CampaignController(CampaignService campaignService, 
                             CampaignProcessingService campaignProcessingService,
+                            CampaignImportService campaignImportService,
                             CompanyContextUtil companyContextUtil) {
         super((BaseCompanyEntityService<Campaign, CreateCampaignDTO, UpdateCampaignDTO>) campaignService, companyContextUtil);
         this.campaignProcessingService = campaignProcessingService;
+        this.campaignImportService = campaignImportService;
     }
 
     @Override
@@ -147,6 +153,55 @@ public class CampaignController extends BaseCompanyEntityController<Campaign, Cr
         }
     }
 
+    /**
+     * Importa a planilha de forma assíncrona: responde com o job de importação,
+     * cujo progresso é consultado em GET /imports/{jobId}
+     */
+    @PostMapping(value = "/process-async", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> startCampaignImport(
+            @RequestPart("file") MultipartFile file,
+            @RequestPart("data") @Valid ProcessCampaignDTO processCampaignDTO) {
+        
+        companyContextUtil.ensureCompanyAccess(processCampaignDTO.getCompanyId());
+        
+        try {
+            log.info("Agendando importação da campanha: {} com arquivo: {}", 
+                processCampaignDTO.getName(), file.getOriginalFilename());
+
+            CampaignImportJobDTO job = campaignImportService.startImport(file, processCampaignDTO);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Erro de validação ao importar campanha: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage()));
+
+        } catch (IllegalStateException e) {
+            log.warn("Importação recusada: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body(Map.of("error", e.getMessage()));
+
+        } catch (IOException e) {
+            log.warn("Erro ao receber arquivo: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Erro ao processar arquivo: " + e.getMessage()));
+
+        } catch (Exception e) {
+            log.error("Erro interno ao importar campanha: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "Erro interno do servidor ao processar campanha"));
+        }
+    }
+
+    @GetMapping("/imports/{jobId}")
+    public ResponseEntity<CampaignImportJobDTO> getCampaignImport(@PathVariable UUID jobId) {
+        return campaignImportService.findJob(jobId)
+            .filter(job -> job.getCompanyId().equals(companyContextUtil.getCurrentCompanyId()))
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/company/{companyId}/active")
     public ResponseEntity<List<CampaignDTO>> getActiveCampaigns(@PathVariable UUID companyId) {
         try {
@@ -10,6 +10,7 @@ import com.ruby.rubia_server.core.util.CompanyContextUtil;
 import com.ruby.rubia_server.core.validation.WhatsAppInstanceValidator;
 import com.ruby.rubia_server.core.factory.ZApiUrlFactory;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.*;
@@ -44,7 +45,7 @@ public class ZApiAdapter implements MessagingAdapter {
     private final WhatsAppInstanceValidator instanceValidator;
     private final ZApiUrlFactory urlFactory;
 
-    public ZApiAdapter(RestTemplate restTemplate,
+    public ZApiAdapter(@Qualifier("zapiRestTemplate") RestTemplate restTemplate,
                       PhoneService phoneService, 
                       WhatsAppInstanceService whatsAppInstanceService,
                       CompanyContextUtil companyContextUtil,
@@ -1,8 +1,12 @@
 package com.ruby.rubia_server.core.config;
 
 import java.util.concurrent.ThreadFactory;
+
+import com.ruby.rubia_server.config.BoundedVirtualThreadExecutor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
@@ -19,7 +23,12 @@ import java.util.concurrent.ThreadPoolExecutor;
 public class CampaignConfiguration {
     
     @Bean(name = "campaignExecutor")
-    public ThreadPoolTaskExecutor campaignExecutor() {
+    public TaskExecutor campaignExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${campaign.executor.virtual.max-concurrency:100}") int virtualMaxConcurrency) {
+        if (virtualThreads) {
+            return new BoundedVirtualThreadExecutor("campaign-", virtualMaxConcurrency);
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(8);
         executor.setMaxPoolSize(16);
@@ -32,6 +41,44 @@ public class CampaignConfiguration {
         return executor;
     }
     
+    @Bean(name = "campaignImportExecutor")
+    public ThreadPoolTaskExecutor campaignImportExecutor() {
+        // Cada importação usa duas threads (leitura da planilha + gravação dos lotes).
+        // A admissão fica no CampaignImportService (max / 2 importações), antes do 202; a
+        // fila curta só absorve a troca de threads entre uma importação que termina e a próxima
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(8);
+        executor.setThreadNamePrefix("campaign-import-");
+        executor.setKeepAliveSeconds(60);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.initialize();
+        return executor;
+    }
+    
+    @Bean(name = "campaignSendExecutor")
+    public TaskExecutor campaignSendExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${campaign.send.virtual.max-concurrency:50}") int virtualMaxConcurrency) {
+        // Único pool onde a chamada HTTP de envio bloqueia. Scheduler e timers de retry só
+        // encadeiam futures. Fila acima do limite de 50 envios simultâneos + retries pendentes;
+        // se lotar, a tentativa falha e segue o backoff (sem CallerRuns, que travaria o scheduler).
+        // Em modo virtual threads o limite vira semáforo e não há fila a lotar
+        if (virtualThreads) {
+            return new BoundedVirtualThreadExecutor("campaign-send-", virtualMaxConcurrency);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(32);
+        executor.setMaxPoolSize(32);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("campaign-send-");
+        executor.setKeepAliveSeconds(60);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.initialize();
+        return executor;
+    }
+
     @Bean(name = "scheduledExecutor")
     public ScheduledThreadPoolExecutor scheduledExecutor() {
         ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(4);
@@ -76,4 +76,30 @@ public class CampaignMessagingProperties {
      * Randomizar ordem das mensagens no lote
      */
     private boolean randomizeOrder = true;
-}
\ No newline at end of file
+    
+    /**
+     * Ativar limite de envio por instância WhatsApp (token bucket no Redis).
+     * Desligado por padrão: ligue depois de ajustar rajada, taxa e limite diário ao plano dos números
+     */
+    private boolean instanceRateLimitEnabled = false;
+    
+    /**
+     * Rajada máxima de envios por instância antes de aplicar a taxa sustentada
+     */
+    private int instanceBurstCapacity = 5;
+    
+    /**
+     * Taxa sustentada de envios por minuto por instância
+     */
+    private int instanceMessagesPerMinute = 6;
+    
+    /**
+     * Limite diário de envios de campanha por instância (0 = sem limite)
+     */
+    private int instanceDailyLimit = 1000;
+    
+    /**
+     * Validade do cache empresa → instância ativa usado pelo limite por instância
+     */
+    private Duration instanceLookupCacheTtl = Duration.ofMinutes(1);
+}
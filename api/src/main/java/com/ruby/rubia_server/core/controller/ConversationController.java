@@ -3,6 +3,7 @@ package com.ruby.rubia_server.core.controller;
 import com.ruby.rubia_server.core.dto.ConversationDTO;
 import com.ruby.rubia_server.core.dto.ConversationSummaryDTO;
 import com.ruby.rubia_server.core.dto.CreateConversationDTO;
+import com.ruby.rubia_server.core.dto.CursorPageDTO;
 import com.ruby.rubia_server.core.dto.UpdateConversationDTO;
 import com.ruby.rubia_server.core.dto.CreateMessageDTO;
 import com.ruby.rubia_server.core.dto.MessageDTO;
@@ -190,6 +191,22 @@ public class ConversationController {
         return ResponseEntity.ok(conversations);
     }
     
+    @GetMapping("/ordered-by-last-message/cursor")
+    public ResponseEntity<CursorPageDTO<ConversationDTO>> findConversationsOrderedByLastMessageCursor(
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) ConversationStatus status) {
+        log.debug("Finding conversations ordered by last message with cursor: {}, status: {}", before, status);
+        
+        UUID currentCompanyId = companyContextUtil.getCurrentCompanyId();
+        try {
+            return ResponseEntity.ok(conversationService.findInboxTimeline(currentCompanyId, status, before, size));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid conversation cursor: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<ConversationDTO> update(@PathVariable UUID id, 
                                                  @Valid @RequestBody UpdateConversationDTO updateDTO) {
@@ -299,6 +316,31 @@ public class ConversationController {
         }
     }
     
+    @GetMapping("/{conversationId}/messages/cursor")
+    public ResponseEntity<CursorPageDTO<MessageDTO>> getMessagesCursor(
+            @PathVariable UUID conversationId,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "50") int size) {
+        log.debug("Getting messages for conversation: {} with cursor: {}", conversationId, before);
+        
+        try {
+            UUID currentCompanyId = companyContextUtil.getCurrentCompanyId();
+            
+            // Validate conversation exists and user has access
+            conversationService.findById(conversationId, currentCompanyId);
+        } catch (IllegalArgumentException e) {
+            log.warn("Error getting messages: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+        
+        try {
+            return ResponseEntity.ok(messageService.findTimeline(conversationId, before, size));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid message cursor: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @PostMapping("/{conversationId}/messages")
     public ResponseEntity<MessageDTO> sendMessage(
             @PathVariable UUID conversationId,
@@ -13,6 +13,7 @@ import com.ruby.rubia_server.core.enums.SenderType;
 import com.ruby.rubia_server.core.service.MessagingService;
 import com.ruby.rubia_server.core.service.WebSocketNotificationService;
 import com.ruby.rubia_server.core.entity.MessageResult;
+import com.ruby.rubia_server.core.util.CompanyContextUtil;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -44,6 +45,7 @@ public class MessageController {
     private final CustomerService customerService;
     private final MessagingService messagingService;
     private final WebSocketNotificationService webSocketNotificationService;
+    private final CompanyContextUtil companyContextUtil;
     
     @PostMapping
     public ResponseEntity<MessageDTO> create(@Valid @RequestBody CreateMessageDTO createDTO) {
@@ -103,10 +105,13 @@ public class MessageController {
     }
     
     @GetMapping("/search")
-    public ResponseEntity<List<MessageDTO>> searchInContent(@RequestParam String searchTerm) {
+    public ResponseEntity<Page<MessageDTO>> searchInContent(
+            @RequestParam String searchTerm,
+            @PageableDefault(size = 20) Pageable pageable) {
         log.debug("Searching messages by content: {}", searchTerm);
         
-        List<MessageDTO> messages = messageService.searchInContent(searchTerm);
+        UUID currentCompanyId = companyContextUtil.getCurrentCompanyId();
+        Page<MessageDTO> messages = messageService.searchInContent(currentCompanyId, searchTerm, pageable);
         return ResponseEntity.ok(messages);
     }
     
@@ -116,7 +121,8 @@ public class MessageController {
             @RequestParam String searchTerm) {
         log.debug("Searching messages in conversation: {} with term: {}", conversationId, searchTerm);
         
-        List<MessageDTO> messages = messageService.searchInConversation(conversationId, searchTerm);
+        UUID currentCompanyId = companyContextUtil.getCurrentCompanyId();
+        List<MessageDTO> messages = messageService.searchInConversation(currentCompanyId, conversationId, searchTerm);
         return ResponseEntity.ok(messages);
     }
     
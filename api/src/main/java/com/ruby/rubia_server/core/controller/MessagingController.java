@@ -1,6 +1,7 @@
 package com.ruby.rubia_server.core.controller;
 
 import com.ruby.rubia_server.core.service.MessagingService;
+import com.ruby.rubia_server.core.service.WebhookInboxService;
 import com.ruby.rubia_server.core.service.ZApiConnectionMonitorService;
 import com.ruby.rubia_server.core.entity.MessageResult;
 import com.ruby.rubia_server.core.entity.IncomingMessage;
@@ -25,6 +26,9 @@ public class MessagingController {
     @Autowired
     private ZApiConnectionMonitorService connectionMonitorService;
     
+    @Autowired
+    private WebhookInboxService webhookInboxService;
+    
     @PostMapping("/send")
     public ResponseEntity<MessageResult> sendMessage(@RequestBody Map<String, String> request) {
         String to = request.get("to");
@@ -151,9 +155,11 @@ public class MessagingController {
                 return ResponseEntity.ok("Webhook ignored - not a message");
             }
             
-            // Process the message
-            messagingService.processIncomingMessage(message);
-            log.info("Z-API webhook processed successfully");
+            // Grava na caixa de entrada e responde; o processamento segue nos workers por chat
+            if (!webhookInboxService.append("z-api", message, payload)) {
+                return ResponseEntity.ok("Duplicate ignored");
+            }
+            log.debug("Z-API webhook queued: {}", message.getMessageId());
             return ResponseEntity.ok("OK");
             
         } catch (Exception e) {
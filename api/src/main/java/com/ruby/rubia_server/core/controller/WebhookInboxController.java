@@ -0,0 +1,36 @@
+package com.ruby.rubia_server.core.controller;
+
+import com.ruby.rubia_server.core.enums.WebhookInboxStatus;
+import com.ruby.rubia_server.core.service.WebhookInboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/webhook-inbox")
+@RequiredArgsConstructor
+@Slf4j
+@PreAuthorize("hasRole('ADMIN')")
+public class WebhookInboxController {
+
+    private final WebhookInboxService webhookInboxService;
+
+    /**
+     * Reprocessa webhooks gravados na caixa de entrada (por padrão, os que falharam)
+     */
+    @PostMapping("/replay")
+    public ResponseEntity<Map<String, Object>> replay(
+            @RequestParam(defaultValue = "FAILED") List<WebhookInboxStatus> status,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+
+        int requeued = webhookInboxService.replay(status, since);
+        return ResponseEntity.ok(Map.of("requeued", requeued, "statuses", status, "since", since));
+    }
+}
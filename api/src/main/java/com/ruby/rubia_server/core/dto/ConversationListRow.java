@@ -0,0 +1,64 @@
+package com.ruby.rubia_server.core.dto;
+
+import com.ruby.rubia_server.core.enums.Channel;
+import com.ruby.rubia_server.core.enums.ConversationStatus;
+import com.ruby.rubia_server.core.enums.MediaType;
+import com.ruby.rubia_server.core.enums.MessageStatus;
+import com.ruby.rubia_server.core.enums.SenderType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Linha da listagem de conversas (inbox), montada por uma única consulta em
+ * {@link com.ruby.rubia_server.core.repository.ConversationRepository}: conversa, primeiro
+ * participante cliente, usuário atribuído, campanha e última mensagem com a mídia.
+ */
+@Getter
+@AllArgsConstructor
+public class ConversationListRow {
+
+    private UUID id;
+    private UUID companyId;
+    private UUID customerId;
+    private String customerName;
+    private String customerPhone;
+    private LocalDate customerBirthDate;
+    private String customerBloodType;
+    private LocalDate customerLastDonationDate;
+    private Integer customerHeight;
+    private Double customerWeight;
+    private UUID assignedUserId;
+    private String assignedUserName;
+    private UUID campaignId;
+    private String campaignName;
+    private ConversationStatus status;
+    private Channel channel;
+    private Integer priority;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private String chatLid;
+    private Boolean aiAutoResponseEnabled;
+    private Integer aiMessagesUsed;
+    private LocalDateTime aiLimitReachedAt;
+
+    private UUID lastMessageId;
+    private String lastMessageContent;
+    private SenderType lastMessageSenderType;
+    private UUID lastMessageSenderId;
+    private MediaType lastMessageMediaType;
+    private String lastMessageMediaUrl;
+    private String lastMessageExternalId;
+    private Boolean lastMessageIsAiGenerated;
+    private Double lastMessageAiConfidence;
+    private MessageStatus lastMessageStatus;
+    private LocalDateTime lastMessageCreatedAt;
+    private LocalDateTime lastMessageDeliveredAt;
+    private LocalDateTime lastMessageReadAt;
+
+    /** Última mensagem ou, sem mensagens, criação da conversa; chave do cursor da inbox */
+    private LocalDateTime activityAt;
+}
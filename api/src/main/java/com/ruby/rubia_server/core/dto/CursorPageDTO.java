@@ -0,0 +1,22 @@
+package com.ruby.rubia_server.core.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+
+    private List<T> items;
+
+    /** Valor para o parâmetro {@code before} da próxima página; nulo quando não há mais itens */
+    private String nextCursor;
+
+    private boolean hasMore;
+}
@@ -0,0 +1,32 @@
+package com.ruby.rubia_server.core.dto;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.UUID;
+
+/**
+ * Posição na timeline para paginação por cursor (keyset), no formato {@code <createdAt>,<id>},
+ * ex.: {@code 2025-03-10T14:22:05.123456,8f2b...}. A próxima página traz os itens estritamente
+ * anteriores a (createdAt, id), o que mantém o custo constante em qualquer profundidade.
+ */
+public record TimelineCursor(LocalDateTime createdAt, UUID id) {
+
+    public static TimelineCursor parse(String value) {
+        int separator = value != null ? value.lastIndexOf(',') : -1;
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Cursor inválido: " + value);
+        }
+        try {
+            return new TimelineCursor(
+                    LocalDateTime.parse(value.substring(0, separator).trim()),
+                    UUID.fromString(value.substring(separator + 1).trim()));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + value, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return createdAt + "," + id;
+    }
+}
@@ -86,4 +86,8 @@ public class Conversation {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+
+    // Mantida pelo banco (triggers em conversation_last_message); chave do cursor da inbox
+    @Column(name = "last_activity_at", insertable = false, updatable = false)
+    private LocalDateTime lastActivityAt;
 }
\ No newline at end of file
@@ -56,6 +56,13 @@ public class FAQ implements BaseEntity {
     @Builder.Default
     private Double successRate = 0.0;
 
+    // Embedding float32 little-endian da pergunta (FloatVectors), calculado na escrita
+    @Column(name = "question_embedding")
+    private byte[] questionEmbedding;
+
+    @Column(name = "embedding_model", length = 100)
+    private String embeddingModel;
+
     @Column(name = "is_active", nullable = false)
     @Builder.Default
     private Boolean isActive = true;
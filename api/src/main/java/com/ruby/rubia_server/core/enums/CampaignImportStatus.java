@@ -0,0 +1,8 @@
+package com.ruby.rubia_server.core.enums;
+
+public enum CampaignImportStatus {
+    QUEUED,     // Arquivo recebido, aguardando processamento
+    RUNNING,    // Lendo a planilha e gravando contatos em lotes
+    COMPLETED,  // Importação concluída e campanha ativada
+    FAILED      // Importação interrompida; lotes já gravados permanecem na campanha em rascunho
+}
@@ -0,0 +1,8 @@
+package com.ruby.rubia_server.core.enums;
+
+public enum WebhookInboxStatus {
+    PENDING,     // Gravado pelo webhook (ou devolvido para nova tentativa), aguardando worker
+    PROCESSING,  // Reservado por um worker até locked_until
+    DONE,        // Processado (ou descartado como duplicado)
+    FAILED       // Esgotou as tentativas; volta à fila apenas por replay
+}
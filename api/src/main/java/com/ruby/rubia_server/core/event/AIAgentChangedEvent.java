@@ -0,0 +1,18 @@
+package com.ruby.rubia_server.core.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AIAgentChangedEvent {
+
+    private UUID agentId;
+    private UUID companyId;
+}
@@ -1,13 +1,15 @@
 package com.ruby.rubia_server.core.event;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruby.rubia_server.core.service.CampaignQueueItemCodec;
 import com.ruby.rubia_server.core.service.CampaignQueueProcessor;
+import com.ruby.rubia_server.core.service.CampaignQueueStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * Event handler for campaign retry events
  * Adds items back to the queue for retry processing
@@ -17,10 +19,8 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class CampaignRetryEventHandler {
 
-    private final RedisTemplate<String, Object> redisTemplate;
-    private final ObjectMapper objectMapper;
-    
-    private static final String QUEUE_KEY = "rubia:campaign:queue";
+    private final CampaignQueueStore campaignQueueStore;
+    private final CampaignQueueItemCodec queueItemCodec;
 
     @EventListener
     public void handleCampaignRetryEvent(CampaignRetryEvent event) {
@@ -36,9 +36,8 @@ public class CampaignRetryEventHandler {
             );
             
             // Add to Redis queue with immediate processing timestamp
-            String itemJson = objectMapper.writeValueAsString(retryItem);
-            long currentTimestamp = System.currentTimeMillis();
-            redisTemplate.opsForZSet().add(QUEUE_KEY, itemJson, currentTimestamp);
+            byte[] payload = queueItemCodec.encode(retryItem);
+            campaignQueueStore.enqueueAll(List.of(payload), System.currentTimeMillis(), 0);
             
             log.info("✅ Retry item added to queue: contactId={}", event.getContactId());
             
@@ -46,4 +45,4 @@ public class CampaignRetryEventHandler {
             log.error("❌ Failed to handle campaign retry event: {}", e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+}
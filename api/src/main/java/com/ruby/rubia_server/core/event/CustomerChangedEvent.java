@@ -0,0 +1,24 @@
+package com.ruby.rubia_server.core.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerChangedEvent {
+
+    private UUID customerId;
+    private UUID companyId;
+
+    /**
+     * Telefones normalizados alterados em lote (importação de campanha), sem um customerId único
+     */
+    private Set<String> phones;
+}
@@ -0,0 +1,47 @@
+package com.ruby.rubia_server.core.exception;
+
+/**
+ * Exception thrown by the AI gateway when a model call is refused or does not complete in time.
+ * Callers with a non-AI answer available (FAQ) should fall back to it instead of failing.
+ */
+public class AIGatewayException extends RuntimeException {
+
+    public enum Reason {
+        /** Fila do modelo cheia */
+        REJECTED,
+        /** Circuito do modelo aberto após falhas seguidas */
+        CIRCUIT_OPEN,
+        /** Prazo da requisição esgotado */
+        TIMEOUT,
+        /** Erro retornado pelo provedor */
+        FAILED
+    }
+
+    private final Reason reason;
+    private final String model;
+
+    public AIGatewayException(Reason reason, String model, String message) {
+        this(reason, model, message, null);
+    }
+
+    public AIGatewayException(Reason reason, String model, String message, Throwable cause) {
+        super(message, cause);
+        this.reason = reason;
+        this.model = model;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    /**
+     * Recusada sem chegar ao provedor: vale tentar de novo em alguns segundos
+     */
+    public boolean isRetryable() {
+        return reason == Reason.REJECTED || reason == Reason.CIRCUIT_OPEN || reason == Reason.TIMEOUT;
+    }
+}
@@ -0,0 +1,36 @@
+package com.ruby.rubia_server.core.exception;
+
+/**
+ * Exception thrown when a campaign send is postponed because the WhatsApp instance
+ * reached its rate limit. The queue item must be rescheduled, not dead-lettered.
+ */
+public class CampaignSendDeferredException extends RuntimeException {
+    
+    private final long retryAfterMs;
+    
+    public CampaignSendDeferredException(long retryAfterMs, String message) {
+        super(message);
+        this.retryAfterMs = retryAfterMs;
+    }
+    
+    public long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+    
+    /**
+     * Procura uma deferral na cadeia de causas (CompletionException, ExecutionException...)
+     */
+    public static CampaignSendDeferredException findIn(Throwable throwable) {
+        Throwable current = throwable;
+        while (current != null) {
+            if (current instanceof CampaignSendDeferredException deferred) {
+                return deferred;
+            }
+            if (current.getCause() == current) {
+                break;
+            }
+            current = current.getCause();
+        }
+        return null;
+    }
+}
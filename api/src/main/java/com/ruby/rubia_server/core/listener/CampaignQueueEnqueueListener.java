@@ -0,0 +1,41 @@
+package com.ruby.rubia_server.core.listener;
+
+import com.ruby.rubia_server.core.service.CampaignQueueProcessor;
+import com.ruby.rubia_server.core.service.CampaignQueueStore;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Acorda o CampaignQueueProcessor deste nó quando qualquer nó enfileira itens de campanha
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CampaignQueueEnqueueListener implements MessageListener {
+
+    private final RedisMessageListenerContainer listenerContainer;
+    private final CampaignQueueProcessor campaignQueueProcessor;
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CampaignQueueStore.ENQUEUE_CHANNEL));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            campaignQueueProcessor.onItemsEnqueued(Long.parseLong(body.trim()));
+        } catch (NumberFormatException e) {
+            log.warn("Aviso de enfileiramento inválido: {}", body);
+        }
+    }
+}
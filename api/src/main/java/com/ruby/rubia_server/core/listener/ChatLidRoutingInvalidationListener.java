@@ -0,0 +1,40 @@
+package com.ruby.rubia_server.core.listener;
+
+import com.ruby.rubia_server.core.service.ChatLidRoutingCache;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Aplica neste nó as invalidações do cache de roteamento chatLid publicadas pelos demais nós
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChatLidRoutingInvalidationListener implements MessageListener {
+
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ChatLidRoutingCache routingCache;
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(ChatLidRoutingCache.INVALIDATE_CHANNEL));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            routingCache.applyRemoteInvalidation(body);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalidação de roteamento inválida: {}", body);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.ruby.rubia_server.core.listener;
+
+import com.ruby.rubia_server.core.service.FAQMatchIndex;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Aplica neste nó as invalidações do índice de FAQ publicadas pelos demais nós
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FAQIndexInvalidationListener implements MessageListener {
+
+    private final RedisMessageListenerContainer listenerContainer;
+    private final FAQMatchIndex faqMatchIndex;
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(FAQMatchIndex.INVALIDATE_CHANNEL));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            faqMatchIndex.applyRemoteInvalidation(body);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalidação de índice de FAQ inválida: {}", body);
+        }
+    }
+}
@@ -6,21 +6,19 @@ import com.ruby.rubia_server.core.entity.Message;
 import com.ruby.rubia_server.core.entity.Conversation;
 import com.ruby.rubia_server.core.enums.SenderType;
 import com.ruby.rubia_server.core.event.MessageCreatedEvent;
+import com.ruby.rubia_server.core.exception.AIGatewayException;
 import com.ruby.rubia_server.core.repository.ConversationLastMessageRepository;
 import com.ruby.rubia_server.core.repository.MessageRepository;
 import com.ruby.rubia_server.core.service.AIAutoMessageService;
+import com.ruby.rubia_server.core.service.AIDraftDebounceService;
 import com.ruby.rubia_server.core.service.CqrsMetricsService;
-import com.ruby.rubia_server.core.service.OpenAIService;
+import com.ruby.rubia_server.core.service.AIGateway;
 import com.ruby.rubia_server.core.service.ConversationService;
 import com.ruby.rubia_server.core.service.AIAgentService;
 import com.ruby.rubia_server.core.entity.AIAgent;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.data.redis.core.RedisTemplate;
-import java.util.concurrent.TimeUnit;
-import java.time.LocalDateTime;
-import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.retry.annotation.Backoff;
@@ -48,15 +46,12 @@ public class UnifiedMessageListener {
     private final MessageRepository messageRepository;
     private final ConversationLastMessageRepository conversationLastMessageRepository;
     private final CqrsMetricsService metricsService;
-    private final OpenAIService openAIService;
+    private final AIGateway aiGateway;
+    @Qualifier("mediaRestTemplate")
     private final RestTemplate restTemplate;
-    private final RedisTemplate<String, String> redisTemplate;
     private final ConversationService conversationService;
     private final AIAgentService aiAgentService;
-    
-    // Configurações do debounce
-    private static final long DEBOUNCE_DELAY_SECONDS = 4; // Aguarda 3 segundos
-    private static final String DEBOUNCE_KEY_PREFIX = "debounce:conversation:";
+    private final AIDraftDebounceService aiDraftDebounceService;
     
     /**
      * Processa MessageCreatedEvent de forma unificada:
@@ -180,56 +175,13 @@ public class UnifiedMessageListener {
             }
             
             // DEBOUNCE: Agendar processamento com delay para agrupar mensagens sequenciais
-            scheduleDebounceProcessing(message);
+            aiDraftDebounceService.schedule(conversation.getId(), conversation.getCompany().getId());
             
         } catch (Exception e) {
             log.error("Error processing draft with debounce for message: {}", event.getMessageId(), e);
         }
     }
     
-    /**
-     * Agenda processamento com debounce para agrupar mensagens do mesmo usuário
-     */
-    private void scheduleDebounceProcessing(Message message) {
-        UUID conversationId = message.getConversation().getId();
-        UUID companyId = message.getConversation().getCompany().getId(); // Acessar dentro da sessão ativa
-        String debounceKey = DEBOUNCE_KEY_PREFIX + conversationId;
-        
-        log.debug("⏰ Scheduling debounce processing for conversation: {} with {}s delay", 
-                conversationId, DEBOUNCE_DELAY_SECONDS);
-        
-        // Cancelar processamento anterior se existir e agendar novo
-        String previousStatus = redisTemplate.opsForValue().getAndSet(debounceKey, "pending");
-        
-        // Definir TTL maior que o delay para evitar expiração automática
-        redisTemplate.expire(debounceKey, DEBOUNCE_DELAY_SECONDS + 5, TimeUnit.SECONDS);
-        
-        if (previousStatus != null) {
-            log.debug("⏰ Previous debounce found for conversation: {}, extending delay", conversationId);
-        }
-        
-        // Agendar processamento após o delay
-        new Thread(() -> {
-            try {
-                Thread.sleep(DEBOUNCE_DELAY_SECONDS * 1000);
-                
-                // Tentar remover a chave atomicamente - só processa se conseguir remover
-                String removedValue = redisTemplate.opsForValue().getAndDelete(debounceKey);
-                if ("pending".equals(removedValue)) {
-                    // Conseguiu remover a chave = não houve nova mensagem
-                    processGroupedMessages(conversationId, companyId);
-                } else {
-                    // Chave já foi removida/alterada = houve nova mensagem ou expirou
-                    log.debug("⏰ Debounce cancelled for conversation: {} (key was already removed/changed)", conversationId);
-                }
-                
-            } catch (InterruptedException e) {
-                log.debug("Debounce thread interrupted for conversation: {}", conversationId);
-                Thread.currentThread().interrupt();
-            }
-        }).start();
-    }
-
     /**
      * Incrementa contador de mensagens AI usadas para uma conversa
      */
@@ -242,55 +194,6 @@ public class UnifiedMessageListener {
         }
     }
     
-    /**
-     * Processa mensagens agrupadas da conversa após o debounce
-     */
-    private void processGroupedMessages(UUID conversationId, UUID companyId) {
-        try {
-            log.info("🔗 Processing grouped messages for conversation: {}", conversationId);
-            
-            // Buscar últimas mensagens do cliente (últimos 5 minutos)
-            LocalDateTime fiveMinutesAgo = LocalDateTime.now().minusMinutes(5);
-            List<Message> recentMessages = messageRepository
-                .findRecentCustomerMessages(conversationId, fiveMinutesAgo);
-            
-            if (recentMessages.isEmpty()) {
-                log.debug("No recent customer messages found for conversation: {}", conversationId);
-                return;
-            }
-            
-            // Combinar conteúdo das mensagens em ordem cronológica
-            String combinedContent = recentMessages.stream()
-                .filter(msg -> msg.getContent() != null && !msg.getContent().trim().isEmpty())
-                .map(Message::getContent)
-                .collect(Collectors.joining(" "));
-            
-            if (combinedContent.trim().isEmpty()) {
-                log.debug("No text content found in recent messages for conversation: {}", conversationId);
-                return;
-            }
-            
-            log.info("📝 Combined message content ({} messages): '{}'", 
-                    recentMessages.size(), combinedContent);
-            
-            // Gerar resposta para o conteúdo combinado
-            MessageDTO draft = aiAutoMessageService.generateDraftResponse(conversationId, combinedContent);
-            
-            if (draft != null) {
-                log.info("✅ Successfully generated grouped response: {} for conversation: {}", 
-                        draft.getId(), conversationId);
-                
-                // Incrementar contador de mensagens AI usadas (usando companyId passado como parâmetro)
-                incrementAiUsageCounter(conversationId, companyId, "grouped text response");
-            } else {
-                log.debug("No draft generated for grouped messages in conversation: {}", conversationId);
-            }
-            
-        } catch (Exception e) {
-            log.error("Error processing grouped messages for conversation: {}", conversationId, e);
-        }
-    }
-
     /**
      * Detecta se a mensagem contém áudio
      */
@@ -327,7 +230,7 @@ public class UnifiedMessageListener {
             }
             
             // 2. Transcrever com OpenAI Whisper
-            String transcription = openAIService.transcribeAudio(audioData, "pt");
+            String transcription = aiGateway.transcribe(companyId, audioData, "pt");
             if (transcription == null || transcription.trim().isEmpty()) {
                 log.warn("Failed to transcribe audio for message: {}", audioMessage.getId());
                 return;
@@ -353,6 +256,9 @@ public class UnifiedMessageListener {
                 log.debug("No blood center response generated from audio for message: {}", audioMessage.getId());
             }
             
+        } catch (AIGatewayException e) {
+            log.warn("Audio transcription refused by AI gateway ({}) for message {}: {}", 
+                e.getReason(), audioMessage.getId(), e.getMessage());
         } catch (Exception e) {
             log.error("Error processing audio for blood center: {}", e.getMessage(), e);
         }
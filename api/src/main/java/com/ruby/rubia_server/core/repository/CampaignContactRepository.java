@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,6 +19,8 @@ public interface CampaignContactRepository extends JpaRepository<CampaignContact
     
     List<CampaignContact> findByCustomerId(UUID customerId);
     
+    List<CampaignContact> findByCustomerIdIn(Collection<UUID> customerIds);
+    
     List<CampaignContact> findByStatus(CampaignContactStatus status);
     
     List<CampaignContact> findByCampaignIdAndStatus(UUID campaignId, CampaignContactStatus status);
@@ -2,8 +2,11 @@ package com.ruby.rubia_server.core.repository;
 
 import com.ruby.rubia_server.core.base.BaseCompanyEntityRepository;
 import com.ruby.rubia_server.core.entity.ConversationParticipant;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,6 +19,11 @@ public interface ConversationParticipantRepository extends BaseCompanyEntityRepo
     
     List<ConversationParticipant> findByCustomerId(UUID customerId);
     
+    @Query("SELECT p FROM ConversationParticipant p JOIN FETCH p.conversation c " +
+           "WHERE c.campaign.id = :campaignId AND p.customer.id IN :customerIds")
+    List<ConversationParticipant> findCampaignParticipantsByCustomerIds(@Param("campaignId") UUID campaignId,
+                                                                        @Param("customerIds") Collection<UUID> customerIds);
+    
     List<ConversationParticipant> findByUserId(UUID userId);
     
     List<ConversationParticipant> findByAiAgentId(UUID aiAgentId);
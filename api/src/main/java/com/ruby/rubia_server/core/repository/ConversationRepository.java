@@ -1,5 +1,6 @@
 package com.ruby.rubia_server.core.repository;
 
+import com.ruby.rubia_server.core.dto.ConversationListRow;
 import com.ruby.rubia_server.core.entity.Conversation;
 import com.ruby.rubia_server.core.enums.Channel;
 import com.ruby.rubia_server.core.enums.ConversationStatus;
@@ -17,6 +18,32 @@ import java.util.UUID;
 
 @Repository
 public interface ConversationRepository extends JpaRepository<Conversation, UUID> {
+
+    /**
+     * Projeção da inbox: uma linha por conversa com o primeiro participante cliente, usuário atribuído,
+     * campanha e última mensagem (conversation_last_message, ou a mensagem mais recente quando a
+     * conversa ainda não tem registro lá). Não carrega entidades nem coleções lazy.
+     */
+    String INBOX_ROW_QUERY = "SELECT new com.ruby.rubia_server.core.dto.ConversationListRow(" +
+           "c.id, c.company.id, cust.id, cust.name, cust.phone, cust.birthDate, cust.bloodType, " +
+           "cust.lastDonationDate, cust.height, cust.weight, u.id, u.name, camp.id, camp.name, " +
+           "c.status, c.channel, c.priority, c.createdAt, c.updatedAt, c.chatLid, " +
+           "c.aiAutoResponseEnabled, c.aiMessagesUsed, c.aiLimitReachedAt, " +
+           "m.id, m.content, m.senderType, m.senderId, media.mediaType, media.fileUrl, m.externalMessageId, " +
+           "m.isAiGenerated, m.aiConfidence, m.status, m.createdAt, m.deliveredAt, m.readAt, " +
+           "c.lastActivityAt) " +
+           "FROM Conversation c " +
+           "LEFT JOIN c.assignedUser u " +
+           "LEFT JOIN c.campaign camp " +
+           "LEFT JOIN ConversationParticipant p ON p.id = (" +
+           "    SELECT p2.id FROM ConversationParticipant p2 " +
+           "    WHERE p2.conversation.id = c.id AND p2.customer IS NOT NULL " +
+           "    ORDER BY p2.createdAt, p2.id LIMIT 1) " +
+           "LEFT JOIN p.customer cust " +
+           "LEFT JOIN ConversationLastMessage clm ON clm.conversationId = c.id " +
+           "LEFT JOIN Message m ON m.id = COALESCE(clm.lastMessageId, (" +
+           "    SELECT m2.id FROM Message m2 WHERE m2.conversation.id = c.id ORDER BY m2.createdAt DESC LIMIT 1)) " +
+           "LEFT JOIN m.media media ";
     
     
     
@@ -32,12 +59,6 @@ public interface ConversationRepository extends JpaRepository<Conversation, UUID
     
     List<Conversation> findByAssignedUserIdAndCompanyId(UUID assignedUserId, UUID companyId);
     
-    @Query("SELECT c FROM Conversation c LEFT JOIN FETCH c.participants p LEFT JOIN FETCH p.customer WHERE c.status = :status AND c.company.id = :companyId ORDER BY c.priority DESC, c.updatedAt DESC")
-    List<Conversation> findByStatusAndCompanyOrderedByPriorityAndUpdatedAt(@Param("status") ConversationStatus status, @Param("companyId") UUID companyId);
-    
-    @Query("SELECT c FROM Conversation c LEFT JOIN FETCH c.participants p LEFT JOIN FETCH p.customer WHERE c.status = :status AND c.company.id = :companyId ORDER BY c.priority DESC, c.updatedAt DESC")
-    Page<Conversation> findByStatusAndCompanyOrderedByPriorityAndUpdatedAt(@Param("status") ConversationStatus status, @Param("companyId") UUID companyId, Pageable pageable);
-    
     @Query("SELECT c FROM Conversation c LEFT JOIN FETCH c.participants p LEFT JOIN FETCH p.customer WHERE c.id IN :ids")
     List<Conversation> findByIdsWithParticipants(@Param("ids") List<UUID> ids);
     
@@ -64,37 +85,50 @@ public interface ConversationRepository extends JpaRepository<Conversation, UUID
     @Query("SELECT c FROM Conversation c LEFT JOIN FETCH c.participants p LEFT JOIN FETCH p.customer WHERE c.chatLid = :chatLid")
     Optional<Conversation> findByChatLidWithParticipants(@Param("chatLid") String chatLid);
     
-    // CQRS optimized query for conversations ordered by last message date
-    @Query("SELECT c FROM Conversation c " +
-           "LEFT JOIN FETCH c.participants p " +
-           "LEFT JOIN FETCH p.customer " +
-           "LEFT JOIN ConversationLastMessage clm ON c.id = clm.conversationId " +
-           "WHERE c.company.id = :companyId " +
-           "ORDER BY clm.lastMessageDate DESC NULLS LAST, c.createdAt DESC")
-    List<Conversation> findConversationsOrderByLastMessageDateOptimized(@Param("companyId") UUID companyId);
-    
-    @Query("SELECT c FROM Conversation c " +
-           "LEFT JOIN FETCH c.participants p " +
-           "LEFT JOIN FETCH p.customer " +
-           "LEFT JOIN ConversationLastMessage clm ON c.id = clm.conversationId " +
+
+    // Inbox read model (ConversationListRow), sem N+1
+    @Query(value = INBOX_ROW_QUERY +
            "WHERE c.company.id = :companyId " +
-           "ORDER BY clm.lastMessageDate DESC NULLS LAST, c.createdAt DESC")
-    Page<Conversation> findConversationsOrderByLastMessageDateOptimized(@Param("companyId") UUID companyId, Pageable pageable);
-    
-    // CQRS optimized query with status filter
-    @Query("SELECT c FROM Conversation c " +
-           "LEFT JOIN FETCH c.participants p " +
-           "LEFT JOIN FETCH p.customer " +
-           "LEFT JOIN ConversationLastMessage clm ON c.id = clm.conversationId " +
+           "ORDER BY clm.lastMessageDate DESC NULLS LAST, c.createdAt DESC",
+           countQuery = "SELECT COUNT(c) FROM Conversation c WHERE c.company.id = :companyId")
+    Page<ConversationListRow> findInboxRowsOrderByLastMessageDate(@Param("companyId") UUID companyId, Pageable pageable);
+
+    @Query(value = INBOX_ROW_QUERY +
            "WHERE c.company.id = :companyId AND c.status = :status " +
-           "ORDER BY clm.lastMessageDate DESC NULLS LAST, c.createdAt DESC")
-    List<Conversation> findConversationsOrderByLastMessageDateOptimizedByStatus(@Param("companyId") UUID companyId, @Param("status") ConversationStatus status);
-    
-    @Query("SELECT c FROM Conversation c " +
-           "LEFT JOIN FETCH c.participants p " +
-           "LEFT JOIN FETCH p.customer " +
-           "LEFT JOIN ConversationLastMessage clm ON c.id = clm.conversationId " +
+           "ORDER BY clm.lastMessageDate DESC NULLS LAST, c.createdAt DESC",
+           countQuery = "SELECT COUNT(c) FROM Conversation c WHERE c.company.id = :companyId AND c.status = :status")
+    Page<ConversationListRow> findInboxRowsOrderByLastMessageDateByStatus(@Param("companyId") UUID companyId, @Param("status") ConversationStatus status, Pageable pageable);
+
+    @Query(value = INBOX_ROW_QUERY +
            "WHERE c.company.id = :companyId AND c.status = :status " +
-           "ORDER BY clm.lastMessageDate DESC NULLS LAST, c.createdAt DESC")
-    Page<Conversation> findConversationsOrderByLastMessageDateOptimizedByStatus(@Param("companyId") UUID companyId, @Param("status") ConversationStatus status, Pageable pageable);
-}
\ No newline at end of file
+           "ORDER BY c.priority DESC, c.updatedAt DESC",
+           countQuery = "SELECT COUNT(c) FROM Conversation c WHERE c.company.id = :companyId AND c.status = :status")
+    Page<ConversationListRow> findInboxRowsByStatusOrderByPriority(@Param("companyId") UUID companyId, @Param("status") ConversationStatus status, Pageable pageable);
+
+    // Inbox por cursor: ordena por conversations.last_activity_at (última mensagem, ou criação da conversa) e id;
+    // atendida por idx_conversations_company_activity / idx_conversations_company_status_activity (V84)
+    String INBOX_ACTIVITY_BEFORE = "AND (c.lastActivityAt < :activityAt " +
+           "OR (c.lastActivityAt = :activityAt AND c.id < :id)) ";
+    String INBOX_ACTIVITY_ORDER = "ORDER BY c.lastActivityAt DESC, c.id DESC";
+
+    @Query(INBOX_ROW_QUERY + "WHERE c.company.id = :companyId " + INBOX_ACTIVITY_ORDER)
+    List<ConversationListRow> findInboxTimeline(@Param("companyId") UUID companyId, Pageable pageable);
+
+    @Query(INBOX_ROW_QUERY + "WHERE c.company.id = :companyId " + INBOX_ACTIVITY_BEFORE + INBOX_ACTIVITY_ORDER)
+    List<ConversationListRow> findInboxTimelineBefore(@Param("companyId") UUID companyId,
+                                                      @Param("activityAt") LocalDateTime activityAt,
+                                                      @Param("id") UUID id,
+                                                      Pageable pageable);
+
+    @Query(INBOX_ROW_QUERY + "WHERE c.company.id = :companyId AND c.status = :status " + INBOX_ACTIVITY_ORDER)
+    List<ConversationListRow> findInboxTimelineByStatus(@Param("companyId") UUID companyId,
+                                                        @Param("status") ConversationStatus status,
+                                                        Pageable pageable);
+
+    @Query(INBOX_ROW_QUERY + "WHERE c.company.id = :companyId AND c.status = :status " + INBOX_ACTIVITY_BEFORE + INBOX_ACTIVITY_ORDER)
+    List<ConversationListRow> findInboxTimelineByStatusBefore(@Param("companyId") UUID companyId,
+                                                              @Param("status") ConversationStatus status,
+                                                              @Param("activityAt") LocalDateTime activityAt,
+                                                              @Param("id") UUID id,
+                                                              Pageable pageable);
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,6 +20,8 @@ public interface CustomerRepository extends JpaRepository<Customer, UUID> {
     // Company-scoped methods
     Optional<Customer> findByPhoneAndCompanyId(String phone, UUID companyId);
     
+    List<Customer> findByCompanyIdAndPhoneIn(UUID companyId, Collection<String> phones);
+    
     Optional<Customer> findByWhatsappIdAndCompanyId(String whatsappId, UUID companyId);
     
     List<Customer> findByCompanyId(UUID companyId);
@@ -2,6 +2,7 @@ package com.ruby.rubia_server.core.repository;
 
 import com.ruby.rubia_server.core.base.BaseCompanyEntityRepository;
 import com.ruby.rubia_server.core.entity.FAQ;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -114,6 +115,12 @@ public interface FAQRepository extends BaseCompanyEntityRepository<FAQ> {
     @Query("SELECT f FROM FAQ f WHERE f.deletedAt IS NOT NULL")
     List<FAQ> findAllDeleted();
     
+    // FAQs sem embedding do modelo atual (novas antes da busca semântica, falhas ou troca de modelo)
+    @Query("SELECT f FROM FAQ f WHERE f.deletedAt IS NULL " +
+           "AND (f.questionEmbedding IS NULL OR f.embeddingModel IS NULL OR f.embeddingModel <> :model) " +
+           "ORDER BY f.createdAt")
+    List<FAQ> findPendingEmbedding(@Param("model") String model, Pageable pageable);
+    
     // Check if FAQ with same question exists
     @Query("SELECT CASE WHEN COUNT(f) > 0 THEN true ELSE false END FROM FAQ f " +
            "WHERE f.deletedAt IS NULL AND LOWER(f.question) = LOWER(:question) AND f.company.id = :companyId")
@@ -11,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -27,6 +28,18 @@ public interface MessageRepository extends JpaRepository<Message, UUID> {
     
     @Query("SELECT m FROM Message m WHERE m.conversation.id = :conversationId ORDER BY m.createdAt DESC")
     Page<Message> findByConversationIdOrderedByCreatedAtDesc(@Param("conversationId") UUID conversationId, Pageable pageable);
+
+    // Timeline por cursor (keyset) sobre idx_messages_conversation_created_at_id; o Pageable só limita as linhas
+    @Query("SELECT m FROM Message m LEFT JOIN FETCH m.media WHERE m.conversation.id = :conversationId ORDER BY m.createdAt DESC, m.id DESC")
+    List<Message> findTimeline(@Param("conversationId") UUID conversationId, Pageable pageable);
+
+    @Query("SELECT m FROM Message m LEFT JOIN FETCH m.media WHERE m.conversation.id = :conversationId " +
+           "AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<Message> findTimelineBefore(@Param("conversationId") UUID conversationId,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") UUID id,
+                                     Pageable pageable);
     
     Optional<Message> findByExternalMessageId(String externalMessageId);
     
@@ -48,12 +61,27 @@ public interface MessageRepository extends JpaRepository<Message, UUID> {
     @Query("SELECT m FROM Message m WHERE m.isAiGenerated = true AND m.conversation.id = :conversationId")
     List<Message> findAiGeneratedMessagesByConversation(@Param("conversationId") UUID conversationId);
     
-    @Query("SELECT m FROM Message m WHERE LOWER(m.content) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-    List<Message> searchByContent(@Param("searchTerm") String searchTerm);
-    
-    @Query("SELECT m FROM Message m WHERE m.conversation.id = :conversationId AND " +
-           "LOWER(m.content) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-    List<Message> searchByContentInConversation(@Param("conversationId") UUID conversationId, 
+    // Busca textual sobre messages.content_tsv (GIN, V80_2); o Pageable não deve trazer Sort, a ordem é por relevância
+    @Query(value = "SELECT m.* FROM messages m JOIN conversations c ON c.id = m.conversation_id " +
+                   "WHERE c.company_id = :companyId " +
+                   "AND m.content_tsv @@ websearch_to_tsquery('portuguese', :searchTerm) " +
+                   "ORDER BY ts_rank(m.content_tsv, websearch_to_tsquery('portuguese', :searchTerm)) DESC, " +
+                   "m.created_at DESC, m.id DESC",
+           countQuery = "SELECT COUNT(*) FROM messages m JOIN conversations c ON c.id = m.conversation_id " +
+                        "WHERE c.company_id = :companyId " +
+                        "AND m.content_tsv @@ websearch_to_tsquery('portuguese', :searchTerm)",
+           nativeQuery = true)
+    Page<Message> searchByContent(@Param("companyId") UUID companyId,
+                                  @Param("searchTerm") String searchTerm,
+                                  Pageable pageable);
+    
+    @Query(value = "SELECT m.* FROM messages m JOIN conversations c ON c.id = m.conversation_id " +
+                   "WHERE m.conversation_id = :conversationId AND c.company_id = :companyId " +
+                   "AND m.content_tsv @@ websearch_to_tsquery('portuguese', :searchTerm) " +
+                   "ORDER BY m.created_at ASC",
+           nativeQuery = true)
+    List<Message> searchByContentInConversation(@Param("companyId") UUID companyId,
+                                              @Param("conversationId") UUID conversationId, 
                                               @Param("searchTerm") String searchTerm);
     
     @Query("SELECT m FROM Message m WHERE m.createdAt BETWEEN :startDate AND :endDate")
@@ -77,6 +105,10 @@ public interface MessageRepository extends JpaRepository<Message, UUID> {
     
     boolean existsByConversationIdAndStatus(UUID conversationId, MessageStatus status);
     
+    @Query("SELECT DISTINCT m.conversation.id FROM Message m WHERE m.conversation.id IN :conversationIds AND m.status = :status")
+    List<UUID> findConversationIdsWithStatus(@Param("conversationIds") Collection<UUID> conversationIds,
+                                             @Param("status") MessageStatus status);
+    
     List<Message> findByConversationIdAndStatus(UUID conversationId, MessageStatus status);
     
     Optional<Message> findByCampaignContactIdAndStatus(UUID campaignContactId, MessageStatus status);
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Map;
@@ -62,6 +63,81 @@ public interface UnreadMessageCountRepository extends JpaRepository<UnreadMessag
     @Query("UPDATE UnreadMessageCount u SET u.unreadCount = u.unreadCount + 1, u.lastMessageId = :messageId, u.updatedAt = CURRENT_TIMESTAMP WHERE u.user.id = :userId AND u.conversation.id = :conversationId")
     void incrementUnreadCount(@Param("userId") UUID userId, @Param("conversationId") UUID conversationId, @Param("messageId") UUID messageId);
 
+    /**
+     * Increment (or create) the counter of every user in the company for a new message
+     * in a single statement. Returns one row per user: [user_id, unread_count].
+     */
+    @Query(value = """
+        INSERT INTO unread_message_counts (user_id, conversation_id, company_id, unread_count, last_message_id, created_at, updated_at)
+        SELECT u.id, :conversationId, u.company_id, 1, :messageId, NOW(), NOW()
+        FROM users u
+        WHERE u.company_id = :companyId
+        ON CONFLICT (user_id, conversation_id)
+        DO UPDATE SET
+            unread_count = unread_message_counts.unread_count + 1,
+            last_message_id = EXCLUDED.last_message_id,
+            updated_at = NOW()
+        RETURNING user_id, unread_count
+        """, nativeQuery = true)
+    List<Object[]> incrementUnreadCountsForCompanyUsers(@Param("companyId") UUID companyId,
+                                                        @Param("conversationId") UUID conversationId,
+                                                        @Param("messageId") UUID messageId);
+
+    /**
+     * Increment (or create) the counter of a single user, returning the new count
+     */
+    @Query(value = """
+        INSERT INTO unread_message_counts (user_id, conversation_id, company_id, unread_count, last_message_id, created_at, updated_at)
+        SELECT u.id, :conversationId, u.company_id, 1, :messageId, NOW(), NOW()
+        FROM users u
+        WHERE u.id = :userId
+        ON CONFLICT (user_id, conversation_id)
+        DO UPDATE SET
+            unread_count = unread_message_counts.unread_count + 1,
+            last_message_id = EXCLUDED.last_message_id,
+            updated_at = NOW()
+        RETURNING unread_count
+        """, nativeQuery = true)
+    Optional<Integer> incrementUnreadCountForUser(@Param("userId") UUID userId,
+                                                  @Param("conversationId") UUID conversationId,
+                                                  @Param("messageId") UUID messageId);
+
+    /**
+     * Write absolute counter values in one statement (Redis checkpoint). Each argument is a
+     * comma-separated list aligned by position; empty last message ids are stored as NULL.
+     * Rows whose user or conversation no longer exists are skipped.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+        INSERT INTO unread_message_counts (user_id, conversation_id, company_id, unread_count, last_message_id, created_at, updated_at)
+        SELECT t.user_id, t.conversation_id, u.company_id, t.unread_count, m.id, NOW(), NOW()
+        FROM unnest(
+                CAST(string_to_array(:userIds, ',') AS uuid[]),
+                CAST(string_to_array(:conversationIds, ',') AS uuid[]),
+                CAST(string_to_array(:counts, ',') AS int[]),
+                CAST(string_to_array(:lastMessageIds, ',', '') AS uuid[])
+             ) AS t(user_id, conversation_id, unread_count, last_message_id)
+        JOIN users u ON u.id = t.user_id
+        JOIN conversations c ON c.id = t.conversation_id
+        LEFT JOIN messages m ON m.id = t.last_message_id
+        ON CONFLICT (user_id, conversation_id)
+        DO UPDATE SET
+            unread_count = EXCLUDED.unread_count,
+            last_message_id = COALESCE(EXCLUDED.last_message_id, unread_message_counts.last_message_id),
+            updated_at = NOW()
+        """, nativeQuery = true)
+    int upsertUnreadCounts(@Param("userIds") String userIds,
+                           @Param("conversationIds") String conversationIds,
+                           @Param("counts") String counts,
+                           @Param("lastMessageIds") String lastMessageIds);
+
+    /**
+     * All non-zero counters as [user_id, conversation_id, unread_count] (Redis warm-up)
+     */
+    @Query("SELECT u.user.id, u.conversation.id, u.unreadCount FROM UnreadMessageCount u WHERE u.unreadCount > 0")
+    List<Object[]> findAllNonZeroCounts();
+
     /**
      * Reset all unread counts for a user
      */
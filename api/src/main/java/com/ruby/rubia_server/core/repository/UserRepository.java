@@ -24,6 +24,9 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByWhatsappNumberAndCompanyId(String whatsappNumber, UUID companyId);
     
     List<User> findByCompanyId(UUID companyId);
+
+    @Query("SELECT u.id FROM User u WHERE u.company.id = :companyId")
+    List<UUID> findIdsByCompanyId(@Param("companyId") UUID companyId);
     
     List<User> findByDepartmentIdAndCompanyId(UUID departmentId, UUID companyId);
     
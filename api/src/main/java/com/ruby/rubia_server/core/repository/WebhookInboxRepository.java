@@ -0,0 +1,132 @@
+package com.ruby.rubia_server.core.repository;
+
+import com.ruby.rubia_server.core.entity.WebhookInboxEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WebhookInboxRepository extends JpaRepository<WebhookInboxEntry, Long> {
+
+    /**
+     * Grava o payload se o messageId ainda não foi recebido deste provedor.
+     * Retorna o id da nova entrada, ou vazio quando é uma reentrega.
+     */
+    @Transactional
+    @Query(value = """
+        INSERT INTO webhook_inbox (provider, external_message_id, chat_key, payload, status, attempts, received_at)
+        VALUES (:provider, :externalMessageId, :chatKey, :payload, 'PENDING', 0, :receivedAt)
+        ON CONFLICT (provider, external_message_id) WHERE external_message_id IS NOT NULL DO NOTHING
+        RETURNING id
+        """, nativeQuery = true)
+    Optional<Long> appendIfAbsent(@Param("provider") String provider,
+                                  @Param("externalMessageId") String externalMessageId,
+                                  @Param("chatKey") String chatKey,
+                                  @Param("payload") String payload,
+                                  @Param("receivedAt") LocalDateTime receivedAt);
+
+    /**
+     * Reserva a entrada para um worker. Retorna 0 se outro worker já a reservou, se já foi
+     * processada, se ainda está em backoff ou se uma entrada anterior do mesmo chat ainda
+     * não terminou (reservada em outro nó ou aguardando nova tentativa).
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+        UPDATE webhook_inbox
+        SET status = 'PROCESSING', attempts = attempts + 1, locked_until = :lockedUntil
+        WHERE id = :id
+          AND ((status = 'PENDING' AND (locked_until IS NULL OR locked_until <= :now))
+               OR (status = 'PROCESSING' AND locked_until <= :now))
+          AND NOT EXISTS (
+              SELECT 1 FROM webhook_inbox earlier
+              WHERE earlier.chat_key = webhook_inbox.chat_key
+                AND earlier.id < webhook_inbox.id
+                AND earlier.status IN ('PENDING', 'PROCESSING'))
+        """, nativeQuery = true)
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+        UPDATE webhook_inbox
+        SET status = 'DONE', processed_at = :processedAt, locked_until = NULL, last_error = NULL
+        WHERE id = :id
+        """, nativeQuery = true)
+    int markDone(@Param("id") Long id, @Param("processedAt") LocalDateTime processedAt);
+
+    /**
+     * Devolve para PENDING (com backoff em locked_until) ou encerra como FAILED
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+        UPDATE webhook_inbox
+        SET status = :status, locked_until = :retryAt, last_error = :error
+        WHERE id = :id
+        """, nativeQuery = true)
+    int markFailedAttempt(@Param("id") Long id,
+                          @Param("status") String status,
+                          @Param("retryAt") LocalDateTime retryAt,
+                          @Param("error") String error);
+
+    /**
+     * Entradas prontas para processamento, na ordem de chegada: só a mais antiga não
+     * concluída de cada chat, para que a varredura não passe à frente de uma entrada em backoff
+     */
+    @Query(value = """
+        SELECT * FROM webhook_inbox
+        WHERE ((status = 'PENDING' AND (locked_until IS NULL OR locked_until <= :now))
+               OR (status = 'PROCESSING' AND locked_until <= :now))
+          AND NOT EXISTS (
+              SELECT 1 FROM webhook_inbox earlier
+              WHERE earlier.chat_key = webhook_inbox.chat_key
+                AND earlier.id < webhook_inbox.id
+                AND earlier.status IN ('PENDING', 'PROCESSING'))
+        ORDER BY id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<WebhookInboxEntry> findDispatchable(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Query(value = "SELECT MIN(received_at) FROM webhook_inbox WHERE status IN ('PENDING', 'PROCESSING')",
+           nativeQuery = true)
+    Optional<LocalDateTime> findOldestUnprocessedReceivedAt();
+
+    @Query(value = "SELECT COUNT(*) FROM webhook_inbox WHERE status IN ('PENDING', 'PROCESSING')",
+           nativeQuery = true)
+    long countUnprocessed();
+
+    /**
+     * Retenção: apaga até :limit entradas DONE processadas antes de :cutoff
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+        DELETE FROM webhook_inbox
+        WHERE id IN (
+            SELECT id FROM webhook_inbox
+            WHERE status = 'DONE' AND processed_at < :cutoff
+            LIMIT :limit)
+        """, nativeQuery = true)
+    int deleteDoneBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    /**
+     * Replay: devolve à fila as entradas nos status informados recebidas a partir de :since
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+        UPDATE webhook_inbox
+        SET status = 'PENDING', attempts = 0, locked_until = NULL, last_error = NULL, processed_at = NULL
+        WHERE status IN (:statuses) AND received_at >= :since
+        """, nativeQuery = true)
+    int requeue(@Param("statuses") Collection<String> statuses, @Param("since") LocalDateTime since);
+}
@@ -22,6 +22,10 @@ public interface WhatsAppInstanceRepository extends JpaRepository<WhatsAppInstan
 
     Optional<WhatsAppInstance> findByPhoneNumberAndIsActiveTrue(String phoneNumber);
 
+    // Resolução de tenant dos webhooks: a empresa vem junto para ser usada fora da sessão
+    @Query("SELECT w FROM WhatsAppInstance w JOIN FETCH w.company WHERE w.phoneNumber = :phoneNumber AND w.isActive = true")
+    Optional<WhatsAppInstance> findActiveByPhoneNumberWithCompany(@Param("phoneNumber") String phoneNumber);
+
     @Query("SELECT COUNT(w) FROM WhatsAppInstance w WHERE w.company = :company AND w.isActive = true")
     Long countActiveInstancesByCompany(@Param("company") Company company);
 
@@ -7,12 +7,14 @@ import com.ruby.rubia_server.core.entity.AIAgent;
 import com.ruby.rubia_server.core.entity.AIModel;
 import com.ruby.rubia_server.core.entity.Company;
 import com.ruby.rubia_server.core.entity.User;
+import com.ruby.rubia_server.core.event.AIAgentChangedEvent;
 import com.ruby.rubia_server.core.repository.AIAgentRepository;
 import com.ruby.rubia_server.core.repository.AIModelRepository;
 import com.ruby.rubia_server.core.repository.CompanyRepository;
 import com.ruby.rubia_server.core.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -32,8 +34,9 @@ public class AIAgentService {
     private final CompanyRepository companyRepository;
     private final AIModelRepository aiModelRepository;
     private final UserRepository userRepository;
-    private final OpenAIService openAIService;
+    private final AIGateway aiGateway;
     private final MessageEnhancementAuditService auditService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public AIAgent createAIAgent(CreateAIAgentDTO createDTO) {
         log.info("Creating AI agent with name: {} for company: {}", createDTO.getName(), createDTO.getCompanyId());
@@ -167,6 +170,7 @@ public class AIAgentService {
 
         aiAgent = aiAgentRepository.save(aiAgent);
         log.info("AI agent updated successfully with id: {}", aiAgent.getId());
+        publishChanged(aiAgent.getId(), aiAgent.getCompany().getId());
         
         return Optional.of(aiAgent);
     }
@@ -181,9 +185,18 @@ public class AIAgentService {
 
         aiAgentRepository.deleteById(id);
         log.info("AI agent deleted successfully");
+        publishChanged(id, null);
         return true;
     }
 
+    private void publishChanged(UUID agentId, UUID companyId) {
+        // Libera as respostas cacheadas do agente (AIResponseCache)
+        eventPublisher.publishEvent(AIAgentChangedEvent.builder()
+                .agentId(agentId)
+                .companyId(companyId)
+                .build());
+    }
+
     @Transactional(readOnly = true)
     public long countAIAgentsByCompanyId(UUID companyId) {
         log.debug("Counting AI agents for company: {}", companyId);
@@ -276,7 +289,8 @@ public class AIAgentService {
 
         try {
             // Use OpenAI service to enhance the message with payload tracking
-            AIEnhancementResult result = openAIService.enhanceTemplateWithPayload(
+            AIEnhancementResult result = aiGateway.chat(
+                companyId,
                 enhancementPrompt,
                 agent.getAiModel().getName(),
                 agent.getTemperature().doubleValue(),
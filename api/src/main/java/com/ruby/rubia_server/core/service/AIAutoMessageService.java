@@ -7,18 +7,24 @@ import com.ruby.rubia_server.core.enums.MessageStatus;
 import com.ruby.rubia_server.core.enums.MessageType;
 import com.ruby.rubia_server.core.enums.SenderType;
 import com.ruby.rubia_server.core.repository.*;
-import com.ruby.rubia_server.core.service.OpenAIService;
+import com.ruby.rubia_server.core.exception.AIGatewayException;
 import com.ruby.rubia_server.core.util.CompanyContextUtil;
 import com.ruby.rubia_server.core.service.MessagingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,7 +38,7 @@ public class AIAutoMessageService {
     private final MessageRepository messageRepository;
     private final FAQService faqService;
     private final MessageTemplateService messageTemplateService;
-    private final OpenAIService openAIService;
+    private final AIGateway aiGateway;
     private final AIAgentService aiAgentService;
     private final UserRepository userRepository;
     private final CompanyContextUtil companyContextUtil;
@@ -41,6 +47,17 @@ public class AIAutoMessageService {
     private final MessageService messageService;
     private final WebSocketNotificationService webSocketNotificationService;
     private final ConversationService conversationService;
+    private final AIResponseCache aiResponseCache;
+    @Qualifier("taskExecutor")
+    private final Executor taskExecutor;
+    
+    // Modo streaming: trechos da resposta vão ao inbox via WebSocket enquanto o modelo gera, e o resultado vira MessageDraft
+    @Value("${ai.draft.streaming.enabled:false}")
+    private boolean streamingEnabled;
+    
+    // Intervalo mínimo entre notificações de trechos (o primeiro trecho sai na hora)
+    @Value("${ai.draft.streaming.flush-interval:100ms}")
+    private Duration streamingFlushInterval;
     
     /**
      * Gera draft automaticamente baseado na mensagem do cliente
@@ -67,22 +84,47 @@ public class AIAutoMessageService {
             }
             
             // 2. Gerar resposta do hemocentro usando AIAgent da empresa
-            DraftResponse bestResponse = generateBloodCenterResponse(conversation.getCompany().getId(), normalizedMessage);
+            UUID companyId = conversation.getCompany().getId();
+            DraftChunkPublisher chunkPublisher = streamingEnabled ? new DraftChunkPublisher(companyId, conversationId) : null;
+            DraftResponse bestResponse = generateBloodCenterResponse(companyId, normalizedMessage, chunkPublisher);
+            if (chunkPublisher != null) {
+                // Após prazo esgotado a thread do modelo ainda pode entregar trechos: descartados daqui em diante
+                chunkPublisher.close();
+            }
             
             if (bestResponse == null) {
                 log.debug("❌ [DEBUG] No response selected for conversation: {}", conversationId);
+                if (chunkPublisher != null && chunkPublisher.hasPublished()) {
+                    chunkPublisher.enqueue(() ->
+                        webSocketNotificationService.notifyDraftCancelled(companyId, conversationId, chunkPublisher.streamId));
+                }
                 return null;
             }
             
             log.info("✅ Selected response with confidence {:.2f} for conversation: {}", 
                 bestResponse.getConfidence(), conversationId);
-                
+            
             // Enviar resposta automaticamente para hemocentro
             MessageDTO result = sendBloodCenterResponse(conversation, bestResponse, normalizedMessage);
             if (result != null) {
                 log.info("✅ [SUCCESS] Blood center message sent automatically with ID: {} for conversation: {}", 
                     result.getId(), conversationId);
             }
+            
+            // Modo streaming: o texto já apareceu no inbox como trechos. Enviada, a resposta chega como
+            // mensagem e os trechos são descartados; se o envio falhou, vira draft pendente para revisão
+            if (chunkPublisher != null) {
+                if (result != null) {
+                    if (chunkPublisher.hasPublished()) {
+                        chunkPublisher.enqueue(() ->
+                            webSocketNotificationService.notifyDraftCancelled(companyId, conversationId, chunkPublisher.streamId));
+                    }
+                } else {
+                    MessageDraftDTO completedDraft = commitStreamedDraft(conversationId, bestResponse, normalizedMessage);
+                    chunkPublisher.enqueue(() ->
+                        webSocketNotificationService.notifyDraftCompleted(companyId, chunkPublisher.streamId, completedDraft));
+                }
+            }
             return result;
             
         } catch (Exception e) {
@@ -398,7 +440,7 @@ public class AIAutoMessageService {
         
         // 2. Fallback: Retornar FAQ com maior confiança sem IA
         Optional<FAQMatchDTO> bestFaq = faqMatches.stream()
-            .filter(faq -> faq.getConfidenceScore() >= 0.7)
+            .filter(AIAutoMessageService::canAnswerDirectly)
             .findFirst();
             
         if (bestFaq.isPresent()) {
@@ -486,12 +528,13 @@ public class AIAutoMessageService {
             );
             
             // Chamar IA para gerar resposta
-            String aiResponse = openAIService.enhanceTemplate(
+            String aiResponse = aiGateway.chat(
+                companyId,
                 prompt,
                 agent.getAiModel().getName(),
                 agent.getTemperature().doubleValue(),
                 agent.getMaxResponseLength()
-            );
+            ).getEnhancedMessage();
             
             if (aiResponse != null && !aiResponse.startsWith("Erro")) {
                 // Calcular confiança baseada na melhor FAQ match
@@ -509,6 +552,8 @@ public class AIAutoMessageService {
                     .build();
             }
             
+        } catch (AIGatewayException e) {
+            log.warn("AI gateway refused contextual response ({}), using direct FAQ: {}", e.getReason(), e.getMessage());
         } catch (Exception e) {
             log.error("Error generating AI contextual response: {}", e.getMessage(), e);
         }
@@ -519,7 +564,7 @@ public class AIAutoMessageService {
     /**
      * Gera resposta especializada do hemocentro usando AIAgent da empresa
      */
-    private DraftResponse generateBloodCenterResponse(UUID companyId, String userMessage) {
+    private DraftResponse generateBloodCenterResponse(UUID companyId, String userMessage, DraftChunkPublisher chunkPublisher) {
         log.debug("🩸 Generating blood center response for company: {}", companyId);
         try {
             // Buscar agente de IA da empresa (similar ao TemplateEnhancementService)
@@ -569,15 +614,38 @@ public class AIAutoMessageService {
                 userMessage
             );
             
+            // Pergunta frequente já respondida por este agente nesta configuração: sem chamada ao modelo
+            Optional<String> cachedResponse = aiResponseCache.find(agent, userMessage);
+            
             // Chamar IA para gerar resposta usando configurações do agente
-            String aiResponse = openAIService.enhanceTemplate(
-                prompt,
-                agent.getAiModel().getName(),
-                agent.getTemperature().doubleValue(),
-                agent.getMaxResponseLength()
-            );
+            String aiResponse;
+            if (cachedResponse.isPresent()) {
+                aiResponse = cachedResponse.get();
+            } else if (chunkPublisher != null) {
+                aiResponse = aiGateway.chatStream(
+                    companyId,
+                    prompt,
+                    agent.getAiModel().getName(),
+                    agent.getTemperature().doubleValue(),
+                    agent.getMaxResponseLength(),
+                    chunkPublisher
+                ).getEnhancedMessage();
+                chunkPublisher.flush();
+            } else {
+                aiResponse = aiGateway.chat(
+                    companyId,
+                    prompt,
+                    agent.getAiModel().getName(),
+                    agent.getTemperature().doubleValue(),
+                    agent.getMaxResponseLength()
+                ).getEnhancedMessage();
+            }
             
             if (aiResponse != null && !aiResponse.startsWith("Erro")) {
+                if (cachedResponse.isEmpty()) {
+                    aiResponseCache.put(agent, userMessage, prompt, aiResponse);
+                }
+                
                 // Calcular confiança alta para resposta especializada
                 double confidence = 0.85; // Confiança alta para agente especializado
                 
@@ -588,9 +656,14 @@ public class AIAutoMessageService {
                     .confidence(confidence)
                     .sourceType("BLOOD_CENTER_AI")
                     .sourceId(agent.getId())
+                    .aiModel(agent.getAiModel().getName())
                     .build();
             }
             
+        } catch (AIGatewayException e) {
+            // OpenAI lenta, fila cheia ou circuito aberto: responde com a FAQ, se houver uma boa
+            log.warn("AI gateway refused blood center response ({}), falling back to FAQ: {}", e.getReason(), e.getMessage());
+            return faqFallbackResponse(companyId, userMessage);
         } catch (Exception e) {
             log.error("Error generating blood center AI response: {}", e.getMessage(), e);
         }
@@ -598,6 +671,45 @@ public class AIAutoMessageService {
         return null;
     }
     
+    /**
+     * Grava a resposta gerada em modo streaming como MessageDraft pendente
+     */
+    private MessageDraftDTO commitStreamedDraft(UUID conversationId, DraftResponse response, String originalMessage) {
+        return createDraft(CreateMessageDraftDTO.builder()
+            .conversationId(conversationId)
+            .content(response.getContent())
+            .aiModel(response.getAiModel())
+            .confidence(response.getConfidence())
+            .sourceType(response.getSourceType())
+            .sourceId(response.getSourceId())
+            .originalMessage(originalMessage)
+            .build());
+    }
+    
+    /**
+     * FAQ cuja resposta pode ir ao cliente sem passar pelo modelo: confiança de pelo menos 0.7 vinda de
+     * trigger ou keyword. Matches parciais pela pergunta e similaridade de embedding só servem de contexto para a IA.
+     */
+    static boolean canAnswerDirectly(FAQMatchDTO faq) {
+        return faq.getConfidenceScore() >= 0.7 && CompanyFAQIndex.isDirectMatch(faq);
+    }
+    
+    /**
+     * Resposta direta da FAQ mais confiável, usada quando o modelo não está disponível
+     */
+    private DraftResponse faqFallbackResponse(UUID companyId, String userMessage) {
+        return searchRelevantFAQs(companyId, userMessage).stream()
+            .filter(AIAutoMessageService::canAnswerDirectly)
+            .findFirst()
+            .map(faq -> DraftResponse.builder()
+                .content(faq.getFaq().getAnswer())
+                .confidence(faq.getConfidenceScore())
+                .sourceType("FAQ_FALLBACK")
+                .sourceId(faq.getFaq().getId())
+                .build())
+            .orElse(null);
+    }
+    
     /**
      * Envia resposta do hemocentro automaticamente via WhatsApp
      */
@@ -759,5 +871,74 @@ public class AIAutoMessageService {
         private Double confidence;
         private String sourceType;
         private UUID sourceId;
+        private String aiModel;
+    }
+    
+    /**
+     * Repassa os trechos do modelo ao inbox da empresa, agrupando os que chegam dentro do flush-interval.
+     * Chamado pela thread do modelo no AIGateway (dentro do prazo e com a vaga da chave ocupada), então só
+     * agrupa o texto: o envio via WebSocket vai para o taskExecutor, numa fila por stream que mantém a ordem.
+     * Flush final pela thread que esperava a resposta.
+     */
+    private final class DraftChunkPublisher implements Consumer<String> {
+        
+        private final UUID companyId;
+        private final UUID conversationId;
+        private final UUID streamId = UUID.randomUUID();
+        private final StringBuilder pending = new StringBuilder();
+        private int sequence;
+        private long lastFlushNanos;
+        private boolean closed;
+        // Último envio da fila deste stream; cada notificação roda no taskExecutor depois da anterior
+        private CompletableFuture<Void> delivery = CompletableFuture.completedFuture(null);
+        
+        DraftChunkPublisher(UUID companyId, UUID conversationId) {
+            this.companyId = companyId;
+            this.conversationId = conversationId;
+        }
+        
+        @Override
+        public synchronized void accept(String delta) {
+            if (closed) {
+                return;
+            }
+            pending.append(delta);
+            if (sequence == 0 || System.nanoTime() - lastFlushNanos >= streamingFlushInterval.toNanos()) {
+                flush();
+            }
+        }
+        
+        synchronized void flush() {
+            if (closed || pending.isEmpty()) {
+                return;
+            }
+            int chunkSequence = sequence++;
+            String delta = pending.toString();
+            pending.setLength(0);
+            lastFlushNanos = System.nanoTime();
+            enqueue(() -> webSocketNotificationService.notifyDraftChunk(companyId, conversationId, streamId, chunkSequence, delta));
+        }
+        
+        /**
+         * Agenda a notificação depois das já enfileiradas neste stream e retorna na hora; a conclusão e o
+         * cancelamento do draft também passam por aqui para não chegarem antes do último trecho
+         */
+        synchronized void enqueue(Runnable notification) {
+            delivery = delivery
+                .thenRunAsync(notification, taskExecutor)
+                .exceptionally(e -> {
+                    log.warn("Falha ao notificar trecho do draft {} via WebSocket: {}", streamId, e.getMessage());
+                    return null;
+                });
+        }
+        
+        synchronized void close() {
+            closed = true;
+            pending.setLength(0);
+        }
+        
+        synchronized boolean hasPublished() {
+            return sequence > 0;
+        }
     }
 }
\ No newline at end of file
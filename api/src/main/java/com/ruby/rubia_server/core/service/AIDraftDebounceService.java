@@ -0,0 +1,199 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.core.dto.MessageDTO;
+import com.ruby.rubia_server.core.entity.Message;
+import com.ruby.rubia_server.core.repository.MessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * Debounce da geração de drafts de IA para mensagens de texto de clientes.
+ *
+ * Cada mensagem grava (ZADD) a conversa no ZSET {@link #DEBOUNCE_KEY} com score = agora + delay,
+ * empurrando o disparo enquanto o cliente continua digitando. Um único poller por nó reivindica
+ * as conversas vencidas com um script Lua (ZRANGEBYSCORE + ZREMRANGEBYRANK), de modo que cada
+ * disparo é processado por exatamente um nó, e entrega a geração ao taskExecutor. O número de
+ * threads não depende do volume de mensagens.
+ *
+ * Métricas: ai.draft.debounce.messages (mensagens agendadas), ai.draft.debounce.coalesced
+ * (mensagens que apenas adiaram um disparo pendente), ai.draft.debounce.fired (disparos) e o
+ * gauge ai.draft.debounce.coalescing.ratio (mensagens por disparo neste nó).
+ */
+@Service
+@Slf4j
+public class AIDraftDebounceService {
+
+    public static final String DEBOUNCE_KEY = "rubia:ai-draft:debounce";
+
+    private static final RedisScript<List> CLAIM_SCRIPT = loadScript("redis/ai-draft-debounce-claim.lua");
+    // Janela de mensagens do cliente combinadas em um único draft
+    private static final Duration GROUPING_WINDOW = Duration.ofMinutes(5);
+
+    private final StringRedisTemplate redisTemplate;
+    private final MessageRepository messageRepository;
+    private final AIAutoMessageService aiAutoMessageService;
+    private final ConversationService conversationService;
+    private final Executor taskExecutor;
+    private final Duration delay;
+    private final int claimBatchSize;
+    private final Counter scheduledMessages;
+    private final Counter coalescedMessages;
+    private final Counter firedDrafts;
+
+    public AIDraftDebounceService(
+            StringRedisTemplate redisTemplate,
+            MessageRepository messageRepository,
+            AIAutoMessageService aiAutoMessageService,
+            ConversationService conversationService,
+            @Qualifier("taskExecutor") Executor taskExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${ai.draft.debounce.delay:4s}") Duration delay,
+            @Value("${ai.draft.debounce.claim-batch-size:50}") int claimBatchSize) {
+        this.redisTemplate = redisTemplate;
+        this.messageRepository = messageRepository;
+        this.aiAutoMessageService = aiAutoMessageService;
+        this.conversationService = conversationService;
+        this.taskExecutor = taskExecutor;
+        this.delay = delay;
+        this.claimBatchSize = claimBatchSize;
+        this.scheduledMessages = meterRegistry.counter("ai.draft.debounce.messages");
+        this.coalescedMessages = meterRegistry.counter("ai.draft.debounce.coalesced");
+        this.firedDrafts = meterRegistry.counter("ai.draft.debounce.fired");
+        meterRegistry.gauge("ai.draft.debounce.coalescing.ratio", this, AIDraftDebounceService::coalescingRatio);
+    }
+
+    private static RedisScript<List> loadScript(String path) {
+        DefaultRedisScript<List> script = new DefaultRedisScript<>();
+        script.setScriptSource(new ResourceScriptSource(new ClassPathResource(path)));
+        script.setResultType(List.class);
+        return script;
+    }
+
+    /**
+     * Agenda (ou adia) o draft da conversa para agora + delay
+     */
+    public void schedule(UUID conversationId, UUID companyId) {
+        long fireAt = System.currentTimeMillis() + delay.toMillis();
+        Boolean added = redisTemplate.opsForZSet().add(DEBOUNCE_KEY, member(conversationId, companyId), fireAt);
+
+        scheduledMessages.increment();
+        if (Boolean.FALSE.equals(added)) {
+            coalescedMessages.increment();
+            log.debug("⏰ Debounce extended for conversation: {}", conversationId);
+        } else {
+            log.debug("⏰ Debounce scheduled for conversation: {} in {}ms", conversationId, delay.toMillis());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ai.draft.debounce.poll-interval-ms:500}")
+    public void dispatchDue() {
+        try {
+            List<String> due;
+            do {
+                due = claimDue();
+                for (String member : due) {
+                    dispatch(member);
+                }
+            } while (due.size() == claimBatchSize);
+        } catch (Exception e) {
+            log.error("Erro ao reivindicar drafts de IA vencidos: {}", e.getMessage(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> claimDue() {
+        List<String> due = redisTemplate.execute(
+                CLAIM_SCRIPT,
+                List.of(DEBOUNCE_KEY),
+                String.valueOf(System.currentTimeMillis()),
+                String.valueOf(claimBatchSize));
+        return due != null ? due : Collections.emptyList();
+    }
+
+    private void dispatch(String member) {
+        int separator = member.indexOf(':');
+        UUID conversationId = UUID.fromString(member.substring(0, separator));
+        UUID companyId = UUID.fromString(member.substring(separator + 1));
+
+        try {
+            taskExecutor.execute(() -> processGroupedMessages(conversationId, companyId));
+            firedDrafts.increment();
+        } catch (TaskRejectedException e) {
+            // Executor saturado: devolve a conversa sem sobrescrever um disparo mais novo
+            log.warn("Executor cheio, adiando draft da conversa: {}", conversationId);
+            redisTemplate.opsForZSet().addIfAbsent(DEBOUNCE_KEY, member, System.currentTimeMillis() + delay.toMillis());
+        }
+    }
+
+    /**
+     * Processa mensagens agrupadas da conversa após o debounce
+     */
+    private void processGroupedMessages(UUID conversationId, UUID companyId) {
+        try {
+            log.info("🔗 Processing grouped messages for conversation: {}", conversationId);
+
+            List<Message> recentMessages = messageRepository
+                .findRecentCustomerMessages(conversationId, LocalDateTime.now().minus(GROUPING_WINDOW));
+
+            if (recentMessages.isEmpty()) {
+                log.debug("No recent customer messages found for conversation: {}", conversationId);
+                return;
+            }
+
+            // Combinar conteúdo das mensagens em ordem cronológica
+            String combinedContent = recentMessages.stream()
+                .filter(msg -> msg.getContent() != null && !msg.getContent().trim().isEmpty())
+                .map(Message::getContent)
+                .collect(Collectors.joining(" "));
+
+            if (combinedContent.trim().isEmpty()) {
+                log.debug("No text content found in recent messages for conversation: {}", conversationId);
+                return;
+            }
+
+            log.info("📝 Combined message content ({} messages): '{}'",
+                    recentMessages.size(), combinedContent);
+
+            MessageDTO draft = aiAutoMessageService.generateDraftResponse(conversationId, combinedContent);
+
+            if (draft != null) {
+                log.info("✅ Successfully generated grouped response: {} for conversation: {}",
+                        draft.getId(), conversationId);
+                conversationService.incrementAiMessageUsage(conversationId, companyId);
+            } else {
+                log.debug("No draft generated for grouped messages in conversation: {}", conversationId);
+            }
+
+        } catch (Exception e) {
+            log.error("Error processing grouped messages for conversation: {}", conversationId, e);
+        }
+    }
+
+    private double coalescingRatio() {
+        double fired = firedDrafts.count();
+        return fired == 0 ? 0 : scheduledMessages.count() / fired;
+    }
+
+    static String member(UUID conversationId, UUID companyId) {
+        return conversationId + ":" + companyId;
+    }
+}
@@ -0,0 +1,242 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.config.AIGatewayProperties;
+import com.ruby.rubia_server.core.dto.AIEnhancementResult;
+import com.ruby.rubia_server.core.exception.AIGatewayException;
+import com.ruby.rubia_server.core.util.CircuitBreaker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Porta única para as chamadas aos modelos da OpenAI (completions de chat, com ou sem streaming, e
+ * transcrição de áudio).
+ *
+ * Cada modelo tem seu executor, com {@code max-concurrency-per-model} threads e fila limitada a
+ * {@code queue-capacity-per-model}: com a fila cheia a chamada é recusada na hora, em vez de prender a
+ * thread de quem chamou (listeners @Async, requisições HTTP). Na thread do modelo a chamada ainda disputa
+ * as vagas da chave de API ({@code max-in-flight-per-key}, todos os modelos usam spring.ai.openai.api-key).
+ *
+ * Quem chama espera no máximo o prazo da operação (fila + chamada); esgotado o prazo a tarefa é
+ * cancelada e sai da fila se ainda não começou. Erros e prazos esgotados seguidos abrem o circuito do
+ * modelo, que passa a recusar chamadas sem tocar na OpenAI até a chamada de teste. Toda recusa é uma
+ * {@link AIGatewayException}; quem tem resposta sem IA (FAQ) deve usá-la.
+ *
+ * Métricas:
+ * <ul>
+ *   <li>ai.gateway.requests - timer por company, model, operation e outcome (success, error, timeout, rejected, circuit_open)</li>
+ *   <li>ai.gateway.tokens - tokens consumidos por company e model (usage da OpenAI ou estimativa)</li>
+ *   <li>ai.gateway.queue.depth e ai.gateway.circuit.state (0 fechado, 1 meio aberto, 2 aberto) por model</li>
+ *   <li>ai.gateway.in_flight - chamadas em andamento na chave de API</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class AIGateway {
+
+    static final String OPERATION_CHAT = "chat";
+    static final String OPERATION_CHAT_STREAM = "chat_stream";
+    static final String OPERATION_TRANSCRIPTION = "transcription";
+
+    private final OpenAIService openAIService;
+    private final AIGatewayProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final String defaultModel;
+    private final Clock clock;
+    private final Semaphore keyPermits;
+    private final ConcurrentMap<String, ModelLane> lanes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AIGateway(
+            OpenAIService openAIService,
+            AIGatewayProperties properties,
+            MeterRegistry meterRegistry,
+            @Value("${ai.default-model:gpt-4o-mini}") String defaultModel) {
+        this(openAIService, properties, meterRegistry, defaultModel, Clock.systemUTC());
+    }
+
+    AIGateway(OpenAIService openAIService, AIGatewayProperties properties, MeterRegistry meterRegistry,
+              String defaultModel, Clock clock) {
+        this.openAIService = openAIService;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.defaultModel = defaultModel;
+        this.clock = clock;
+        this.keyPermits = new Semaphore(properties.getMaxInFlightPerKey(), true);
+
+        Gauge.builder("ai.gateway.in_flight", keyPermits, permits -> properties.getMaxInFlightPerKey() - permits.availablePermits())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Completion de chat com o prompt de sistema do OpenAIService; model null usa ai.default-model
+     */
+    public AIEnhancementResult chat(UUID companyId, String prompt, String model, Double temperature, Integer maxTokens) {
+        String resolvedModel = model != null ? model : defaultModel;
+        return execute(companyId, resolvedModel, OPERATION_CHAT, properties.getChatDeadline(),
+                () -> openAIService.enhanceTemplateWithPayload(prompt, resolvedModel, temperature, maxTokens),
+                result -> result.getTokensUsed() != null
+                        ? result.getTokensUsed()
+                        : openAIService.estimateTokens(prompt + result.getEnhancedMessage()));
+    }
+
+    /**
+     * Completion de chat em streaming: {@code onChunk} recebe cada trecho na thread do modelo, enquanto
+     * quem chamou espera o texto completo (sujeito ao mesmo prazo de {@link #chat})
+     */
+    public AIEnhancementResult chatStream(UUID companyId, String prompt, String model, Double temperature, Integer maxTokens,
+                                          Consumer<String> onChunk) {
+        String resolvedModel = model != null ? model : defaultModel;
+        return execute(companyId, resolvedModel, OPERATION_CHAT_STREAM, properties.getChatDeadline(),
+                () -> openAIService.streamTemplateWithPayload(prompt, resolvedModel, temperature, maxTokens, onChunk),
+                result -> openAIService.estimateTokens(prompt + result.getEnhancedMessage()));
+    }
+
+    /**
+     * Transcrição de áudio pelo Whisper; null quando a OpenAI responde sem texto
+     */
+    public String transcribe(UUID companyId, byte[] audioData, String language) {
+        // Whisper cobra por minuto de áudio, não por token
+        return execute(companyId, OpenAIService.TRANSCRIPTION_MODEL, OPERATION_TRANSCRIPTION,
+                properties.getTranscriptionDeadline(),
+                () -> openAIService.transcribe(audioData, language),
+                text -> 0);
+    }
+
+    <T> T execute(UUID companyId, String model, String operation, Duration deadline,
+                  Callable<T> call, ToIntFunction<T> tokens) {
+        ModelLane lane = lanes.computeIfAbsent(model, this::newLane);
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + deadline.toNanos();
+
+        if (!lane.breaker().tryAcquire()) {
+            record(companyId, model, operation, "circuit_open", startNanos);
+            throw new AIGatewayException(AIGatewayException.Reason.CIRCUIT_OPEN, model,
+                    "Circuito do modelo " + model + " aberto; nova tentativa em " + lane.breaker().remainingOpenMillis() + "ms");
+        }
+
+        Future<T> future;
+        try {
+            future = lane.executor().submit(() -> callWithKeyPermit(model, call, deadlineNanos));
+        } catch (RejectedExecutionException e) {
+            lane.breaker().onIgnored();
+            record(companyId, model, operation, "rejected", startNanos);
+            throw new AIGatewayException(AIGatewayException.Reason.REJECTED, model,
+                    "Fila do modelo " + model + " cheia (" + properties.getQueueCapacityPerModel() + " chamadas aguardando)");
+        }
+
+        try {
+            T result = future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            lane.breaker().onSuccess();
+            record(companyId, model, operation, "success", startNanos);
+            int used = result != null ? tokens.applyAsInt(result) : 0;
+            if (used > 0) {
+                meterRegistry.counter("ai.gateway.tokens", "company", companyTag(companyId), "model", model).increment(used);
+            }
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            lane.breaker().onFailure();
+            record(companyId, model, operation, "timeout", startNanos);
+            log.warn("Chamada {} ao modelo {} excedeu o prazo de {}ms (empresa {})", operation, model, deadline.toMillis(), companyId);
+            throw new AIGatewayException(AIGatewayException.Reason.TIMEOUT, model,
+                    "Modelo " + model + " não respondeu em " + deadline.toMillis() + "ms", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof AIGatewayException refused) {
+                lane.breaker().onIgnored();
+                record(companyId, model, operation, "rejected", startNanos);
+                throw refused;
+            }
+            lane.breaker().onFailure();
+            record(companyId, model, operation, "error", startNanos);
+            throw new AIGatewayException(AIGatewayException.Reason.FAILED, model, cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            lane.breaker().onIgnored();
+            Thread.currentThread().interrupt();
+            throw new AIGatewayException(AIGatewayException.Reason.TIMEOUT, model, "Chamada ao modelo " + model + " interrompida", e);
+        }
+    }
+
+    CircuitBreaker.State circuitState(String model) {
+        ModelLane lane = lanes.get(model);
+        return lane != null ? lane.breaker().getState() : CircuitBreaker.State.CLOSED;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        lanes.values().forEach(lane -> lane.executor().shutdownNow());
+    }
+
+    private <T> T callWithKeyPermit(String model, Callable<T> call, long deadlineNanos) throws Exception {
+        if (!keyPermits.tryAcquire(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+            throw new AIGatewayException(AIGatewayException.Reason.REJECTED, model,
+                    "Limite de " + properties.getMaxInFlightPerKey() + " chamadas simultâneas da chave de API atingido");
+        }
+        try {
+            return call.call();
+        } finally {
+            keyPermits.release();
+        }
+    }
+
+    private ModelLane newLane(String model) {
+        int threads = properties.getMaxConcurrencyPerModel();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacityPerModel()),
+                Thread.ofPlatform().name("ai-gateway-" + model + "-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        CircuitBreaker breaker = new CircuitBreaker(
+                properties.getCircuitFailureThreshold(), properties.getCircuitOpenDuration(), clock);
+
+        Gauge.builder("ai.gateway.queue.depth", executor, e -> e.getQueue().size())
+                .tag("model", model)
+                .register(meterRegistry);
+        Gauge.builder("ai.gateway.circuit.state", breaker, b -> b.getState().ordinal())
+                .tag("model", model)
+                .register(meterRegistry);
+        return new ModelLane(executor, breaker);
+    }
+
+    private void record(UUID companyId, String model, String operation, String outcome, long startNanos) {
+        Timer.builder("ai.gateway.requests")
+                .tag("company", companyTag(companyId))
+                .tag("model", model)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static String companyTag(UUID companyId) {
+        return companyId != null ? companyId.toString() : "none";
+    }
+
+    private record ModelLane(ThreadPoolExecutor executor, CircuitBreaker breaker) {
+    }
+}
@@ -0,0 +1,278 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.core.entity.AIAgent;
+import com.ruby.rubia_server.core.event.AIAgentChangedEvent;
+import com.ruby.rubia_server.core.util.BoundedTtlCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Cache em processo das respostas geradas pelo agente de IA do hemocentro
+ * (AIAutoMessageService.generateBloodCenterResponse), na frente da chamada ao modelo.
+ *
+ * A chave é (agente, versão da configuração, pergunta normalizada). A versão é uma impressão digital dos
+ * campos do agente que entram no prompt e na chamada (nome, temperamento, limite de caracteres, modelo,
+ * temperatura): editar o agente muda a versão e as respostas antigas deixam de ser encontradas, em
+ * qualquer nó. Além disso, o evento {@link AIAgentChangedEvent} libera as respostas do agente neste nó.
+ *
+ * Perguntas quase iguais ("qual idade mínima?" / "Qual a idade minima") são encontradas pela similaridade
+ * de Jaccard dos trigramas de caracteres, desde que tenham os mesmos números e a mesma negação
+ * ("tenho 16 anos" ≠ "tenho 61 anos", "posso doar" ≠ "não posso doar").
+ *
+ * Métricas: ai.response.cache.lookups (tag result: hit, near_hit, miss), ai.response.cache.hit.ratio,
+ * ai.response.cache.tokens.saved e ai.response.cache.credits.saved (estimativa por caracteres e
+ * AIModel.costPer1kTokens) e ai.response.cache.agents.
+ */
+@Component
+@Slf4j
+public class AIResponseCache {
+
+    // Estimativa usual de caracteres por token para texto em português
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+    private static final Set<String> NEGATIONS = Set.of("nao", "nunca", "nem", "sem", "jamais");
+
+    private final BoundedTtlCache<String, AgentResponses> agents;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final long ttlMillis;
+    private final int maxQuestionsPerAgent;
+    private final double nearDuplicateSimilarity;
+    private final Counter hits;
+    private final Counter nearHits;
+    private final Counter misses;
+
+    public AIResponseCache(
+            MeterRegistry meterRegistry,
+            @Value("${ai.response-cache.ttl:24h}") Duration ttl,
+            @Value("${ai.response-cache.max-agents:1000}") int maxAgents,
+            @Value("${ai.response-cache.max-questions-per-agent:500}") int maxQuestionsPerAgent,
+            @Value("${ai.response-cache.near-duplicate-similarity:0.75}") double nearDuplicateSimilarity) {
+        this(meterRegistry, ttl, maxAgents, maxQuestionsPerAgent, nearDuplicateSimilarity, Clock.systemUTC());
+    }
+
+    AIResponseCache(MeterRegistry meterRegistry, Duration ttl, int maxAgents, int maxQuestionsPerAgent,
+                    double nearDuplicateSimilarity, Clock clock) {
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.ttlMillis = ttl.toMillis();
+        this.maxQuestionsPerAgent = maxQuestionsPerAgent;
+        this.nearDuplicateSimilarity = nearDuplicateSimilarity;
+        this.agents = new BoundedTtlCache<>(maxAgents, ttl, clock);
+        this.hits = meterRegistry.counter("ai.response.cache.lookups", "result", "hit");
+        this.nearHits = meterRegistry.counter("ai.response.cache.lookups", "result", "near_hit");
+        this.misses = meterRegistry.counter("ai.response.cache.lookups", "result", "miss");
+
+        Gauge.builder("ai.response.cache.agents", agents, BoundedTtlCache::size).register(meterRegistry);
+        meterRegistry.gauge("ai.response.cache.hit.ratio", this, AIResponseCache::hitRatio);
+    }
+
+    /**
+     * Resposta já gerada pelo agente, na configuração atual, para a mesma pergunta ou uma quase igual
+     */
+    public Optional<String> find(AIAgent agent, String question) {
+        Question normalized = Question.of(question);
+        if (normalized == null) {
+            return Optional.empty();
+        }
+
+        Optional<AgentResponses> responses = agents.get(bucketKey(agent));
+        CachedResponse found = null;
+        boolean exact = false;
+        if (responses.isPresent()) {
+            long now = clock.millis();
+            synchronized (responses.get()) {
+                found = responses.get().exact(normalized.text(), now);
+                exact = found != null;
+                if (!exact) {
+                    found = responses.get().closest(normalized, nearDuplicateSimilarity, now);
+                }
+            }
+        }
+
+        if (found == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        (exact ? hits : nearHits).increment();
+        recordSavings(agent, found.estimatedTokens());
+        log.debug("Resposta do agente {} servida do cache ({}) para '{}'", agent.getId(), exact ? "exata" : "similar", question);
+        return Optional.of(found.response());
+    }
+
+    /**
+     * Guarda a resposta gerada; {@code prompt} serve só para estimar os tokens poupados nos próximos acertos
+     */
+    public void put(AIAgent agent, String question, String prompt, String response) {
+        Question normalized = Question.of(question);
+        if (normalized == null || response == null) {
+            return;
+        }
+        int estimatedTokens = (prompt.length() + response.length()) / CHARS_PER_TOKEN;
+        AgentResponses responses = agents.get(bucketKey(agent), key -> new AgentResponses(maxQuestionsPerAgent))
+                .orElseThrow();
+        synchronized (responses) {
+            responses.put(new CachedResponse(normalized, response, estimatedTokens, clock.millis() + ttlMillis));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAIAgentChanged(AIAgentChangedEvent event) {
+        String prefix = event.getAgentId() + ":";
+        int removed = agents.invalidateIf((key, responses) -> key.startsWith(prefix));
+        log.debug("Cache de respostas de IA: {} versões do agente {} removidas", removed, event.getAgentId());
+    }
+
+    /**
+     * Impressão digital da configuração do agente que influencia a resposta
+     */
+    static String configVersion(AIAgent agent) {
+        int hash = Objects.hash(
+                agent.getName(),
+                agent.getTemperament(),
+                agent.getMaxResponseLength(),
+                agent.getAiModel() != null ? agent.getAiModel().getName() : null,
+                agent.getTemperature() != null ? agent.getTemperature().stripTrailingZeros().toPlainString() : null);
+        return Integer.toHexString(hash);
+    }
+
+    private static String bucketKey(AIAgent agent) {
+        return agent.getId() + ":" + configVersion(agent);
+    }
+
+    private void recordSavings(AIAgent agent, int estimatedTokens) {
+        meterRegistry.counter("ai.response.cache.tokens.saved").increment(estimatedTokens);
+        Integer costPer1kTokens = agent.getAiModel() != null ? agent.getAiModel().getCostPer1kTokens() : null;
+        if (costPer1kTokens != null) {
+            meterRegistry.counter("ai.response.cache.credits.saved").increment(estimatedTokens * costPer1kTokens / 1000.0);
+        }
+    }
+
+    private double hitRatio() {
+        double found = hits.count() + nearHits.count();
+        double total = found + misses.count();
+        return total == 0 ? 0 : found / total;
+    }
+
+    /**
+     * Pergunta normalizada: minúsculas, sem acentos e sem pontuação, com os trigramas (ordenados) e a
+     * assinatura de números e negação usados na comparação de quase duplicatas
+     */
+    record Question(String text, int[] trigrams, String guard) {
+
+        static Question of(String raw) {
+            if (raw == null) {
+                return null;
+            }
+            String text = NON_WORD.matcher(DIACRITICS.matcher(Normalizer.normalize(raw.toLowerCase(), Normalizer.Form.NFD))
+                    .replaceAll("")).replaceAll(" ").trim();
+            if (text.isEmpty()) {
+                return null;
+            }
+
+            String padded = " " + text + " ";
+            TreeSet<Integer> grams = new TreeSet<>();
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3).hashCode());
+            }
+
+            StringBuilder guard = new StringBuilder();
+            for (String word : text.split(" ")) {
+                if (NEGATIONS.contains(word) || NUMBER.matcher(word).matches()) {
+                    guard.append(word).append(' ');
+                }
+            }
+            return new Question(text, grams.stream().mapToInt(Integer::intValue).toArray(), guard.toString());
+        }
+
+        double similarity(Question other) {
+            int shared = 0;
+            int i = 0;
+            int j = 0;
+            while (i < trigrams.length && j < other.trigrams.length) {
+                if (trigrams[i] == other.trigrams[j]) {
+                    shared++;
+                    i++;
+                    j++;
+                } else if (trigrams[i] < other.trigrams[j]) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return (double) shared / (trigrams.length + other.trigrams.length - shared);
+        }
+    }
+
+    private record CachedResponse(Question question, String response, int estimatedTokens, long expiresAt) {
+    }
+
+    /**
+     * Respostas de uma versão de um agente, em ordem de acesso (LRU); sincronizado por quem usa
+     */
+    private static final class AgentResponses {
+
+        private final LinkedHashMap<String, CachedResponse> byQuestion;
+
+        AgentResponses(int maxQuestions) {
+            this.byQuestion = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                    return size() > maxQuestions;
+                }
+            };
+        }
+
+        CachedResponse exact(String question, long now) {
+            CachedResponse cached = byQuestion.get(question);
+            if (cached != null && cached.expiresAt() <= now) {
+                byQuestion.remove(question);
+                return null;
+            }
+            return cached;
+        }
+
+        CachedResponse closest(Question question, double minSimilarity, long now) {
+            CachedResponse best = null;
+            double bestSimilarity = minSimilarity;
+            for (CachedResponse cached : byQuestion.values()) {
+                if (cached.expiresAt() <= now || !cached.question().guard().equals(question.guard())) {
+                    continue;
+                }
+                double similarity = cached.question().similarity(question);
+                if (similarity >= bestSimilarity) {
+                    best = cached;
+                    bestSimilarity = similarity;
+                }
+            }
+            if (best != null) {
+                // Marca o acesso para a ordem LRU
+                byQuestion.get(best.question().text());
+            }
+            return best;
+        }
+
+        void put(CachedResponse response) {
+            byQuestion.put(response.question().text(), response);
+        }
+    }
+}
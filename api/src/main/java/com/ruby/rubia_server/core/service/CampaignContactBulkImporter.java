@@ -0,0 +1,319 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.core.entity.Campaign;
+import com.ruby.rubia_server.core.entity.CampaignContact;
+import com.ruby.rubia_server.core.entity.Company;
+import com.ruby.rubia_server.core.entity.Conversation;
+import com.ruby.rubia_server.core.entity.ConversationLastMessage;
+import com.ruby.rubia_server.core.entity.ConversationParticipant;
+import com.ruby.rubia_server.core.entity.Customer;
+import com.ruby.rubia_server.core.entity.Message;
+import com.ruby.rubia_server.core.entity.MessageTemplate;
+import com.ruby.rubia_server.core.enums.CampaignContactStatus;
+import com.ruby.rubia_server.core.enums.Channel;
+import com.ruby.rubia_server.core.enums.ConversationStatus;
+import com.ruby.rubia_server.core.enums.ConversationType;
+import com.ruby.rubia_server.core.enums.MessageStatus;
+import com.ruby.rubia_server.core.enums.SenderType;
+import com.ruby.rubia_server.core.event.CustomerChangedEvent;
+import com.ruby.rubia_server.core.repository.CampaignContactRepository;
+import com.ruby.rubia_server.core.repository.CampaignRepository;
+import com.ruby.rubia_server.core.repository.CompanyRepository;
+import com.ruby.rubia_server.core.repository.ConversationLastMessageRepository;
+import com.ruby.rubia_server.core.repository.ConversationParticipantRepository;
+import com.ruby.rubia_server.core.repository.ConversationRepository;
+import com.ruby.rubia_server.core.repository.CustomerRepository;
+import com.ruby.rubia_server.core.repository.MessageRepository;
+import com.ruby.rubia_server.core.repository.MessageTemplateRepository;
+import com.ruby.rubia_server.core.service.CampaignProcessingService.ContactChunkResult;
+import com.ruby.rubia_server.core.service.CampaignProcessingService.ContactData;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Gravação em lote dos contatos importados de uma planilha de campanha.
+ *
+ * Em vez de 8–12 consultas por contato, cada lote normaliza todos os telefones, resolve
+ * customers existentes, histórico de campanhas (opt-out) e conversas com uma consulta
+ * {@code IN (...)} cada, e insere customers, campaign_contacts, conversas, participantes e
+ * mensagens DRAFT via saveAll, agrupados em batches JDBC pelo Hibernate
+ * (hibernate.jdbc.batch_size + order_inserts).
+ *
+ * Os telefones de customers criados ou atualizados são publicados num único
+ * {@link CustomerChangedEvent} por lote, entregue ao InboundTenantCache após o commit.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CampaignContactBulkImporter {
+
+    private final CustomerRepository customerRepository;
+    private final CampaignContactRepository campaignContactRepository;
+    private final ConversationRepository conversationRepository;
+    private final ConversationParticipantRepository participantRepository;
+    private final MessageRepository messageRepository;
+    private final ConversationLastMessageRepository conversationLastMessageRepository;
+    private final CompanyRepository companyRepository;
+    private final CampaignRepository campaignRepository;
+    private final MessageTemplateRepository messageTemplateRepository;
+    private final PhoneService phoneService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public ContactChunkResult importChunk(Campaign campaign, List<ContactData> chunk,
+                                          List<MessageTemplate> templates, UUID companyId) {
+        ContactChunkResult result = new ContactChunkResult();
+        result.addProcessed(chunk.size());
+
+        // 1. Normalizar telefones e descartar linhas inválidas ou repetidas no lote
+        Map<String, ContactData> rowsByPhone = new LinkedHashMap<>();
+        for (ContactData row : chunk) {
+            String phone = phoneService.normalize(row.getPhone());
+            String invalidReason = validateRow(row, phone);
+            if (invalidReason != null) {
+                result.addError(String.format("Erro ao processar %s: %s", row.getName(), invalidReason));
+                continue;
+            }
+            if (rowsByPhone.putIfAbsent(phone, row) != null) {
+                result.addDuplicate();
+            }
+        }
+
+        if (rowsByPhone.isEmpty()) {
+            return result;
+        }
+
+        Company company = companyRepository.getReferenceById(companyId);
+        Campaign campaignRef = campaignRepository.getReferenceById(campaign.getId());
+
+        // 2. Customers existentes: uma consulta por lote
+        Map<String, Customer> customersByPhone = customerRepository
+            .findByCompanyIdAndPhoneIn(companyId, rowsByPhone.keySet()).stream()
+            .collect(Collectors.toMap(Customer::getPhone, customer -> customer, (first, second) -> first));
+        Set<UUID> existingCustomerIds = customersByPhone.values().stream()
+            .map(Customer::getId)
+            .collect(Collectors.toSet());
+
+        // 3. Criar customers novos e atualizar dados dos existentes
+        List<Customer> newCustomers = new ArrayList<>();
+        Set<String> touchedPhones = new HashSet<>();
+        rowsByPhone.forEach((phone, row) -> {
+            Customer existing = customersByPhone.get(phone);
+            if (existing == null) {
+                Customer customer = newCustomer(row, phone, company);
+                newCustomers.add(customer);
+                customersByPhone.put(phone, customer);
+                touchedPhones.add(phone);
+            } else if (applyUpdates(existing, row)) {
+                touchedPhones.add(phone);
+            }
+        });
+        customerRepository.saveAll(newCustomers);
+        if (!touchedPhones.isEmpty()) {
+            eventPublisher.publishEvent(CustomerChangedEvent.builder()
+                .companyId(companyId)
+                .phones(touchedPhones)
+                .build());
+        }
+
+        // 4. Histórico de campanhas (duplicidade e opt-out global): uma consulta por lote
+        Map<UUID, List<CampaignContact>> historyByCustomer = existingCustomerIds.isEmpty()
+            ? Map.of()
+            : campaignContactRepository.findByCustomerIdIn(existingCustomerIds).stream()
+                .collect(Collectors.groupingBy(cc -> cc.getCustomer().getId()));
+
+        List<CampaignContact> newContacts = new ArrayList<>();
+        for (String phone : rowsByPhone.keySet()) {
+            Customer customer = customersByPhone.get(phone);
+            List<CampaignContact> history = historyByCustomer.getOrDefault(customer.getId(), List.of());
+
+            boolean alreadyInThisCampaign = history.stream()
+                .anyMatch(cc -> cc.getCampaign().getId().equals(campaign.getId()));
+            boolean hasGlobalOptOut = history.stream()
+                .anyMatch(cc -> cc.getStatus() == CampaignContactStatus.OPT_OUT);
+
+            if (alreadyInThisCampaign || hasGlobalOptOut) {
+                result.addDuplicate();
+                continue;
+            }
+
+            newContacts.add(CampaignContact.builder()
+                .campaign(campaignRef)
+                .customer(customer)
+                .status(CampaignContactStatus.PENDING)
+                .build());
+        }
+
+        if (newContacts.isEmpty()) {
+            return result;
+        }
+        campaignContactRepository.saveAll(newContacts);
+
+        // 5. Conversas já existentes para cliente + campanha e seus rascunhos
+        Set<UUID> contactCustomerIds = newContacts.stream()
+            .map(cc -> cc.getCustomer().getId())
+            .filter(existingCustomerIds::contains)
+            .collect(Collectors.toSet());
+        Map<UUID, Conversation> conversationsByCustomer = new HashMap<>();
+        if (!contactCustomerIds.isEmpty()) {
+            participantRepository.findCampaignParticipantsByCustomerIds(campaign.getId(), contactCustomerIds)
+                .forEach(p -> conversationsByCustomer.putIfAbsent(p.getCustomer().getId(), p.getConversation()));
+        }
+        Set<UUID> conversationsWithDraft = conversationsByCustomer.isEmpty()
+            ? Set.of()
+            : new HashSet<>(messageRepository.findConversationIdsWithStatus(
+                conversationsByCustomer.values().stream().map(Conversation::getId).toList(), MessageStatus.DRAFT));
+
+        // 6. Conversas, participantes e mensagens DRAFT
+        List<Conversation> newConversations = new ArrayList<>();
+        List<ConversationParticipant> newParticipants = new ArrayList<>();
+        List<Message> drafts = new ArrayList<>();
+
+        for (CampaignContact campaignContact : newContacts) {
+            Customer customer = campaignContact.getCustomer();
+            result.addCreated(campaignContact);
+
+            Conversation conversation = conversationsByCustomer.get(customer.getId());
+            if (conversation == null) {
+                conversation = Conversation.builder()
+                    .company(company)
+                    .channel(Channel.WHATSAPP)
+                    .status(ConversationStatus.ENTRADA)
+                    .conversationType(ConversationType.ONE_TO_ONE)
+                    .campaign(campaignRef)
+                    .build();
+                newConversations.add(conversation);
+                newParticipants.add(ConversationParticipant.builder()
+                    .conversation(conversation)
+                    .customer(customer)
+                    .company(company)
+                    .isActive(true)
+                    .build());
+            } else if (conversationsWithDraft.contains(conversation.getId())) {
+                continue;
+            }
+
+            MessageTemplate template = templates.get(Math.floorMod(customer.getId().hashCode(), templates.size()));
+            drafts.add(Message.builder()
+                .conversation(conversation)
+                .content(personalizeTemplateContent(template.getContent(), customer.getName()))
+                .senderType(SenderType.AGENT)
+                .status(MessageStatus.DRAFT)
+                .messageTemplate(messageTemplateRepository.getReferenceById(template.getId()))
+                .campaignContact(campaignContact)
+                .build());
+        }
+
+        conversationRepository.saveAll(newConversations);
+        participantRepository.saveAll(newParticipants);
+        messageRepository.saveAll(drafts);
+        updateLastMessages(drafts, newConversations);
+
+        log.debug("Lote da campanha {}: {} linhas, {} contatos criados, {} novos customers",
+            campaign.getId(), chunk.size(), newContacts.size(), newCustomers.size());
+
+        return result;
+    }
+
+    /**
+     * Mantém a visão conversation_last_message como o listener de MessageCreatedEvent faria:
+     * conversas novas recebem a linha em batch, as já existentes passam pelo upsert
+     */
+    private void updateLastMessages(List<Message> drafts, List<Conversation> newConversations) {
+        Set<UUID> created = newConversations.stream().map(Conversation::getId).collect(Collectors.toSet());
+        LocalDateTime now = LocalDateTime.now();
+        List<ConversationLastMessage> lastMessages = new ArrayList<>();
+
+        for (Message draft : drafts) {
+            Conversation conversation = draft.getConversation();
+            LocalDateTime createdAt = draft.getCreatedAt() != null ? draft.getCreatedAt() : now;
+            if (created.contains(conversation.getId())) {
+                lastMessages.add(ConversationLastMessage.builder()
+                    .conversation(conversation)
+                    .lastMessageDate(createdAt)
+                    .lastMessageId(draft.getId())
+                    .lastMessageContent(draft.getContent())
+                    .build());
+            } else {
+                conversationLastMessageRepository.upsertLastMessage(
+                    conversation.getId(), createdAt, draft.getId(), draft.getContent());
+            }
+        }
+
+        conversationLastMessageRepository.saveAll(lastMessages);
+    }
+
+    private String validateRow(ContactData row, String normalizedPhone) {
+        if (normalizedPhone == null) {
+            return "telefone ausente";
+        }
+        if (normalizedPhone.length() > 20) {
+            return "telefone inválido '" + row.getPhone() + "'";
+        }
+        if (row.getBloodType() != null && row.getBloodType().length() > 10) {
+            return "tipo sanguíneo inválido '" + row.getBloodType() + "'";
+        }
+        if (row.getState() != null && row.getState().length() > 20) {
+            return "estado inválido '" + row.getState() + "'";
+        }
+        return null;
+    }
+
+    private Customer newCustomer(ContactData row, String normalizedPhone, Company company) {
+        return Customer.builder()
+            .company(company)
+            .phone(normalizedPhone)
+            .name(row.getName())
+            .bloodType(row.getBloodType())
+            .addressCity(row.getCity())
+            .addressState(row.getState())
+            .birthDate(row.getBirthDate())
+            .lastDonationDate(row.getLastDonation())
+            .isBlocked(false)
+            .build();
+    }
+
+    /**
+     * Atualiza o customer existente quando a planilha traz dados novos relevantes; true se alterou
+     */
+    private boolean applyUpdates(Customer customer, ContactData row) {
+        boolean needsUpdate =
+            (row.getBirthDate() != null && !row.getBirthDate().equals(customer.getBirthDate()))
+            || (row.getBloodType() != null && !row.getBloodType().equals(customer.getBloodType()))
+            || (row.getLastDonation() != null && !row.getLastDonation().equals(customer.getLastDonationDate()));
+
+        if (!needsUpdate) {
+            return false;
+        }
+
+        log.debug("🔄 Atualizando dados do customer {} a partir da planilha", customer.getId());
+        if (row.getName() != null) customer.setName(row.getName());
+        if (row.getBloodType() != null) customer.setBloodType(row.getBloodType());
+        if (row.getCity() != null) customer.setAddressCity(row.getCity());
+        if (row.getState() != null) customer.setAddressState(row.getState());
+        if (row.getBirthDate() != null) customer.setBirthDate(row.getBirthDate());
+        if (row.getLastDonation() != null) customer.setLastDonationDate(row.getLastDonation());
+        return true;
+    }
+
+    /**
+     * Personaliza o conteúdo do template substituindo variáveis pelos dados do cliente
+     */
+    static String personalizeTemplateContent(String template, String customerName) {
+        return template.replace("{{nome}}", customerName != null ? customerName : "");
+    }
+}
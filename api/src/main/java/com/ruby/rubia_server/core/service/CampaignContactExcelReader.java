@@ -0,0 +1,275 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.core.service.CampaignProcessingService.ContactData;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.NotOfficeXmlFileException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.stereotype.Component;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Leitura em streaming da planilha de contatos de campanha (.xlsx).
+ *
+ * Usa o modelo de eventos do POI (SAX sobre o XML da planilha) em vez de carregar o
+ * workbook inteiro: apenas a linha corrente e o lote em montagem ficam em memória.
+ * Os contatos são entregues em lotes de tamanho fixo ao consumidor informado.
+ */
+@Component
+@Slf4j
+public class CampaignContactExcelReader {
+
+    /**
+     * Lê a primeira planilha do arquivo e entrega os contatos válidos em lotes.
+     * Retorna o total de contatos entregues.
+     */
+    public int read(Path file, int chunkSize, Consumer<List<ContactData>> chunkConsumer) throws IOException {
+        ContactSheetHandler handler = new ContactSheetHandler(chunkSize, chunkConsumer);
+
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                throw new IllegalArgumentException("Arquivo Excel não possui planilhas");
+            }
+
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                    styles, null, sharedStrings, handler, new RawValueFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+
+        } catch (InvalidFormatException | NotOfficeXmlFileException e) {
+            log.error("Erro ao processar arquivo Excel: {}", e.getMessage());
+            throw new IllegalArgumentException("Arquivo Excel corrompido ou em formato inválido. Certifique-se de que é um arquivo .xlsx válido");
+        } catch (IOException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // Erros de validação e falhas do consumidor sobem sem alteração
+            throw e;
+        } catch (Exception e) {
+            log.error("Erro ao processar arquivo Excel: {}", e.getMessage());
+            throw new IOException("Erro ao processar arquivo Excel: " + e.getMessage(), e);
+        }
+
+        handler.finish();
+
+        if (handler.getDelivered() == 0) {
+            throw new IllegalArgumentException("Nenhum contato válido encontrado no arquivo");
+        }
+
+        return handler.getDelivered();
+    }
+
+    /**
+     * Monta os contatos linha a linha a partir dos eventos do parser
+     */
+    private static final class ContactSheetHandler implements SheetContentsHandler {
+
+        private final int chunkSize;
+        private final Consumer<List<ContactData>> chunkConsumer;
+
+        private Map<String, Integer> columnMap;
+        private final Map<Integer, String> currentRow = new HashMap<>();
+        private int currentColumn;
+        private List<ContactData> chunk;
+        private int delivered;
+
+        ContactSheetHandler(int chunkSize, Consumer<List<ContactData>> chunkConsumer) {
+            this.chunkSize = Math.max(1, chunkSize);
+            this.chunkConsumer = chunkConsumer;
+            this.chunk = new ArrayList<>(this.chunkSize);
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            if (columnMap == null && rowNum > 0) {
+                throw new IllegalArgumentException("Primeira linha (cabeçalho) está vazia");
+            }
+            currentRow.clear();
+            currentColumn = -1;
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            currentColumn = cellReference != null
+                ? new CellReference(cellReference).getCol()
+                : currentColumn + 1;
+            if (formattedValue != null) {
+                currentRow.put(currentColumn, formattedValue);
+            }
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (columnMap == null) {
+                columnMap = mapColumns(currentRow);
+                if (!columnMap.containsKey("nome")) {
+                    throw new IllegalArgumentException("Coluna 'Nome' é obrigatória no arquivo Excel");
+                }
+                return;
+            }
+
+            ContactData contact = parseRowToContact(currentRow, columnMap);
+            if (contact == null) {
+                return;
+            }
+
+            chunk.add(contact);
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void finish() {
+            if (columnMap == null) {
+                throw new IllegalArgumentException("Planilha não possui dados ou apenas cabeçalho");
+            }
+            flush();
+        }
+
+        int getDelivered() {
+            return delivered;
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<ContactData> full = chunk;
+            chunk = new ArrayList<>(chunkSize);
+            delivered += full.size();
+            chunkConsumer.accept(full);
+        }
+    }
+
+    private static Map<String, Integer> mapColumns(Map<Integer, String> headerRow) {
+        Map<String, Integer> columnMap = new HashMap<>();
+        headerRow.forEach((index, header) -> columnMap.put(header.toLowerCase().trim(), index));
+        return columnMap;
+    }
+
+    private static ContactData parseRowToContact(Map<Integer, String> row, Map<String, Integer> columnMap) {
+        ContactData contact = new ContactData();
+
+        try {
+            // Nome
+            contact.setName(getStringValue(row, columnMap.get("nome")));
+
+            // Telefone (combinar DDD + Telefone Celular)
+            String ddd = getStringValue(row, columnMap.get("dddtelefonecelular"));
+            String telefone = getStringValue(row, columnMap.get("telefonecelular"));
+            if (ddd != null && telefone != null) {
+                contact.setPhone(ddd + telefone);
+            } else if (telefone != null) {
+                contact.setPhone(telefone);
+            }
+
+            contact.setCpf(getStringValue(row, columnMap.get("cpf")));
+            contact.setRg(getStringValue(row, columnMap.get("rg")));
+            contact.setBloodType(getStringValue(row, columnMap.get("tiposanguineo")));
+            contact.setRhFactor(getStringValue(row, columnMap.get("fatorrh")));
+            contact.setCity(getStringValue(row, columnMap.get("cidade")));
+            contact.setState(getStringValue(row, columnMap.get("estado")));
+
+            // Datas
+            contact.setBirthDate(getDateValue(row, columnMap.get("datanascimento")));
+            contact.setLastDonation(getDateValue(row, columnMap.get("dataultimadoacao")));
+            contact.setSecondLastDonation(getDateValue(row, columnMap.get("datapenultimadoacao")));
+            contact.setThirdLastDonation(getDateValue(row, columnMap.get("dataantepenultimadoacao")));
+
+            // Validar dados mínimos
+            if (contact.getName() == null || contact.getName().trim().isEmpty()) {
+                return null;
+            }
+
+            return contact;
+
+        } catch (Exception e) {
+            log.error("Erro ao processar linha do Excel: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String getStringValue(Map<Integer, String> row, Integer columnIndex) {
+        if (columnIndex == null) return null;
+
+        String value = row.get(columnIndex);
+        if (value == null || value.isEmpty()) return null;
+
+        return value;
+    }
+
+    private static LocalDate getDateValue(Map<Integer, String> row, Integer columnIndex) {
+        String dateStr = getStringValue(row, columnIndex);
+        if (dateStr == null) return null;
+
+        dateStr = dateStr.trim();
+        if (dateStr.isEmpty()) {
+            return null;
+        }
+
+        // Remover timestamp se existir (2003-09-18 00:00:00.000 -> 2003-09-18)
+        if (dateStr.contains(" ")) {
+            dateStr = dateStr.split(" ")[0];
+        }
+
+        try {
+            return LocalDate.parse(dateStr); // ISO format: 2003-09-18
+        } catch (Exception e1) {
+            // Tentar formato brasileiro: dd/MM/yyyy
+            try {
+                String[] parts = dateStr.split("/");
+                if (parts.length == 3) {
+                    return LocalDate.of(Integer.parseInt(parts[2]), Integer.parseInt(parts[1]), Integer.parseInt(parts[0]));
+                }
+            } catch (Exception e2) {
+                log.warn("Falha ao processar data '{}' nos formatos ISO e dd/MM/yyyy", dateStr);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Formata células numéricas como a leitura célula a célula fazia: datas em ISO e números
+     * sem casas decimais (telefones, CPF), evitando a notação científica do formato "General".
+     */
+    static final class RawValueFormatter extends DataFormatter {
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getLocalDateTime(value).toLocalDate().toString();
+            }
+            return String.valueOf((long) value);
+        }
+    }
+}
@@ -31,7 +31,29 @@ public class CampaignDelaySchedulingService {
     public CompletableFuture<Boolean> scheduleMessageSend(CampaignContact contact,
                                                          int delayMs,
                                                          MessageSendTask messageTask) {
-        
+        return scheduleAsyncSend(contact, delayMs, () -> {
+            try {
+                return CompletableFuture.completedFuture(messageTask.execute());
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        });
+    }
+
+    /**
+     * Agenda o início de um envio assíncrono respeitando horário comercial e delay específico.
+     * A thread do scheduler apenas dispara a tarefa; o envio e os retries seguem encadeados
+     * no future retornado por ela, sem ocupar o scheduler enquanto aguardam.
+     *
+     * @param contact Contato da campanha
+     * @param delayMs Delay em milissegundos
+     * @param sendTask Tarefa que inicia o envio e devolve o future do resultado
+     * @return CompletableFuture completado com o resultado do future da tarefa
+     */
+    public CompletableFuture<Boolean> scheduleAsyncSend(CampaignContact contact,
+                                                       int delayMs,
+                                                       AsyncMessageSendTask sendTask) {
+
         CompletableFuture<Boolean> future = new CompletableFuture<>();
         Instant scheduledTime = calculateScheduledTime(delayMs);
 
@@ -41,12 +63,17 @@ public class CampaignDelaySchedulingService {
         taskScheduler.schedule(() -> {
             try {
                 log.debug("Executando envio agendado para contato {}", contact.getId());
-                boolean result = messageTask.execute();
-                future.complete(result);
-                
-                log.debug("Envio agendado concluído para contato {} com resultado: {}", 
-                        contact.getId(), result);
-                        
+                sendTask.start().whenComplete((result, throwable) -> {
+                    if (throwable != null) {
+                        log.error("Erro no envio agendado para contato {}: {}", 
+                                contact.getId(), throwable.getMessage());
+                        future.completeExceptionally(throwable);
+                    } else {
+                        log.debug("Envio agendado concluído para contato {} com resultado: {}", 
+                                contact.getId(), result);
+                        future.complete(result);
+                    }
+                });
             } catch (Exception e) {
                 log.error("Erro no envio agendado para contato {}: {}", 
                         contact.getId(), e.getMessage(), e);
@@ -107,6 +134,14 @@ public class CampaignDelaySchedulingService {
         boolean execute() throws Exception;
     }
 
+    /**
+     * Interface funcional para envios que completam de forma assíncrona
+     */
+    @FunctionalInterface
+    public interface AsyncMessageSendTask {
+        CompletableFuture<Boolean> start();
+    }
+
     /**
      * Versão simplificada que aceita um Runnable
      */
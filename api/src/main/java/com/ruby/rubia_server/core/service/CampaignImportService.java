@@ -0,0 +1,307 @@
+package com.ruby.rubia_server.core.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruby.rubia_server.core.entity.Campaign;
+import com.ruby.rubia_server.core.entity.MessageTemplate;
+import com.ruby.rubia_server.core.enums.CampaignImportStatus;
+import com.ruby.rubia_server.core.service.CampaignProcessingService.ContactChunkResult;
+import com.ruby.rubia_server.core.service.CampaignProcessingService.ContactData;
+import com.ruby.rubia_server.dto.campaign.CampaignImportJobDTO;
+import com.ruby.rubia_server.dto.campaign.ProcessCampaignDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Importação assíncrona de contatos de campanha.
+ *
+ * A requisição apenas valida o arquivo, cria a campanha em rascunho e devolve o id do job.
+ * Uma thread lê a planilha em streaming e entrega lotes numa fila limitada; outra grava cada
+ * lote na própria transação. O progresso fica num hash no Redis para consulta de qualquer nó.
+ *
+ * Como cada importação ocupa duas threads do executor, a admissão é feita antes de responder:
+ * sem vaga para as duas, a requisição é recusada sem criar a campanha.
+ */
+@Service
+@Slf4j
+public class CampaignImportService {
+
+    private static final String JOB_KEY_PREFIX = "rubia:campaign:import:";
+    private static final Duration JOB_TTL = Duration.ofHours(24);
+    private static final int PIPELINE_CAPACITY = 2;
+    private static final int THREADS_PER_IMPORT = 2;
+    private static final int MAX_ERROR_SAMPLES = 50;
+    private static final long HAND_OFF_POLL_MS = 200;
+    private static final List<ContactData> END_OF_FILE = new ArrayList<>();
+
+    private final CampaignProcessingService processingService;
+    private final CampaignContactExcelReader contactReader;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor importExecutor;
+    private final Semaphore importSlots;
+
+    public CampaignImportService(
+            CampaignProcessingService processingService,
+            CampaignContactExcelReader contactReader,
+            StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper,
+            @Qualifier("campaignImportExecutor") ThreadPoolTaskExecutor importExecutor) {
+        this.processingService = processingService;
+        this.contactReader = contactReader;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.importExecutor = importExecutor;
+        this.importSlots = new Semaphore(Math.max(1, importExecutor.getMaxPoolSize() / THREADS_PER_IMPORT));
+    }
+
+    /**
+     * Valida a requisição, cria a campanha em rascunho e agenda a importação dos contatos
+     */
+    public CampaignImportJobDTO startImport(MultipartFile file, ProcessCampaignDTO request) throws IOException {
+        if (!importSlots.tryAcquire()) {
+            throw new IllegalStateException("Limite de importações simultâneas atingido, tente novamente em instantes");
+        }
+
+        boolean scheduled = false;
+        try {
+            CampaignImportJobDTO job = scheduleImport(file, request);
+            scheduled = true;
+            return job;
+        } finally {
+            if (!scheduled) {
+                importSlots.release();
+            }
+        }
+    }
+
+    private CampaignImportJobDTO scheduleImport(MultipartFile file, ProcessCampaignDTO request) throws IOException {
+        List<MessageTemplate> templates = processingService.validateTemplates(request.getTemplateIds(), request.getCompanyId());
+        processingService.validateExcelUpload(file);
+
+        Path uploadFile = processingService.storeUpload(file);
+
+        Campaign campaign;
+        try {
+            campaign = processingService.createCampaign(request.getName(), request.getDescription(),
+                request.getCompanyId(), request.getUserId(), request.getStartDate(), request.getEndDate(),
+                request.getSourceSystem(), templates.get(0));
+        } catch (RuntimeException e) {
+            processingService.deleteUpload(uploadFile);
+            throw e;
+        }
+
+        CampaignImportJobDTO job = CampaignImportJobDTO.builder()
+            .jobId(UUID.randomUUID())
+            .campaignId(campaign.getId())
+            .companyId(request.getCompanyId())
+            .status(CampaignImportStatus.QUEUED)
+            .errors(new ArrayList<>())
+            .startedAt(LocalDateTime.now())
+            .build();
+        saveJob(job);
+
+        try {
+            importExecutor.execute(() -> {
+                try {
+                    runImport(job, uploadFile, campaign, templates);
+                } finally {
+                    importSlots.release();
+                }
+            });
+        } catch (TaskRejectedException e) {
+            processingService.deleteUpload(uploadFile);
+            markFailed(job, "Limite de importações simultâneas atingido");
+            throw new IllegalStateException("Limite de importações simultâneas atingido, tente novamente em instantes", e);
+        }
+
+        log.info("📥 Importação {} agendada para campanha {}", job.getJobId(), campaign.getId());
+        return job;
+    }
+
+    /**
+     * Busca o estado atual de um job de importação
+     */
+    public Optional<CampaignImportJobDTO> findJob(UUID jobId) {
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(jobKey(jobId));
+        if (fields == null || fields.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(fromFields(jobId, fields));
+    }
+
+    void runImport(CampaignImportJobDTO job, Path uploadFile, Campaign campaign, List<MessageTemplate> templates) {
+        UUID companyId = job.getCompanyId();
+        BlockingQueue<List<ContactData>> pipeline = new ArrayBlockingQueue<>(PIPELINE_CAPACITY);
+        AtomicBoolean aborted = new AtomicBoolean(false);
+        List<UUID> createdContactIds = new ArrayList<>();
+
+        job.setStatus(CampaignImportStatus.RUNNING);
+        saveJob(job);
+
+        try {
+            // Leitura em thread própria: o parser só avança enquanto houver espaço na fila
+            CompletableFuture<Integer> parsing = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return contactReader.read(uploadFile, CampaignProcessingService.IMPORT_CHUNK_SIZE, chunk -> {
+                        if (!handOff(pipeline, chunk, aborted)) {
+                            throw new CancellationException("Importação cancelada");
+                        }
+                    });
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                } finally {
+                    handOff(pipeline, END_OF_FILE, aborted);
+                }
+            }, importExecutor);
+
+            List<ContactData> chunk;
+            while ((chunk = pipeline.take()) != END_OF_FILE) {
+                ContactChunkResult result = processingService.processContactChunk(campaign, chunk, templates, companyId);
+                result.getContacts().forEach(contact -> createdContactIds.add(contact.getId()));
+                recordProgress(job, result);
+            }
+
+            int parsed = parsing.join();
+            log.info("Processados {} contatos do arquivo Excel", parsed);
+
+            processingService.activateCampaign(campaign, createdContactIds, companyId);
+
+            job.setStatus(CampaignImportStatus.COMPLETED);
+            job.setFinishedAt(LocalDateTime.now());
+            saveJob(job);
+
+            log.info("✅ Importação {} concluída: processados={}, criados={}, duplicados={}, erros={}",
+                job.getJobId(), job.getProcessed(), job.getCreated(), job.getDuplicates(), job.getErrorCount());
+
+        } catch (Exception e) {
+            aborted.set(true);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            log.error("❌ Importação {} falhou: {}", job.getJobId(), cause.getMessage(), cause);
+            markFailed(job, cause.getMessage());
+        } finally {
+            processingService.deleteUpload(uploadFile);
+        }
+    }
+
+    private static boolean handOff(BlockingQueue<List<ContactData>> pipeline, List<ContactData> chunk, AtomicBoolean aborted) {
+        try {
+            while (!aborted.get()) {
+                if (pipeline.offer(chunk, HAND_OFF_POLL_MS, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    private void recordProgress(CampaignImportJobDTO job, ContactChunkResult result) {
+        job.setProcessed(job.getProcessed() + result.getProcessed());
+        job.setCreated(job.getCreated() + result.getCreated());
+        job.setDuplicates(job.getDuplicates() + result.getDuplicates());
+        job.setErrorCount(job.getErrorCount() + result.getErrors().size());
+
+        List<String> errors = job.getErrors();
+        for (String error : result.getErrors()) {
+            if (errors.size() >= MAX_ERROR_SAMPLES) {
+                break;
+            }
+            errors.add(error);
+        }
+
+        saveJob(job);
+    }
+
+    private void markFailed(CampaignImportJobDTO job, String reason) {
+        job.setStatus(CampaignImportStatus.FAILED);
+        job.setFailureReason(reason);
+        job.setFinishedAt(LocalDateTime.now());
+        saveJob(job);
+    }
+
+    private void saveJob(CampaignImportJobDTO job) {
+        try {
+            Map<String, String> fields = new HashMap<>();
+            fields.put("campaignId", job.getCampaignId().toString());
+            fields.put("companyId", job.getCompanyId().toString());
+            fields.put("status", job.getStatus().name());
+            fields.put("processed", String.valueOf(job.getProcessed()));
+            fields.put("created", String.valueOf(job.getCreated()));
+            fields.put("duplicates", String.valueOf(job.getDuplicates()));
+            fields.put("errorCount", String.valueOf(job.getErrorCount()));
+            fields.put("errors", objectMapper.writeValueAsString(job.getErrors()));
+            fields.put("startedAt", job.getStartedAt().toString());
+            if (job.getFailureReason() != null) {
+                fields.put("failureReason", job.getFailureReason());
+            }
+            if (job.getFinishedAt() != null) {
+                fields.put("finishedAt", job.getFinishedAt().toString());
+            }
+
+            String key = jobKey(job.getJobId());
+            redisTemplate.opsForHash().putAll(key, fields);
+            redisTemplate.expire(key, JOB_TTL);
+        } catch (Exception e) {
+            // O progresso é informativo; a importação segue mesmo sem conseguir registrá-lo
+            log.warn("Falha ao registrar progresso da importação {}: {}", job.getJobId(), e.getMessage());
+        }
+    }
+
+    private CampaignImportJobDTO fromFields(UUID jobId, Map<Object, Object> fields) {
+        List<String> errors;
+        try {
+            errors = objectMapper.readValue((String) fields.getOrDefault("errors", "[]"), new TypeReference<>() {});
+        } catch (Exception e) {
+            errors = new ArrayList<>();
+        }
+
+        Object finishedAt = fields.get("finishedAt");
+        return CampaignImportJobDTO.builder()
+            .jobId(jobId)
+            .campaignId(UUID.fromString((String) fields.get("campaignId")))
+            .companyId(UUID.fromString((String) fields.get("companyId")))
+            .status(CampaignImportStatus.valueOf((String) fields.get("status")))
+            .processed(Integer.parseInt((String) fields.getOrDefault("processed", "0")))
+            .created(Integer.parseInt((String) fields.getOrDefault("created", "0")))
+            .duplicates(Integer.parseInt((String) fields.getOrDefault("duplicates", "0")))
+            .errorCount(Integer.parseInt((String) fields.getOrDefault("errorCount", "0")))
+            .errors(errors)
+            .failureReason((String) fields.get("failureReason"))
+            .startedAt(LocalDateTime.parse((String) fields.get("startedAt")))
+            .finishedAt(finishedAt != null ? LocalDateTime.parse((String) finishedAt) : null)
+            .build();
+    }
+
+    private static String jobKey(UUID jobId) {
+        return JOB_KEY_PREFIX + jobId;
+    }
+}
@@ -6,13 +6,12 @@ import com.ruby.rubia_server.core.entity.MessageTemplate;
 import com.ruby.rubia_server.core.entity.MessageResult;
 import com.ruby.rubia_server.core.dto.ConversationDTO;
 import com.ruby.rubia_server.core.event.CampaignRetryEvent;
+import com.ruby.rubia_server.core.exception.CampaignSendDeferredException;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
@@ -20,9 +19,9 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.*;
+import java.util.function.Supplier;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class CampaignMessagingService {
 
@@ -32,17 +31,42 @@ public class CampaignMessagingService {
     private final ChatLidMappingService chatLidMappingService;
     private final ConversationService conversationService;
     private final ApplicationEventPublisher eventPublisher;
-    
-    @Qualifier("scheduledExecutor")
     private final ScheduledExecutorService scheduledExecutor;
+    private final Executor sendExecutor;
     private final MeterRegistry meterRegistry;
+    private final WhatsAppInstanceRateLimiter instanceRateLimiter;
+
+    public CampaignMessagingService(
+            MessagingService messagingService,
+            CampaignDelaySchedulingService delaySchedulingService,
+            CampaignMessagingProperties properties,
+            ChatLidMappingService chatLidMappingService,
+            ConversationService conversationService,
+            ApplicationEventPublisher eventPublisher,
+            @Qualifier("scheduledExecutor") ScheduledExecutorService scheduledExecutor,
+            @Qualifier("campaignSendExecutor") Executor sendExecutor,
+            MeterRegistry meterRegistry,
+            WhatsAppInstanceRateLimiter instanceRateLimiter) {
+        this.messagingService = messagingService;
+        this.delaySchedulingService = delaySchedulingService;
+        this.properties = properties;
+        this.chatLidMappingService = chatLidMappingService;
+        this.conversationService = conversationService;
+        this.eventPublisher = eventPublisher;
+        this.scheduledExecutor = scheduledExecutor;
+        this.sendExecutor = sendExecutor;
+        this.meterRegistry = meterRegistry;
+        this.instanceRateLimiter = instanceRateLimiter;
+    }
 
     /**
      * Envia uma única mensagem para um contato da campanha de forma assíncrona
      * Usado pelo sistema de filas para enviar mensagens de forma controlada
      * Implementa retry com exponential backoff e jitter
+     *
+     * Nenhuma etapa bloqueia quem chama: o delay fica no scheduler, o envio HTTP roda no
+     * pool campaignSendExecutor e os retries são reagendados como novos futures.
      */
-    @Async("campaignExecutor")
     public CompletableFuture<Boolean> sendSingleMessageAsync(CampaignContact campaignContact) {
         // Validações iniciais (síncronas)
         if (!validateContact(campaignContact)) {
@@ -57,19 +81,17 @@ public class CampaignMessagingService {
                 campaignContact.getCustomer().getPhone(), initialDelay);
 
         // Usar o delaySchedulingService para agendar o envio
-        return delaySchedulingService.scheduleMessageSend(
+        return delaySchedulingService.scheduleAsyncSend(
             campaignContact,
             initialDelay,
-            () -> {
-                try {
-                    boolean result = sendWithRetry(campaignContact, 1).join();
+            () -> sendWithRetry(campaignContact, 1).whenComplete((result, throwable) -> {
+                if (throwable == null) {
                     recordMetrics(campaignContact, result, null);
-                    return result;
-                } catch (Exception e) {
-                    recordMetrics(campaignContact, false, e);
-                    throw e;
+                } else if (CampaignSendDeferredException.findIn(throwable) == null) {
+                    // Envio adiado pelo rate limit não conta como falha
+                    recordMetrics(campaignContact, false, throwable);
                 }
-            }
+            })
         );
     }
 
@@ -119,7 +141,7 @@ public class CampaignMessagingService {
      * Implementa retry com exponential backoff e jitter
      */
     private CompletableFuture<Boolean> sendWithRetry(CampaignContact contact, int attempt) {
-        return CompletableFuture.supplyAsync(() -> {
+        return submitSend(() -> {
             Timer.Sample sample = Timer.start(meterRegistry);
             try {
                 log.info("📤 Tentativa {}/{} - Enviando para {}", 
@@ -134,8 +156,12 @@ public class CampaignMessagingService {
                         "attempt", String.valueOf(attempt), "error", "true"));
                 throw new CompletionException(e);
             }
-        }, scheduledExecutor).handle((result, throwable) -> {
+        }).handle((result, throwable) -> {
             if (throwable != null) {
+                // Adiamento por rate limit sobe até a fila, que reagenda o item
+                if (CampaignSendDeferredException.findIn(throwable) != null) {
+                    throw throwable instanceof CompletionException ce ? ce : new CompletionException(throwable);
+                }
                 // Converte exceção em resultado de falha
                 log.error("❌ Exceção na tentativa {}: {}", attempt, throwable.getMessage());
                 return false;
@@ -175,6 +201,18 @@ public class CampaignMessagingService {
         });
     }
 
+    /**
+     * Submete a tentativa ao pool de envio. Com o pool saturado a tentativa falha
+     * (e entra no fluxo de retry) em vez de rodar na thread de quem chamou.
+     */
+    private CompletableFuture<Boolean> submitSend(Supplier<Boolean> attempt) {
+        try {
+            return CompletableFuture.supplyAsync(attempt, sendExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     /**
      * Calcula delay aleatório dentro do range WHAPI configurável
      */
@@ -230,9 +268,18 @@ public class CampaignMessagingService {
 
     /**
      * Executa o envio real da mensagem (sem Thread.sleep)
+     * Lança CampaignSendDeferredException quando a instância WhatsApp está no limite de envio
      */
     private boolean performActualSend(CampaignContact campaignContact) {
         
+        long waitMs = instanceRateLimiter.tryAcquire(campaignContact.getCustomer().getCompany());
+        if (waitMs > 0) {
+            log.info("🚦 Envio para contato {} adiado em {}ms pelo limite da instância", 
+                    campaignContact.getId(), waitMs);
+            throw new CampaignSendDeferredException(waitMs, 
+                    "Instância WhatsApp no limite de envio; tentar novamente em " + waitMs + "ms");
+        }
+        
         try {
             String customerPhone = campaignContact.getCustomer().getPhone();
             
@@ -0,0 +1,95 @@
+package com.ruby.rubia_server.core.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruby.rubia_server.core.service.CampaignQueueProcessor.CampaignQueueItem;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Codificação binária dos itens da fila de campanhas.
+ *
+ * Layout (57 bytes, big-endian):
+ * <pre>
+ *   [0]      versão do formato
+ *   [1..16]  campaignId
+ *   [17..32] campaignContactId
+ *   [33..48] companyId
+ *   [49..56] processingStartedAt (ms)
+ * </pre>
+ *
+ * O timestamp mantém membros distintos no ZSET quando o mesmo contato é reenfileirado.
+ * Itens gravados no formato JSON antigo (começam com '{' ou '"') continuam legíveis até
+ * que a fila seja drenada.
+ */
+@Component
+public class CampaignQueueItemCodec {
+
+    public static final byte FORMAT_VERSION = 1;
+    public static final int ENCODED_SIZE = 1 + 16 * 3 + Long.BYTES;
+
+    private final ObjectMapper objectMapper;
+
+    public CampaignQueueItemCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public byte[] encode(CampaignQueueItem item) {
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_SIZE);
+        buffer.put(FORMAT_VERSION);
+        putUuid(buffer, item.getCampaignId());
+        putUuid(buffer, item.getCampaignContactId());
+        putUuid(buffer, item.getCompanyId() != null ? UUID.fromString(item.getCompanyId()) : null);
+        buffer.putLong(item.getProcessingStartedAt());
+        return buffer.array();
+    }
+
+    public CampaignQueueItem decode(byte[] payload) throws IOException {
+        if (payload == null || payload.length == 0) {
+            throw new IOException("Item da fila vazio");
+        }
+
+        if (payload[0] == '{' || payload[0] == '"') {
+            return decodeLegacyJson(payload);
+        }
+
+        if (payload[0] != FORMAT_VERSION || payload.length != ENCODED_SIZE) {
+            throw new IOException("Formato de item da fila desconhecido (versão " + payload[0]
+                + ", " + payload.length + " bytes)");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(payload, 1, ENCODED_SIZE - 1);
+        UUID campaignId = getUuid(buffer);
+        UUID campaignContactId = getUuid(buffer);
+        UUID companyId = getUuid(buffer);
+        long processingStartedAt = buffer.getLong();
+
+        return new CampaignQueueItem(campaignId, campaignContactId,
+            companyId != null ? companyId.toString() : null, processingStartedAt);
+    }
+
+    /**
+     * Itens antigos eram serializados em JSON e depois novamente como string JSON
+     */
+    private CampaignQueueItem decodeLegacyJson(byte[] payload) throws IOException {
+        String json = payload[0] == '"'
+            ? objectMapper.readValue(payload, String.class)
+            : new String(payload, StandardCharsets.UTF_8);
+        return objectMapper.readValue(json, CampaignQueueItem.class);
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID uuid) {
+        // UUID nulo é gravado como zeros (o UUID nil não é gerado pela aplicação)
+        buffer.putLong(uuid != null ? uuid.getMostSignificantBits() : 0L);
+        buffer.putLong(uuid != null ? uuid.getLeastSignificantBits() : 0L);
+    }
+
+    private static UUID getUuid(ByteBuffer buffer) {
+        long most = buffer.getLong();
+        long least = buffer.getLong();
+        return most == 0L && least == 0L ? null : new UUID(most, least);
+    }
+}
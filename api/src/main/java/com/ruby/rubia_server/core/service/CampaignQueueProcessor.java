@@ -1,31 +1,30 @@
 package com.ruby.rubia_server.core.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ruby.rubia_server.core.entity.CampaignContact;
 import com.ruby.rubia_server.core.entity.MessageResult;
+import com.ruby.rubia_server.core.exception.CampaignSendDeferredException;
 import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.redis.core.RedisCallback;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import java.nio.ByteBuffer;
 import java.time.Duration;
-import java.time.Instant;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -33,44 +32,57 @@ import java.util.concurrent.atomic.AtomicBoolean;
 /**
  * Processador de fila de campanhas com controle de concorrência e backpressure
  * Implementa processamento controlado para evitar sobrecarga do sistema
+ *
+ * Em vez de varrer a fila em intervalo fixo, o processador agenda o próximo ciclo para o
+ * horário do próximo item vencido e é acordado antes disso quando novos itens são enfileirados.
  */
 @Component
 @Slf4j
 public class CampaignQueueProcessor {
     
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final CampaignQueueStore queueStore;
     private final CampaignMessagingService messageService;
     private final CampaignContactService campaignContactService;
-    private final ObjectMapper objectMapper;
+    private final CampaignQueueItemCodec itemCodec;
     private final Semaphore concurrencyLimiter;
     private final Semaphore queueProcessingLimiter;
     private final MeterRegistry meterRegistry;
+    private final ScheduledExecutorService scheduledExecutor;
     
     public CampaignQueueProcessor(
-            RedisTemplate<String, Object> redisTemplate,
+            CampaignQueueStore queueStore,
             CampaignMessagingService messageService,
             CampaignContactService campaignContactService,
-            ObjectMapper objectMapper,
+            CampaignQueueItemCodec itemCodec,
             @Qualifier("campaignConcurrencyLimiter") Semaphore concurrencyLimiter,
             @Qualifier("queueProcessingLimiter") Semaphore queueProcessingLimiter,
-            MeterRegistry meterRegistry) {
-        this.redisTemplate = redisTemplate;
+            MeterRegistry meterRegistry,
+            @Qualifier("scheduledExecutor") ScheduledExecutorService scheduledExecutor) {
+        this.queueStore = queueStore;
         this.messageService = messageService;
         this.campaignContactService = campaignContactService;
-        this.objectMapper = objectMapper;
+        this.itemCodec = itemCodec;
         this.concurrencyLimiter = concurrencyLimiter;
         this.queueProcessingLimiter = queueProcessingLimiter;
         this.meterRegistry = meterRegistry;
+        this.scheduledExecutor = scheduledExecutor;
     }
     
-    private static final String QUEUE_KEY = "rubia:campaign:queue";
-    private static final String PROCESSING_KEY = "rubia:campaign:processing";
-    private static final String ERROR_KEY = "rubia:campaign:error";
     private static final int BATCH_SIZE = 10;
+    private static final int RECOVERY_BATCH_SIZE = 500;
     private static final Duration PROCESSING_TIMEOUT = Duration.ofMinutes(5);
+    // Intervalo máximo sem consultar a fila, caso algum aviso de enfileiramento se perca
+    private static final long MAX_IDLE_MS = 30_000;
+    // Atraso do item devolvido por falta de slot, para que não gire entre fila e processamento
+    private static final long BACKPRESSURE_REQUEUE_DELAY_MS = 1_000;
     
     private final AtomicBoolean isProcessing = new AtomicBoolean(false);
-    private final Map<String, CompletableFuture<Boolean>> activeTasks = new ConcurrentHashMap<>();
+    private final AtomicBoolean waitingForPermits = new AtomicBoolean(false);
+    private final Object wakeUpLock = new Object();
+    private ScheduledFuture<?> nextWakeUp;
+    private long nextWakeUpAt = Long.MAX_VALUE;
+    // Tarefas em andamento neste nó, indexadas pelos bytes do item reivindicado na fila
+    private final Map<ByteBuffer, CompletableFuture<Boolean>> activeTasks = new ConcurrentHashMap<>();
     
     /**
      * Item da fila com timestamp para controle de timeout
@@ -113,7 +125,35 @@ public class CampaignQueueProcessor {
         public void setProcessingStartedAt(long processingStartedAt) { this.processingStartedAt = processingStartedAt; }
     }
     
-    @Scheduled(fixedRate = 5000) // A cada 5 segundos
+    @EventListener(ApplicationReadyEvent.class)
+    public void startPolling() {
+        migrateLegacyProcessingList();
+        scheduleWakeUp(System.currentTimeMillis());
+    }
+    
+    /**
+     * Itens reivindicados pela versão anterior ficavam numa LIST que o protocolo de lease não enxerga
+     */
+    void migrateLegacyProcessingList() {
+        try {
+            long moved = queueStore.drainLegacyProcessingList();
+            if (moved > 0) {
+                log.info("Migrados {} itens da lista de processamento antiga para a fila", moved);
+                meterRegistry.counter("campaign.queue.legacy.migrated").increment(moved);
+            }
+        } catch (Exception e) {
+            // A próxima subida tenta de novo; a fila nova segue funcionando
+            log.error("Falha ao migrar a lista de processamento antiga: {}", e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Chamado quando outro componente (ou outro nó) enfileira itens com o score informado
+     */
+    public void onItemsEnqueued(long earliestScore) {
+        scheduleWakeUp(earliestScore);
+    }
+    
     public void processCampaignQueue() {
         if (!isProcessing.compareAndSet(false, true)) {
             log.debug("Processamento já em andamento");
@@ -121,13 +161,14 @@ public class CampaignQueueProcessor {
         }
         
         try {
-            processNextBatch();
+            drainDueItems();
         } finally {
             isProcessing.set(false);
+            scheduleNextWakeUp();
         }
     }
     
-    private void processNextBatch() {
+    private void drainDueItems() {
         // Verifica se pode processar mais itens
         if (!queueProcessingLimiter.tryAcquire()) {
             log.debug("Sistema ocupado, aguardando próximo ciclo");
@@ -135,146 +176,177 @@ public class CampaignQueueProcessor {
         }
         
         try {
-            // Verifica quantos slots estão disponíveis
-            int availablePermits = concurrencyLimiter.availablePermits();
-            if (availablePermits == 0) {
-                log.warn("Sistema no limite de concorrência, aguardando slots disponíveis");
-                return;
-            }
-            
-            // Processa no máximo BATCH_SIZE itens ou quantos permits estiverem disponíveis
-            int itemsToProcess = Math.min(BATCH_SIZE, availablePermits);
-            
-            List<String> queueItems = popItemsFromQueue(itemsToProcess);
-            if (queueItems.isEmpty()) {
-                return;
+            int processed = 0;
+            
+            // Drena todos os itens vencidos em uma única passada, em lotes de até BATCH_SIZE
+            while (true) {
+                int availablePermits = concurrencyLimiter.availablePermits();
+                if (availablePermits == 0) {
+                    // Marca a espera antes de conferir de novo: uma liberação entre a leitura
+                    // e a marcação seria perdida e a drenagem só voltaria no ciclo de fallback
+                    waitingForPermits.set(true);
+                    availablePermits = concurrencyLimiter.availablePermits();
+                    if (availablePermits == 0 || !waitingForPermits.compareAndSet(true, false)) {
+                        log.warn("Sistema no limite de concorrência, aguardando slots disponíveis");
+                        break;
+                    }
+                }
+                
+                int itemsToProcess = Math.min(BATCH_SIZE, availablePermits);
+                List<byte[]> queueItems = claimItemsFromQueue(itemsToProcess);
+                if (queueItems.isEmpty()) {
+                    break;
+                }
+                
+                log.info("📦 Processando lote de {} itens da fila", queueItems.size());
+                
+                for (byte[] payload : queueItems) {
+                    processItemWithBackpressure(payload);
+                }
+                processed += queueItems.size();
+                
+                // Lote incompleto: não há mais itens vencidos
+                if (queueItems.size() < itemsToProcess) {
+                    break;
+                }
             }
             
-            log.info("📦 Processando lote de {} itens da fila", queueItems.size());
-            
-            for (String itemJson : queueItems) {
-                processItemWithBackpressure(itemJson);
+            if (processed > 0) {
+                updateMetrics();
             }
             
-            updateMetrics();
-            
         } finally {
             queueProcessingLimiter.release();
         }
     }
     
-    private List<String> popItemsFromQueue(int count) {
-        List<String> items = new ArrayList<>();
+    /**
+     * Agenda o próximo ciclo para o vencimento do primeiro item da fila
+     */
+    private void scheduleNextWakeUp() {
+        long now = System.currentTimeMillis();
+        if (waitingForPermits.get()) {
+            // Será acordado quando uma tarefa em andamento liberar um slot; agenda só o fallback
+            scheduleWakeUp(now + MAX_IDLE_MS);
+            return;
+        }
         
         try {
-            // Pop atômico usando pipeline para performance
-            List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
-                for (int i = 0; i < count; i++) {
-                    connection.zSetCommands().zPopMin(QUEUE_KEY.getBytes());
-                }
-                return null;
-            });
-            
-            for (Object result : results) {
-                if (result != null) {
-                    String itemJson = extractJsonFromTuple(result);
-                    if (itemJson != null) {
-                        items.add(itemJson);
-                        // Move para lista de processamento para rastreamento
-                        redisTemplate.opsForList().rightPush(PROCESSING_KEY, itemJson);
-                    }
-                }
-            }
-            
+            long dueAt = queueStore.nextDueAt().orElse(now + MAX_IDLE_MS);
+            scheduleWakeUp(dueAt);
         } catch (Exception e) {
-            log.error("Erro ao extrair itens da fila: {}", e.getMessage(), e);
+            log.warn("Erro ao consultar próximo item da fila: {}", e.getMessage());
+            scheduleWakeUp(now + MAX_IDLE_MS);
         }
-        
-        return items;
     }
     
-    private String extractJsonFromTuple(Object result) {
-        if (result instanceof TypedTuple) {
-            TypedTuple<?> tuple = (TypedTuple<?>) result;
-            Object value = tuple.getValue();
-            return value != null ? value.toString() : null;
-        } else if (result.getClass().getSimpleName().equals("DefaultTuple")) {
-            // Handle DefaultTuple using reflection since it implements TypedTuple but instanceof fails
+    /**
+     * Antecipa o próximo ciclo para {@code wakeUpAt}, caso seja antes do ciclo já agendado
+     */
+    private void scheduleWakeUp(long wakeUpAt) {
+        long now = System.currentTimeMillis();
+        long target = Math.min(Math.max(wakeUpAt, now), now + MAX_IDLE_MS);
+        
+        synchronized (wakeUpLock) {
+            boolean pending = nextWakeUp != null && !nextWakeUp.isDone();
+            if (pending && nextWakeUpAt <= target) {
+                return;
+            }
+            if (pending) {
+                nextWakeUp.cancel(false);
+            }
+            
             try {
-                java.lang.reflect.Method getValueMethod = result.getClass().getMethod("getValue");
-                Object value = getValueMethod.invoke(result);
-                if (value instanceof byte[]) {
-                    return new String((byte[]) value, java.nio.charset.StandardCharsets.UTF_8);
-                } else if (value != null) {
-                    return value.toString();
-                }
+                nextWakeUp = scheduledExecutor.schedule(
+                    this::processCampaignQueue, target - now, TimeUnit.MILLISECONDS);
+                nextWakeUpAt = target;
             } catch (Exception e) {
-                log.warn("Failed to extract value from DefaultTuple: {}", e.getMessage());
+                log.warn("Não foi possível agendar o próximo ciclo da fila: {}", e.getMessage());
+                nextWakeUp = null;
+                nextWakeUpAt = Long.MAX_VALUE;
             }
         }
-        return result.toString();
     }
     
-    private void processItemWithBackpressure(String itemJson) {
+    private List<byte[]> claimItemsFromQueue(int count) {
+        try {
+            // Claim atômico no Redis: só retira itens vencidos e já registra o lease
+            return queueStore.claimDueItems(count, PROCESSING_TIMEOUT);
+        } catch (Exception e) {
+            log.error("Erro ao extrair itens da fila: {}", e.getMessage(), e);
+            return List.of();
+        }
+    }
+    
+    private void processItemWithBackpressure(byte[] payload) {
         try {
             // Tenta adquirir permissão (não bloqueia)
             if (!concurrencyLimiter.tryAcquire()) {
-                // Se não conseguir, devolve para a fila com timestamp atual
-                long score = System.currentTimeMillis();
-                redisTemplate.opsForZSet().add(QUEUE_KEY, itemJson, score);
+                // Se não conseguir, devolve para a fila um pouco à frente para não ser
+                // reivindicado de novo no mesmo ciclo; a liberação de um slot retoma a drenagem
+                waitingForPermits.set(true);
+                queueStore.requeue(payload, System.currentTimeMillis() + BACKPRESSURE_REQUEUE_DELAY_MS);
                 log.warn("⏸️ Sistema sobrecarregado, devolvendo item para a fila");
                 return;
             }
             
-            // Tenta desserializar o item para garantir que não haja aspas extras
-            // A string do Redis pode vir com aspas extras, o que causa o erro do Jackson
-            String cleanJson;
+            CampaignQueueItem item;
             try {
-                // Desserializa a string JSON aninhada se necessário
-                cleanJson = objectMapper.readValue(itemJson, String.class);
+                item = itemCodec.decode(payload);
             } catch (Exception e) {
-                // Se falhar, assume que já é um JSON limpo
-                cleanJson = itemJson;
+                log.error("❌ Item da fila ilegível ({} bytes): {}", payload.length, e.getMessage());
+                concurrencyLimiter.release();
+                handleProcessingError(payload, e);
+                return;
             }
             
-            String taskId = UUID.randomUUID().toString();
-            
-            // Parse do item da fila para extrair o CampaignContact
-            CompletableFuture<Boolean> future = processQueueItem(cleanJson)
+            // Registrada antes do processamento: um item que conclui na hora (contato ausente, já enviado)
+            // roda o callback abaixo ainda nesta thread e já precisa encontrar a entrada para removê-la
+            ByteBuffer taskKey = ByteBuffer.wrap(payload);
+            CompletableFuture<Boolean> task = new CompletableFuture<>();
+            activeTasks.put(taskKey, task);
+            processQueueItem(item)
                 .whenComplete((result, throwable) -> {
                     try {
-                        if (throwable != null) {
+                        CampaignSendDeferredException deferred = CampaignSendDeferredException.findIn(throwable);
+                        if (deferred != null) {
+                            handleDeferral(payload, deferred);
+                        } else if (throwable != null) {
                             log.error("❌ Erro ao processar item: {}", throwable.getMessage());
-                            handleProcessingError(itemJson, throwable);
+                            handleProcessingError(payload, throwable);
                         } else if (result != null && result) {
                             log.debug("✅ Processamento concluído com sucesso");
-                            removeFromProcessingList(itemJson);
+                            queueStore.ack(payload);
                         } else {
                             log.warn("⚠️ Processamento falhou");
-                            handleProcessingError(itemJson, new RuntimeException("Processing failed"));
+                            handleProcessingError(payload, new RuntimeException("Processing failed"));
                         }
                     } finally {
                         concurrencyLimiter.release();
-                        activeTasks.remove(taskId);
+                        activeTasks.remove(taskKey, task);
+                        // Slot liberado: retoma a drenagem se ela parou por falta de slots
+                        if (waitingForPermits.compareAndSet(true, false)) {
+                            scheduleWakeUp(System.currentTimeMillis());
+                        }
+                        if (throwable != null) {
+                            task.completeExceptionally(throwable);
+                        } else {
+                            task.complete(result);
+                        }
                     }
                 });
             
-            activeTasks.put(taskId, future);
-            
         } catch (Exception e) {
             log.error("Erro ao processar item da fila", e);
+            activeTasks.remove(ByteBuffer.wrap(payload));
             concurrencyLimiter.release();
-            handleProcessingError(itemJson, e);
+            handleProcessingError(payload, e);
         }
     }
     
-    @Transactional
-    public CompletableFuture<Boolean> processQueueItem(String itemJson) {
+    public CompletableFuture<Boolean> processQueueItem(CampaignQueueItem item) {
         try {
-            log.debug("🔄 Processando item da fila: {}", itemJson);
-            
-            // Parse do JSON para extrair informações do contato
-            CampaignQueueItem item = objectMapper.readValue(itemJson, CampaignQueueItem.class);
+            log.debug("🔄 Processando item da fila: contato {}", item.getCampaignContactId());
             
             // Buscar o CampaignContact no banco de dados com todas as relações carregadas (eager loading)
             Optional<CampaignContact> optionalContact = campaignContactService.findByIdWithRelations(item.getCampaignContactId());
@@ -300,7 +372,9 @@ public class CampaignQueueProcessor {
             // Este método já implementa CompletableFuture + retry não bloqueante
             return messageService.sendSingleMessageAsync(contact)
                 .whenComplete((result, throwable) -> {
-                    if (throwable != null) {
+                    if (CampaignSendDeferredException.findIn(throwable) != null) {
+                        log.debug("🚦 Envio para contato {} adiado pelo limite da instância", contact.getId());
+                    } else if (throwable != null) {
                         log.error("❌ Erro ao processar contato {}: {}", contact.getId(), throwable.getMessage());
                         meterRegistry.counter("campaign.processing.errors", 
                                 "error", throwable.getClass().getSimpleName()).increment();
@@ -321,13 +395,19 @@ public class CampaignQueueProcessor {
         }
     }
     
-    private void removeFromProcessingList(String itemJson) {
-        redisTemplate.opsForList().remove(PROCESSING_KEY, 1, itemJson);
+    /**
+     * Reagenda o item para quando a instância WhatsApp voltar a ter capacidade de envio
+     */
+    private void handleDeferral(byte[] payload, CampaignSendDeferredException deferred) {
+        long retryAt = System.currentTimeMillis() + deferred.getRetryAfterMs();
+        queueStore.requeue(payload, retryAt);
+        meterRegistry.counter("campaign.processing.deferred").increment();
+        log.debug("🚦 Item reagendado em {}ms por rate limit da instância", deferred.getRetryAfterMs());
+        scheduleWakeUp(retryAt);
     }
     
-    private void handleProcessingError(String itemJson, Throwable error) {
-        removeFromProcessingList(itemJson);
-        redisTemplate.opsForList().rightPush(ERROR_KEY, itemJson);
+    private void handleProcessingError(byte[] payload, Throwable error) {
+        queueStore.deadLetter(payload);
         
         String errorType = error != null ? error.getClass().getSimpleName() : "UnknownError";
         meterRegistry.counter("campaign.processing.errors", "error", errorType).increment();
@@ -335,13 +415,9 @@ public class CampaignQueueProcessor {
     
     private void updateMetrics() {
         try {
-            Long queueSize = redisTemplate.opsForZSet().count(QUEUE_KEY, 0, Double.MAX_VALUE);
-            Long processingSize = redisTemplate.opsForList().size(PROCESSING_KEY);
-            Long errorSize = redisTemplate.opsForList().size(ERROR_KEY);
-            
-            meterRegistry.gauge("campaign.queue.size", queueSize != null ? queueSize : 0);
-            meterRegistry.gauge("campaign.processing.size", processingSize != null ? processingSize : 0);
-            meterRegistry.gauge("campaign.error.size", errorSize != null ? errorSize : 0);
+            meterRegistry.gauge("campaign.queue.size", queueStore.queueSize());
+            meterRegistry.gauge("campaign.processing.size", queueStore.processingSize());
+            meterRegistry.gauge("campaign.error.size", queueStore.errorSize());
             meterRegistry.gauge("campaign.active.tasks", activeTasks.size());
             meterRegistry.gauge("campaign.concurrency.available", concurrencyLimiter.availablePermits());
             meterRegistry.gauge("campaign.concurrency.used", 50 - concurrencyLimiter.availablePermits());
@@ -356,30 +432,13 @@ public class CampaignQueueProcessor {
         try {
             log.debug("🔄 Verificando mensagens travadas...");
             
-            // Recupera mensagens que estão em processamento há muito tempo
-            List<Object> processingItems = redisTemplate.opsForList().range(PROCESSING_KEY, 0, -1);
-            if (processingItems == null || processingItems.isEmpty()) {
-                return;
-            }
-            
-            int recoveredCount = 0;
-            long currentTime = System.currentTimeMillis();
-            
-            for (Object item : processingItems) {
-                String itemJson = extractJsonFromTuple(item);
-                if (itemJson != null && isStuckWithTimeout(item, currentTime)) {
-                    log.warn("🔄 Recuperando mensagem travada: {}", itemJson.substring(0, Math.min(100, itemJson.length())));
-                    removeFromProcessingList(itemJson);
-                    
-                    // Re-adiciona à fila com timestamp atual para reprocessamento imediato
-                    redisTemplate.opsForZSet().add(QUEUE_KEY, itemJson, currentTime);
-                    recoveredCount++;
-                }
-            }
+            // Itens cujo lease expirou voltam para a fila para reprocessamento imediato
+            long recoveredCount = queueStore.reclaimExpired(RECOVERY_BATCH_SIZE);
             
             if (recoveredCount > 0) {
                 log.info("🔄 Recuperadas {} mensagens travadas", recoveredCount);
                 meterRegistry.counter("campaign.recovery.messages").increment(recoveredCount);
+                scheduleWakeUp(System.currentTimeMillis());
             }
             
             // Limpa tarefas ativas órfãs (sem correspondência na fila de processamento)
@@ -390,56 +449,6 @@ public class CampaignQueueProcessor {
         }
     }
     
-    /**
-     * Verifica se um item está travado com base em timeout
-     */
-    private boolean isStuckWithTimeout(Object item, long currentTime) {
-        try {
-            String itemJson = item.toString();
-            
-            // Tentar parse do item para verificar timestamp real
-            if (itemJson.contains("\"processingStartedAt\"")) {
-                try {
-                    CampaignQueueItem queueItem = objectMapper.readValue(itemJson, CampaignQueueItem.class);
-                    long processingStartTime = queueItem.getProcessingStartedAt();
-                    long processingDuration = currentTime - processingStartTime;
-                    
-                    // Considera travado se está processando há mais de 5 minutos
-                    boolean isStuck = processingDuration > PROCESSING_TIMEOUT.toMillis();
-                    
-                    if (isStuck) {
-                        log.warn("⏰ Item travado detectado: processando há {}ms (limite: {}ms)", 
-                                processingDuration, PROCESSING_TIMEOUT.toMillis());
-                    }
-                    
-                    return isStuck;
-                    
-                } catch (Exception parseException) {
-                    log.debug("Erro ao fazer parse do item para verificar timeout: {}", parseException.getMessage());
-                }
-            }
-            
-            // Fallback: Heurística baseada na discrepância entre itens em processamento e tarefas ativas
-            Long processingCount = redisTemplate.opsForList().size(PROCESSING_KEY);
-            int activeTaskCount = activeTasks.size();
-            
-            // Se há muito mais itens em processamento que tarefas ativas, há problema
-            boolean stuck = processingCount != null && processingCount > activeTaskCount + 10;
-            
-            if (stuck) {
-                log.warn("⚠️ Possível travamento detectado: {} itens processando, {} tarefas ativas", 
-                        processingCount, activeTaskCount);
-            }
-            
-            return stuck;
-            
-        } catch (Exception e) {
-            log.warn("Erro ao verificar timeout do item: {}", e.getMessage());
-            return true; // Em caso de erro, considera travado para recuperar
-        }
-    }
-    
-    
     /**
      * Remove tarefas ativas órfãs que perderam conexão com a fila
      */
@@ -469,30 +478,17 @@ public class CampaignQueueProcessor {
     }
     
     
-    /**
-     * Verifica se o processamento está demorando demais baseado em heurística
-     */
-    private boolean isProcessingTooLong() {
-        // Verifica se há tarefas ativas há muito tempo
-        if (activeTasks.isEmpty()) {
-            return false;
-        }
-        
-        // Se há muitas tarefas ativas por muito tempo, pode indicar travamento
-        Long processingCount = redisTemplate.opsForList().size(PROCESSING_KEY);
-        int activeTaskCount = activeTasks.size();
-        
-        // Heurística: se há mais de 20 itens em processamento e mais de 10 tarefas ativas
-        // há mais de 5 minutos, considera travamento
-        return processingCount != null && processingCount > 20 && activeTaskCount > 10;
-    }
-    
     @PreDestroy
     public void shutdown() {
         log.info("🔄 Iniciando shutdown graceful do processador de campanhas...");
         
         // Para o processamento de novos itens
         isProcessing.set(true);
+        synchronized (wakeUpLock) {
+            if (nextWakeUp != null) {
+                nextWakeUp.cancel(false);
+            }
+        }
         
         try {
             // Libera todos os permits do queue processing para evitar novos processamentos
@@ -543,25 +539,23 @@ public class CampaignQueueProcessor {
     }
     
     /**
-     * Move itens que estavam sendo processados de volta para a fila principal
+     * Move itens que estavam sendo processados neste nó de volta para a fila principal
      */
     private void moveProcessingItemsBackToQueue() {
         try {
-            List<Object> processingItems = redisTemplate.opsForList().range(PROCESSING_KEY, 0, -1);
-            if (processingItems != null && !processingItems.isEmpty()) {
-                log.info("🔄 Movendo {} itens de volta para a fila principal", processingItems.size());
-                
-                long currentTime = System.currentTimeMillis();
-                for (Object item : processingItems) {
-                    // Remove da fila de processamento
-                    redisTemplate.opsForList().remove(PROCESSING_KEY, 1, item);
-                    
-                    // Adiciona de volta à fila principal com prioridade (timestamp atual)
-                    redisTemplate.opsForZSet().add(QUEUE_KEY, item.toString(), currentTime);
+            long currentTime = System.currentTimeMillis();
+            int movedBack = 0;
+            
+            // Só devolve leases ainda ativos; itens já confirmados são ignorados pelo script
+            for (ByteBuffer item : activeTasks.keySet()) {
+                if (queueStore.requeue(item.array(), currentTime)) {
+                    movedBack++;
                 }
-                
-                log.info("✅ {} itens movidos de volta para processamento futuro", processingItems.size());
-                meterRegistry.counter("campaign.shutdown.moved_back").increment(processingItems.size());
+            }
+            
+            if (movedBack > 0) {
+                log.info("✅ {} itens movidos de volta para processamento futuro", movedBack);
+                meterRegistry.counter("campaign.shutdown.moved_back").increment(movedBack);
             }
             
         } catch (Exception e) {
@@ -574,13 +568,13 @@ public class CampaignQueueProcessor {
      */
     private void logFinalStatistics() {
         try {
-            Long queueSize = redisTemplate.opsForZSet().count(QUEUE_KEY, 0, Double.MAX_VALUE);
-            Long errorSize = redisTemplate.opsForList().size(ERROR_KEY);
+            long queueSize = queueStore.queueSize();
+            long errorSize = queueStore.errorSize();
             int availableConcurrency = concurrencyLimiter.availablePermits();
             
             log.info("📊 Estatísticas finais do processador:");
-            log.info("   • Itens na fila principal: {}", queueSize != null ? queueSize : 0);
-            log.info("   • Itens com erro: {}", errorSize != null ? errorSize : 0);
+            log.info("   • Itens na fila principal: {}", queueSize);
+            log.info("   • Itens com erro: {}", errorSize);
             log.info("   • Slots de concorrência disponíveis: {}/50", availableConcurrency);
             log.info("   • Tarefas ativas restantes: {}", activeTasks.size());
             
@@ -596,15 +590,11 @@ public class CampaignQueueProcessor {
         Map<String, Object> status = new ConcurrentHashMap<>();
         
         try {
-            Long queueSize = redisTemplate.opsForZSet().count(QUEUE_KEY, 0, Double.MAX_VALUE);
-            Long processingSize = redisTemplate.opsForList().size(PROCESSING_KEY);
-            Long errorSize = redisTemplate.opsForList().size(ERROR_KEY);
-            
             status.put("isProcessing", isProcessing.get());
             status.put("activeTasks", activeTasks.size());
-            status.put("queueSize", queueSize != null ? queueSize : 0);
-            status.put("processingSize", processingSize != null ? processingSize : 0);
-            status.put("errorSize", errorSize != null ? errorSize : 0);
+            status.put("queueSize", queueStore.queueSize());
+            status.put("processingSize", queueStore.processingSize());
+            status.put("errorSize", queueStore.errorSize());
             status.put("availableConcurrency", concurrencyLimiter.availablePermits());
             status.put("maxConcurrency", 50);
             status.put("canProcessQueue", queueProcessingLimiter.availablePermits() > 0);
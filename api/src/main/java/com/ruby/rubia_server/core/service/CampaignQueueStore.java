@@ -0,0 +1,232 @@
+package com.ruby.rubia_server.core.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Protocolo de claim/ack da fila de campanhas no Redis.
+ *
+ * Os itens são reivindicados por um script Lua que move atomicamente apenas os itens
+ * vencidos (score <= agora) da fila para um ZSET de processamento, cujo score é o prazo
+ * do lease. Ack e nack removem o item desse ZSET em O(log n); leases expirados voltam
+ * para a fila em {@link #reclaimExpired(int)}.
+ *
+ * As chaves auxiliares usam a hash tag {rubia:campaign:queue} para cair no mesmo slot
+ * da fila principal, permitindo executar os scripts em Redis Cluster.
+ *
+ * Quem enfileira itens publica o menor score em {@link #ENQUEUE_CHANNEL}, para que os
+ * processadores acordem antes do próximo vencimento agendado.
+ *
+ * Os membros são os bytes produzidos por {@link CampaignQueueItemCodec}, gravados sem
+ * nenhuma serialização adicional.
+ */
+@Component
+@Slf4j
+public class CampaignQueueStore {
+
+    public static final String QUEUE_KEY = "rubia:campaign:queue";
+    public static final String PROCESSING_KEY = "{rubia:campaign:queue}:processing";
+    public static final String ERROR_KEY = "{rubia:campaign:queue}:error";
+    public static final String ENQUEUE_CHANNEL = "rubia:campaign:queue:enqueued";
+
+    /**
+     * LIST de processamento da versão anterior da fila, sem lease; drenada uma vez na subida
+     */
+    public static final String LEGACY_PROCESSING_KEY = "rubia:campaign:processing";
+
+    /**
+     * Quantidade máxima de membros enviados em um único ZADD
+     */
+    public static final int ENQUEUE_CHUNK_SIZE = 1000;
+
+    private static final RedisScript<List> CLAIM_SCRIPT = loadScript("redis/campaign-queue-claim.lua", List.class);
+    private static final RedisScript<Long> NACK_SCRIPT = loadScript("redis/campaign-queue-nack.lua", Long.class);
+    private static final RedisScript<Long> RECLAIM_SCRIPT = loadScript("redis/campaign-queue-reclaim.lua", Long.class);
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+
+    public CampaignQueueStore(@Qualifier("campaignQueueRedisTemplate") RedisTemplate<String, byte[]> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    private static <T> RedisScript<T> loadScript(String path, Class<T> resultType) {
+        DefaultRedisScript<T> script = new DefaultRedisScript<>();
+        script.setScriptSource(new ResourceScriptSource(new ClassPathResource(path)));
+        script.setResultType(resultType);
+        return script;
+    }
+
+    /**
+     * Enfileira os itens com scores crescentes a partir de {@code firstScore}, espaçados por
+     * {@code spacingMs}. Cada bloco de até {@link #ENQUEUE_CHUNK_SIZE} itens é gravado com um
+     * único ZADD, e os processadores são avisados uma vez ao final.
+     */
+    public long enqueueAll(List<byte[]> items, long firstScore, long spacingMs) {
+        if (items.isEmpty()) {
+            return 0L;
+        }
+
+        long added = 0;
+        for (int start = 0; start < items.size(); start += ENQUEUE_CHUNK_SIZE) {
+            int end = Math.min(start + ENQUEUE_CHUNK_SIZE, items.size());
+            Set<TypedTuple<byte[]>> tuples = new LinkedHashSet<>(end - start);
+            for (int i = start; i < end; i++) {
+                tuples.add(new DefaultTypedTuple<>(items.get(i), (double) (firstScore + i * spacingMs)));
+            }
+            Long count = redisTemplate.opsForZSet().add(QUEUE_KEY, tuples);
+            added += count != null ? count : 0L;
+        }
+
+        publishEnqueued(firstScore);
+        return added;
+    }
+
+    /**
+     * Reivindica até {@code limit} itens vencidos, registrando um lease com a duração informada
+     */
+    @SuppressWarnings("unchecked")
+    public List<byte[]> claimDueItems(int limit, Duration leaseDuration) {
+        long now = System.currentTimeMillis();
+        List<byte[]> items = redisTemplate.execute(
+            CLAIM_SCRIPT,
+            List.of(QUEUE_KEY, PROCESSING_KEY),
+            arg(now),
+            arg(now + leaseDuration.toMillis()),
+            arg(limit)
+        );
+        return items != null ? items : Collections.emptyList();
+    }
+
+    /**
+     * Confirma o processamento de um item, removendo seu lease
+     */
+    public boolean ack(byte[] item) {
+        Long removed = redisTemplate.opsForZSet().remove(PROCESSING_KEY, item);
+        return removed != null && removed > 0;
+    }
+
+    /**
+     * Devolve um item em processamento para a fila com o score informado
+     */
+    public boolean requeue(byte[] item, long score) {
+        Long moved = redisTemplate.execute(
+            NACK_SCRIPT,
+            List.of(PROCESSING_KEY, QUEUE_KEY),
+            item, arg("requeue"), arg(score)
+        );
+        return moved != null && moved > 0;
+    }
+
+    /**
+     * Move um item em processamento para a lista de erros
+     */
+    public boolean deadLetter(byte[] item) {
+        Long moved = redisTemplate.execute(
+            NACK_SCRIPT,
+            List.of(PROCESSING_KEY, ERROR_KEY),
+            item, arg("dead-letter"), arg("")
+        );
+        return moved != null && moved > 0;
+    }
+
+    /**
+     * Devolve à fila até {@code limit} itens cujo lease expirou
+     */
+    public long reclaimExpired(int limit) {
+        Long reclaimed = redisTemplate.execute(
+            RECLAIM_SCRIPT,
+            List.of(PROCESSING_KEY, QUEUE_KEY),
+            arg(System.currentTimeMillis()),
+            arg(limit)
+        );
+        return reclaimed != null ? reclaimed : 0L;
+    }
+
+    /**
+     * Devolve à fila, vencidos agora, os itens que ficaram na LIST de processamento da versão
+     * anterior. Cada bloco é removido com LPOP antes do ZADD, de modo que dois nós subindo ao
+     * mesmo tempo nunca movem o mesmo item; os membros mantêm o JSON antigo, que o codec lê.
+     */
+    public long drainLegacyProcessingList() {
+        long moved = 0;
+        long now = System.currentTimeMillis();
+        List<byte[]> items;
+        while ((items = redisTemplate.opsForList().leftPop(LEGACY_PROCESSING_KEY, ENQUEUE_CHUNK_SIZE)) != null
+                && !items.isEmpty()) {
+            Set<TypedTuple<byte[]>> tuples = new LinkedHashSet<>(items.size());
+            for (byte[] item : items) {
+                tuples.add(new DefaultTypedTuple<>(item, (double) now));
+            }
+            Long count = redisTemplate.opsForZSet().add(QUEUE_KEY, tuples);
+            moved += count != null ? count : 0L;
+        }
+
+        if (moved > 0) {
+            publishEnqueued(now);
+        }
+        return moved;
+    }
+
+    /**
+     * Retorna o horário agendado (ms) do próximo item da fila, se houver
+     */
+    public Optional<Long> nextDueAt() {
+        Set<TypedTuple<byte[]>> head = redisTemplate.opsForZSet().rangeWithScores(QUEUE_KEY, 0, 0);
+        if (head == null || head.isEmpty()) {
+            return Optional.empty();
+        }
+        Double score = head.iterator().next().getScore();
+        return score != null ? Optional.of(score.longValue()) : Optional.empty();
+    }
+
+    /**
+     * Avisa os processadores de que há itens agendados a partir de {@code earliestScore}
+     */
+    public void publishEnqueued(long earliestScore) {
+        try {
+            redisTemplate.convertAndSend(ENQUEUE_CHANNEL, arg(earliestScore));
+        } catch (Exception e) {
+            // O aviso é apenas uma otimização de latência; o processador acorda sozinho
+            log.warn("Falha ao publicar aviso de enfileiramento: {}", e.getMessage());
+        }
+    }
+
+    public long queueSize() {
+        Long size = redisTemplate.opsForZSet().zCard(QUEUE_KEY);
+        return size != null ? size : 0L;
+    }
+
+    public long processingSize() {
+        Long size = redisTemplate.opsForZSet().zCard(PROCESSING_KEY);
+        return size != null ? size : 0L;
+    }
+
+    public long errorSize() {
+        Long size = redisTemplate.opsForList().size(ERROR_KEY);
+        return size != null ? size : 0L;
+    }
+
+    private static byte[] arg(long value) {
+        return arg(String.valueOf(value));
+    }
+
+    private static byte[] arg(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -3,6 +3,7 @@ package com.ruby.rubia_server.core.service;
 import com.ruby.rubia_server.core.entity.ChatLidMapping;
 import com.ruby.rubia_server.core.entity.Conversation;
 import com.ruby.rubia_server.core.repository.ChatLidMappingRepository;
+import com.ruby.rubia_server.core.util.TransactionCallbacks;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -26,6 +27,7 @@ public class ChatLidMappingService {
     private final ChatLidMappingRepository repository;
     private final ConversationService conversationService;
     private final PhoneService phoneService;
+    private final ChatLidRoutingCache routingCache;
 
     /**
      * Encontra ou cria mapping para webhook do WhatsApp
@@ -102,6 +104,7 @@ public class ChatLidMappingService {
             .build();
 
         ChatLidMapping saved = repository.save(campaignMapping);
+        TransactionCallbacks.afterCommit(() -> routingCache.onCampaignMappingCreated(companyId, phone, conversationId));
         log.info("📊 Mapping de campanha criado: conversationId={}", saved.getConversationId());
 
         return saved;
@@ -125,6 +128,7 @@ public class ChatLidMappingService {
             .build();
 
         ChatLidMapping saved = repository.save(campaignMapping);
+        TransactionCallbacks.afterCommit(() -> routingCache.onCampaignMappingCreated(companyId, phone, conversationId));
         log.info("📊 Mapping de campanha criado: conversationId={}", saved.getConversationId());
 
         return saved;
@@ -141,6 +145,7 @@ public class ChatLidMappingService {
             .map(mapping -> {
                 mapping.setChatLid(chatLid);
                 ChatLidMapping updated = repository.save(mapping);
+                TransactionCallbacks.afterCommit(() -> routingCache.onChatLidMapped(chatLid, conversationId, updated.getCompanyId(), updated.getPhone()));
                 log.info("🔄 Mapping atualizado com chatLid: {}", chatLid);
                 return updated;
             });
@@ -176,6 +181,7 @@ public class ChatLidMappingService {
         int deleted = repository.deleteByCompanyIdAndCreatedAtBefore(companyId, cutoffDate);
         
         if (deleted > 0) {
+            afterCommit(routingCache::evictAll);
             log.info("🧹 Removidos {} mappings antigos da empresa {}", deleted, companyId);
         }
         
@@ -0,0 +1,191 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.core.util.BoundedTtlCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Cache de roteamento das mensagens recebidas: chatLid → conversa e (empresa, telefone) → conversa de campanha.
+ *
+ * Um chat já conhecido é roteado com uma busca em memória, sem a cadeia de consultas de mapping.
+ * ChatLidMappingService mantém o cache por write-through; as demais instâncias da aplicação recebem
+ * a invalidação por Redis pub/sub em {@link #INVALIDATE_CHANNEL} e recarregam do banco na próxima mensagem.
+ *
+ * Métricas: chatlid.routing.cache (tags cache e result) e chatlid.routing.cache.size.
+ */
+@Component
+@Slf4j
+public class ChatLidRoutingCache {
+
+    public static final String INVALIDATE_CHANNEL = "rubia:chatlid:routing:invalidate";
+
+    static final String KIND_CHAT_LID = "chatLid";
+    static final String KIND_PHONE = "phone";
+    static final String KIND_ALL = "all";
+
+    /** Sentinela para "telefone sem conversa de campanha", também cacheado */
+    private static final UUID NO_CONVERSATION = new UUID(0L, 0L);
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final BoundedTtlCache<String, Route> byChatLid;
+    private final BoundedTtlCache<String, UUID> byPhone;
+    private final StringRedisTemplate redisTemplate;
+    private final PhoneService phoneService;
+    private final MeterRegistry meterRegistry;
+
+    public ChatLidRoutingCache(
+            StringRedisTemplate redisTemplate,
+            PhoneService phoneService,
+            MeterRegistry meterRegistry,
+            @Value("${messaging.chatlid-routing-cache.max-size:50000}") int maxSize,
+            @Value("${messaging.chatlid-routing-cache.ttl:30m}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.phoneService = phoneService;
+        this.meterRegistry = meterRegistry;
+        this.byChatLid = new BoundedTtlCache<>(maxSize, ttl);
+        this.byPhone = new BoundedTtlCache<>(maxSize, ttl);
+
+        Gauge.builder("chatlid.routing.cache.size", byChatLid, BoundedTtlCache::size).tag("cache", "chatLid").register(meterRegistry);
+        Gauge.builder("chatlid.routing.cache.size", byPhone, BoundedTtlCache::size).tag("cache", "phone").register(meterRegistry);
+    }
+
+    public Optional<UUID> findConversationId(String chatLid) {
+        if (chatLid == null) {
+            return Optional.empty();
+        }
+        return record(KIND_CHAT_LID, byChatLid.get(chatLid).map(Route::conversationId));
+    }
+
+    public void putChatLid(String chatLid, UUID conversationId, UUID companyId, String phone) {
+        if (chatLid != null && conversationId != null) {
+            byChatLid.put(chatLid, new Route(conversationId, companyId, phoneService.normalize(phone)));
+        }
+    }
+
+    /**
+     * Conversa de campanha conhecida para o telefone.
+     *
+     * @return vazio quando não está em cache; Optional contendo vazio quando está em cache que não há conversa
+     */
+    public Optional<Optional<UUID>> findCampaignConversationId(UUID companyId, String phone) {
+        String key = phoneKey(companyId, phone);
+        if (key == null) {
+            return Optional.empty();
+        }
+        return record(KIND_PHONE, byPhone.get(key).map(id -> NO_CONVERSATION.equals(id) ? Optional.<UUID>empty() : Optional.of(id)));
+    }
+
+    public void putCampaignConversationId(UUID companyId, String phone, UUID conversationId) {
+        String key = phoneKey(companyId, phone);
+        if (key != null) {
+            byPhone.put(key, conversationId != null ? conversationId : NO_CONVERSATION);
+        }
+    }
+
+    /**
+     * Write-through de um mapping de campanha recém-criado. Rotas em cache do mesmo telefone que não
+     * vinham de um mapping gravado precisam ser recalculadas, então saem do cache aqui e nos demais nós.
+     */
+    public void onCampaignMappingCreated(UUID companyId, String phone, UUID conversationId) {
+        evictPhoneLocally(companyId, phone);
+        putCampaignConversationId(companyId, phone, conversationId);
+        publish(KIND_PHONE, companyId + "|" + phone);
+    }
+
+    /**
+     * Write-through de um chatLid associado a um mapping existente.
+     */
+    public void onChatLidMapped(String chatLid, UUID conversationId, UUID companyId, String phone) {
+        evictPhoneLocally(companyId, phone);
+        putChatLid(chatLid, conversationId, companyId, phone);
+        publish(KIND_CHAT_LID, chatLid);
+        publish(KIND_PHONE, companyId + "|" + phone);
+    }
+
+    public void evictChatLid(String chatLid) {
+        byChatLid.invalidate(chatLid);
+    }
+
+    public void evictAll() {
+        byChatLid.invalidateAll();
+        byPhone.invalidateAll();
+        publish(KIND_ALL, "");
+    }
+
+    /**
+     * Aplica uma invalidação publicada por outro nó. Mensagens do próprio nó são ignoradas,
+     * pois o write-through local já deixou o cache correto.
+     */
+    public void applyRemoteInvalidation(String body) {
+        String[] parts = body.split(" ", 3);
+        if (parts.length < 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+        String key = parts.length == 3 ? parts[2] : "";
+        switch (parts[1]) {
+            case KIND_CHAT_LID -> byChatLid.invalidate(key);
+            case KIND_PHONE -> {
+                String[] companyAndPhone = key.split("\\|", 2);
+                if (companyAndPhone.length == 2) {
+                    evictPhoneLocally(UUID.fromString(companyAndPhone[0]), companyAndPhone[1]);
+                }
+            }
+            case KIND_ALL -> {
+                byChatLid.invalidateAll();
+                byPhone.invalidateAll();
+            }
+            default -> log.warn("Invalidação de roteamento desconhecida: {}", body);
+        }
+    }
+
+    private void evictPhoneLocally(UUID companyId, String phone) {
+        if (companyId == null || phone == null) {
+            return;
+        }
+        Set<String> phones = Arrays.stream(phoneService.generatePhoneVariations(phone))
+            .filter(Objects::nonNull)
+            .map(phoneService::normalize)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        phones.add(phoneService.normalize(phone));
+
+        phones.forEach(normalized -> byPhone.invalidate(companyId + ":" + normalized));
+        byChatLid.invalidateIf((chatLid, route) ->
+            Objects.equals(route.companyId(), companyId) && phones.contains(route.phone()));
+    }
+
+    private void publish(String kind, String key) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATE_CHANNEL, nodeId + " " + kind + " " + key);
+        } catch (Exception e) {
+            // Sem Redis os demais nós convergem pelo TTL
+            log.warn("Falha ao publicar invalidação de roteamento: {}", e.getMessage());
+        }
+    }
+
+    private String phoneKey(UUID companyId, String phone) {
+        String normalized = phoneService.normalize(phone);
+        return companyId != null && normalized != null ? companyId + ":" + normalized : null;
+    }
+
+    private <T> Optional<T> record(String cache, Optional<T> result) {
+        meterRegistry.counter("chatlid.routing.cache", "cache", cache, "result", result.isPresent() ? "hit" : "miss").increment();
+        return result;
+    }
+
+    private record Route(UUID conversationId, UUID companyId, String phone) {
+    }
+}
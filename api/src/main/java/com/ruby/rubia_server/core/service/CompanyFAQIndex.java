@@ -0,0 +1,328 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.core.dto.FAQDTO;
+import com.ruby.rubia_server.core.dto.FAQMatchDTO;
+import com.ruby.rubia_server.core.util.AhoCorasickMatcher;
+import com.ruby.rubia_server.core.util.FloatVectors;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Índice imutável das FAQs ativas de uma empresa, usado por {@link FAQService#searchRelevantFAQs}.
+ *
+ * - triggers: autômato de Aho–Corasick, uma passada pela mensagem para todos os triggers;
+ * - keywords: postings keyword → FAQs;
+ * - pergunta: postings token → FAQs e o número de tokens de cada pergunta, para a pontuação parcial;
+ * - embeddings: vetores normalizados das perguntas numa única matriz contígua, varrida por força bruta
+ *   (top-k por produto escalar) na busca semântica.
+ *
+ * Alterações geram um novo índice a partir das FAQs já em memória ({@link #with}, {@link #without}),
+ * sem consultar o banco.
+ */
+final class CompanyFAQIndex {
+
+    static final double TRIGGER_SCORE = 0.95;
+    static final double KEYWORD_SCORE = 0.85;
+    static final double DEFAULT_MIN_PARTIAL_SCORE = 0.3;
+    static final String TRIGGER_MATCH = "exact_trigger";
+    static final String KEYWORD_MATCH = "exact_keyword";
+    static final String SEMANTIC_MATCH = "semantic_match";
+
+    // Stop words for better search matching
+    static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "has", "he", "in", "is", "it",
+        "its", "of", "on", "that", "the", "to", "was", "will", "with", "o", "e", "os", "do",
+        "da", "de", "para", "com", "em", "um", "uma", "que", "não", "é", "eu", "você", "ele", "ela"
+    );
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Map<UUID, FAQDTO> faqs;
+    private final AhoCorasickMatcher<UUID> triggers;
+    private final Map<String, List<UUID>> keywordPostings;
+    private final Map<String, List<UUID>> questionPostings;
+    private final Map<UUID, Integer> questionTokenCounts;
+    private final Map<UUID, float[]> embeddings;
+    private final UUID[] vectorIds;
+    private final float[] vectors;
+    private final int dimensions;
+
+    private CompanyFAQIndex(Map<UUID, FAQDTO> faqs, Map<UUID, float[]> embeddings) {
+        this.faqs = faqs;
+        this.embeddings = embeddings;
+
+        List<Map.Entry<String, UUID>> triggerPatterns = new ArrayList<>();
+        Map<String, List<UUID>> keywords = new HashMap<>();
+        Map<String, List<UUID>> questionTokens = new HashMap<>();
+        Map<UUID, Integer> tokenCounts = new HashMap<>();
+
+        for (FAQDTO faq : faqs.values()) {
+            for (String trigger : faq.getTriggers()) {
+                triggerPatterns.add(new AbstractMap.SimpleImmutableEntry<>(trigger.toLowerCase(), faq.getId()));
+            }
+            for (String keyword : faq.getKeywords()) {
+                keywords.computeIfAbsent(keyword.toLowerCase(), k -> new ArrayList<>(1)).add(faq.getId());
+            }
+            Set<String> tokens = tokenize(faq.getQuestion());
+            for (String token : tokens) {
+                questionTokens.computeIfAbsent(token, t -> new ArrayList<>(1)).add(faq.getId());
+            }
+            tokenCounts.put(faq.getId(), tokens.size());
+        }
+
+        this.triggers = AhoCorasickMatcher.build(triggerPatterns);
+        this.keywordPostings = keywords;
+        this.questionPostings = questionTokens;
+        this.questionTokenCounts = tokenCounts;
+
+        // Todos os vetores têm a dimensão do primeiro; um vetor de outro tamanho fica fora da busca semântica
+        int dims = embeddings.values().stream().findFirst().map(vector -> vector.length).orElse(0);
+        List<UUID> ids = new ArrayList<>(embeddings.size());
+        for (Map.Entry<UUID, float[]> entry : embeddings.entrySet()) {
+            if (entry.getValue().length == dims) {
+                ids.add(entry.getKey());
+            }
+        }
+        this.dimensions = dims;
+        this.vectorIds = ids.toArray(new UUID[0]);
+        this.vectors = new float[ids.size() * dims];
+        for (int i = 0; i < vectorIds.length; i++) {
+            System.arraycopy(embeddings.get(vectorIds[i]), 0, vectors, i * dims, dims);
+        }
+    }
+
+    static CompanyFAQIndex of(Collection<FAQDTO> activeFAQs) {
+        return of(activeFAQs, Collections.emptyMap());
+    }
+
+    /**
+     * @param questionEmbeddings embeddings normalizados das perguntas, por id da FAQ; FAQs sem embedding
+     *                           participam só da busca lexical
+     */
+    static CompanyFAQIndex of(Collection<FAQDTO> activeFAQs, Map<UUID, float[]> questionEmbeddings) {
+        Map<UUID, FAQDTO> faqs = new LinkedHashMap<>();
+        Map<UUID, float[]> embeddings = new LinkedHashMap<>();
+        for (FAQDTO faq : activeFAQs) {
+            if (Boolean.TRUE.equals(faq.getIsActive())) {
+                faqs.put(faq.getId(), snapshot(faq));
+                float[] embedding = questionEmbeddings.get(faq.getId());
+                if (embedding != null) {
+                    embeddings.put(faq.getId(), embedding);
+                }
+            }
+        }
+        return new CompanyFAQIndex(faqs, embeddings);
+    }
+
+    CompanyFAQIndex with(FAQDTO faq) {
+        return with(faq, null);
+    }
+
+    /**
+     * Novo índice com a FAQ incluída ou substituída; FAQs inativas saem do índice.
+     * Sem {@code questionEmbedding} a FAQ sai da busca semântica até ter um embedding.
+     */
+    CompanyFAQIndex with(FAQDTO faq, float[] questionEmbedding) {
+        if (!Boolean.TRUE.equals(faq.getIsActive())) {
+            return without(faq.getId());
+        }
+        Map<UUID, FAQDTO> updated = new LinkedHashMap<>(faqs);
+        updated.put(faq.getId(), snapshot(faq));
+        Map<UUID, float[]> updatedEmbeddings = new LinkedHashMap<>(embeddings);
+        if (questionEmbedding != null) {
+            updatedEmbeddings.put(faq.getId(), questionEmbedding);
+        } else {
+            updatedEmbeddings.remove(faq.getId());
+        }
+        return new CompanyFAQIndex(updated, updatedEmbeddings);
+    }
+
+    CompanyFAQIndex without(UUID faqId) {
+        if (!faqs.containsKey(faqId)) {
+            return this;
+        }
+        Map<UUID, FAQDTO> updated = new LinkedHashMap<>(faqs);
+        updated.remove(faqId);
+        Map<UUID, float[]> updatedEmbeddings = new LinkedHashMap<>(embeddings);
+        updatedEmbeddings.remove(faqId);
+        return new CompanyFAQIndex(updated, updatedEmbeddings);
+    }
+
+    int size() {
+        return faqs.size();
+    }
+
+    /**
+     * Se há FAQs na busca semântica; sem elas não vale a pena calcular o embedding da mensagem
+     */
+    boolean hasEmbeddings() {
+        return vectorIds.length > 0;
+    }
+
+    /**
+     * Mesma prioridade de antes: trigger contido na mensagem (0.95), keyword presente na mensagem (0.85)
+     * e, para as demais FAQs que compartilham tokens com a mensagem, a fração dos tokens da pergunta
+     * presentes na mensagem, se atingir {@code minPartialScore}.
+     *
+     * A pontuação parcial mudou em relação à busca no banco: antes uma palavra da pergunta contava se
+     * contivesse uma palavra da mensagem ou estivesse contida nela (substring, inclusive stop words da
+     * mensagem), e só entravam FAQs cujo texto contivesse a mensagem inteira (LIKE). Agora conta só o
+     * token idêntico, sem pontuação, e entra toda FAQ com algum token da pergunta em comum.
+     */
+    List<FAQMatchDTO> search(String userMessage, Double minPartialScore, Integer limit) {
+        return search(userMessage, null, minPartialScore, 1.0, limit);
+    }
+
+    /**
+     * Busca lexical acima mais a semântica: as FAQs que a busca lexical não achou e cuja pergunta tem
+     * similaridade de cosseno com {@code messageEmbedding} de pelo menos
+     * {@code max(minScore, minSimilarity)} entram com a similaridade como score ("semantic_match").
+     * {@code minScore} é o mínimo de confiança pedido por quem busca e vale também para o cosseno.
+     * Uma FAQ achada pelos dois caminhos fica com o match lexical, para que só ele decida se a resposta
+     * da FAQ pode ser usada diretamente ({@link #isDirectMatch}).
+     */
+    List<FAQMatchDTO> search(String userMessage, float[] messageEmbedding, Double minScore,
+                             double minSimilarity, Integer limit) {
+        String message = userMessage.toLowerCase().trim();
+        Map<UUID, FAQMatchDTO> results = new LinkedHashMap<>();
+
+        // 1. Exact trigger matches (highest priority)
+        triggers.forEachMatch(message, (trigger, faqId) ->
+                results.computeIfAbsent(faqId, id -> match(id, TRIGGER_SCORE, TRIGGER_MATCH, trigger)));
+
+        // 2. Exact keyword matches
+        Set<String> messageTokens = tokenize(message);
+        for (String token : messageTokens) {
+            for (UUID faqId : keywordPostings.getOrDefault(token, Collections.emptyList())) {
+                results.computeIfAbsent(faqId, id -> match(id, KEYWORD_SCORE, KEYWORD_MATCH, token));
+            }
+        }
+
+        // 3. Partial matches in question
+        Map<UUID, Integer> sharedTokens = new HashMap<>();
+        for (String token : messageTokens) {
+            for (UUID faqId : questionPostings.getOrDefault(token, Collections.emptyList())) {
+                sharedTokens.merge(faqId, 1, Integer::sum);
+            }
+        }
+        double minConfidence = minScore != null ? minScore : DEFAULT_MIN_PARTIAL_SCORE;
+        sharedTokens.forEach((faqId, shared) -> {
+            if (!results.containsKey(faqId)) {
+                double score = (double) shared / questionTokenCounts.get(faqId);
+                if (score >= minConfidence) {
+                    results.put(faqId, match(faqId, score, "partial_match", message));
+                }
+            }
+        });
+
+        // 4. Semantic matches
+        if (messageEmbedding != null && messageEmbedding.length == dimensions) {
+            int k = limit != null && limit > 0 ? Math.min(limit, vectorIds.length) : vectorIds.length;
+            int[] top = new int[k];
+            float[] topScores = new float[k];
+            int found = topSemantic(messageEmbedding, (float) Math.max(minConfidence, minSimilarity), top, topScores);
+            for (int i = 0; i < found; i++) {
+                UUID faqId = vectorIds[top[i]];
+                results.putIfAbsent(faqId, match(faqId, topScores[i], SEMANTIC_MATCH, message));
+            }
+        }
+
+        List<FAQMatchDTO> sorted = new ArrayList<>(results.values());
+        sorted.sort(Comparator.comparingDouble(FAQMatchDTO::getConfidenceScore).reversed());
+        if (limit != null && limit > 0 && sorted.size() > limit) {
+            return new ArrayList<>(sorted.subList(0, limit));
+        }
+        return sorted;
+    }
+
+    /**
+     * Varredura por força bruta da matriz de embeddings guardando as {@code top.length} maiores
+     * similaridades acima do mínimo, em ordem decrescente.
+     *
+     * @return quantidade de posições preenchidas em {@code top}/{@code topScores}
+     */
+    private int topSemantic(float[] query, float minSimilarity, int[] top, float[] topScores) {
+        int k = top.length;
+        int found = 0;
+        for (int i = 0; i < vectorIds.length; i++) {
+            float similarity = FloatVectors.dot(query, vectors, i * dimensions);
+            if (similarity < minSimilarity || (found == k && similarity <= topScores[k - 1])) {
+                continue;
+            }
+            int position = found < k ? found++ : k - 1;
+            while (position > 0 && topScores[position - 1] < similarity) {
+                top[position] = top[position - 1];
+                topScores[position] = topScores[position - 1];
+                position--;
+            }
+            top[position] = i;
+            topScores[position] = similarity;
+        }
+        return found;
+    }
+
+    /**
+     * Se o match veio de trigger ou keyword cadastrados na FAQ. Matches parciais pela pergunta e semânticos
+     * não servem de resposta direta: em perguntas curtas um único token em comum já dá score alto.
+     */
+    static boolean isDirectMatch(FAQMatchDTO match) {
+        return TRIGGER_MATCH.equals(match.getMatchReason()) || KEYWORD_MATCH.equals(match.getMatchReason());
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase())) {
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private FAQMatchDTO match(UUID faqId, double score, String reason, String matchedText) {
+        return FAQMatchDTO.builder()
+                .faq(faqs.get(faqId))
+                .confidenceScore(score)
+                .matchReason(reason)
+                .matchedText(matchedText)
+                .build();
+    }
+
+    /**
+     * Cópia desacoplada da sessão JPA (keywords/triggers chegam como coleções do Hibernate)
+     */
+    private static FAQDTO snapshot(FAQDTO faq) {
+        return FAQDTO.builder()
+                .id(faq.getId())
+                .companyId(faq.getCompanyId())
+                .question(faq.getQuestion())
+                .answer(faq.getAnswer())
+                .keywords(faq.getKeywords() != null ? List.copyOf(faq.getKeywords()) : List.of())
+                .triggers(faq.getTriggers() != null ? List.copyOf(faq.getTriggers()) : List.of())
+                .usageCount(faq.getUsageCount())
+                .successRate(faq.getSuccessRate())
+                .isActive(faq.getIsActive())
+                .createdById(faq.getCreatedById())
+                .createdByName(faq.getCreatedByName())
+                .lastEditedById(faq.getLastEditedById())
+                .lastEditedByName(faq.getLastEditedByName())
+                .createdAt(faq.getCreatedAt())
+                .updatedAt(faq.getUpdatedAt())
+                .build();
+    }
+}
@@ -1,6 +1,9 @@
 package com.ruby.rubia_server.core.service;
 
 import com.ruby.rubia_server.core.dto.ConversationDTO;
+import com.ruby.rubia_server.core.dto.ConversationListRow;
+import com.ruby.rubia_server.core.dto.CursorPageDTO;
+import com.ruby.rubia_server.core.dto.TimelineCursor;
 import com.ruby.rubia_server.core.dto.ConversationSummaryDTO;
 import com.ruby.rubia_server.core.dto.CreateConversationDTO;
 import com.ruby.rubia_server.core.dto.UpdateConversationDTO;
@@ -26,6 +29,8 @@ import com.ruby.rubia_server.core.dto.MessageDTO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -57,8 +62,7 @@ public class ConversationService {
     @Autowired
     private UnreadMessageCountService unreadCountService;
     
-    @Autowired
-    private UnreadMessageCountService unreadCountService;
+    static final int MAX_TIMELINE_PAGE_SIZE = 100;
     
     public Optional<ConversationDTO> findByCustomerIdAndCampaignId(UUID customerId, UUID campaignId) {
         log.debug("Finding conversation by customer id: {} and campaign id: {}", customerId, campaignId);
@@ -309,10 +313,8 @@ public class ConversationService {
     public List<ConversationDTO> findByStatusAndCompany(ConversationStatus status, UUID companyId) {
         log.debug("Finding conversations by status: {} for company: {}", status, companyId);
         
-        return conversationRepository.findByStatusAndCompanyOrderedByPriorityAndUpdatedAt(status, companyId)
-                .stream()
-                .map(this::toDTO)
-                .toList();
+        return toListDTOs(conversationRepository.findInboxRowsByStatusOrderByPriority(companyId, status, Pageable.unpaged()), companyId, null)
+                .getContent();
     }
     
     @Transactional(readOnly = true)
@@ -324,48 +326,71 @@ public class ConversationService {
     public Page<ConversationDTO> findByStatusAndCompanyWithPagination(ConversationStatus status, UUID companyId, Pageable pageable, UUID userId) {
         log.debug("Finding conversations by status: {} for company: {} with pagination (userId: {})", status, companyId, userId);
         
-        Page<Conversation> conversationPage = conversationRepository.findByStatusAndCompanyOrderedByPriorityAndUpdatedAt(status, companyId, pageable);
-        
-        // Como a query já faz LEFT JOIN FETCH, podemos mapear diretamente
-        return conversationPage.map(conversation -> toDTO(conversation, userId));
+        return toListDTOs(conversationRepository.findInboxRowsByStatusOrderByPriority(companyId, status, pageable), companyId, userId);
     }
     
     @Transactional(readOnly = true)
     public List<ConversationDTO> findConversationsOrderByLastMessageDate(UUID companyId) {
         log.debug("Finding conversations ordered by last message date for company: {}", companyId);
         
-        return conversationRepository.findConversationsOrderByLastMessageDateOptimized(companyId)
-                .stream()
-                .map(this::toDTO)
-                .toList();
+        return toListDTOs(conversationRepository.findInboxRowsOrderByLastMessageDate(companyId, Pageable.unpaged()), companyId, null)
+                .getContent();
     }
     
     @Transactional(readOnly = true)
     public Page<ConversationDTO> findConversationsOrderByLastMessageDateWithPagination(UUID companyId, Pageable pageable) {
         log.debug("Finding conversations ordered by last message date for company: {} with pagination", companyId);
         
-        Page<Conversation> conversationPage = conversationRepository.findConversationsOrderByLastMessageDateOptimized(companyId, pageable);
-        
-        return conversationPage.map(this::toDTO);
+        return toListDTOs(conversationRepository.findInboxRowsOrderByLastMessageDate(companyId, pageable), companyId, null);
     }
     
     @Transactional(readOnly = true)
     public List<ConversationDTO> findConversationsOrderByLastMessageDateByStatus(UUID companyId, ConversationStatus status) {
         log.debug("Finding conversations ordered by last message date for company: {} with status: {}", companyId, status);
         
-        return conversationRepository.findConversationsOrderByLastMessageDateOptimizedByStatus(companyId, status)
-                .stream()
-                .map(this::toDTO)
-                .toList();
+        return toListDTOs(conversationRepository.findInboxRowsOrderByLastMessageDateByStatus(companyId, status, Pageable.unpaged()), companyId, null)
+                .getContent();
     }
     
     @Transactional(readOnly = true)
     public Page<ConversationDTO> findConversationsOrderByLastMessageDateByStatusWithPagination(UUID companyId, ConversationStatus status, Pageable pageable) {
         log.debug("Finding conversations ordered by last message date for company: {} with status: {} with pagination", companyId, status);
         
-        Page<Conversation> conversationPage = conversationRepository.findConversationsOrderByLastMessageDateOptimizedByStatus(companyId, status, pageable);
+        return toListDTOs(conversationRepository.findInboxRowsOrderByLastMessageDateByStatus(companyId, status, pageable), companyId, null);
+    }
+    
+    /**
+     * Inbox por cursor, da atividade mais recente para a mais antiga. {@code before} é o nextCursor
+     * da página anterior (nulo na primeira página).
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ConversationDTO> findInboxTimeline(UUID companyId, ConversationStatus status, String before, int size) {
+        log.debug("Finding inbox timeline for company: {} with status: {} before: {}", companyId, status, before);
+        
+        int limit = Math.max(1, Math.min(size, MAX_TIMELINE_PAGE_SIZE));
+        Pageable fetch = PageRequest.of(0, limit + 1);
+        TimelineCursor cursor = before != null && !before.isBlank() ? TimelineCursor.parse(before) : null;
+        
+        List<ConversationListRow> rows;
+        if (status == null) {
+            rows = cursor == null
+                    ? conversationRepository.findInboxTimeline(companyId, fetch)
+                    : conversationRepository.findInboxTimelineBefore(companyId, cursor.createdAt(), cursor.id(), fetch);
+        } else {
+            rows = cursor == null
+                    ? conversationRepository.findInboxTimelineByStatus(companyId, status, fetch)
+                    : conversationRepository.findInboxTimelineByStatusBefore(companyId, status, cursor.createdAt(), cursor.id(), fetch);
+        }
+        
+        boolean hasMore = rows.size() > limit;
+        List<ConversationListRow> page = hasMore ? rows.subList(0, limit) : rows;
+        ConversationListRow last = page.isEmpty() ? null : page.get(page.size() - 1);
         
-        return conversationPage.map(this::toDTO);
+        return CursorPageDTO.<ConversationDTO>builder()
+                .items(toListDTOs(page, companyId, null))
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? new TimelineCursor(last.getActivityAt(), last.getId()).toString() : null)
+                .build();
     }
     
     @Transactional(readOnly = true)
@@ -495,6 +520,81 @@ public class ConversationService {
                 .build();
     }
     
+    /**
+     * Converte uma página da projeção da inbox. Contadores de não lidas saem de uma única leitura em lote
+     * e o limite de IA é resolvido uma vez para a empresa.
+     */
+    private Page<ConversationDTO> toListDTOs(Page<ConversationListRow> rows, UUID companyId, UUID userId) {
+        return new PageImpl<>(toListDTOs(rows.getContent(), companyId, userId), rows.getPageable(), rows.getTotalElements());
+    }
+
+    private List<ConversationDTO> toListDTOs(List<ConversationListRow> rows, UUID companyId, UUID userId) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, Integer> unreadCounts = userId != null
+                ? unreadCountService.getUnreadCountsForConversations(userId,
+                        rows.stream().map(ConversationListRow::getId).toList())
+                : Map.of();
+        Integer aiMessageLimit = aiAgentService.getAiMessageLimitForCompany(companyId);
+
+        return rows.stream()
+                .map(row -> toDTO(row, unreadCounts.getOrDefault(row.getId(), 0).longValue(), aiMessageLimit))
+                .toList();
+    }
+
+    private ConversationDTO toDTO(ConversationListRow row, Long unreadCount, Integer aiMessageLimit) {
+        MessageDTO lastMessage = null;
+        if (row.getLastMessageId() != null) {
+            lastMessage = MessageDTO.builder()
+                    .id(row.getLastMessageId())
+                    .conversationId(row.getId())
+                    .content(row.getLastMessageContent())
+                    .senderType(row.getLastMessageSenderType())
+                    .senderId(row.getLastMessageSenderId())
+                    .messageType(row.getLastMessageMediaType() != null ? row.getLastMessageMediaType().name() : "TEXT")
+                    .mediaUrl(row.getLastMessageMediaUrl())
+                    .externalMessageId(row.getLastMessageExternalId())
+                    .isAiGenerated(row.getLastMessageIsAiGenerated())
+                    .aiConfidence(row.getLastMessageAiConfidence())
+                    .status(row.getLastMessageStatus())
+                    .createdAt(row.getLastMessageCreatedAt())
+                    .deliveredAt(row.getLastMessageDeliveredAt())
+                    .readAt(row.getLastMessageReadAt())
+                    .build();
+        }
+
+        return ConversationDTO.builder()
+                .id(row.getId())
+                .companyId(row.getCompanyId())
+                .customerId(row.getCustomerId())
+                .customerName(row.getCustomerName())
+                .customerPhone(row.getCustomerPhone())
+                .customerBirthDate(row.getCustomerBirthDate())
+                .customerBloodType(row.getCustomerBloodType())
+                .customerLastDonationDate(row.getCustomerLastDonationDate())
+                .customerHeight(row.getCustomerHeight())
+                .customerWeight(row.getCustomerWeight())
+                .assignedUserId(row.getAssignedUserId())
+                .assignedUserName(row.getAssignedUserName())
+                .campaignId(row.getCampaignId())
+                .campaignName(row.getCampaignName())
+                .status(row.getStatus())
+                .channel(row.getChannel())
+                .priority(row.getPriority())
+                .createdAt(row.getCreatedAt())
+                .updatedAt(row.getUpdatedAt())
+                .lastMessage(lastMessage)
+                .unreadCount(unreadCount)
+                .chatLid(row.getChatLid())
+                .aiAutoResponseEnabled(row.getAiAutoResponseEnabled())
+                .aiMessageLimit(aiMessageLimit)
+                .aiMessagesUsed(row.getAiMessagesUsed())
+                .aiLimitReachedAt(row.getAiLimitReachedAt())
+                .build();
+    }
+    
     private ConversationSummaryDTO toSummaryDTO(Conversation conversation) {
         Customer customer = conversation.getParticipants().stream()
                 .filter(p -> p.getCustomer() != null)
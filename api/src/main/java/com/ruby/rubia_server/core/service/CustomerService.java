@@ -5,10 +5,12 @@ import com.ruby.rubia_server.core.dto.CustomerDTO;
 import com.ruby.rubia_server.core.dto.UpdateCustomerDTO;
 import com.ruby.rubia_server.core.entity.Customer;
 import com.ruby.rubia_server.core.entity.Company;
+import com.ruby.rubia_server.core.event.CustomerChangedEvent;
 import com.ruby.rubia_server.core.repository.CustomerRepository;
 import com.ruby.rubia_server.core.repository.CompanyRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,6 +27,7 @@ public class CustomerService {
     private final CustomerRepository customerRepository;
     private final CompanyRepository companyRepository;
     private final PhoneService phoneService;
+    private final ApplicationEventPublisher eventPublisher;
     
     public CustomerDTO create(CreateCustomerDTO createDTO, UUID companyId) {
         log.info("Creating customer with phone: {} for company: {}", createDTO.getPhone(), companyId);
@@ -150,6 +153,7 @@ public class CustomerService {
         Optional.ofNullable(updateDTO.getAddressState()).ifPresent(customer::setAddressState);
         
         Customer updated = customerRepository.save(customer);
+        publishChanged(id, companyId);
         log.info("Customer updated successfully");
         
         return toDTO(updated);
@@ -203,6 +207,7 @@ public class CustomerService {
         }
         
         customerRepository.deleteById(id);
+        publishChanged(id, companyId);
         log.info("Customer deleted successfully");
     }
     
@@ -257,9 +262,18 @@ public class CustomerService {
         
         List<Customer> customers = customerRepository.findByCompanyId(companyId);
         customerRepository.deleteAll(customers);
+        publishChanged(null, companyId);
         
         log.info("Deleted {} customers for company: {}", customers.size(), companyId);
     }
+    
+    private void publishChanged(UUID customerId, UUID companyId) {
+        // Invalida o cache de tenant das mensagens recebidas (InboundTenantCache)
+        eventPublisher.publishEvent(CustomerChangedEvent.builder()
+                .customerId(customerId)
+                .companyId(companyId)
+                .build());
+    }
 
     private CustomerDTO toDTO(Customer customer) {
         return CustomerDTO.builder()
@@ -0,0 +1,75 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.core.repository.UnreadMessageCountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Contadores gravados direto em unread_message_counts, um upsert por mensagem recebida.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "messaging.unread-counters.store", havingValue = "database", matchIfMissing = true)
+public class DatabaseUnreadCountStore implements UnreadCountStore {
+
+    private final UnreadMessageCountRepository unreadCountRepository;
+
+    @Override
+    public String name() {
+        return "database";
+    }
+
+    @Override
+    public Map<UUID, Integer> incrementForCompanyUsers(UUID companyId, UUID conversationId, UUID messageId) {
+        List<Object[]> rows = unreadCountRepository.incrementUnreadCountsForCompanyUsers(companyId, conversationId, messageId);
+
+        Map<UUID, Integer> countsByUser = new HashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            countsByUser.put((UUID) row[0], ((Number) row[1]).intValue());
+        }
+        return countsByUser;
+    }
+
+    @Override
+    public int increment(UUID userId, UUID conversationId, UUID messageId) {
+        return unreadCountRepository.incrementUnreadCountForUser(userId, conversationId, messageId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
+    }
+
+    @Override
+    public void reset(UUID userId, UUID conversationId) {
+        unreadCountRepository.resetUnreadCount(userId, conversationId);
+    }
+
+    @Override
+    public void resetAll(UUID userId) {
+        unreadCountRepository.resetAllUnreadCounts(userId);
+    }
+
+    @Override
+    public int get(UUID userId, UUID conversationId) {
+        Integer count = unreadCountRepository.getUnreadCountByUserAndConversation(userId, conversationId);
+        return count != null ? count : 0;
+    }
+
+    @Override
+    public long getTotal(UUID userId) {
+        Long total = unreadCountRepository.getTotalUnreadCountByUserId(userId);
+        return total != null ? total : 0L;
+    }
+
+    @Override
+    public Map<UUID, Integer> getForConversations(UUID userId, List<UUID> conversationIds) {
+        Map<UUID, Integer> counts = new HashMap<>();
+        for (Object[] result : unreadCountRepository.getUnreadCountsForConversations(userId, conversationIds)) {
+            counts.put((UUID) result[0], (Integer) result[1]);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,84 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.core.event.FAQQuestionChangedEvent;
+import com.ruby.rubia_server.core.service.FAQService.PendingEmbedding;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Calcula, em lotes, o embedding das FAQs que ainda não têm um do provedor atual: FAQs criadas ou com a
+ * pergunta alterada, FAQs anteriores à busca semântica, lotes em que o provedor falhou e todas as FAQs
+ * após a troca de ai.faq-embeddings.provider.
+ *
+ * A chamada ao provedor (possivelmente remota) fica fora de transação: o lote é lido e depois gravado em
+ * transações curtas. Roda após o commit de cada FAQ alterada e periodicamente, para o que tiver ficado
+ * pendente. O cálculo é idempotente, então dois nós processando a mesma FAQ só repetem trabalho.
+ */
+@Component
+@Slf4j
+public class FAQEmbeddingBackfill {
+
+    private final FAQService faqService;
+    private final TextEmbeddingProvider embeddingProvider;
+    private final int batchSize;
+
+    // Um lote por vez neste nó; pedidos durante uma execução viram uma nova passada ao final dela
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean rerunRequested = new AtomicBoolean();
+
+    public FAQEmbeddingBackfill(
+            FAQService faqService,
+            TextEmbeddingProvider embeddingProvider,
+            @Value("${ai.faq-embeddings.backfill-batch-size:100}") int batchSize) {
+        this.faqService = faqService;
+        this.embeddingProvider = embeddingProvider;
+        this.batchSize = batchSize;
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFAQQuestionChanged(FAQQuestionChangedEvent event) {
+        backfill();
+    }
+
+    @Scheduled(initialDelayString = "${ai.faq-embeddings.backfill-initial-delay-ms:30000}",
+            fixedDelayString = "${ai.faq-embeddings.backfill-interval-ms:300000}")
+    public void backfill() {
+        rerunRequested.set(true);
+        while (rerunRequested.get() && running.compareAndSet(false, true)) {
+            try {
+                rerunRequested.set(false);
+                embedPending();
+            } finally {
+                running.set(false);
+            }
+        }
+    }
+
+    private void embedPending() {
+        int total = 0;
+        try {
+            List<PendingEmbedding> pending;
+            do {
+                pending = faqService.findPendingEmbeddings(batchSize);
+                if (pending.isEmpty()) {
+                    break;
+                }
+                List<float[]> vectors = embeddingProvider.embedAll(pending.stream().map(PendingEmbedding::question).toList());
+                total += faqService.saveQuestionEmbeddings(pending, vectors, embeddingProvider.model());
+            } while (pending.size() == batchSize);
+        } catch (Exception e) {
+            log.warn("Erro ao calcular embeddings pendentes de FAQ: {}", e.getMessage());
+        }
+        if (total > 0) {
+            log.info("Embeddings de FAQ calculados: {}", total);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.core.dto.FAQDTO;
+import com.ruby.rubia_server.core.util.BoundedTtlCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Índices de FAQ por empresa ({@link CompanyFAQIndex}) mantidos em memória.
+ *
+ * O índice de uma empresa é carregado do banco na primeira busca e depois mantido por FAQService:
+ * create/update/restore/softDelete/delete trocam apenas a FAQ alterada, após o commit. As demais
+ * instâncias da aplicação recebem a invalidação por Redis pub/sub em {@link #INVALIDATE_CHANNEL} e
+ * recarregam o índice da empresa na próxima busca. O TTL cobre invalidações perdidas; contadores de
+ * uso (usageCount/successRate) nas FAQs retornadas podem ficar defasados até lá.
+ *
+ * Métricas: faq.index.lookups (tag result) e faq.index.companies.
+ */
+@Component
+@Slf4j
+public class FAQMatchIndex {
+
+    public static final String INVALIDATE_CHANNEL = "rubia:faq:index:invalidate";
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final BoundedTtlCache<UUID, CompanyFAQIndex> indexes;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    // Incrementado a cada alteração; um carregamento que cruzou uma alteração não é guardado
+    private final AtomicLong generation = new AtomicLong();
+
+    public FAQMatchIndex(
+            StringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${ai.faq-index.max-companies:1000}") int maxCompanies,
+            @Value("${ai.faq-index.ttl:30m}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.indexes = new BoundedTtlCache<>(maxCompanies, ttl);
+
+        Gauge.builder("faq.index.companies", indexes, BoundedTtlCache::size).register(meterRegistry);
+    }
+
+    /**
+     * Índice da empresa; na falta, usa o montado por {@code loader} a partir do banco
+     */
+    CompanyFAQIndex getOrLoad(UUID companyId, Function<UUID, CompanyFAQIndex> loader) {
+        Optional<CompanyFAQIndex> cached = indexes.get(companyId);
+        meterRegistry.counter("faq.index.lookups", "result", cached.isPresent() ? "hit" : "miss").increment();
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        long observed = generation.get();
+        CompanyFAQIndex loaded = loader.apply(companyId);
+        synchronized (this) {
+            if (generation.get() == observed) {
+                indexes.put(companyId, loaded);
+            }
+        }
+        log.debug("Índice de FAQ carregado para a empresa {}: {} FAQs ativas", companyId, loaded.size());
+        return loaded;
+    }
+
+    /**
+     * Inclui ou substitui a FAQ no índice da empresa (FAQs inativas saem do índice)
+     *
+     * @param questionEmbedding embedding atual da pergunta, ou null se ainda não calculado
+     */
+    public void onFAQChanged(FAQDTO faq, float[] questionEmbedding) {
+        synchronized (this) {
+            generation.incrementAndGet();
+            indexes.get(faq.getCompanyId())
+                    .ifPresent(index -> indexes.put(faq.getCompanyId(), index.with(faq, questionEmbedding)));
+        }
+        publish(faq.getCompanyId());
+    }
+
+    public void onFAQRemoved(UUID companyId, UUID faqId) {
+        synchronized (this) {
+            generation.incrementAndGet();
+            indexes.get(companyId).ifPresent(index -> indexes.put(companyId, index.without(faqId)));
+        }
+        publish(companyId);
+    }
+
+    /**
+     * Aplica uma invalidação publicada por outro nó; as do próprio nó já foram aplicadas localmente
+     */
+    public void applyRemoteInvalidation(String body) {
+        String[] parts = body.split(" ", 2);
+        if (parts.length < 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+        UUID companyId = UUID.fromString(parts[1]);
+        synchronized (this) {
+            generation.incrementAndGet();
+            indexes.invalidate(companyId);
+        }
+    }
+
+    private void publish(UUID companyId) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATE_CHANNEL, nodeId + " " + companyId);
+        } catch (Exception e) {
+            // Sem Redis os demais nós convergem pelo TTL
+            log.warn("Falha ao publicar invalidação do índice de FAQ: {}", e.getMessage());
+        }
+    }
+}
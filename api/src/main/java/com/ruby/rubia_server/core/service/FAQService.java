@@ -6,18 +6,26 @@ import com.ruby.rubia_server.core.dto.*;
 import com.ruby.rubia_server.core.entity.Company;
 import com.ruby.rubia_server.core.entity.FAQ;
 import com.ruby.rubia_server.core.entity.User;
+import com.ruby.rubia_server.core.event.FAQQuestionChangedEvent;
 import com.ruby.rubia_server.core.repository.CompanyRepository;
 import com.ruby.rubia_server.core.repository.FAQRepository;
 import com.ruby.rubia_server.core.repository.UserRepository;
 import com.ruby.rubia_server.core.util.CompanyContextUtil;
+import com.ruby.rubia_server.core.util.FloatVectors;
+import com.ruby.rubia_server.core.util.TransactionCallbacks;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -31,23 +39,65 @@ public class FAQService extends BaseCompanyEntityService<FAQ, CreateFAQDTO, Upda
     private final FAQRepository faqRepository;
     private final UserRepository userRepository;
     private final CompanyContextUtil companyContextUtil;
-
-    // Stop words for better search matching
-    private static final Set<String> STOP_WORDS = Set.of(
-        "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "has", "he", "in", "is", "it",
-        "its", "of", "on", "that", "the", "to", "was", "will", "with", "o", "e", "os", "do", 
-        "da", "de", "para", "com", "em", "um", "uma", "que", "não", "é", "eu", "você", "ele", "ela"
-    );
+    private final FAQMatchIndex faqMatchIndex;
+    private final TextEmbeddingProvider embeddingProvider;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate readOnlyTransaction;
+    private final double minSimilarity;
 
     public FAQService(FAQRepository faqRepository,
                       CompanyRepository companyRepository,
                       UserRepository userRepository,
                       EntityRelationshipValidator relationshipValidator,
-                      CompanyContextUtil companyContextUtil) {
+                      CompanyContextUtil companyContextUtil,
+                      FAQMatchIndex faqMatchIndex,
+                      TextEmbeddingProvider embeddingProvider,
+                      ApplicationEventPublisher eventPublisher,
+                      PlatformTransactionManager transactionManager,
+                      @Value("${ai.faq-embeddings.min-similarity:0.4}") double minSimilarity) {
         super(faqRepository, companyRepository, relationshipValidator);
         this.faqRepository = faqRepository;
         this.userRepository = userRepository;
         this.companyContextUtil = companyContextUtil;
+        this.faqMatchIndex = faqMatchIndex;
+        this.embeddingProvider = embeddingProvider;
+        this.eventPublisher = eventPublisher;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.minSimilarity = minSimilarity;
+    }
+
+    @Override
+    public FAQ create(CreateFAQDTO createDTO) {
+        FAQ saved = super.create(createDTO);
+        FAQDTO indexed = mapToDTO(saved);
+        TransactionCallbacks.afterCommit(() -> faqMatchIndex.onFAQChanged(indexed, null));
+        publishQuestionChanged(saved);
+        return saved;
+    }
+
+    @Override
+    public Optional<FAQ> update(UUID id, UpdateFAQDTO updateDTO) {
+        Optional<FAQ> updated = super.update(id, updateDTO);
+        updated.ifPresent(faq -> {
+            FAQDTO indexed = mapToDTO(faq);
+            float[] embedding = currentEmbedding(faq);
+            TransactionCallbacks.afterCommit(() -> faqMatchIndex.onFAQChanged(indexed, embedding));
+            if (embedding == null) {
+                publishQuestionChanged(faq);
+            }
+        });
+        return updated;
+    }
+
+    @Override
+    public boolean deleteById(UUID id) {
+        Optional<UUID> companyId = faqRepository.findById(id).map(faq -> faq.getCompany().getId());
+        boolean deleted = super.deleteById(id);
+        if (deleted && companyId.isPresent()) {
+            TransactionCallbacks.afterCommit(() -> faqMatchIndex.onFAQRemoved(companyId.get(), id));
+        }
+        return deleted;
     }
 
     @Override
@@ -59,7 +109,7 @@ public class FAQService extends BaseCompanyEntityService<FAQ, CreateFAQDTO, Upda
     protected FAQ buildEntityFromDTO(CreateFAQDTO createDTO) {
         User createdBy = companyContextUtil.getAuthenticatedUser();
 
-        return FAQ.builder()
+        FAQ faq = FAQ.builder()
                 .question(createDTO.getQuestion().trim())
                 .answer(createDTO.getAnswer().trim())
                 .keywords(normalizeKeywords(createDTO.getKeywords()))
@@ -69,6 +119,9 @@ public class FAQService extends BaseCompanyEntityService<FAQ, CreateFAQDTO, Upda
                 .successRate(0.0)
                 .createdBy(createdBy)
                 .build();
+        // Embedding calculado fora da transação, por FAQEmbeddingBackfill
+        clearQuestionEmbedding(faq);
+        return faq;
     }
 
     @Override
@@ -76,7 +129,12 @@ public class FAQService extends BaseCompanyEntityService<FAQ, CreateFAQDTO, Upda
         User lastEditedBy = companyContextUtil.getAuthenticatedUser();
 
         if (updateDTO.getQuestion() != null) {
-            existingEntity.setQuestion(updateDTO.getQuestion().trim());
+            String question = updateDTO.getQuestion().trim();
+            boolean questionChanged = !question.equals(existingEntity.getQuestion());
+            existingEntity.setQuestion(question);
+            if (questionChanged) {
+                clearQuestionEmbedding(existingEntity);
+            }
         }
         if (updateDTO.getAnswer() != null) {
             existingEntity.setAnswer(updateDTO.getAnswer().trim());
@@ -122,49 +180,70 @@ public class FAQService extends BaseCompanyEntityService<FAQ, CreateFAQDTO, Upda
     // FAQ-specific business methods
 
     /**
-     * Search for FAQs relevant to a user message (AI functionality)
+     * Search for FAQs relevant to a user message (AI functionality).
+     * Answered from the company's in-memory {@link CompanyFAQIndex}; the database is only read
+     * when the index is not loaded yet. Besides the lexical matching, FAQs whose question embedding
+     * is close to the message embedding are returned as "semantic_match".
+     * Runs outside a transaction: the message embedding may be a remote call, so only the index load
+     * holds a (read-only) transaction and a connection.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<FAQMatchDTO> searchRelevantFAQs(FAQSearchDTO searchDTO) {
         if (searchDTO.getUserMessage() == null || searchDTO.getUserMessage().trim().isEmpty()) {
             return Collections.emptyList();
         }
 
-        String normalizedMessage = normalizeText(searchDTO.getUserMessage());
-        List<FAQMatchDTO> results = new ArrayList<>();
-
-        // 1. Exact trigger matches (highest priority)
-        List<FAQ> exactTriggerMatches = findExactTriggerMatches(searchDTO.getCompanyId(), normalizedMessage);
-        for (FAQ faq : exactTriggerMatches) {
-            results.add(createFAQMatch(faq, 0.95, "exact_trigger", findMatchingTrigger(faq, normalizedMessage)));
-        }
-
-        // 2. Exact keyword matches
-        List<FAQ> exactKeywordMatches = findExactKeywordMatches(searchDTO.getCompanyId(), normalizedMessage);
-        for (FAQ faq : exactKeywordMatches) {
-            if (results.stream().noneMatch(match -> match.getFaq().getId().equals(faq.getId()))) {
-                results.add(createFAQMatch(faq, 0.85, "exact_keyword", findMatchingKeyword(faq, normalizedMessage)));
+        CompanyFAQIndex index = faqMatchIndex.getOrLoad(searchDTO.getCompanyId(),
+                companyId -> readOnlyTransaction.execute(status -> loadIndex(companyId)));
+        float[] messageEmbedding = null;
+        if (index.hasEmbeddings()) {
+            try {
+                messageEmbedding = embeddingProvider.embed(searchDTO.getUserMessage());
+            } catch (Exception e) {
+                // Sem embedding a busca segue só lexical
+                log.warn("Falha ao calcular embedding da mensagem para busca de FAQ: {}", e.getMessage());
             }
         }
+        return index.search(searchDTO.getUserMessage(), messageEmbedding, searchDTO.getMinConfidenceScore(),
+                minSimilarity, searchDTO.getLimit());
+    }
 
-        // 3. Partial matches in question/answer
-        List<FAQ> partialMatches = faqRepository.findRelevantFAQs(searchDTO.getCompanyId(), normalizedMessage);
-        for (FAQ faq : partialMatches) {
-            if (results.stream().noneMatch(match -> match.getFaq().getId().equals(faq.getId()))) {
-                double score = calculatePartialMatchScore(faq, normalizedMessage);
-                if (score >= (searchDTO.getMinConfidenceScore() != null ? searchDTO.getMinConfidenceScore() : 0.3)) {
-                    results.add(createFAQMatch(faq, score, "partial_match", normalizedMessage));
-                }
-            }
-        }
+    /**
+     * Próximo lote de FAQs sem embedding do modelo atual
+     */
+    @Transactional(readOnly = true)
+    public List<PendingEmbedding> findPendingEmbeddings(int batchSize) {
+        return faqRepository.findPendingEmbedding(embeddingProvider.model(), PageRequest.of(0, batchSize)).stream()
+                .map(faq -> new PendingEmbedding(faq.getId(), faq.getQuestion()))
+                .toList();
+    }
 
-        // Sort by confidence score and apply limit
-        results.sort((a, b) -> Double.compare(b.getConfidenceScore(), a.getConfidenceScore()));
-        
-        if (searchDTO.getLimit() != null && searchDTO.getLimit() > 0) {
-            results = results.subList(0, Math.min(results.size(), searchDTO.getLimit()));
+    /**
+     * Grava embeddings calculados fora da transação. FAQs removidas ou cuja pergunta mudou desde
+     * {@link #findPendingEmbeddings} são ignoradas; a nova pergunta entra num próximo lote.
+     *
+     * @return quantidade de FAQs gravadas
+     */
+    public int saveQuestionEmbeddings(List<PendingEmbedding> pending, List<float[]> vectors, String model) {
+        Map<UUID, FAQ> faqs = faqRepository.findAllById(pending.stream().map(PendingEmbedding::faqId).toList()).stream()
+                .collect(Collectors.toMap(FAQ::getId, faq -> faq));
+        int saved = 0;
+        for (int i = 0; i < pending.size(); i++) {
+            FAQ faq = faqs.get(pending.get(i).faqId());
+            if (faq == null || faq.getDeletedAt() != null || !faq.getQuestion().equals(pending.get(i).question())) {
+                continue;
+            }
+            float[] embedding = vectors.get(i);
+            faq.setQuestionEmbedding(FloatVectors.toBytes(embedding));
+            faq.setEmbeddingModel(model);
+            FAQDTO indexed = mapToDTO(faq);
+            TransactionCallbacks.afterCommit(() -> faqMatchIndex.onFAQChanged(indexed, embedding));
+            saved++;
         }
+        return saved;
+    }
 
-        return results;
+    public record PendingEmbedding(UUID faqId, String question) {
     }
 
     /**
@@ -291,6 +370,8 @@ public class FAQService extends BaseCompanyEntityService<FAQ, CreateFAQDTO, Upda
             .orElseThrow(() -> new RuntimeException("FAQ not found: " + id));
         faq.markAsDeleted();
         faqRepository.save(faq);
+        UUID companyId = faq.getCompany().getId();
+        TransactionCallbacks.afterCommit(() -> faqMatchIndex.onFAQRemoved(companyId, id));
         log.info("Soft deleted FAQ: {}", id);
     }
 
@@ -305,7 +386,10 @@ public class FAQService extends BaseCompanyEntityService<FAQ, CreateFAQDTO, Upda
         FAQ saved = faqRepository.save(faq);
         log.info("Restored FAQ: {}", id);
         
-        return mapToDTO(saved);
+        FAQDTO restored = mapToDTO(saved);
+        float[] embedding = currentEmbedding(saved);
+        TransactionCallbacks.afterCommit(() -> faqMatchIndex.onFAQChanged(restored, embedding));
+        return restored;
     }
 
     /**
@@ -327,7 +411,7 @@ public class FAQService extends BaseCompanyEntityService<FAQ, CreateFAQDTO, Upda
                 .filter(Objects::nonNull)
                 .map(String::trim)
                 .map(String::toLowerCase)
-                .filter(keyword -> !keyword.isEmpty() && !STOP_WORDS.contains(keyword))
+                .filter(keyword -> !keyword.isEmpty() && !CompanyFAQIndex.STOP_WORDS.contains(keyword))
                 .distinct()
                 .collect(Collectors.toList());
     }
@@ -343,78 +427,44 @@ public class FAQService extends BaseCompanyEntityService<FAQ, CreateFAQDTO, Upda
                 .collect(Collectors.toList());
     }
 
-    private String normalizeText(String text) {
-        return text.toLowerCase().trim();
-    }
-
-    private List<FAQ> findExactTriggerMatches(UUID companyId, String message) {
-        List<FAQ> allFAQs = faqRepository.findByCompanyIdAndIsActiveAndNotDeleted(companyId, true);
-        return allFAQs.stream()
-                .filter(faq -> faq.getTriggers().stream()
-                        .anyMatch(trigger -> message.contains(trigger.toLowerCase())))
-                .collect(Collectors.toList());
-    }
-
-    private List<FAQ> findExactKeywordMatches(UUID companyId, String message) {
-        Set<String> messageWords = Arrays.stream(message.split("\\s+"))
-                .map(String::toLowerCase)
-                .filter(word -> !STOP_WORDS.contains(word))
-                .collect(Collectors.toSet());
-
-        List<FAQ> allFAQs = faqRepository.findByCompanyIdAndIsActiveAndNotDeleted(companyId, true);
-        return allFAQs.stream()
-                .filter(faq -> faq.getKeywords().stream()
-                        .anyMatch(messageWords::contains))
+    private CompanyFAQIndex loadIndex(UUID companyId) {
+        List<FAQ> activeFAQs = faqRepository.findByCompanyIdAndIsActiveAndNotDeleted(companyId, true);
+        Map<UUID, float[]> embeddings = new HashMap<>();
+        for (FAQ faq : activeFAQs) {
+            float[] embedding = currentEmbedding(faq);
+            if (embedding != null) {
+                embeddings.put(faq.getId(), embedding);
+            }
+        }
+        List<FAQDTO> faqs = activeFAQs.stream()
+                .map(this::mapToDTO)
                 .collect(Collectors.toList());
+        return CompanyFAQIndex.of(faqs, embeddings);
     }
 
-    private FAQMatchDTO createFAQMatch(FAQ faq, double score, String reason, String matchedText) {
-        return FAQMatchDTO.builder()
-                .faq(mapToDTO(faq))
-                .confidenceScore(score)
-                .matchReason(reason)
-                .matchedText(matchedText)
-                .build();
-    }
-
-    private String findMatchingTrigger(FAQ faq, String message) {
-        return faq.getTriggers().stream()
-                .filter(trigger -> message.contains(trigger.toLowerCase()))
-                .findFirst()
-                .orElse("");
+    /**
+     * Marca a FAQ como pendente de embedding. O provedor pode ser remoto (OpenAI), então o cálculo não
+     * acontece aqui, dentro da transação: FAQEmbeddingBackfill o faz após o commit.
+     */
+    private void clearQuestionEmbedding(FAQ faq) {
+        faq.setQuestionEmbedding(null);
+        faq.setEmbeddingModel(null);
     }
 
-    private String findMatchingKeyword(FAQ faq, String message) {
-        Set<String> messageWords = Arrays.stream(message.split("\\s+"))
-                .map(String::toLowerCase)
-                .collect(Collectors.toSet());
-        
-        return faq.getKeywords().stream()
-                .filter(messageWords::contains)
-                .findFirst()
-                .orElse("");
+    private void publishQuestionChanged(FAQ faq) {
+        eventPublisher.publishEvent(FAQQuestionChangedEvent.builder()
+                .faqId(faq.getId())
+                .companyId(faq.getCompany().getId())
+                .build());
     }
 
-    private double calculatePartialMatchScore(FAQ faq, String message) {
-        int matches = 0;
-        int totalWords = 0;
-        
-        // Check question similarity
-        String[] questionWords = faq.getQuestion().toLowerCase().split("\\s+");
-        String[] messageWords = message.split("\\s+");
-        
-        for (String qWord : questionWords) {
-            if (!STOP_WORDS.contains(qWord)) {
-                totalWords++;
-                for (String mWord : messageWords) {
-                    if (qWord.contains(mWord) || mWord.contains(qWord)) {
-                        matches++;
-                        break;
-                    }
-                }
-            }
+    /**
+     * Embedding gravado da pergunta, se gerado pelo provedor atual
+     */
+    private float[] currentEmbedding(FAQ faq) {
+        if (faq.getQuestionEmbedding() == null || !embeddingProvider.model().equals(faq.getEmbeddingModel())) {
+            return null;
         }
-        
-        return totalWords > 0 ? (double) matches / totalWords : 0.0;
+        return FloatVectors.fromBytes(faq.getQuestionEmbedding());
     }
 }
\ No newline at end of file
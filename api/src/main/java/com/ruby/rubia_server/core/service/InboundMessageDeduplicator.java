@@ -0,0 +1,95 @@
+package com.ruby.rubia_server.core.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Deduplicação das mensagens recebidas pelo id externo do provedor.
+ *
+ * A primeira barreira é uma chave com TTL curto no Redis, gravada só depois que a mensagem foi
+ * gravada no banco: retries do webhook custam uma leitura e nenhuma escrita. Como a chave nunca
+ * existe antes do commit, uma falha ou queda no meio do processamento não faz o retry ser
+ * descartado. A segunda barreira é o índice único parcial em messages.external_message_id (V78),
+ * que cobre Redis indisponível, TTL expirado e entregas simultâneas entre instâncias.
+ *
+ * Métrica: messaging.inbound.duplicates (tag layer = redis | database).
+ */
+@Component
+@Slf4j
+public class InboundMessageDeduplicator {
+
+    static final String KEY_PREFIX = "rubia:dedup:inbound:";
+    static final String UNIQUE_INDEX = "uk_messages_external_message_id";
+
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+
+    public InboundMessageDeduplicator(
+            StringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${messaging.inbound.dedup-ttl:10m}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Verifica, sem escrever, se o id externo já foi gravado recentemente.
+     *
+     * @return true quando a mensagem já está no banco e a entrega pode ser descartada
+     */
+    public boolean isAlreadyStored(String provider, String externalMessageId) {
+        if (externalMessageId == null || externalMessageId.isBlank()) {
+            return false;
+        }
+        try {
+            if (Boolean.TRUE.equals(redisTemplate.hasKey(key(provider, externalMessageId)))) {
+                recordDuplicate("redis");
+                log.debug("Mensagem duplicada descartada no Redis: {} {}", provider, externalMessageId);
+                return true;
+            }
+        } catch (Exception e) {
+            // Sem Redis o índice único do banco continua garantindo a deduplicação
+            log.warn("Falha na deduplicação via Redis para {}: {}", externalMessageId, e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Registra o id externo de uma mensagem já gravada (após o commit), para descartar as próximas entregas
+     */
+    public void markStored(String provider, String externalMessageId) {
+        if (externalMessageId == null || externalMessageId.isBlank()) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(key(provider, externalMessageId), "1", ttl);
+        } catch (Exception e) {
+            log.warn("Falha ao registrar deduplicação de {}: {}", externalMessageId, e.getMessage());
+        }
+    }
+
+    public void recordDuplicate(String layer) {
+        meterRegistry.counter("messaging.inbound.duplicates", "layer", layer).increment();
+    }
+
+    /**
+     * Indica se a violação veio do índice único de external_message_id (e não de outra constraint).
+     */
+    public static boolean isDuplicateExternalId(DataIntegrityViolationException e) {
+        Throwable cause = e.getMostSpecificCause();
+        String message = cause != null ? cause.getMessage() : e.getMessage();
+        return message != null && message.contains(UNIQUE_INDEX);
+    }
+
+    static String key(String provider, String externalMessageId) {
+        return KEY_PREFIX + (provider != null ? provider : "unknown") + ":" + externalMessageId;
+    }
+}
@@ -0,0 +1,136 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.core.entity.Company;
+import com.ruby.rubia_server.core.entity.Customer;
+import com.ruby.rubia_server.core.event.CustomerChangedEvent;
+import com.ruby.rubia_server.core.event.WhatsAppInstanceChangedEvent;
+import com.ruby.rubia_server.core.util.BoundedTtlCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Cache em processo da resolução de tenant das mensagens recebidas.
+ *
+ * Guarda telefone conectado → empresa/instância e (empresa, telefone do cliente) → customer, para
+ * que uma mensagem em regime não faça nenhuma consulta de lookup. As entradas são invalidadas pelos
+ * eventos de WhatsAppInstanceService e CustomerService após o commit; o TTL limita o quanto outra
+ * instância da aplicação pode ficar desatualizada.
+ *
+ * Métricas: inbound.tenant.cache (tags cache e result) e inbound.tenant.cache.size.
+ */
+@Component
+@Slf4j
+public class InboundTenantCache {
+
+    private final BoundedTtlCache<String, CachedCompany> companies;
+    private final BoundedTtlCache<String, CachedCustomer> customers;
+    private final MeterRegistry meterRegistry;
+
+    public InboundTenantCache(
+            MeterRegistry meterRegistry,
+            @Value("${messaging.tenant-cache.max-size:10000}") int maxSize,
+            @Value("${messaging.tenant-cache.ttl:10m}") Duration ttl) {
+        this.meterRegistry = meterRegistry;
+        this.companies = new BoundedTtlCache<>(maxSize, ttl);
+        this.customers = new BoundedTtlCache<>(maxSize, ttl);
+
+        Gauge.builder("inbound.tenant.cache.size", companies, BoundedTtlCache::size).tag("cache", "company").register(meterRegistry);
+        Gauge.builder("inbound.tenant.cache.size", customers, BoundedTtlCache::size).tag("cache", "customer").register(meterRegistry);
+    }
+
+    public Optional<CachedCompany> getCompany(String normalizedConnectedPhone) {
+        if (normalizedConnectedPhone == null) {
+            return Optional.empty();
+        }
+        return record("company", companies.get(normalizedConnectedPhone));
+    }
+
+    public void putCompany(String normalizedConnectedPhone, CachedCompany company) {
+        if (normalizedConnectedPhone != null) {
+            companies.put(normalizedConnectedPhone, company);
+        }
+    }
+
+    public Optional<CachedCustomer> getCustomer(UUID companyId, String normalizedPhone) {
+        if (companyId == null || normalizedPhone == null) {
+            return Optional.empty();
+        }
+        return record("customer", customers.get(customerKey(companyId, normalizedPhone)));
+    }
+
+    public void putCustomer(String normalizedPhone, CachedCustomer customer) {
+        if (normalizedPhone != null && customer.companyId() != null) {
+            customers.put(customerKey(customer.companyId(), normalizedPhone), customer);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWhatsAppInstanceChanged(WhatsAppInstanceChangedEvent event) {
+        int removed = companies.invalidateIf((phone, cached) ->
+            Objects.equals(cached.instanceId(), event.getInstanceId())
+                || Objects.equals(cached.companyId(), event.getCompanyId()));
+        log.debug("Cache de tenant: {} entradas de empresa invalidadas pela instância {}", removed, event.getInstanceId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        if (event.getPhones() != null && !event.getPhones().isEmpty() && event.getCompanyId() != null) {
+            event.getPhones().forEach(phone -> customers.invalidate(customerKey(event.getCompanyId(), phone)));
+            log.debug("Cache de tenant: {} telefones invalidados na empresa {}", event.getPhones().size(), event.getCompanyId());
+            return;
+        }
+        int removed = customers.invalidateIf((key, cached) -> event.getCustomerId() != null
+            ? Objects.equals(cached.customerId(), event.getCustomerId())
+            : Objects.equals(cached.companyId(), event.getCompanyId()));
+        log.debug("Cache de tenant: {} entradas de customer invalidadas ({})", removed, event);
+    }
+
+    public void invalidateAll() {
+        companies.invalidateAll();
+        customers.invalidateAll();
+    }
+
+    private <T> Optional<T> record(String cache, Optional<T> result) {
+        meterRegistry.counter("inbound.tenant.cache", "cache", cache, "result", result.isPresent() ? "hit" : "miss").increment();
+        return result;
+    }
+
+    private static String customerKey(UUID companyId, String normalizedPhone) {
+        return companyId + ":" + normalizedPhone;
+    }
+
+    /**
+     * Snapshot da empresa dona da instância; não carrega associações da entidade.
+     */
+    public record CachedCompany(UUID companyId, String companyName, UUID instanceId) {
+
+        public static CachedCompany of(Company company, UUID instanceId) {
+            return new CachedCompany(company.getId(), company.getName(), instanceId);
+        }
+
+        public Company toCompany() {
+            return Company.builder().id(companyId).name(companyName).build();
+        }
+    }
+
+    public record CachedCustomer(UUID customerId, UUID companyId, String phone, String name) {
+
+        public Customer toCustomer(Company company) {
+            return Customer.builder()
+                .id(customerId)
+                .phone(phone)
+                .name(name)
+                .company(company)
+                .build();
+        }
+    }
+}
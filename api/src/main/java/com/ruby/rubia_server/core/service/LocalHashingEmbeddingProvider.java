@@ -0,0 +1,91 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.core.util.FloatVectors;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Embedding calculado localmente por feature hashing: cada token (sem acentos e sem stop words) e seus
+ * trigramas de caracteres são espalhados em {@link #DIMENSIONS} posições com sinal.
+ *
+ * Os trigramas aproximam variações da mesma palavra ("remédio"/"remédios", "doar"/"doação"), o que a
+ * comparação exata de tokens não pega. Não captura sinônimos; para isso use ai.faq-embeddings.provider=openai.
+ * Sem dependências externas, é o provedor usado nos testes.
+ */
+@Component
+@ConditionalOnProperty(name = "ai.faq-embeddings.provider", havingValue = "local", matchIfMissing = true)
+public class LocalHashingEmbeddingProvider implements TextEmbeddingProvider {
+
+    static final int DIMENSIONS = 256;
+    static final String MODEL = "local-hash-v1-" + DIMENSIONS;
+
+    private static final float TOKEN_WEIGHT = 1.0f;
+    private static final float TRIGRAM_WEIGHT = 0.5f;
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    // Palavras frequentes em perguntas que não distinguem uma FAQ de outra
+    private static final Set<String> EXTRA_STOP_WORDS = Set.of(
+        "como", "qual", "quais", "quando", "onde", "porque", "por", "se", "no", "na", "nos", "nas",
+        "ao", "aos", "meu", "minha", "seu", "sua", "posso", "pode", "ser", "sao", "ou", "mais", "tem"
+    );
+
+    @Override
+    public String model() {
+        return MODEL;
+    }
+
+    @Override
+    public float[] embed(String text) {
+        float[] vector = new float[DIMENSIONS];
+        if (text == null) {
+            return vector;
+        }
+        for (String rawToken : TOKEN_SEPARATOR.split(text.toLowerCase())) {
+            if (rawToken.isEmpty() || CompanyFAQIndex.STOP_WORDS.contains(rawToken)) {
+                continue;
+            }
+            String token = stripAccents(rawToken);
+            if (EXTRA_STOP_WORDS.contains(token)) {
+                continue;
+            }
+            add(vector, "w:" + token, TOKEN_WEIGHT);
+            String padded = "<" + token + ">";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                add(vector, padded.substring(i, i + 3), TRIGRAM_WEIGHT);
+            }
+        }
+        return FloatVectors.normalize(vector);
+    }
+
+    private static void add(float[] vector, String feature, float weight) {
+        int hash = murmurMix(feature);
+        vector[Math.floorMod(hash, DIMENSIONS)] += (hash & 0x8000_0000) == 0 ? weight : -weight;
+    }
+
+    /**
+     * Hash estável entre execuções (String.hashCode espalha mal sufixos curtos)
+     */
+    private static int murmurMix(String feature) {
+        int h = 0x9747b28c;
+        for (byte b : feature.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x5bd1e995;
+            h ^= h >>> 15;
+        }
+        h ^= h >>> 13;
+        h *= 0x5bd1e995;
+        h ^= h >>> 15;
+        return h;
+    }
+
+    private static String stripAccents(String token) {
+        return DIACRITICS.matcher(Normalizer.normalize(token, Normalizer.Form.NFD)).replaceAll("");
+    }
+}
@@ -2,7 +2,9 @@ package com.ruby.rubia_server.core.service;
 
 import com.ruby.rubia_server.core.dto.CreateConversationMediaDTO;
 import com.ruby.rubia_server.core.dto.CreateMessageDTO;
+import com.ruby.rubia_server.core.dto.CursorPageDTO;
 import com.ruby.rubia_server.core.dto.MessageDTO;
+import com.ruby.rubia_server.core.dto.TimelineCursor;
 import com.ruby.rubia_server.core.dto.UpdateMessageDTO;
 import com.ruby.rubia_server.core.entity.Conversation;
 import com.ruby.rubia_server.core.entity.ConversationMedia;
@@ -24,6 +26,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import java.time.format.DateTimeFormatter;
@@ -34,7 +38,11 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -50,6 +58,8 @@ public class MessageService {
     private final ConversationMediaService conversationMediaService;
     private final ApplicationEventPublisher eventPublisher;
     
+    static final int MAX_TIMELINE_PAGE_SIZE = 100;
+    
     public boolean hasDraftMessage(UUID conversationId) {
         
         return messageRepository.existsByConversationIdAndStatus(conversationId, MessageStatus.DRAFT);
@@ -134,7 +144,11 @@ public class MessageService {
                 .media(media)
                 .build();
         
-        Message saved = messageRepository.save(message);
+        // Com id externo o flush é imediato: uma corrida com outra entrega do mesmo id falha aqui,
+        // no índice único, antes de publicar eventos
+        Message saved = createDTO.getExternalMessageId() != null
+                ? messageRepository.saveAndFlush(message)
+                : messageRepository.save(message);
         
         // Publish event for CQRS
         MessageCreatedEvent event = MessageCreatedEvent.builder()
@@ -161,6 +175,17 @@ public class MessageService {
         };
     }
     
+    /**
+     * Grava a mensagem recebida apenas se o id externo ainda não existir.
+     * Vazio indica reentrega de uma mensagem já gravada: quem chama não deve notificar de novo.
+     */
+    public Optional<MessageDTO> createFromIncomingMessageIfAbsent(IncomingMessage incomingMessage, UUID conversationId) {
+        if (incomingMessage.getMessageId() != null && messageRepository.existsByExternalMessageId(incomingMessage.getMessageId())) {
+            return Optional.empty();
+        }
+        return Optional.of(createFromIncomingMessage(incomingMessage, conversationId));
+    }
+    
     public MessageDTO createFromIncomingMessage(IncomingMessage incomingMessage, UUID conversationId) {
         
         
@@ -238,6 +263,32 @@ public class MessageService {
                 });
     }
     
+    /**
+     * Timeline da conversa por cursor, da mensagem mais recente para a mais antiga. {@code before} é o
+     * nextCursor da página anterior (nulo na primeira página). Os agentes remetentes da página são
+     * carregados em uma única consulta.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<MessageDTO> findTimeline(UUID conversationId, String before, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_TIMELINE_PAGE_SIZE));
+        Pageable fetch = PageRequest.of(0, limit + 1);
+        TimelineCursor cursor = before != null && !before.isBlank() ? TimelineCursor.parse(before) : null;
+        
+        List<Message> messages = cursor == null
+                ? messageRepository.findTimeline(conversationId, fetch)
+                : messageRepository.findTimelineBefore(conversationId, cursor.createdAt(), cursor.id(), fetch);
+        
+        boolean hasMore = messages.size() > limit;
+        List<Message> page = hasMore ? messages.subList(0, limit) : messages;
+        
+        Message last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return CursorPageDTO.<MessageDTO>builder()
+                .items(toDTOs(page))
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? new TimelineCursor(last.getCreatedAt(), last.getId()).toString() : null)
+                .build();
+    }
+    
     @Transactional(readOnly = true)
     public MessageDTO findByExternalMessageId(String externalMessageId) {
         
@@ -253,44 +304,34 @@ public class MessageService {
         return toDTO(message, sender);
     }
     
+    /**
+     * Busca textual nas mensagens da empresa, ordenada por relevância. Usa o índice GIN de
+     * messages.content_tsv com o dicionário portuguese, então casa palavras (com stemming),
+     * não trechos arbitrários; o termo aceita a sintaxe de websearch ("frase exata", -exclusão, or).
+     */
     @Transactional(readOnly = true)
-    public List<MessageDTO> searchInContent(String searchTerm) {
+    public Page<MessageDTO> searchInContent(UUID companyId, String searchTerm, Pageable pageable) {
         
         
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
-            return List.of();
+            return Page.empty(pageable);
         }
         
-        List<Message> messages = messageRepository.searchByContent(searchTerm.trim());
-        return messages.stream()
-                .map(message -> {
-                    User sender = null;
-                    if (message.getSenderType() == SenderType.AGENT && message.getSenderId() != null) {
-                        sender = userRepository.findById(message.getSenderId()).orElse(null);
-                    }
-                    return toDTO(message, sender);
-                })
-                .toList();
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(),
+                Math.max(1, Math.min(pageable.getPageSize(), MAX_TIMELINE_PAGE_SIZE)));
+        Page<Message> messages = messageRepository.searchByContent(companyId, searchTerm.trim(), unsorted);
+        return new PageImpl<>(toDTOs(messages.getContent()), unsorted, messages.getTotalElements());
     }
     
     @Transactional(readOnly = true)
-    public List<MessageDTO> searchInConversation(UUID conversationId, String searchTerm) {
+    public List<MessageDTO> searchInConversation(UUID companyId, UUID conversationId, String searchTerm) {
         
         
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return findByConversation(conversationId);
         }
         
-        List<Message> messages = messageRepository.searchByContentInConversation(conversationId, searchTerm.trim());
-        return messages.stream()
-                .map(message -> {
-                    User sender = null;
-                    if (message.getSenderType() == SenderType.AGENT && message.getSenderId() != null) {
-                        sender = userRepository.findById(message.getSenderId()).orElse(null);
-                    }
-                    return toDTO(message, sender);
-                })
-                .toList();
+        return toDTOs(messageRepository.searchByContentInConversation(companyId, conversationId, searchTerm.trim()));
     }
     
     public MessageDTO update(UUID id, UpdateMessageDTO updateDTO) {
@@ -514,6 +555,23 @@ public class MessageService {
     
     
     
+    /**
+     * Converte uma lista de mensagens carregando os agentes remetentes em uma única consulta.
+     */
+    private List<MessageDTO> toDTOs(List<Message> messages) {
+        Set<UUID> senderIds = messages.stream()
+                .filter(message -> message.getSenderType() == SenderType.AGENT && message.getSenderId() != null)
+                .map(Message::getSenderId)
+                .collect(Collectors.toSet());
+        Map<UUID, User> senders = senderIds.isEmpty() ? Map.of() : userRepository.findAllById(senderIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        
+        return messages.stream()
+                .map(message -> toDTO(message, message.getSenderType() == SenderType.AGENT
+                        ? senders.get(message.getSenderId()) : null))
+                .toList();
+    }
+    
     private MessageDTO toDTO(Message message, User sender) {
         // Extract media information if available
         String mediaUrl = null;
@@ -34,6 +34,7 @@ import com.ruby.rubia_server.core.dto.MessageDTO;
 import com.ruby.rubia_server.core.event.MessageCreatedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import org.slf4j.Logger;
@@ -79,6 +80,15 @@ public class MessagingService {
     @Autowired
     private MessageRepository messageRepository;
     
+    @Autowired
+    private InboundMessageDeduplicator inboundMessageDeduplicator;
+    
+    @Autowired
+    private InboundTenantCache inboundTenantCache;
+    
+    @Autowired
+    private ChatLidRoutingCache chatLidRoutingCache;
+    
     @Autowired
     private PhoneService phoneService;
     
@@ -222,6 +232,10 @@ public class MessagingService {
     }
     
     public void processIncomingMessage(IncomingMessage incomingMessage) {
+        if (inboundMessageDeduplicator.isAlreadyStored(incomingMessage.getProvider(), incomingMessage.getMessageId())) {
+            return;
+        }
+        
         try {
             
             
@@ -253,8 +267,25 @@ public class MessagingService {
             // Find or create conversation using chatLid
             ConversationDTO conversation = findOrCreateConversationByChatLid(incomingMessage.getChatLid(), customer);
             
-            // Save message and notify
-            MessageDTO savedMessage = messageService.createFromIncomingMessage(incomingMessage, conversation.getId());
+            // Save message and notify (reentregas já gravadas não geram novos eventos nem não lidas)
+            Optional<MessageDTO> created;
+            try {
+                created = messageService.createFromIncomingMessageIfAbsent(incomingMessage, conversation.getId());
+            } catch (DataIntegrityViolationException e) {
+                if (!InboundMessageDeduplicator.isDuplicateExternalId(e)) {
+                    throw e;
+                }
+                created = Optional.empty();
+            }
+            if (created.isEmpty()) {
+                inboundMessageDeduplicator.recordDuplicate("database");
+                inboundMessageDeduplicator.markStored(incomingMessage.getProvider(), incomingMessage.getMessageId());
+                logger.debug("Mensagem {} já gravada, reentrega ignorada", incomingMessage.getMessageId());
+                return;
+            }
+            MessageDTO savedMessage = created.get();
+            // A mensagem já foi commitada por MessageService: só agora as reentregas podem ser descartadas
+            inboundMessageDeduplicator.markStored(incomingMessage.getProvider(), incomingMessage.getMessageId());
             webSocketNotificationService.notifyNewMessage(savedMessage, conversation);
             
             // Publicar evento para gerar draft automático
@@ -284,14 +315,23 @@ public class MessagingService {
             return null;
         }
         
+        String cacheKey = phoneService.normalize(connectedPhone);
+        Optional<InboundTenantCache.CachedCompany> cached = inboundTenantCache.getCompany(cacheKey);
+        if (cached.isPresent()) {
+            return cached.get().toCompany();
+        }
+        
         String[] phoneVariations = phoneService.generatePhoneVariations(connectedPhone);
         
         for (String variation : phoneVariations) {
             if (variation != null) {
-                Company company = findCompanyByWhatsAppInstance(variation);
-                if (company != null) {
-                    
-                    return company;
+                Optional<WhatsAppInstance> instance = whatsAppInstanceRepository
+                    .findActiveByPhoneNumberWithCompany(phoneService.normalize(variation));
+                if (instance.isPresent()) {
+                    InboundTenantCache.CachedCompany company = InboundTenantCache.CachedCompany.of(
+                        instance.get().getCompany(), instance.get().getId());
+                    inboundTenantCache.putCompany(cacheKey, company);
+                    return company.toCompany();
                 }
             }
         }
@@ -330,6 +370,12 @@ public class MessagingService {
 
     private Customer findOrCreateCustomerWithVariations(IncomingMessage incomingMessage, Company company) {
         String fromNumber = phoneService.extractFromProvider(incomingMessage.getFrom());
+        String cacheKey = phoneService.normalize(fromNumber);
+        Optional<InboundTenantCache.CachedCustomer> cached = inboundTenantCache.getCustomer(company.getId(), cacheKey);
+        if (cached.isPresent()) {
+            return cached.get().toCustomer(company);
+        }
+        
         String[] phoneVariations = phoneService.generatePhoneVariations(fromNumber);
         
         // Try to find existing customer with any variation
@@ -338,12 +384,7 @@ public class MessagingService {
                 CustomerDTO customerDTO = customerService.findByPhoneAndCompany(variation, company.getId());
                 if (customerDTO != null) {
                     logger.info("Found customer: {} ({})", customerDTO.getName(), customerDTO.getPhone());
-                    return Customer.builder()
-                        .id(customerDTO.getId())
-                        .phone(customerDTO.getPhone())
-                        .name(customerDTO.getName())
-                        .company(company)
-                        .build();
+                    return cacheCustomer(cacheKey, customerDTO, company);
                 }
             }
         }
@@ -351,7 +392,17 @@ public class MessagingService {
         // Customer not found with any variation, create new one
         logger.info("Creating new customer for: {}", fromNumber);
         
-        return createCustomerFromWhatsApp(incomingMessage, company);
+        Customer created = createCustomerFromWhatsApp(incomingMessage, company);
+        inboundTenantCache.putCustomer(cacheKey, new InboundTenantCache.CachedCustomer(
+            created.getId(), company.getId(), created.getPhone(), created.getName()));
+        return created;
+    }
+    
+    private Customer cacheCustomer(String cacheKey, CustomerDTO customerDTO, Company company) {
+        InboundTenantCache.CachedCustomer customer = new InboundTenantCache.CachedCustomer(
+            customerDTO.getId(), company.getId(), customerDTO.getPhone(), customerDTO.getName());
+        inboundTenantCache.putCustomer(cacheKey, customer);
+        return customer.toCustomer(company);
     }
     
     private Customer createCustomerFromWhatsApp(IncomingMessage incomingMessage, Company company) {
@@ -390,118 +441,83 @@ public class MessagingService {
         }
 
         try {
-            // Usar ChatLidMappingService para encontrar ou criar conversa
-            Optional<Conversation> conversation = chatLidMappingService.findConversationByChatLid(chatLid);
-            
-            if (conversation.isPresent()) {
-                logger.debug("✅ Conversa encontrada via mapping: {}", conversation.get().getId());
-                return conversationService.findById(conversation.get().getId(), customer.getCompany().getId());
+            // Chat já conhecido: roteamento por busca em memória
+            Optional<UUID> routedConversationId = chatLidRoutingCache.findConversationId(chatLid);
+            if (routedConversationId.isPresent()) {
+                ConversationDTO routed = findConversationOrNull(routedConversationId.get(), customer.getCompany().getId());
+                if (routed != null) {
+                    return routed;
+                }
+                chatLidRoutingCache.evictChatLid(chatLid);
             }
+            
+            ConversationDTO resolved = resolveConversationByChatLid(chatLid, customer);
+            chatLidRoutingCache.putChatLid(chatLid, resolved.getId(), customer.getCompany().getId(), customer.getPhone());
+            return resolved;
+        } catch (Exception e) {
+            logger.error("❌ Erro ao usar ChatLidMappingService, usando método tradicional: {}", e.getMessage());
+            return findOrCreateConversationTraditional(customer);
+        }
+    }
+
+    private ConversationDTO resolveConversationByChatLid(String chatLid, Customer customer) {
+        // Usar ChatLidMappingService para encontrar ou criar conversa
+        Optional<Conversation> conversation = chatLidMappingService.findConversationByChatLid(chatLid);
+        
+        if (conversation.isPresent()) {
+            logger.debug("✅ Conversa encontrada via mapping: {}", conversation.get().getId());
+            return conversationService.findById(conversation.get().getId(), customer.getCompany().getId());
+        }
+
+        // Se não encontrou mapping por chatLid, priorizar campanhas ativas mais recentes
+        logger.debug("🔍 Nenhum mapping encontrado por chatLid, buscando campanhas ativas por telefone");
+        
+        Optional<UUID> campaignConversationId = findCampaignConversationId(customer);
 
-            // Se não encontrou mapping por chatLid, priorizar campanhas ativas mais recentes
-            logger.debug("🔍 Nenhum mapping encontrado por chatLid, buscando campanhas ativas por telefone");
+        if (campaignConversationId.isPresent()) {
+            logger.info("✅ Mapping de campanha encontrado: {}, verificando se conversa está ativa", campaignConversationId.get());
             
-            // Buscar mapping de campanha ativa mais recente (com variações de telefone)
-            Optional<ChatLidMapping> campaignMapping = chatLidMappingService.findMostRecentActiveCampaignMapping(
-                customer.getPhone(), 
+            // Buscar conversa da campanha
+            ConversationDTO campaignConversation = conversationService.findById(
+                campaignConversationId.get(), 
                 customer.getCompany().getId()
             );
-
-            if (campaignMapping.isPresent()) {
-                logger.info("✅ Campanha ativa encontrada: campaignId={}, conversationId={}", 
-                    campaignMapping.get().getCampaignId(), campaignMapping.get().getConversationId());
-            } else {
-                // Fallback: buscar qualquer mapping de campanha sem chatLid
-                logger.debug("🔍 Nenhuma campanha ativa encontrada, buscando mappings de campanha legacy");
-                
-                String[] phoneVariations = phoneService.generatePhoneVariations(customer.getPhone());
-                List<ChatLidMapping> legacyMappings = new ArrayList<>();
-                
-                for (String phoneVariation : phoneVariations) {
-                    if (phoneVariation != null) {
-                        List<ChatLidMapping> mappings = chatLidMappingService.findMappingsByPhone(
-                            phoneVariation, 
-                            customer.getCompany().getId()
-                        );
-                        legacyMappings.addAll(mappings);
-                        logger.debug("🔍 Buscando mappings legacy para variação: {}, encontrados: {}", phoneVariation, mappings.size());
-                    }
-                }
-                
-                campaignMapping = legacyMappings.stream()
-                    .filter(mapping -> mapping.getChatLid() == null && mapping.getFromCampaign())
-                    .findFirst();
-            }
-                
-            if (campaignMapping.isPresent()) {
-                logger.info("✅ Mapping de campanha encontrado: {}, verificando se conversa está ativa", campaignMapping.get().getConversationId());
-                
-                // Buscar conversa da campanha
-                ConversationDTO campaignConversation = conversationService.findById(
-                    campaignMapping.get().getConversationId(), 
-                    customer.getCompany().getId()
-                );
+            
+            if (campaignConversation != null) {
+                // Verificar se conversa está ativa (não finalizada)
+                boolean isActive = campaignConversation.getStatus() == ConversationStatus.ENTRADA || 
+                                 campaignConversation.getStatus() == ConversationStatus.ESPERANDO;
                 
-                if (campaignConversation != null) {
-                    // Verificar se conversa está ativa (não finalizada)
-                    boolean isActive = campaignConversation.getStatus() == ConversationStatus.ENTRADA || 
-                                     campaignConversation.getStatus() == ConversationStatus.ESPERANDO;
+                if (isActive) {
+                    logger.info("✅ Conversa de campanha ativa reutilizada: {} (status: {})", 
+                        campaignConversation.getId(), campaignConversation.getStatus());
                     
-                    if (isActive) {
-                        logger.info("✅ Conversa de campanha ativa reutilizada: {} (status: {})", 
-                            campaignConversation.getId(), campaignConversation.getStatus());
-                        
-                        // Atualizar mapping com chatLid
-                        chatLidMappingService.updateMappingWithChatLid(campaignMapping.get().getConversationId(), chatLid);
-                        
-                        return campaignConversation;
-                    } else {
-                        logger.debug("Conversa de campanha encontrada mas está finalizada (status: {}), criando nova conversa", 
-                            campaignConversation.getStatus());
-                    }
+                    // Atualizar mapping com chatLid
+                    chatLidMappingService.updateMappingWithChatLid(campaignConversationId.get(), chatLid);
+                    
+                    return campaignConversation;
                 } else {
-                    logger.warn("Mapping encontrado mas conversa não existe: {}", campaignMapping.get().getConversationId());
+                    logger.debug("Conversa de campanha encontrada mas está finalizada (status: {}), criando nova conversa", 
+                        campaignConversation.getStatus());
                 }
+            } else {
+                logger.warn("Mapping encontrado mas conversa não existe: {}", campaignConversationId.get());
             }
+        }
+        
+        // Se não encontrou mapping de campanha, buscar conversa mais recente por customer
+        logger.debug("🔍 Nenhum mapping de campanha encontrado, buscando conversa recente por customer");
+        
+        List<ConversationDTO> customerConversations = conversationService
+            .findByCustomerAndCompany(customer.getId(), customer.getCompany().getId());
+        
+        Optional<ConversationDTO> recentConversation = customerConversations.stream()
+            .findFirst(); // Primeira conversa como fallback
+        
+        if (recentConversation.isPresent()) {
+            logger.info("✅ Conversa recente encontrada: {}, criando mapping", recentConversation.get().getId());
             
-            // Se não encontrou mapping de campanha, buscar conversa mais recente por customer
-            logger.debug("🔍 Nenhum mapping de campanha encontrado, buscando conversa recente por customer");
-            
-            List<ConversationDTO> customerConversations = conversationService
-                .findByCustomerAndCompany(customer.getId(), customer.getCompany().getId());
-            
-            Optional<ConversationDTO> recentConversation = customerConversations.stream()
-                .findFirst(); // Primeira conversa como fallback
-            
-            if (recentConversation.isPresent()) {
-                logger.info("✅ Conversa recente encontrada: {}, criando mapping", recentConversation.get().getId());
-                
-                // Criar mapping para a conversa existente
-                UUID instanceId = getCurrentWhatsAppInstanceId(customer.getCompany());
-                chatLidMappingService.findOrCreateMapping(
-                    chatLid, 
-                    customer.getPhone(), 
-                    customer.getCompany().getId(), 
-                    instanceId
-                );
-                
-                return recentConversation.get();
-            }
-
-            // Nenhuma conversa encontrada, criar nova
-            logger.info("📞 Criando nova conversa para chatLid: {} e customer: {}", chatLid, customer.getId());
-            
-            CreateConversationDTO createDTO = CreateConversationDTO.builder()
-                .customerId(customer.getId())
-                .channel(Channel.WHATSAPP)
-                .status(ConversationStatus.ENTRADA)
-                .priority(1)
-                .chatLid(chatLid)
-                .build();
-
-            ConversationDTO newConversation = conversationService.create(createDTO, customer.getCompany().getId());
-            
-            // Criar mapping para nova conversa
+            // Criar mapping para a conversa existente
             UUID instanceId = getCurrentWhatsAppInstanceId(customer.getCompany());
             chatLidMappingService.findOrCreateMapping(
                 chatLid, 
@@ -510,12 +526,89 @@ public class MessagingService {
                 instanceId
             );
             
-            logger.info("🔗 Mapping criado para nova conversa: {}", newConversation.getId());
-            return newConversation;
+            return recentConversation.get();
+        }
 
+        // Nenhuma conversa encontrada, criar nova
+        logger.info("📞 Criando nova conversa para chatLid: {} e customer: {}", chatLid, customer.getId());
+        
+        CreateConversationDTO createDTO = CreateConversationDTO.builder()
+            .customerId(customer.getId())
+            .channel(Channel.WHATSAPP)
+            .status(ConversationStatus.ENTRADA)
+            .priority(1)
+            .chatLid(chatLid)
+            .build();
+
+        ConversationDTO newConversation = conversationService.create(createDTO, customer.getCompany().getId());
+        
+        // Criar mapping para nova conversa
+        UUID instanceId = getCurrentWhatsAppInstanceId(customer.getCompany());
+        chatLidMappingService.findOrCreateMapping(
+            chatLid, 
+            customer.getPhone(), 
+            customer.getCompany().getId(), 
+            instanceId
+        );
+        
+        logger.info("🔗 Mapping criado para nova conversa: {}", newConversation.getId());
+        return newConversation;
+    }
+
+    /**
+     * Conversa de campanha para o telefone do customer (campanha ativa mais recente ou mapping legacy),
+     * consultando antes o cache de roteamento
+     */
+    private Optional<UUID> findCampaignConversationId(Customer customer) {
+        UUID companyId = customer.getCompany().getId();
+        Optional<Optional<UUID>> cached = chatLidRoutingCache.findCampaignConversationId(companyId, customer.getPhone());
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        
+        // Buscar mapping de campanha ativa mais recente (com variações de telefone)
+        Optional<ChatLidMapping> campaignMapping = chatLidMappingService.findMostRecentActiveCampaignMapping(
+            customer.getPhone(), 
+            customer.getCompany().getId()
+        );
+
+        if (campaignMapping.isPresent()) {
+            logger.info("✅ Campanha ativa encontrada: campaignId={}, conversationId={}", 
+                campaignMapping.get().getCampaignId(), campaignMapping.get().getConversationId());
+        } else {
+            // Fallback: buscar qualquer mapping de campanha sem chatLid
+            logger.debug("🔍 Nenhuma campanha ativa encontrada, buscando mappings de campanha legacy");
+            
+            String[] phoneVariations = phoneService.generatePhoneVariations(customer.getPhone());
+            List<ChatLidMapping> legacyMappings = new ArrayList<>();
+            
+            for (String phoneVariation : phoneVariations) {
+                if (phoneVariation != null) {
+                    List<ChatLidMapping> mappings = chatLidMappingService.findMappingsByPhone(
+                        phoneVariation, 
+                        customer.getCompany().getId()
+                    );
+                    legacyMappings.addAll(mappings);
+                    logger.debug("🔍 Buscando mappings legacy para variação: {}, encontrados: {}", phoneVariation, mappings.size());
+                }
+            }
+            
+            campaignMapping = legacyMappings.stream()
+                .filter(mapping -> mapping.getChatLid() == null && mapping.getFromCampaign())
+                .findFirst();
+        }
+        
+        Optional<UUID> conversationId = campaignMapping.map(ChatLidMapping::getConversationId);
+        chatLidRoutingCache.putCampaignConversationId(companyId, customer.getPhone(), conversationId.orElse(null));
+        return conversationId;
+    }
+
+    private ConversationDTO findConversationOrNull(UUID conversationId, UUID companyId) {
+        try {
+            return conversationService.findById(conversationId, companyId);
         } catch (Exception e) {
-            logger.error("❌ Erro ao usar ChatLidMappingService, usando método tradicional: {}", e.getMessage());
-            return findOrCreateConversationTraditional(customer);
+            logger.debug("Conversa {} da rota em cache não encontrada: {}", conversationId, e.getMessage());
+            return null;
         }
     }
 
@@ -11,6 +11,7 @@ import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.openai.OpenAiChatModel;
 import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.*;
@@ -22,14 +23,23 @@ import org.springframework.web.client.RestTemplate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class OpenAIService {
 
+    public static final String TRANSCRIPTION_MODEL = "whisper-1";
+
+    private static final String SYSTEM_MESSAGE =
+        "Você é um especialista em captação de doadores de sangue para centros de hematologia e hemoterapia. " +
+        "Sua especialidade é criar mensagens persuasivas e eficazes que motivem pessoas a fazer doações de sangue. " +
+        "Sempre mantenha um tom ético, respeitoso e focado no impacto social positivo da doação.";
+
     private final OpenAiChatModel chatModel;
     private final ObjectMapper objectMapper;
+    @Qualifier("openAiRestTemplate")
     private final RestTemplate restTemplate;
     
     @Value("${ai.default-model:gpt-4o-mini}")
@@ -43,6 +53,9 @@ public class OpenAIService {
     
     @Value("${spring.ai.openai.api-key}")
     private String openAiApiKey;
+    
+    @Value("${spring.ai.openai.base-url:https://api.openai.com}")
+    private String openAiBaseUrl;
 
     public String enhanceTemplate(String prompt, String modelName, Double temperature, Integer maxTokens) {
         try {
@@ -100,9 +113,7 @@ public class OpenAIService {
             log.debug("Enhancing template with OpenAI (with payload tracking) - Model: {}, Temperature: {}, MaxTokens: {}", 
                      modelName, temperature, maxTokens);
             
-            String systemMessageContent = "Você é um especialista em captação de doadores de sangue para centros de hematologia e hemoterapia. " +
-                "Sua especialidade é criar mensagens persuasivas e eficazes que motivem pessoas a fazer doações de sangue. " +
-                "Sempre mantenha um tom ético, respeitoso e focado no impacto social positivo da doação.";
+            String systemMessageContent = SYSTEM_MESSAGE;
 
             SystemMessage systemMessage = new SystemMessage(systemMessageContent);
             UserMessage userMessage = new UserMessage(prompt);
@@ -152,6 +163,57 @@ public class OpenAIService {
         }
     }
 
+    /**
+     * Versão em streaming de {@link #enhanceTemplateWithPayload}: cada trecho de texto recebido do modelo é
+     * entregue a {@code onChunk} assim que chega, na thread que chamou. Bloqueia até o fim da resposta.
+     */
+    public AIEnhancementResult streamTemplateWithPayload(String prompt, String modelName, Double temperature, Integer maxTokens,
+                                                         Consumer<String> onChunk) {
+        Double finalTemperature = temperature != null ? temperature : defaultTemperature;
+        Integer finalMaxTokens = maxTokens != null ? maxTokens : defaultMaxTokens;
+        String finalModel = modelName != null ? modelName : defaultModel;
+        
+        log.debug("Streaming template with OpenAI - Model: {}, Temperature: {}, MaxTokens: {}", 
+                 finalModel, finalTemperature, finalMaxTokens);
+        
+        OpenAiChatOptions options = OpenAiChatOptions.builder()
+                .withModel(finalModel)
+                .withTemperature(finalTemperature)
+                .withMaxTokens(finalMaxTokens)
+                .build();
+        Prompt chatPrompt = new Prompt(List.of(new SystemMessage(SYSTEM_MESSAGE), new UserMessage(prompt)), options);
+        
+        StringBuilder content = new StringBuilder();
+        chatModel.stream(chatPrompt)
+                .doOnNext(response -> {
+                    if (response.getResult() == null || response.getResult().getOutput() == null) {
+                        return;
+                    }
+                    String chunk = response.getResult().getOutput().getContent();
+                    if (chunk != null && !chunk.isEmpty()) {
+                        content.append(chunk);
+                        onChunk.accept(chunk);
+                    }
+                })
+                .blockLast();
+        
+        if (content.isEmpty()) {
+            throw new RuntimeException("Resposta vazia da OpenAI");
+        }
+        
+        log.info("Template streamed successfully using model: {} - {} chars", finalModel, content.length());
+        
+        return AIEnhancementResult.builder()
+                .enhancedMessage(content.toString())
+                .systemMessage(SYSTEM_MESSAGE)
+                .userMessage(prompt)
+                .fullPayloadJson(createPayloadJson(finalModel, finalTemperature, finalMaxTokens, SYSTEM_MESSAGE, prompt))
+                .modelUsed(finalModel)
+                .temperatureUsed(finalTemperature)
+                .maxTokensUsed(finalMaxTokens)
+                .build();
+    }
+
     /**
      * Cria JSON do payload enviado para OpenAI para fins de auditoria
      */
@@ -205,52 +267,58 @@ public class OpenAIService {
     }
     
     /**
-     * Transcreve áudio usando OpenAI Whisper API
+     * Transcreve áudio usando OpenAI Whisper API; retorna null em caso de erro
      */
     public String transcribeAudio(byte[] audioData, String language) {
         try {
-            log.debug("Transcribing audio with OpenAI Whisper - Language: {}, Size: {} bytes", 
-                     language, audioData.length);
-            
-            // Preparar request multipart para Whisper API
-            MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
-            body.add("file", new ByteArrayResource(audioData) {
-                @Override
-                public String getFilename() { 
-                    return "audio.ogg"; // Z-API normalmente envia OGG
-                }
-            });
-            body.add("model", "whisper-1");
-            body.add("language", language);
-            body.add("response_format", "json");
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.MULTIPART_FORM_DATA);
-            headers.setBearerAuth(openAiApiKey);
-            
-            HttpEntity<MultiValueMap<String, Object>> request = new HttpEntity<>(body, headers);
-            
-            ResponseEntity<TranscriptionResponse> response = restTemplate.postForEntity(
-                "https://api.openai.com/v1/audio/transcriptions",
-                request,
-                TranscriptionResponse.class
-            );
-            
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                String transcription = response.getBody().getText();
-                log.info("Audio transcribed successfully: '{}'", transcription);
-                return transcription;
-            }
-            
-            log.warn("OpenAI Whisper response was empty or failed");
-            return null;
-            
+            return transcribe(audioData, language);
         } catch (Exception e) {
             log.error("Error transcribing audio with OpenAI Whisper: {}", e.getMessage(), e);
             return null;
         }
     }
     
+    /**
+     * Transcreve áudio usando OpenAI Whisper API, propagando erros do upstream (usado pelo AIGateway)
+     */
+    public String transcribe(byte[] audioData, String language) {
+        log.debug("Transcribing audio with OpenAI Whisper - Language: {}, Size: {} bytes", 
+                 language, audioData.length);
+        
+        // Preparar request multipart para Whisper API
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        body.add("file", new ByteArrayResource(audioData) {
+            @Override
+            public String getFilename() { 
+                return "audio.ogg"; // Z-API normalmente envia OGG
+            }
+        });
+        body.add("model", TRANSCRIPTION_MODEL);
+        body.add("language", language);
+        body.add("response_format", "json");
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+        headers.setBearerAuth(openAiApiKey);
+        
+        HttpEntity<MultiValueMap<String, Object>> request = new HttpEntity<>(body, headers);
+        
+        ResponseEntity<TranscriptionResponse> response = restTemplate.postForEntity(
+            openAiBaseUrl + "/v1/audio/transcriptions",
+            request,
+            TranscriptionResponse.class
+        );
+        
+        if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
+            String transcription = response.getBody().getText();
+            log.info("Audio transcribed successfully: '{}'", transcription);
+            return transcription;
+        }
+        
+        log.warn("OpenAI Whisper response was empty or failed");
+        return null;
+    }
+    
     /**
      * DTO para resposta da API de transcrição do OpenAI
      */
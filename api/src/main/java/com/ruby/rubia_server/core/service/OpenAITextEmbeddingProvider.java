@@ -0,0 +1,47 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.core.util.FloatVectors;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Embeddings pelo modelo da OpenAI configurado no Spring AI (spring.ai.openai.embedding.*).
+ * Capta sinônimos e paráfrases; os vetores da OpenAI têm similaridades mais altas que os do provedor
+ * local, então ajuste ai.faq-embeddings.min-similarity (por volta de 0.8).
+ */
+@Component
+@ConditionalOnProperty(name = "ai.faq-embeddings.provider", havingValue = "openai")
+public class OpenAITextEmbeddingProvider implements TextEmbeddingProvider {
+
+    private final EmbeddingModel embeddingModel;
+    private final String model;
+
+    public OpenAITextEmbeddingProvider(
+            EmbeddingModel embeddingModel,
+            @Value("${spring.ai.openai.embedding.options.model:text-embedding-ada-002}") String model) {
+        this.embeddingModel = embeddingModel;
+        this.model = "openai:" + model;
+    }
+
+    @Override
+    public String model() {
+        return model;
+    }
+
+    @Override
+    public float[] embed(String text) {
+        return FloatVectors.normalize(embeddingModel.embed(text));
+    }
+
+    @Override
+    public List<float[]> embedAll(List<String> texts) {
+        // Uma única requisição para o lote
+        return embeddingModel.embed(texts).stream()
+                .map(FloatVectors::normalize)
+                .toList();
+    }
+}
@@ -0,0 +1,196 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.core.repository.UserRepository;
+import com.ruby.rubia_server.core.util.BoundedTtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Contadores de não lidas em hashes do Redis: {@code HINCRBY rubia:unread:<userId> <conversationId> 1}.
+ *
+ * Leituras não tocam o banco; os contadores de várias conversas saem de um único HMGET.
+ * Cada escrita marca o par usuário/conversa no hash {@link #DIRTY_KEY} (valor = id da última
+ * mensagem) e {@link UnreadCountCheckpointer} grava os valores atuais em unread_message_counts
+ * em lotes. Contador zerado é removido do hash (HDEL) e gravado como 0 no checkpoint.
+ *
+ * O fan-out de uma mensagem recebida é um pipeline com um HINCRBY por usuário da empresa e um
+ * HSET com todas as marcas de sujo. Os ids dos usuários da empresa ficam em cache local por
+ * messaging.unread-counters.company-users-ttl.
+ */
+@Component
+@ConditionalOnProperty(name = "messaging.unread-counters.store", havingValue = "redis")
+public class RedisUnreadCountStore implements UnreadCountStore {
+
+    public static final String COUNTER_KEY_PREFIX = "rubia:unread:";
+    public static final String DIRTY_KEY = "{rubia:unread}:dirty";
+    public static final String CHECKPOINT_KEY = "{rubia:unread}:dirty:checkpoint";
+    public static final String SEEDED_KEY = "{rubia:unread}:seeded";
+
+    private static final RedisScript<List> RESET_ALL_SCRIPT = loadScript("redis/unread-reset-all.lua");
+
+    private final StringRedisTemplate redisTemplate;
+    private final UserRepository userRepository;
+    private final BoundedTtlCache<UUID, List<UUID>> companyUsers;
+
+    public RedisUnreadCountStore(
+            StringRedisTemplate redisTemplate,
+            UserRepository userRepository,
+            @Value("${messaging.unread-counters.company-users-ttl:60s}") Duration companyUsersTtl) {
+        this.redisTemplate = redisTemplate;
+        this.userRepository = userRepository;
+        this.companyUsers = new BoundedTtlCache<>(10_000, companyUsersTtl);
+    }
+
+    @Override
+    public String name() {
+        return "redis";
+    }
+
+    @Override
+    public Map<UUID, Integer> incrementForCompanyUsers(UUID companyId, UUID conversationId, UUID messageId) {
+        List<UUID> userIds = companyUsers.get(companyId, userRepository::findIdsByCompanyId).orElse(List.of());
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+
+        byte[] conversationField = bytes(conversationId.toString());
+        byte[] lastMessage = bytes(messageId != null ? messageId.toString() : "");
+        Map<byte[], byte[]> dirtyMarks = new LinkedHashMap<>();
+        for (UUID userId : userIds) {
+            dirtyMarks.put(bytes(dirtyField(userId, conversationId)), lastMessage);
+        }
+
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (UUID userId : userIds) {
+                connection.hashCommands().hIncrBy(bytes(counterKey(userId)), conversationField, 1L);
+            }
+            connection.hashCommands().hMSet(bytes(DIRTY_KEY), dirtyMarks);
+            return null;
+        });
+
+        Map<UUID, Integer> countsByUser = new HashMap<>(userIds.size() * 2);
+        for (int i = 0; i < userIds.size(); i++) {
+            countsByUser.put(userIds.get(i), ((Number) results.get(i)).intValue());
+        }
+        return countsByUser;
+    }
+
+    @Override
+    public int increment(UUID userId, UUID conversationId, UUID messageId) {
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.hashCommands().hIncrBy(bytes(counterKey(userId)), bytes(conversationId.toString()), 1L);
+            markDirty(connection, userId, conversationId, messageId != null ? messageId.toString() : "");
+            return null;
+        });
+        return ((Number) results.get(0)).intValue();
+    }
+
+    @Override
+    public void reset(UUID userId, UUID conversationId) {
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.hashCommands().hDel(bytes(counterKey(userId)), bytes(conversationId.toString()));
+            markDirty(connection, userId, conversationId, "");
+            return null;
+        });
+    }
+
+    @Override
+    public void resetAll(UUID userId) {
+        List<?> conversationIds = redisTemplate.execute(RESET_ALL_SCRIPT, List.of(counterKey(userId)));
+        if (conversationIds == null || conversationIds.isEmpty()) {
+            return;
+        }
+
+        Map<String, String> dirtyMarks = new HashMap<>();
+        for (Object conversationId : conversationIds) {
+            dirtyMarks.put(userId + ":" + conversationId, "");
+        }
+        redisTemplate.opsForHash().putAll(DIRTY_KEY, dirtyMarks);
+    }
+
+    @Override
+    public int get(UUID userId, UUID conversationId) {
+        Object value = redisTemplate.opsForHash().get(counterKey(userId), conversationId.toString());
+        return value != null ? Integer.parseInt(value.toString()) : 0;
+    }
+
+    @Override
+    public long getTotal(UUID userId) {
+        long total = 0;
+        for (Object value : redisTemplate.opsForHash().values(counterKey(userId))) {
+            total += Long.parseLong(value.toString());
+        }
+        return total;
+    }
+
+    @Override
+    public Map<UUID, Integer> getForConversations(UUID userId, List<UUID> conversationIds) {
+        if (conversationIds.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        List<Object> fields = new ArrayList<>(conversationIds.size());
+        for (UUID conversationId : conversationIds) {
+            fields.add(conversationId.toString());
+        }
+        List<Object> values = redisTemplate.opsForHash().multiGet(counterKey(userId), fields);
+
+        Map<UUID, Integer> counts = new HashMap<>();
+        for (int i = 0; i < conversationIds.size(); i++) {
+            Object value = values.get(i);
+            if (value != null) {
+                counts.put(conversationIds.get(i), Integer.parseInt(value.toString()));
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Grava contadores vindos do banco (aquecimento inicial do Redis)
+     */
+    public void load(UUID userId, Map<UUID, Integer> countsByConversation) {
+        Map<String, String> values = new HashMap<>();
+        countsByConversation.forEach((conversationId, count) -> values.put(conversationId.toString(), count.toString()));
+        redisTemplate.opsForHash().putAll(counterKey(userId), values);
+    }
+
+    private static RedisScript<List> loadScript(String path) {
+        DefaultRedisScript<List> script = new DefaultRedisScript<>();
+        script.setScriptSource(new ResourceScriptSource(new ClassPathResource(path)));
+        script.setResultType(List.class);
+        return script;
+    }
+
+    private void markDirty(RedisConnection connection, UUID userId, UUID conversationId, String lastMessageId) {
+        connection.hashCommands().hSet(bytes(DIRTY_KEY), bytes(dirtyField(userId, conversationId)), bytes(lastMessageId));
+    }
+
+    static String counterKey(UUID userId) {
+        return COUNTER_KEY_PREFIX + userId;
+    }
+
+    static String dirtyField(UUID userId, UUID conversationId) {
+        return userId + ":" + conversationId;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -1,5 +1,6 @@
 package com.ruby.rubia_server.core.service;
 
+import com.ruby.rubia_server.core.dto.AIEnhancementResult;
 import com.ruby.rubia_server.core.dto.EnhanceTemplateDTO;
 import com.ruby.rubia_server.core.dto.EnhancedTemplateResponseDTO;
 import com.ruby.rubia_server.core.dto.SaveTemplateWithAIMetadataDTO;
@@ -33,7 +34,7 @@ public class TemplateEnhancementService {
     private final CompanyRepository companyRepository;
     private final MessageTemplateRepository messageTemplateRepository;
     private final MessageTemplateRevisionService messageTemplateRevisionService;
-    private final OpenAIService openAIService;
+    private final AIGateway aiGateway;
 
     public EnhancedTemplateResponseDTO enhanceTemplate(EnhanceTemplateDTO request) {
         log.info("Enhancing template for company: {} with type: {}", request.getCompanyId(), request.getEnhancementType());
@@ -72,10 +73,13 @@ public class TemplateEnhancementService {
             agentMaxTokens = selectedAgent.getMaxResponseLength();
         }
         
-        String enhancedContent = openAIService.enhanceTemplate(prompt, aiModel.getName(), agentTemperature, agentMaxTokens);
+        AIEnhancementResult result = aiGateway.chat(request.getCompanyId(), prompt, aiModel.getName(), agentTemperature, agentMaxTokens);
+        String enhancedContent = result.getEnhancedMessage();
         
-        // Estimar tokens e créditos usados
-        int estimatedTokens = estimateTokens(request.getOriginalContent() + enhancedContent);
+        // Tokens informados pela OpenAI (ou estimados) e créditos usados
+        int estimatedTokens = result.getTokensUsed() != null
+                ? result.getTokensUsed()
+                : estimateTokens(request.getOriginalContent() + enhancedContent);
         int creditsConsumed = calculateCredits(estimatedTokens, aiModel.getCostPer1kTokens());
 
         String fullExplanation = generateExplanation(request.getEnhancementType(), aiModel, modelSource, isUsingCompanyAgent);
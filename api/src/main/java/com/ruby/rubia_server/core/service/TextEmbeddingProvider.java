@@ -0,0 +1,32 @@
+package com.ruby.rubia_server.core.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gera embeddings de texto para a busca semântica de FAQs.
+ *
+ * A implementação é escolhida por ai.faq-embeddings.provider:
+ * "local" (padrão) calcula o vetor no próprio processo, sem rede; "openai" usa o modelo de embeddings
+ * configurado no Spring AI.
+ */
+public interface TextEmbeddingProvider {
+
+    /**
+     * Identificador do modelo, gravado junto do embedding; embeddings de outro modelo são recalculados
+     */
+    String model();
+
+    /**
+     * Vetor normalizado (norma L2 = 1) do texto
+     */
+    float[] embed(String text);
+
+    default List<float[]> embedAll(List<String> texts) {
+        List<float[]> vectors = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            vectors.add(embed(text));
+        }
+        return vectors;
+    }
+}
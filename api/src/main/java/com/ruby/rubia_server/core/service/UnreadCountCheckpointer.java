@@ -0,0 +1,179 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.core.repository.UnreadMessageCountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+/**
+ * Persiste em unread_message_counts os contadores marcados como sujos por {@link RedisUnreadCountStore}.
+ *
+ * A cada ciclo o hash de marcas é renomeado atomicamente para {@link RedisUnreadCountStore#CHECKPOINT_KEY};
+ * escritas novas caem em um hash vazio e ficam para o próximo ciclo. Os valores atuais são lidos com
+ * um HMGET por usuário e gravados com um upsert por lote. Um lote que falha devolve suas marcas ao hash
+ * de sujos, sem sobrescrever marcas mais novas. Se o nó cair no meio, o próximo ciclo retoma o hash
+ * de checkpoint que ficou para trás. Um lock com TTL evita dois nós gravando ao mesmo tempo.
+ *
+ * Na primeira subida em modo redis os contadores do banco são copiados para o Redis
+ * ({@link RedisUnreadCountStore#SEEDED_KEY}). Ao voltar do modo database para redis, apague essa chave
+ * para que o Redis seja recarregado.
+ *
+ * Métricas: messaging.unread.checkpoint (timer) e messaging.unread.checkpoint.rows.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "messaging.unread-counters.store", havingValue = "redis")
+public class UnreadCountCheckpointer {
+
+    static final String LOCK_KEY = "{rubia:unread}:checkpoint:lock";
+
+    private final RedisUnreadCountStore store;
+    private final StringRedisTemplate redisTemplate;
+    private final UnreadMessageCountRepository unreadCountRepository;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final Duration lockTtl;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public UnreadCountCheckpointer(
+            RedisUnreadCountStore store,
+            StringRedisTemplate redisTemplate,
+            UnreadMessageCountRepository unreadCountRepository,
+            MeterRegistry meterRegistry,
+            @Value("${messaging.unread-counters.checkpoint-batch-size:500}") int batchSize,
+            @Value("${messaging.unread-counters.checkpoint-lock-ttl:60s}") Duration lockTtl) {
+        this.store = store;
+        this.redisTemplate = redisTemplate;
+        this.unreadCountRepository = unreadCountRepository;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.lockTtl = lockTtl;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedFromDatabase() {
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(RedisUnreadCountStore.SEEDED_KEY, nodeId))) {
+                return;
+            }
+
+            Map<UUID, Map<UUID, Integer>> countsByUser = new HashMap<>();
+            List<Object[]> rows = unreadCountRepository.findAllNonZeroCounts();
+            for (Object[] row : rows) {
+                countsByUser.computeIfAbsent((UUID) row[0], userId -> new HashMap<>())
+                        .put((UUID) row[1], ((Number) row[2]).intValue());
+            }
+            countsByUser.forEach(store::load);
+
+            log.info("Contadores de não lidas carregados no Redis: {} registros de {} usuários", rows.size(), countsByUser.size());
+        } catch (Exception e) {
+            redisTemplate.delete(RedisUnreadCountStore.SEEDED_KEY);
+            log.error("Erro ao carregar contadores de não lidas no Redis: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${messaging.unread-counters.checkpoint-interval-ms:5000}")
+    public void checkpoint() {
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, nodeId, lockTtl))) {
+                return;
+            }
+            try {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                int rows = flush();
+                sample.stop(meterRegistry.timer("messaging.unread.checkpoint"));
+                if (rows > 0) {
+                    meterRegistry.counter("messaging.unread.checkpoint.rows").increment(rows);
+                    log.debug("Checkpoint de não lidas: {} contadores gravados", rows);
+                }
+            } finally {
+                if (nodeId.equals(redisTemplate.opsForValue().get(LOCK_KEY))) {
+                    redisTemplate.delete(LOCK_KEY);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Erro no checkpoint de contadores de não lidas: {}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        checkpoint();
+    }
+
+    private int flush() {
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(RedisUnreadCountStore.CHECKPOINT_KEY))) {
+            if (!Boolean.TRUE.equals(redisTemplate.hasKey(RedisUnreadCountStore.DIRTY_KEY))) {
+                return 0;
+            }
+            redisTemplate.renameIfAbsent(RedisUnreadCountStore.DIRTY_KEY, RedisUnreadCountStore.CHECKPOINT_KEY);
+        }
+
+        Map<Object, Object> marks = redisTemplate.opsForHash().entries(RedisUnreadCountStore.CHECKPOINT_KEY);
+        List<Map.Entry<Object, Object>> entries = new ArrayList<>(marks.entrySet());
+
+        int written = 0;
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            List<Map.Entry<Object, Object>> batch = entries.subList(from, Math.min(from + batchSize, entries.size()));
+            try {
+                written += writeBatch(batch);
+            } catch (Exception e) {
+                log.error("Erro ao gravar lote de {} contadores de não lidas, devolvendo ao próximo ciclo: {}",
+                        batch.size(), e.getMessage(), e);
+                for (Map.Entry<Object, Object> mark : batch) {
+                    redisTemplate.opsForHash().putIfAbsent(RedisUnreadCountStore.DIRTY_KEY, mark.getKey(), mark.getValue());
+                }
+            }
+        }
+
+        redisTemplate.delete(RedisUnreadCountStore.CHECKPOINT_KEY);
+        return written;
+    }
+
+    private int writeBatch(List<Map.Entry<Object, Object>> batch) {
+        Map<UUID, List<UUID>> conversationsByUser = new LinkedHashMap<>();
+        for (Map.Entry<Object, Object> mark : batch) {
+            String[] parts = mark.getKey().toString().split(":");
+            conversationsByUser.computeIfAbsent(UUID.fromString(parts[0]), userId -> new ArrayList<>())
+                    .add(UUID.fromString(parts[1]));
+        }
+
+        Map<String, Integer> counts = new HashMap<>();
+        conversationsByUser.forEach((userId, conversationIds) ->
+                store.getForConversations(userId, conversationIds).forEach((conversationId, count) ->
+                        counts.put(RedisUnreadCountStore.dirtyField(userId, conversationId), count)));
+
+        StringJoiner userIds = new StringJoiner(",");
+        StringJoiner conversationIds = new StringJoiner(",");
+        StringJoiner unreadCounts = new StringJoiner(",");
+        StringJoiner lastMessageIds = new StringJoiner(",");
+        for (Map.Entry<Object, Object> mark : batch) {
+            String field = mark.getKey().toString();
+            int separator = field.indexOf(':');
+            userIds.add(field.substring(0, separator));
+            conversationIds.add(field.substring(separator + 1));
+            unreadCounts.add(String.valueOf(counts.getOrDefault(field, 0)));
+            lastMessageIds.add(mark.getValue().toString());
+        }
+
+        return unreadCountRepository.upsertUnreadCounts(
+                userIds.toString(), conversationIds.toString(), unreadCounts.toString(), lastMessageIds.toString());
+    }
+}
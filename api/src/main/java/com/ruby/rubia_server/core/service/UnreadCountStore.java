@@ -0,0 +1,47 @@
+package com.ruby.rubia_server.core.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Armazenamento dos contadores de mensagens não lidas por usuário e conversa.
+ *
+ * A implementação é escolhida por messaging.unread-counters.store:
+ * "database" (padrão) grava direto em unread_message_counts; "redis" mantém os contadores
+ * em hashes no Redis e os persiste no banco em lotes via {@link UnreadCountCheckpointer}.
+ */
+public interface UnreadCountStore {
+
+    /**
+     * Nome do modo, usado como tag das métricas messaging.unread.*
+     */
+    String name();
+
+    /**
+     * Incrementa o contador da conversa para todos os usuários da empresa.
+     *
+     * @return novo contador de cada usuário
+     */
+    Map<UUID, Integer> incrementForCompanyUsers(UUID companyId, UUID conversationId, UUID messageId);
+
+    /**
+     * Incrementa o contador de um usuário.
+     *
+     * @return novo contador
+     */
+    int increment(UUID userId, UUID conversationId, UUID messageId);
+
+    void reset(UUID userId, UUID conversationId);
+
+    void resetAll(UUID userId);
+
+    int get(UUID userId, UUID conversationId);
+
+    long getTotal(UUID userId);
+
+    /**
+     * Contadores das conversas informadas; conversas sem registro não aparecem no mapa.
+     */
+    Map<UUID, Integer> getForConversations(UUID userId, List<UUID> conversationIds);
+}
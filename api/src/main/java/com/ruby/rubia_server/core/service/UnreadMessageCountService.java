@@ -1,12 +1,10 @@
 package com.ruby.rubia_server.core.service;
 
 import com.ruby.rubia_server.core.entity.Company;
-import com.ruby.rubia_server.core.entity.Conversation;
 import com.ruby.rubia_server.core.entity.UnreadMessageCount;
-import com.ruby.rubia_server.core.entity.User;
 import com.ruby.rubia_server.core.repository.UnreadMessageCountRepository;
-import com.ruby.rubia_server.core.repository.UserRepository;
-import com.ruby.rubia_server.core.repository.ConversationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,21 +12,26 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Supplier;
 
+/**
+ * Counters live in the configured {@link UnreadCountStore} (messaging.unread-counters.store).
+ * Reads and writes are timed as messaging.unread.read / messaging.unread.write, tagged by store,
+ * so both modes can be compared.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
 public class UnreadMessageCountService {
 
+    private final UnreadCountStore unreadCountStore;
     private final UnreadMessageCountRepository unreadCountRepository;
-    private final UserRepository userRepository;
-    private final ConversationRepository conversationRepository;
-    
+    private final MeterRegistry meterRegistry;
+
     @Autowired
     private WebSocketNotificationService webSocketNotificationService;
 
@@ -37,21 +40,9 @@ public class UnreadMessageCountService {
      */
     public void incrementUnreadCount(UUID userId, UUID conversationId, UUID messageId) {
         log.debug("Incrementing unread count for user {} in conversation {}", userId, conversationId);
-        
-        var existingCount = unreadCountRepository.findByUserIdAndConversationId(userId, conversationId);
-        
-        if (existingCount.isPresent()) {
-            // Update existing record
-            unreadCountRepository.incrementUnreadCount(userId, conversationId, messageId);
-            // Get updated count and notify via WebSocket
-            Integer newCount = getUnreadCount(userId, conversationId);
-            webSocketNotificationService.sendUnreadCountUpdate(userId, conversationId, newCount);
-        } else {
-            // Create new record
-            createUnreadCount(userId, conversationId, messageId, 1);
-            // Notify via WebSocket
-            webSocketNotificationService.sendUnreadCountUpdate(userId, conversationId, 1);
-        }
+
+        int newCount = timed("messaging.unread.write", () -> unreadCountStore.increment(userId, conversationId, messageId));
+        webSocketNotificationService.sendUnreadCountUpdate(userId, conversationId, newCount);
     }
 
     /**
@@ -59,9 +50,9 @@ public class UnreadMessageCountService {
      */
     public void markAsRead(UUID userId, UUID conversationId) {
         log.debug("Marking conversation {} as read for user {}", conversationId, userId);
-        
-        unreadCountRepository.resetUnreadCount(userId, conversationId);
-        
+
+        unreadCountStore.reset(userId, conversationId);
+
         // Notify via WebSocket that count is now 0
         webSocketNotificationService.sendUnreadCountUpdate(userId, conversationId, 0);
     }
@@ -71,8 +62,8 @@ public class UnreadMessageCountService {
      */
     public void markAllAsRead(UUID userId) {
         log.debug("Marking all conversations as read for user {}", userId);
-        
-        unreadCountRepository.resetAllUnreadCounts(userId);
+
+        unreadCountStore.resetAll(userId);
     }
 
     /**
@@ -80,7 +71,7 @@ public class UnreadMessageCountService {
      */
     @Transactional(readOnly = true)
     public Integer getUnreadCount(UUID userId, UUID conversationId) {
-        return unreadCountRepository.getUnreadCountByUserAndConversation(userId, conversationId);
+        return timed("messaging.unread.read", () -> unreadCountStore.get(userId, conversationId));
     }
 
     /**
@@ -88,7 +79,7 @@ public class UnreadMessageCountService {
      */
     @Transactional(readOnly = true)
     public Long getTotalUnreadCount(UUID userId) {
-        return unreadCountRepository.getTotalUnreadCountByUserId(userId);
+        return timed("messaging.unread.read", () -> unreadCountStore.getTotal(userId));
     }
 
     /**
@@ -96,20 +87,14 @@ public class UnreadMessageCountService {
      */
     @Transactional(readOnly = true)
     public Map<UUID, Integer> getUnreadCountsForConversations(UUID userId, List<UUID> conversationIds) {
-        List<Object[]> results = unreadCountRepository.getUnreadCountsForConversations(userId, conversationIds);
-        
-        Map<UUID, Integer> countsMap = new HashMap<>();
-        for (Object[] result : results) {
-            UUID conversationId = (UUID) result[0];
-            Integer count = (Integer) result[1];
-            countsMap.put(conversationId, count);
-        }
-        
+        Map<UUID, Integer> countsMap = timed("messaging.unread.read",
+                () -> unreadCountStore.getForConversations(userId, conversationIds));
+
         // Add missing conversations with count 0
         for (UUID conversationId : conversationIds) {
             countsMap.putIfAbsent(conversationId, 0);
         }
-        
+
         return countsMap;
     }
 
@@ -118,6 +103,7 @@ public class UnreadMessageCountService {
      */
     @Transactional(readOnly = true)
     public List<UnreadMessageCount> getUnreadConversations(UUID userId) {
+        // Always read from the database; in redis mode it lags by at most one checkpoint interval
         return unreadCountRepository.findByUserIdAndUnreadCountGreaterThan(userId, 0);
     }
 
@@ -126,14 +112,14 @@ public class UnreadMessageCountService {
      */
     public void createUnreadCountsForNewMessage(UUID messageId, UUID conversationId, Company company) {
         log.debug("Creating unread counts for message {} in conversation {}", messageId, conversationId);
-        
+
         try {
-            List<User> companyUsers = userRepository.findByCompanyId(company.getId());
-            
-            for (User user : companyUsers) {
-                incrementUnreadCount(user.getId(), conversationId, messageId);
-            }
-            
+            Map<UUID, Integer> countsByUser = timed("messaging.unread.write",
+                    () -> unreadCountStore.incrementForCompanyUsers(company.getId(), conversationId, messageId));
+
+            countsByUser.forEach((userId, count) ->
+                    webSocketNotificationService.sendUnreadCountUpdate(userId, conversationId, count));
+
         } catch (Exception e) {
             log.error("Error creating unread counts for message {}: {}", messageId, e.getMessage(), e);
         }
@@ -148,29 +134,12 @@ public class UnreadMessageCountService {
         log.debug("Cleaned up old empty unread counters before {}", cutoffDate);
     }
 
-    /**
-     * Helper method to create new unread count record
-     */
-    private void createUnreadCount(UUID userId, UUID conversationId, UUID messageId, Integer count) {
+    private <T> T timed(String metric, Supplier<T> operation) {
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
-            User user = userRepository.findById(userId)
-                    .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
-            
-            Conversation conversation = conversationRepository.findById(conversationId)
-                    .orElseThrow(() -> new IllegalArgumentException("Conversation not found: " + conversationId));
-            
-            UnreadMessageCount unreadCount = new UnreadMessageCount();
-            unreadCount.setUser(user);
-            unreadCount.setConversation(conversation);
-            unreadCount.setCompany(user.getCompany());
-            unreadCount.setUnreadCount(count);
-            unreadCount.setLastMessageId(messageId);
-            
-            unreadCountRepository.save(unreadCount);
-            
-        } catch (Exception e) {
-            log.error("Error creating unread count for user {} in conversation {}: {}", 
-                    userId, conversationId, e.getMessage(), e);
+            return operation.get();
+        } finally {
+            sample.stop(meterRegistry.timer(metric, "store", unreadCountStore.name()));
         }
     }
-}
\ No newline at end of file
+}
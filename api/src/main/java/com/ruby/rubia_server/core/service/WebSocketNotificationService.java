@@ -3,6 +3,7 @@ package com.ruby.rubia_server.core.service;
 import com.ruby.rubia_server.config.ChatWebSocketHandler;
 import com.ruby.rubia_server.core.dto.ConversationDTO;
 import com.ruby.rubia_server.core.dto.MessageDTO;
+import com.ruby.rubia_server.core.dto.MessageDraftDTO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -64,9 +65,67 @@ public class WebSocketNotificationService {
         }
     }
 
+    /**
+     * Trecho de um draft de IA ainda em geração; o frontend concatena os trechos na ordem de sequence
+     */
+    public void notifyDraftChunk(UUID companyId, UUID conversationId, UUID streamId, int sequence, String delta) {
+        try {
+            DraftStreamNotification notification = DraftStreamNotification.builder()
+                    .type("DRAFT_STREAM_CHUNK")
+                    .conversationId(conversationId)
+                    .streamId(streamId)
+                    .sequence(sequence)
+                    .delta(delta)
+                    .build();
+
+            sendToCompanyUsers(companyId, "/topic/ai-drafts", notification);
+            
+        } catch (Exception e) {
+            log.error("Error sending draft chunk notification: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Fim da geração: draft gravado, que substitui o texto montado a partir dos trechos
+     */
+    public void notifyDraftCompleted(UUID companyId, UUID streamId, MessageDraftDTO draft) {
+        try {
+            DraftStreamNotification notification = DraftStreamNotification.builder()
+                    .type("DRAFT_STREAM_COMPLETED")
+                    .conversationId(draft.getConversationId())
+                    .streamId(streamId)
+                    .draft(draft)
+                    .build();
+
+            sendToCompanyUsers(companyId, "/topic/ai-drafts", notification);
+            
+        } catch (Exception e) {
+            log.error("Error sending draft completed notification: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Stream encerrado sem draft (geração interrompida ou resposta já enviada ao cliente): o frontend
+     * descarta os trechos recebidos
+     */
+    public void notifyDraftCancelled(UUID companyId, UUID conversationId, UUID streamId) {
+        try {
+            DraftStreamNotification notification = DraftStreamNotification.builder()
+                    .type("DRAFT_STREAM_CANCELLED")
+                    .conversationId(conversationId)
+                    .streamId(streamId)
+                    .build();
+
+            sendToCompanyUsers(companyId, "/topic/ai-drafts", notification);
+            
+        } catch (Exception e) {
+            log.error("Error sending draft cancelled notification: {}", e.getMessage(), e);
+        }
+    }
+
     private void sendToCompanyUsers(UUID companyId, String destination, Object notification) {
         var sessions = webSocketHandler.getUserSessions();
-        log.info("📡 Trying to send to company {} - Total sessions: {}", companyId, sessions.size());
+        log.debug("📡 Trying to send to company {} - Total sessions: {}", companyId, sessions.size());
         
         // Group sessions by userId to avoid sending duplicates to same user
         var uniqueUsers = sessions.values().stream()
@@ -77,7 +136,7 @@ public class WebSocketNotificationService {
                     (existing, replacement) -> existing // Keep first session for each user
                 ));
         
-        log.info("📡 Unique users for company {}: {}", companyId, uniqueUsers.size());
+        log.debug("📡 Unique users for company {}: {}", companyId, uniqueUsers.size());
         
         uniqueUsers.values().forEach(session -> {
             try {
@@ -330,4 +389,74 @@ public class WebSocketNotificationService {
             }
         }
     }
-}
\ No newline at end of file
+
+    public static class DraftStreamNotification {
+        private String type;
+        private UUID conversationId;
+        private UUID streamId;
+        private Integer sequence;
+        private String delta;
+        private MessageDraftDTO draft;
+
+        public static DraftStreamNotificationBuilder builder() {
+            return new DraftStreamNotificationBuilder();
+        }
+
+        public String getType() { return type; }
+        public UUID getConversationId() { return conversationId; }
+        public UUID getStreamId() { return streamId; }
+        public Integer getSequence() { return sequence; }
+        public String getDelta() { return delta; }
+        public MessageDraftDTO getDraft() { return draft; }
+
+        public static class DraftStreamNotificationBuilder {
+            private String type;
+            private UUID conversationId;
+            private UUID streamId;
+            private Integer sequence;
+            private String delta;
+            private MessageDraftDTO draft;
+
+            public DraftStreamNotificationBuilder type(String type) {
+                this.type = type;
+                return this;
+            }
+
+            public DraftStreamNotificationBuilder conversationId(UUID conversationId) {
+                this.conversationId = conversationId;
+                return this;
+            }
+
+            public DraftStreamNotificationBuilder streamId(UUID streamId) {
+                this.streamId = streamId;
+                return this;
+            }
+
+            public DraftStreamNotificationBuilder sequence(Integer sequence) {
+                this.sequence = sequence;
+                return this;
+            }
+
+            public DraftStreamNotificationBuilder delta(String delta) {
+                this.delta = delta;
+                return this;
+            }
+
+            public DraftStreamNotificationBuilder draft(MessageDraftDTO draft) {
+                this.draft = draft;
+                return this;
+            }
+
+            public DraftStreamNotification build() {
+                DraftStreamNotification notification = new DraftStreamNotification();
+                notification.type = this.type;
+                notification.conversationId = this.conversationId;
+                notification.streamId = this.streamId;
+                notification.sequence = this.sequence;
+                notification.delta = this.delta;
+                notification.draft = this.draft;
+                return notification;
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.ruby.rubia_server.core.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruby.rubia_server.core.entity.IncomingMessage;
+import com.ruby.rubia_server.core.entity.WebhookInboxEntry;
+import com.ruby.rubia_server.core.enums.WebhookInboxStatus;
+import com.ruby.rubia_server.core.repository.MessageRepository;
+import com.ruby.rubia_server.core.repository.WebhookInboxRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Workers da caixa de entrada de webhooks.
+ *
+ * As entradas são distribuídas em partições de thread única pelo hash do chat, então mensagens
+ * do mesmo chat são processadas na ordem de chegada enquanto chats diferentes andam em paralelo.
+ * A reserva no banco (claim) impede processamento duplo entre instâncias; a varredura periódica
+ * recupera entradas deixadas para trás por restart, falha ou backoff.
+ *
+ * Métricas: webhook.inbox.lag.seconds, webhook.inbox.unprocessed, webhook.inbox.queued,
+ * webhook.inbox.processing (timer, tag outcome) e webhook.inbox.duplicates (tag stage).
+ */
+@Service
+@Slf4j
+public class WebhookInboxProcessor {
+
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {};
+
+    private final WebhookInboxRepository inboxRepository;
+    private final MessagingService messagingService;
+    private final MessageRepository messageRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final ExecutorService[] partitions;
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration retryBackoff;
+    private final int recoveryBatchSize;
+
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final AtomicLong unprocessed = new AtomicLong();
+
+    public WebhookInboxProcessor(
+            WebhookInboxRepository inboxRepository,
+            MessagingService messagingService,
+            MessageRepository messageRepository,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${webhook.inbox.partitions:8}") int partitionCount,
+            @Value("${webhook.inbox.max-attempts:5}") int maxAttempts,
+            @Value("${webhook.inbox.lease:60s}") Duration lease,
+            @Value("${webhook.inbox.retry-backoff:10s}") Duration retryBackoff,
+            @Value("${webhook.inbox.recovery-batch-size:500}") int recoveryBatchSize) {
+        this.inboxRepository = inboxRepository;
+        this.messagingService = messagingService;
+        this.messageRepository = messageRepository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+        this.retryBackoff = retryBackoff;
+        this.recoveryBatchSize = recoveryBatchSize;
+
+        this.partitions = new ExecutorService[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = Executors.newSingleThreadExecutor(
+                Thread.ofPlatform().name("webhook-inbox-" + i).daemon().factory());
+        }
+
+        Gauge.builder("webhook.inbox.lag.seconds", lagSeconds, AtomicLong::get)
+            .description("Idade da entrada mais antiga ainda não processada")
+            .register(meterRegistry);
+        Gauge.builder("webhook.inbox.unprocessed", unprocessed, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("webhook.inbox.queued", queued, Set::size).register(meterRegistry);
+    }
+
+    /**
+     * Enfileira a entrada na partição do seu chat. Entradas já enfileiradas nesta instância são ignoradas.
+     */
+    public void dispatch(Long entryId, String chatKey) {
+        if (!queued.add(entryId)) {
+            return;
+        }
+        try {
+            partitions[partitionOf(chatKey)].execute(() -> {
+                try {
+                    process(entryId);
+                } finally {
+                    queued.remove(entryId);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Executor encerrado (shutdown): a varredura de outra instância ou do próximo start recupera
+            queued.remove(entryId);
+            log.warn("Entrada {} da caixa de webhooks não enfileirada: {}", entryId, e.getMessage());
+        }
+    }
+
+    int partitionOf(String chatKey) {
+        return Math.floorMod(chatKey != null ? chatKey.hashCode() : 0, partitions.length);
+    }
+
+    void process(Long entryId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (inboxRepository.claim(entryId, now, now.plus(lease)) == 0) {
+            return;
+        }
+
+        WebhookInboxEntry entry = inboxRepository.findById(entryId).orElse(null);
+        if (entry == null) {
+            return;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "processed";
+        try {
+            Map<String, Object> payload = objectMapper.readValue(entry.getPayload(), PAYLOAD_TYPE);
+            IncomingMessage message = messagingService.parseIncomingMessage(payload);
+
+            if (message == null) {
+                outcome = "ignored";
+            } else if (message.getMessageId() != null && messageRepository.existsByExternalMessageId(message.getMessageId())) {
+                // Replay ou reentrega de algo já gravado: não duplica mensagem nem notificações
+                outcome = "duplicate";
+                meterRegistry.counter("webhook.inbox.duplicates", "stage", "process").increment();
+            } else {
+                messagingService.processIncomingMessage(message);
+            }
+
+            inboxRepository.markDone(entryId, LocalDateTime.now());
+        } catch (Exception e) {
+            outcome = "error";
+            handleFailure(entry, e);
+        } finally {
+            sample.stop(meterRegistry.timer("webhook.inbox.processing", "outcome", outcome));
+        }
+    }
+
+    private void handleFailure(WebhookInboxEntry entry, Exception error) {
+        // entry.getAttempts() foi lido após o claim, então já conta esta tentativa
+        boolean exhausted = entry.getAttempts() >= maxAttempts;
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+
+        if (exhausted) {
+            log.error("❌ Webhook {} (chat {}) falhou {} vezes, movido para FAILED: {}",
+                entry.getId(), entry.getChatKey(), entry.getAttempts(), message, error);
+            inboxRepository.markFailedAttempt(entry.getId(), WebhookInboxStatus.FAILED.name(), null, message);
+        } else {
+            LocalDateTime retryAt = LocalDateTime.now().plus(retryBackoff.multipliedBy(entry.getAttempts()));
+            log.warn("⚠️ Webhook {} (chat {}) falhou na tentativa {}/{}, nova tentativa após {}: {}",
+                entry.getId(), entry.getChatKey(), entry.getAttempts(), maxAttempts, retryAt, message);
+            inboxRepository.markFailedAttempt(entry.getId(), WebhookInboxStatus.PENDING.name(), retryAt, message);
+        }
+    }
+
+    /**
+     * Recupera entradas pendentes (restart, backoff vencido, reserva expirada) e atualiza o lag
+     */
+    @Scheduled(fixedDelayString = "${webhook.inbox.recovery-interval-ms:5000}")
+    public void recoverPending() {
+        try {
+            List<WebhookInboxEntry> dispatchable = inboxRepository.findDispatchable(LocalDateTime.now(), recoveryBatchSize);
+            for (WebhookInboxEntry entry : dispatchable) {
+                dispatch(entry.getId(), entry.getChatKey());
+            }
+            if (!dispatchable.isEmpty()) {
+                log.debug("🔁 {} entradas da caixa de webhooks reenfileiradas", dispatchable.size());
+            }
+
+            unprocessed.set(inboxRepository.countUnprocessed());
+            lagSeconds.set(inboxRepository.findOldestUnprocessedReceivedAt()
+                .map(oldest -> Math.max(0, Duration.between(oldest, LocalDateTime.now()).toSeconds()))
+                .orElse(0L));
+        } catch (Exception e) {
+            log.error("Erro na varredura da caixa de webhooks: {}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (ExecutorService partition : partitions) {
+            partition.shutdown();
+        }
+        for (ExecutorService partition : partitions) {
+            partition.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+}
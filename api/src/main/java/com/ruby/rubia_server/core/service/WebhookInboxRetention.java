@@ -0,0 +1,62 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.core.repository.WebhookInboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Limpeza da caixa de entrada de webhooks.
+ *
+ * Entradas DONE só servem para replay recente e para a deduplicação por messageId, que após o
+ * processamento já é garantida pelo índice único de messages. Passada a retenção são apagadas
+ * em lotes pequenos, para não segurar locks nem inflar o WAL de uma vez.
+ *
+ * Métrica: webhook.inbox.retention.deleted.
+ */
+@Component
+@Slf4j
+public class WebhookInboxRetention {
+
+    private final WebhookInboxRepository inboxRepository;
+    private final MeterRegistry meterRegistry;
+    private final Duration retention;
+    private final int batchSize;
+
+    public WebhookInboxRetention(
+            WebhookInboxRepository inboxRepository,
+            MeterRegistry meterRegistry,
+            @Value("${webhook.inbox.retention:7d}") Duration retention,
+            @Value("${webhook.inbox.retention-batch-size:1000}") int batchSize) {
+        this.inboxRepository = inboxRepository;
+        this.meterRegistry = meterRegistry;
+        this.retention = retention;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${webhook.inbox.retention-interval-ms:3600000}",
+               initialDelayString = "${webhook.inbox.retention-interval-ms:3600000}")
+    public void purgeProcessed() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        long total = 0;
+        try {
+            int deleted;
+            do {
+                deleted = inboxRepository.deleteDoneBefore(cutoff, batchSize);
+                total += deleted;
+            } while (deleted >= batchSize);
+        } catch (Exception e) {
+            log.error("Erro na limpeza da caixa de webhooks: {}", e.getMessage(), e);
+        }
+
+        if (total > 0) {
+            meterRegistry.counter("webhook.inbox.retention.deleted").increment(total);
+            log.info("🧹 {} entradas processadas removidas da caixa de webhooks (anteriores a {})", total, cutoff);
+        }
+    }
+}
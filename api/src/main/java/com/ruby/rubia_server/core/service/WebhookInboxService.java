@@ -0,0 +1,85 @@
+package com.ruby.rubia_server.core.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruby.rubia_server.core.entity.IncomingMessage;
+import com.ruby.rubia_server.core.enums.WebhookInboxStatus;
+import com.ruby.rubia_server.core.repository.WebhookInboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Caixa de entrada durável dos webhooks de mensagens.
+ *
+ * O webhook só valida, grava o payload bruto e responde; o processamento completo
+ * (empresa, customer, conversa, mensagem, WebSocket, não lidas) fica com o WebhookInboxProcessor.
+ * Reentregas de mensagens já gravadas são descartadas por uma leitura no Redis, antes do INSERT.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WebhookInboxService {
+
+    private final WebhookInboxRepository inboxRepository;
+    private final WebhookInboxProcessor inboxProcessor;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final InboundMessageDeduplicator inboundMessageDeduplicator;
+
+    /**
+     * Grava o payload e o entrega à partição do chat.
+     *
+     * @return false quando o messageId já foi recebido (reentrega do provedor)
+     */
+    public boolean append(String provider, IncomingMessage message, Map<String, Object> payload) throws JsonProcessingException {
+        if (inboundMessageDeduplicator.isAlreadyStored(provider, message.getMessageId())) {
+            meterRegistry.counter("webhook.inbox.duplicates", "stage", "ingest").increment();
+            return false;
+        }
+
+        String chatKey = chatKeyOf(message);
+        Optional<Long> entryId = inboxRepository.appendIfAbsent(
+            provider,
+            message.getMessageId(),
+            chatKey,
+            objectMapper.writeValueAsString(payload),
+            LocalDateTime.now());
+
+        if (entryId.isEmpty()) {
+            meterRegistry.counter("webhook.inbox.duplicates", "stage", "ingest").increment();
+            log.debug("Webhook duplicado ignorado: {} {}", provider, message.getMessageId());
+            return false;
+        }
+
+        meterRegistry.counter("webhook.inbox.received", "provider", provider).increment();
+        inboxProcessor.dispatch(entryId.get(), chatKey);
+        return true;
+    }
+
+    /**
+     * Devolve à fila as entradas nos status informados recebidas desde {@code since}.
+     * Entradas cuja mensagem já foi gravada são descartadas pelo worker como duplicadas.
+     */
+    public int replay(Collection<WebhookInboxStatus> statuses, LocalDateTime since) {
+        int requeued = inboxRepository.requeue(statuses.stream().map(Enum::name).toList(), since);
+        log.info("🔁 Replay da caixa de webhooks: {} entradas ({}) desde {}", requeued, statuses, since);
+        if (requeued > 0) {
+            inboxProcessor.recoverPending();
+        }
+        return requeued;
+    }
+
+    static String chatKeyOf(IncomingMessage message) {
+        if (message.getChatLid() != null && !message.getChatLid().isBlank()) {
+            return message.getChatLid();
+        }
+        return message.getFrom() != null ? message.getFrom() : "unknown";
+    }
+}
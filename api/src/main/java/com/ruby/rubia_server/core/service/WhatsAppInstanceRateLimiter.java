@@ -0,0 +1,169 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.core.config.CampaignMessagingProperties;
+import com.ruby.rubia_server.core.entity.Company;
+import com.ruby.rubia_server.core.entity.WhatsAppInstance;
+import com.ruby.rubia_server.core.event.WhatsAppInstanceChangedEvent;
+import com.ruby.rubia_server.core.util.BoundedTtlCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Limite de envio de campanhas por instância WhatsApp.
+ *
+ * Cada instância tem um token bucket no Redis (rajada + taxa sustentada) e um contador
+ * diário, avaliados atomicamente por script Lua. Assim vários nós e várias empresas enviam
+ * em paralelo, cada número respeitando o próprio limite, sem disputar um semáforo global.
+ *
+ * Desligado por padrão: os limites dependem do plano de cada número e devem ser configurados
+ * antes de ativar. A instância ativa de cada empresa fica em cache, invalidado pelos eventos
+ * de WhatsAppInstanceService, para que o envio não consulte o banco a cada mensagem.
+ */
+@Component
+@Slf4j
+public class WhatsAppInstanceRateLimiter {
+
+    private static final String KEY_PREFIX = "rubia:ratelimit:";
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final int INSTANCE_CACHE_MAX_SIZE = 10_000;
+
+    private static final RedisScript<List> RATE_LIMIT_SCRIPT = loadScript();
+
+    private final StringRedisTemplate redisTemplate;
+    private final WhatsAppInstanceService whatsAppInstanceService;
+    private final CampaignMessagingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final BoundedTtlCache<UUID, UUID> activeInstances;
+
+    public WhatsAppInstanceRateLimiter(
+            StringRedisTemplate redisTemplate,
+            WhatsAppInstanceService whatsAppInstanceService,
+            CampaignMessagingProperties properties,
+            MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.whatsAppInstanceService = whatsAppInstanceService;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.activeInstances = new BoundedTtlCache<>(INSTANCE_CACHE_MAX_SIZE, properties.getInstanceLookupCacheTtl());
+    }
+
+    private static RedisScript<List> loadScript() {
+        DefaultRedisScript<List> script = new DefaultRedisScript<>();
+        script.setScriptSource(new ResourceScriptSource(new ClassPathResource("redis/whatsapp-instance-rate-limit.lua")));
+        script.setResultType(List.class);
+        return script;
+    }
+
+    /**
+     * Tenta consumir um envio da instância ativa da empresa.
+     * Retorna 0 quando o envio foi liberado, ou quantos ms aguardar antes de tentar de novo.
+     */
+    public long tryAcquire(Company company) {
+        if (!properties.isInstanceRateLimitEnabled() || company == null) {
+            return 0L;
+        }
+
+        Optional<UUID> instanceId = company.getId() != null
+            ? activeInstances.get(company.getId(), companyId -> findActiveInstanceId(company))
+            : Optional.ofNullable(findActiveInstanceId(company));
+        if (instanceId.isEmpty()) {
+            // Sem instância conectada o envio falha adiante; não há bucket a consumir
+            return 0L;
+        }
+
+        return tryAcquire(instanceId.get());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWhatsAppInstanceChanged(WhatsAppInstanceChangedEvent event) {
+        if (event.getCompanyId() != null) {
+            activeInstances.invalidate(event.getCompanyId());
+        }
+        if (event.getInstanceId() != null) {
+            activeInstances.invalidateIf((companyId, instanceId) -> Objects.equals(instanceId, event.getInstanceId()));
+        }
+    }
+
+    private UUID findActiveInstanceId(Company company) {
+        return whatsAppInstanceService.findActiveConnectedInstance(company)
+            .map(WhatsAppInstance::getId)
+            .orElse(null);
+    }
+
+    /**
+     * Tenta consumir um envio do bucket da instância informada
+     */
+    @SuppressWarnings("unchecked")
+    public long tryAcquire(UUID instanceId) {
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.systemDefault());
+        long nowMs = now.toInstant().toEpochMilli();
+
+        try {
+            List<Long> result = redisTemplate.execute(
+                RATE_LIMIT_SCRIPT,
+                List.of(bucketKey(instanceId), dailyKey(instanceId, now.toLocalDate())),
+                String.valueOf(nowMs),
+                String.valueOf(Math.max(1, properties.getInstanceBurstCapacity())),
+                String.valueOf(refillIntervalMs()),
+                String.valueOf(Math.max(0, properties.getInstanceDailyLimit())),
+                String.valueOf(millisUntilNextDay(now) / 1000 + 3600)
+            );
+
+            if (result == null || result.size() < 2 || result.get(0) == 1L) {
+                return 0L;
+            }
+
+            long waitMs = result.get(1);
+            if (waitMs < 0) {
+                // Limite diário atingido: volta a enviar no início do próximo dia
+                meterRegistry.counter("campaign.ratelimit.denied", "reason", "daily").increment();
+                log.warn("🚦 Limite diário atingido para instância {}", instanceId);
+                return millisUntilNextDay(now);
+            }
+
+            meterRegistry.counter("campaign.ratelimit.denied", "reason", "bucket").increment();
+            log.debug("🚦 Instância {} sem tokens, aguardando {}ms", instanceId, waitMs);
+            return Math.max(1L, waitMs);
+
+        } catch (Exception e) {
+            // Falha no Redis não deve travar as campanhas; o delay aleatório continua valendo
+            log.warn("Falha ao consultar rate limit da instância {}: {}", instanceId, e.getMessage());
+            return 0L;
+        }
+    }
+
+    private long refillIntervalMs() {
+        int perMinute = Math.max(1, properties.getInstanceMessagesPerMinute());
+        return Math.max(1L, 60_000L / perMinute);
+    }
+
+    private static long millisUntilNextDay(ZonedDateTime now) {
+        ZonedDateTime nextDay = now.toLocalDate().plusDays(1).atStartOfDay(now.getZone());
+        return Math.max(1L, Duration.between(now, nextDay).toMillis());
+    }
+
+    static String bucketKey(UUID instanceId) {
+        return KEY_PREFIX + "{" + instanceId + "}:bucket";
+    }
+
+    static String dailyKey(UUID instanceId, LocalDate day) {
+        return KEY_PREFIX + "{" + instanceId + "}:daily:" + day.format(DAY_FORMAT);
+    }
+}
@@ -2,9 +2,11 @@ package com.ruby.rubia_server.core.service;
 
 import com.ruby.rubia_server.core.entity.Company;
 import com.ruby.rubia_server.core.entity.WhatsAppInstance;
+import com.ruby.rubia_server.core.event.WhatsAppInstanceChangedEvent;
 import com.ruby.rubia_server.core.repository.WhatsAppInstanceRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +21,7 @@ public class WhatsAppInstanceService {
 
     private final WhatsAppInstanceRepository whatsappInstanceRepository;
     private final PhoneService phoneService;
+    private final ApplicationEventPublisher eventPublisher;
     
     public Optional<WhatsAppInstance> findByPhoneNumber(String phoneNumber) {
         return whatsappInstanceRepository.findByPhoneNumberAndIsActiveTrue(phoneNumber);
@@ -76,7 +79,12 @@ public class WhatsAppInstanceService {
                 .isActive(true)
                 .build();
 
-        return whatsappInstanceRepository.save(instance);
+        WhatsAppInstance saved = whatsappInstanceRepository.save(instance);
+        eventPublisher.publishEvent(WhatsAppInstanceChangedEvent.builder()
+                .instanceId(saved.getId())
+                .companyId(company.getId())
+                .build());
+        return saved;
     }
     
 
@@ -136,6 +144,11 @@ public class WhatsAppInstanceService {
         }
 
         whatsappInstanceRepository.save(instance);
+        // Invalida o cache de tenant das mensagens recebidas (InboundTenantCache)
+        eventPublisher.publishEvent(WhatsAppInstanceChangedEvent.builder()
+                .instanceId(instanceId)
+                .companyId(instance.getCompany().getId())
+                .build());
         log.info("Deactivated WhatsApp instance {}", instanceId);
     }
 
@@ -8,6 +8,7 @@ import com.ruby.rubia_server.core.util.CompanyContextUtil;
 import com.ruby.rubia_server.core.validation.WhatsAppInstanceValidator;
 import com.ruby.rubia_server.core.factory.ZApiUrlFactory;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
@@ -28,11 +29,12 @@ public class ZApiActivationService {
     private final WhatsAppInstanceValidator instanceValidator;
     private final ZApiUrlFactory urlFactory;
 
-    public ZApiActivationService(WhatsAppInstanceService whatsAppInstanceService, 
+    public ZApiActivationService(@Qualifier("zapiRestTemplate") RestTemplate restTemplate,
+                                WhatsAppInstanceService whatsAppInstanceService, 
                                 CompanyContextUtil companyContextUtil,
                                 WhatsAppInstanceValidator instanceValidator,
                                 ZApiUrlFactory urlFactory) {
-        this.restTemplate = new RestTemplate();
+        this.restTemplate = restTemplate;
         this.whatsAppInstanceService = whatsAppInstanceService;
         this.companyContextUtil = companyContextUtil;
         this.instanceValidator = instanceValidator;
@@ -5,6 +5,7 @@ import com.ruby.rubia_server.core.entity.WhatsAppInstance;
 import com.ruby.rubia_server.core.repository.WhatsAppInstanceRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -25,6 +26,7 @@ import java.util.concurrent.CompletableFuture;
 public class ZApiConnectionMonitorService {
 
     private final WhatsAppInstanceRepository whatsAppInstanceRepository;
+    @Qualifier("zapiRestTemplate")
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
     private final WebSocketNotificationService webSocketNotificationService;
@@ -0,0 +1,92 @@
+package com.ruby.rubia_server.core.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Autômato de Aho–Corasick imutável: encontra todas as ocorrências de um conjunto de padrões em
+ * uma única passada pelo texto, em O(tamanho do texto + ocorrências), independente do número de padrões.
+ *
+ * Cada padrão carrega um valor; o mesmo padrão pode ser registrado com vários valores.
+ * A comparação é exata, então padrões e texto devem chegar já normalizados.
+ */
+public final class AhoCorasickMatcher<V> {
+
+    private final Node<V> root;
+
+    private AhoCorasickMatcher(Node<V> root) {
+        this.root = root;
+    }
+
+    public static <V> AhoCorasickMatcher<V> build(Collection<Map.Entry<String, V>> patterns) {
+        Node<V> root = new Node<>();
+        for (Map.Entry<String, V> pattern : patterns) {
+            String text = pattern.getKey();
+            if (text == null || text.isEmpty()) {
+                continue;
+            }
+            Node<V> node = root;
+            for (int i = 0; i < text.length(); i++) {
+                node = node.children.computeIfAbsent(text.charAt(i), c -> new Node<>());
+            }
+            node.outputs.add(new Match<>(text, pattern.getValue()));
+        }
+
+        // Links de falha em largura; cada nó herda as saídas do seu link de falha
+        Deque<Node<V>> queue = new ArrayDeque<>();
+        for (Node<V> child : root.children.values()) {
+            child.fail = root;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            Node<V> node = queue.poll();
+            for (Map.Entry<Character, Node<V>> edge : node.children.entrySet()) {
+                Node<V> child = edge.getValue();
+                Node<V> fail = node.fail;
+                while (fail != null && !fail.children.containsKey(edge.getKey())) {
+                    fail = fail.fail;
+                }
+                child.fail = fail != null ? fail.children.get(edge.getKey()) : root;
+                child.outputs.addAll(child.fail.outputs);
+                queue.add(child);
+            }
+        }
+        return new AhoCorasickMatcher<>(root);
+    }
+
+    /**
+     * Chama {@code onMatch} com o padrão e o valor de cada ocorrência, na ordem em que terminam no texto
+     */
+    public void forEachMatch(String text, BiConsumer<String, V> onMatch) {
+        Node<V> node = root;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            while (node != root && !node.children.containsKey(c)) {
+                node = node.fail;
+            }
+            node = node.children.getOrDefault(c, root);
+            for (Match<V> match : node.outputs) {
+                onMatch.accept(match.pattern(), match.value());
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return root.children.isEmpty();
+    }
+
+    private static final class Node<V> {
+        private final Map<Character, Node<V>> children = new HashMap<>();
+        private final List<Match<V>> outputs = new ArrayList<>(1);
+        private Node<V> fail;
+    }
+
+    private record Match<V>(String pattern, V value) {
+    }
+}
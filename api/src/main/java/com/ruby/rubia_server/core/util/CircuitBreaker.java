@@ -0,0 +1,95 @@
+package com.ruby.rubia_server.core.util;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Circuit breaker por falhas consecutivas.
+ *
+ * Fechado, tudo passa; após {@code failureThreshold} falhas seguidas abre e recusa chamadas por
+ * {@code openDuration}. Passado esse tempo deixa passar uma única chamada de teste (meio aberto):
+ * sucesso fecha o circuito, falha o abre de novo. Quem recebe true de {@link #tryAcquire()} deve
+ * terminar com {@link #onSuccess()}, {@link #onFailure()} ou {@link #onIgnored()}.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final Clock clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this(failureThreshold, openDuration, Clock.systemUTC());
+    }
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration, Clock clock) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("failureThreshold deve ser positivo: " + failureThreshold);
+        }
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openDuration.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Reserva a passagem de uma chamada; false enquanto o circuito está aberto ou a chamada de teste não voltou
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (clock.millis() - openedAt < openMillis) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+                return true;
+            default:
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+        probeInFlight = false;
+        if (state == State.HALF_OPEN || ++consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.millis();
+            consecutiveFailures = 0;
+        }
+    }
+
+    /**
+     * Libera a passagem sem contar sucesso nem falha (chamada recusada antes de chegar ao upstream)
+     */
+    public synchronized void onIgnored() {
+        probeInFlight = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Quanto falta para o circuito aberto aceitar a chamada de teste (0 se não está aberto)
+     */
+    public synchronized long remainingOpenMillis() {
+        return state == State.OPEN ? Math.max(0, openedAt + openMillis - clock.millis()) : 0;
+    }
+}
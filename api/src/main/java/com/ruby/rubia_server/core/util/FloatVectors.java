@@ -0,0 +1,66 @@
+package com.ruby.rubia_server.core.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Operações sobre vetores float32 de embeddings.
+ *
+ * Os vetores são gravados no banco como bytea compacto (4 bytes por dimensão, little-endian) e
+ * mantidos em memória normalizados (norma L2 = 1), de modo que o produto escalar é a similaridade de cosseno.
+ */
+public final class FloatVectors {
+
+    private FloatVectors() {
+    }
+
+    public static byte[] toBytes(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+
+    public static float[] fromBytes(byte[] bytes) {
+        float[] vector = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(vector);
+        return vector;
+    }
+
+    /**
+     * Normaliza o vetor no próprio array; vetores nulos (norma zero) ficam como estão
+     */
+    public static float[] normalize(float[] vector) {
+        double sum = 0;
+        for (float value : vector) {
+            sum += value * value;
+        }
+        if (sum > 0) {
+            float inverse = (float) (1.0 / Math.sqrt(sum));
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] *= inverse;
+            }
+        }
+        return vector;
+    }
+
+    /**
+     * Produto escalar de {@code query} com o vetor que começa em {@code offset} de uma matriz contígua.
+     * Quatro acumuladores independentes deixam o laço sem dependência serial, o que o JIT desenrola
+     * e vetoriza.
+     */
+    public static float dot(float[] query, float[] matrix, int offset) {
+        int length = query.length;
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (; i + 3 < length; i += 4) {
+            s0 += query[i] * matrix[offset + i];
+            s1 += query[i + 1] * matrix[offset + i + 1];
+            s2 += query[i + 2] * matrix[offset + i + 2];
+            s3 += query[i + 3] * matrix[offset + i + 3];
+        }
+        for (; i < length; i++) {
+            s0 += query[i] * matrix[offset + i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+}
@@ -0,0 +1,42 @@
+package com.ruby.rubia_server.dto.campaign;
+
+import com.ruby.rubia_server.core.enums.CampaignImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CampaignImportJobDTO {
+    
+    private UUID jobId;
+    
+    private UUID campaignId;
+    
+    private UUID companyId;
+    
+    private CampaignImportStatus status;
+    
+    private int processed;
+    
+    private int created;
+    
+    private int duplicates;
+    
+    private int errorCount;
+    
+    private List<String> errors;
+    
+    private String failureReason;
+    
+    private LocalDateTime startedAt;
+    
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,62 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * Preenche messages.content_tsv (V80) nas mensagens existentes, em lotes percorridos pela chave primária.
+ *
+ * Roda fora de transação e confirma cada lote: um único UPDATE na tabela inteira manteria todas as linhas
+ * bloqueadas e o WAL de uma vez. Mensagens novas ou editadas durante o preenchimento já recebem o valor pelo
+ * trigger; interrompida, a migração recomeça pulando as linhas preenchidas.
+ */
+public class V80_1__BackfillMessagesContentTsv extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 5000;
+
+    private static final String NEXT_BATCH_END =
+        "SELECT id FROM (SELECT id FROM messages WHERE id > ? ORDER BY id LIMIT ?) batch ORDER BY id DESC LIMIT 1";
+
+    private static final String FILL_BATCH =
+        "UPDATE messages SET content_tsv = to_tsvector('portuguese', COALESCE(content, '')) " +
+        "WHERE id > ? AND id <= ? AND content_tsv IS NULL";
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        UUID lastId = new UUID(0L, 0L);
+        UUID batchEnd;
+        while ((batchEnd = nextBatchEnd(connection, lastId)) != null) {
+            try (PreparedStatement update = connection.prepareStatement(FILL_BATCH)) {
+                update.setObject(1, lastId);
+                update.setObject(2, batchEnd);
+                update.executeUpdate();
+            }
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+            lastId = batchEnd;
+        }
+    }
+
+    private static UUID nextBatchEnd(Connection connection, UUID lastId) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(NEXT_BATCH_END)) {
+            select.setObject(1, lastId);
+            select.setInt(2, BATCH_SIZE);
+            try (ResultSet rs = select.executeQuery()) {
+                return rs.next() ? rs.getObject(1, UUID.class) : null;
+            }
+        }
+    }
+}
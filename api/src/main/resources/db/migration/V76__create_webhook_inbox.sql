@@ -0,0 +1,33 @@
+-- V76__create_webhook_inbox.sql
+-- Caixa de entrada durável dos webhooks de mensagens: o payload bruto é gravado e o
+-- webhook responde na hora; o processamento acontece depois, por chat e em ordem
+
+CREATE TABLE webhook_inbox (
+    id BIGSERIAL PRIMARY KEY,
+    provider VARCHAR(30) NOT NULL,
+    external_message_id VARCHAR(255),
+    chat_key VARCHAR(255) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error TEXT,
+    received_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    locked_until TIMESTAMP,
+    processed_at TIMESTAMP
+);
+
+-- Idempotência: reentregas do mesmo messageId pelo provedor não geram nova entrada
+CREATE UNIQUE INDEX uk_webhook_inbox_provider_message
+    ON webhook_inbox(provider, external_message_id)
+    WHERE external_message_id IS NOT NULL;
+
+-- Varredura de pendentes pelo worker (índice parcial, pequeno enquanto a fila está em dia)
+CREATE INDEX idx_webhook_inbox_pending
+    ON webhook_inbox(id)
+    WHERE status IN ('PENDING', 'PROCESSING');
+
+CREATE INDEX idx_webhook_inbox_received_at ON webhook_inbox(received_at);
+
+COMMENT ON TABLE webhook_inbox IS 'Payloads brutos de webhooks de mensagens aguardando ou já processados';
+COMMENT ON COLUMN webhook_inbox.chat_key IS 'Chave de particionamento (chatLid ou telefone): mensagens do mesmo chat são processadas em ordem';
+COMMENT ON COLUMN webhook_inbox.locked_until IS 'Fim da reserva do worker (PROCESSING) ou do backoff antes de nova tentativa (PENDING)';
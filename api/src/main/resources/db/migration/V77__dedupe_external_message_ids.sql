@@ -0,0 +1,16 @@
+-- V77__dedupe_external_message_ids.sql
+-- Deduplicação de mensagens recebidas: o mesmo external_message_id só pode ser gravado uma vez.
+-- O índice único parcial é criado no V78, fora de transação.
+
+-- Duplicatas já existentes (retries de webhook) mantêm apenas a primeira mensagem com o id externo.
+-- As demais perdem o id em vez de serem apagadas, pois podem ter não lidas e mídias associadas.
+UPDATE messages m
+SET external_message_id = NULL
+FROM (
+    SELECT id,
+           ROW_NUMBER() OVER (PARTITION BY external_message_id ORDER BY created_at, id) AS rn
+    FROM messages
+    WHERE external_message_id IS NOT NULL
+) ranked
+WHERE m.id = ranked.id
+  AND ranked.rn > 1;
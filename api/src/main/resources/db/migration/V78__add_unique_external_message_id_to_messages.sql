@@ -0,0 +1,9 @@
+-- V78__add_unique_external_message_id_to_messages.sql
+-- Índice único parcial de messages.external_message_id, depois da deduplicação do V77.
+-- CONCURRENTLY para não bloquear escritas em messages: o Flyway executa esta migração fora de transação.
+-- Se a criação falhar (duplicata gravada entre o V77 e o V78), o índice fica INVALID e o IF NOT EXISTS
+-- não o recria: é preciso removê-lo e executar a migração de novo.
+
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uk_messages_external_message_id
+    ON messages(external_message_id)
+    WHERE external_message_id IS NOT NULL;
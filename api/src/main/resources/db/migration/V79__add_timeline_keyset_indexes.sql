@@ -0,0 +1,8 @@
+-- V79__add_timeline_keyset_indexes.sql
+-- Paginação por cursor (createdAt, id) da timeline de mensagens e última mensagem por conversa
+-- (inbox e fallback quando conversation_last_message não tem registro), pelo mesmo prefixo.
+-- A inbox por cursor usa os índices de conversations.last_activity_at (V84).
+-- CONCURRENTLY para não bloquear escritas em messages: o Flyway executa esta migração fora de transação.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_messages_conversation_created_at_id
+    ON messages(conversation_id, created_at DESC, id DESC);
@@ -0,0 +1,5 @@
+-- V80_2__add_messages_content_tsv_index.sql
+-- Índice GIN da busca textual, depois do preenchimento de content_tsv (V80_1).
+-- CONCURRENTLY para não bloquear escritas em messages: o Flyway executa esta migração fora de transação.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_messages_content_tsv ON messages USING gin(content_tsv);
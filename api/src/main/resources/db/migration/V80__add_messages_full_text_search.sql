@@ -0,0 +1,21 @@
+-- V80__add_messages_full_text_search.sql
+-- Busca textual de mensagens: substitui LOWER(content) LIKE '%termo%', que varria a tabela inteira.
+-- content_tsv é mantida por trigger (dicionário portuguese, com stemming). As mensagens existentes são
+-- preenchidas em lotes pelo V80_1 e o índice GIN é criado no V80_2, ambos fora de transação.
+
+ALTER TABLE messages ADD COLUMN IF NOT EXISTS content_tsv tsvector;
+
+CREATE OR REPLACE FUNCTION messages_content_tsv_update()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.content_tsv = to_tsvector('portuguese', COALESCE(NEW.content, ''));
+    RETURN NEW;
+END;
+$$ language 'plpgsql';
+
+DROP TRIGGER IF EXISTS update_messages_content_tsv ON messages;
+CREATE TRIGGER update_messages_content_tsv
+    BEFORE INSERT OR UPDATE OF content ON messages
+    FOR EACH ROW EXECUTE FUNCTION messages_content_tsv_update();
+
+COMMENT ON COLUMN messages.content_tsv IS 'tsvector (portuguese) de content, mantido pelo trigger update_messages_content_tsv';
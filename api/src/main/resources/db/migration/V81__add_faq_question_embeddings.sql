@@ -0,0 +1,9 @@
+-- V81__add_faq_question_embeddings.sql
+-- Embedding da pergunta de cada FAQ para a busca semântica (FAQService / CompanyFAQIndex).
+-- Vetor float32 little-endian em bytea (4 bytes por dimensão), calculado na escrita e carregado no
+-- índice em memória da empresa. embedding_model identifica o provedor que gerou o vetor; FAQs sem
+-- embedding do modelo atual são preenchidas em lotes por FAQEmbeddingBackfill.
+
+ALTER TABLE faqs
+    ADD COLUMN IF NOT EXISTS question_embedding BYTEA,
+    ADD COLUMN IF NOT EXISTS embedding_model VARCHAR(100);
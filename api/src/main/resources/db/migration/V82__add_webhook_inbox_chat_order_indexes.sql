@@ -0,0 +1,12 @@
+-- V82__add_webhook_inbox_chat_order_indexes.sql
+-- Claim e varredura só liberam a entrada mais antiga não concluída de cada chat
+-- (NOT EXISTS sobre entradas anteriores PENDING/PROCESSING do mesmo chat_key)
+
+CREATE INDEX idx_webhook_inbox_chat_pending
+    ON webhook_inbox(chat_key, id)
+    WHERE status IN ('PENDING', 'PROCESSING');
+
+-- Retenção: remoção periódica das entradas já processadas
+CREATE INDEX idx_webhook_inbox_done_processed_at
+    ON webhook_inbox(processed_at)
+    WHERE status = 'DONE';
@@ -0,0 +1,48 @@
+-- V83__add_conversations_last_activity_at.sql
+-- Atividade da conversa persistida para a inbox por cursor.
+-- O cursor sobre COALESCE(clm.last_message_date, c.created_at) num LEFT JOIN não é atendido por
+-- nenhum índice; cada página ordenaria todas as conversas da empresa.
+-- last_activity_at guarda a data da última mensagem (ou a criação, sem mensagens) e é mantida
+-- por trigger em conversation_last_message, que é onde toda escrita da última mensagem passa.
+
+ALTER TABLE conversations ADD COLUMN IF NOT EXISTS last_activity_at TIMESTAMP;
+
+-- Preenche as conversas existentes
+UPDATE conversations c
+SET last_activity_at = COALESCE(
+        (SELECT clm.last_message_date FROM conversation_last_message clm WHERE clm.conversation_id = c.id),
+        c.created_at,
+        NOW())
+WHERE last_activity_at IS NULL;
+
+ALTER TABLE conversations ALTER COLUMN last_activity_at SET DEFAULT NOW();
+ALTER TABLE conversations ALTER COLUMN last_activity_at SET NOT NULL;
+
+CREATE OR REPLACE FUNCTION conversations_last_activity_update()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        UPDATE conversations SET last_activity_at = COALESCE(created_at, last_activity_at)
+        WHERE id = OLD.conversation_id;
+        RETURN OLD;
+    END IF;
+
+    UPDATE conversations SET last_activity_at = NEW.last_message_date
+    WHERE id = NEW.conversation_id AND last_activity_at IS DISTINCT FROM NEW.last_message_date;
+    RETURN NEW;
+END;
+$$ language 'plpgsql';
+
+DROP TRIGGER IF EXISTS update_conversations_last_activity ON conversation_last_message;
+CREATE TRIGGER update_conversations_last_activity
+    AFTER INSERT OR UPDATE OF last_message_date ON conversation_last_message
+    FOR EACH ROW EXECUTE FUNCTION conversations_last_activity_update();
+
+DROP TRIGGER IF EXISTS reset_conversations_last_activity ON conversation_last_message;
+CREATE TRIGGER reset_conversations_last_activity
+    AFTER DELETE ON conversation_last_message
+    FOR EACH ROW EXECUTE FUNCTION conversations_last_activity_update();
+
+-- Os índices do cursor da inbox ficam no V84, criados fora de transação
+
+COMMENT ON COLUMN conversations.last_activity_at IS 'Data da última mensagem ou, sem mensagens, da criação; mantida pelos triggers em conversation_last_message';
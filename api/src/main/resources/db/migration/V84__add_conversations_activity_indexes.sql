@@ -0,0 +1,9 @@
+-- V84__add_conversations_activity_indexes.sql
+-- Chave do cursor da inbox: (last_activity_at, id), com e sem filtro de status.
+-- CONCURRENTLY para não bloquear escritas em conversations: o Flyway executa esta migração fora de transação.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_conversations_company_activity
+    ON conversations(company_id, last_activity_at DESC, id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_conversations_company_status_activity
+    ON conversations(company_id, status, last_activity_at DESC, id DESC);
@@ -0,0 +1,16 @@
+-- Reivindica atomicamente as conversas cujo debounce de draft de IA venceu.
+-- Apenas membros com score <= agora são retirados, então uma conversa que recebeu
+-- mensagem nova (score empurrado para frente) continua aguardando.
+--
+-- KEYS[1] debounce (ZSET, membro = conversationId:companyId, score = horário de disparo em ms)
+-- ARGV[1] agora (ms)
+-- ARGV[2] quantidade máxima de conversas
+local items = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[2]))
+if #items == 0 then
+    return items
+end
+
+-- Os membros vencidos são sempre os de menor score, então ocupam os ranks 0..n-1
+redis.call('ZREMRANGEBYRANK', KEYS[1], 0, #items - 1)
+
+return items
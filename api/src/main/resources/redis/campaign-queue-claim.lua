@@ -0,0 +1,21 @@
+-- Reivindica atomicamente os itens vencidos da fila de campanhas.
+-- Apenas itens com score <= agora são retirados; cada item vai para o ZSET
+-- de processamento com score igual ao prazo do lease.
+--
+-- KEYS[1] fila principal (ZSET, score = horário agendado em ms)
+-- KEYS[2] itens em processamento (ZSET, score = prazo do lease em ms)
+-- ARGV[1] agora (ms)
+-- ARGV[2] prazo do lease (ms)
+-- ARGV[3] quantidade máxima de itens
+local items = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[3]))
+if #items == 0 then
+    return items
+end
+
+-- Os itens vencidos são sempre os de menor score, então ocupam os ranks 0..n-1
+redis.call('ZREMRANGEBYRANK', KEYS[1], 0, #items - 1)
+for _, item in ipairs(items) do
+    redis.call('ZADD', KEYS[2], ARGV[2], item)
+end
+
+return items
@@ -0,0 +1,20 @@
+-- Devolve um item em processamento para a fila ou para a lista de erros.
+-- Só move o item se o lease ainda existir, evitando duplicatas quando o
+-- lease já expirou e o item foi recuperado por outro nó.
+--
+-- KEYS[1] itens em processamento (ZSET)
+-- KEYS[2] destino: fila principal (ZSET) ou lista de erros (LIST)
+-- ARGV[1] item
+-- ARGV[2] modo: 'requeue' ou 'dead-letter'
+-- ARGV[3] score para reenfileirar (ms), usado apenas no modo 'requeue'
+if redis.call('ZREM', KEYS[1], ARGV[1]) == 0 then
+    return 0
+end
+
+if ARGV[2] == 'requeue' then
+    redis.call('ZADD', KEYS[2], ARGV[3], ARGV[1])
+else
+    redis.call('RPUSH', KEYS[2], ARGV[1])
+end
+
+return 1
@@ -0,0 +1,18 @@
+-- Recupera itens cujo lease expirou, devolvendo-os à fila principal
+-- para reprocessamento imediato.
+--
+-- KEYS[1] itens em processamento (ZSET, score = prazo do lease em ms)
+-- KEYS[2] fila principal (ZSET)
+-- ARGV[1] agora (ms)
+-- ARGV[2] quantidade máxima de itens
+local expired = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[2]))
+if #expired == 0 then
+    return 0
+end
+
+redis.call('ZREMRANGEBYRANK', KEYS[1], 0, #expired - 1)
+for _, item in ipairs(expired) do
+    redis.call('ZADD', KEYS[2], ARGV[1], item)
+end
+
+return #expired
@@ -0,0 +1,13 @@
+-- Zera todos os contadores de não lidas de um usuário, devolvendo as conversas removidas.
+-- Leitura e remoção na mesma chamada: um HINCRBY entre as duas não some sem ser marcado como sujo.
+-- A marcação em {rubia:unread}:dirty fica com quem chama, pois a chave está em outro slot do cluster.
+--
+-- KEYS[1] contadores do usuário (HASH, campo = conversationId)
+local conversations = redis.call('HKEYS', KEYS[1])
+if #conversations == 0 then
+    return conversations
+end
+
+redis.call('DEL', KEYS[1])
+
+return conversations
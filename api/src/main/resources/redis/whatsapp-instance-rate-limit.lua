@@ -0,0 +1,46 @@
+-- Token bucket por instância WhatsApp com limite diário.
+-- KEYS[1] = hash do bucket (campos tokens/ts), KEYS[2] = contador diário
+-- ARGV[1] = agora (ms), ARGV[2] = capacidade de rajada, ARGV[3] = intervalo de reposição (ms por token),
+-- ARGV[4] = limite diário (0 = sem limite), ARGV[5] = TTL do contador diário (s)
+-- Retorna {1, 0} quando o envio é liberado, {0, espera_ms} quando o bucket está vazio
+-- e {0, -1} quando o limite diário foi atingido.
+local now = tonumber(ARGV[1])
+local capacity = tonumber(ARGV[2])
+local interval = tonumber(ARGV[3])
+local daily_limit = tonumber(ARGV[4])
+local daily_ttl = tonumber(ARGV[5])
+
+if daily_limit > 0 then
+    local sent = tonumber(redis.call('GET', KEYS[2]) or '0')
+    if sent >= daily_limit then
+        return {0, -1}
+    end
+end
+
+local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+local tokens = tonumber(bucket[1])
+local ts = tonumber(bucket[2])
+if tokens == nil or ts == nil then
+    tokens = capacity
+    ts = now
+end
+
+if now > ts then
+    tokens = math.min(capacity, tokens + (now - ts) / interval)
+    ts = now
+end
+
+if tokens < 1 then
+    return {0, math.ceil((1 - tokens) * interval)}
+end
+
+tokens = tokens - 1
+redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(ts))
+redis.call('PEXPIRE', KEYS[1], math.ceil(capacity * interval) + 1000)
+
+if daily_limit > 0 then
+    redis.call('INCR', KEYS[2])
+    redis.call('EXPIRE', KEYS[2], daily_ttl)
+end
+
+return {1, 0}
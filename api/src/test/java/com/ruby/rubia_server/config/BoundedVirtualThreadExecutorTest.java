@@ -0,0 +1,172 @@
+package com.ruby.rubia_server.config;
+
+import com.ruby.rubia_server.core.config.CampaignConfiguration;
+import com.ruby.rubia_server.core.service.BenchmarkReport;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BoundedVirtualThreadExecutor Unit Tests")
+class BoundedVirtualThreadExecutorTest {
+
+    private static final long SIMULATED_HTTP_MS = 20;
+
+    @Test
+    @DisplayName("Should cap concurrent tasks at the semaphore limit without blocking the caller")
+    void shouldCapConcurrencyWithoutBlockingCaller() throws Exception {
+        BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor("test-vt-", 3);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(20);
+
+        long submitStart = System.nanoTime();
+        for (int i = 0; i < 20; i++) {
+            executor.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.decrementAndGet();
+                    finished.countDown();
+                }
+            });
+        }
+        long submitMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - submitStart);
+
+        // Espera as 3 permissões serem tomadas antes de liberar
+        long deadline = System.currentTimeMillis() + 5000;
+        while (executor.getActiveCount() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(3, executor.getActiveCount());
+        assertTrue(submitMs < 1000, "Submitting must not wait for permits");
+
+        release.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertEquals(3, maxRunning.get());
+
+        // A permissão é devolvida depois que a tarefa termina, então pode chegar logo após o latch
+        deadline = System.currentTimeMillis() + 5000;
+        while (executor.getActiveCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, executor.getActiveCount());
+    }
+
+    @Test
+    @DisplayName("Should run tasks on virtual threads with the configured name prefix")
+    void shouldRunOnNamedVirtualThreads() throws Exception {
+        BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor("test-vt-", 1);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread[] worker = new Thread[1];
+
+        executor.execute(() -> {
+            worker[0] = Thread.currentThread();
+            done.countDown();
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(worker[0].isVirtual());
+        assertTrue(worker[0].getName().startsWith("test-vt-"));
+    }
+
+    @Test
+    @DisplayName("Should reject non-positive limits")
+    void shouldRejectNonPositiveLimit() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedVirtualThreadExecutor("test-vt-", 0));
+    }
+
+    @Test
+    @DisplayName("Benchmark: platform pools vs virtual threads for webhook bursts and campaign sends")
+    void benchmarkPlatformVersusVirtualThreads() throws Exception {
+        int webhookBurst = 2_000;
+        int campaignSends = 1_000;
+
+        // Aquecimento para que a criação das primeiras virtual threads não entre na medição
+        runBurst(new BoundedVirtualThreadExecutor("warmup-", 200), 200);
+
+        // Webhooks: 200 threads do Tomcat (server.tomcat.threads.max) vs uma virtual thread por
+        // requisição com o mesmo teto de 200 (server.tomcat.virtual.max-concurrency)
+        ExecutorService tomcatPool = Executors.newFixedThreadPool(200);
+        BurstResult webhookPlatform;
+        try {
+            webhookPlatform = runBurst(tomcatPool, webhookBurst);
+        } finally {
+            tomcatPool.shutdownNow();
+        }
+        BurstResult webhookVirtual = runBurst(new BoundedVirtualThreadExecutor("webhook-", 200), webhookBurst);
+
+        // Envios de campanha: campaignSendExecutor nos dois modos, com os limites padrão
+        CampaignConfiguration configuration = new CampaignConfiguration();
+        ThreadPoolTaskExecutor sendPool = (ThreadPoolTaskExecutor) configuration.campaignSendExecutor(false, 50);
+        BurstResult campaignPlatform;
+        try {
+            campaignPlatform = runBurst(sendPool, campaignSends);
+        } finally {
+            sendPool.shutdown();
+        }
+        TaskExecutor sendVirtual = configuration.campaignSendExecutor(true, 50);
+        BurstResult campaignVirtual = runBurst(sendVirtual, campaignSends);
+
+        print("webhook burst / platform", webhookBurst, webhookPlatform);
+        print("webhook burst / virtual", webhookBurst, webhookVirtual);
+        print("campaign send / platform", campaignSends, campaignPlatform);
+        print("campaign send / virtual", campaignSends, campaignVirtual);
+
+        // Com o mesmo teto, o modo virtual não pode perder vazão para o pool de plataforma. A folga de 2x
+        // absorve o ruído de uma JVM de teste compartilhada; um executor sem limite ou serializado fica fora
+        assertTrue(webhookVirtual.throughput() * 2 >= webhookPlatform.throughput(),
+            "Virtual webhook throughput " + webhookVirtual + " fell far behind platform " + webhookPlatform);
+        assertTrue(campaignVirtual.throughput() * 2 >= campaignPlatform.throughput(),
+            "Virtual campaign throughput " + campaignVirtual + " fell far behind platform " + campaignPlatform);
+    }
+
+    private BurstResult runBurst(Executor executor, int tasks) throws InterruptedException {
+        long[] latenciesNanos = new long[tasks];
+        CountDownLatch done = new CountDownLatch(tasks);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < tasks; i++) {
+            int index = i;
+            long submittedAt = System.nanoTime();
+            executor.execute(() -> {
+                try {
+                    Thread.sleep(SIMULATED_HTTP_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                latenciesNanos[index] = System.nanoTime() - submittedAt;
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(60, TimeUnit.SECONDS), "Burst did not finish");
+        long elapsedNanos = System.nanoTime() - start;
+
+        Arrays.sort(latenciesNanos);
+        long p99Ms = TimeUnit.NANOSECONDS.toMillis(latenciesNanos[(int) Math.ceil(tasks * 0.99) - 1]);
+        double throughput = tasks / (elapsedNanos / 1_000_000_000.0);
+        return new BurstResult(throughput, p99Ms);
+    }
+
+    private static void print(String label, int tasks, BurstResult result) {
+        BenchmarkReport.print("%-26s %5d tarefas de %dms -> %,8.0f req/s, p99 %5d ms",
+            label, tasks, SIMULATED_HTTP_MS, result.throughput(), result.p99Ms());
+    }
+
+    private record BurstResult(double throughput, long p99Ms) {
+    }
+}
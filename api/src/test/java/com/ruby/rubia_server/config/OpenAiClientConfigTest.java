@@ -0,0 +1,26 @@
+package com.ruby.rubia_server.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("OpenAiClientConfig Unit Tests")
+class OpenAiClientConfigTest {
+
+    @Test
+    @DisplayName("Should cap the Spring AI read timeout at the gateway chat deadline")
+    void shouldCapReadTimeoutAtChatDeadline() {
+        AIGatewayProperties gateway = new AIGatewayProperties();
+        gateway.setChatDeadline(Duration.ofSeconds(20));
+        HttpClientProperties.Client settings = new HttpClientProperties().getOpenai();
+
+        settings.setReadTimeout(Duration.ofSeconds(120));
+        assertEquals(Duration.ofSeconds(20), OpenAiClientConfig.readTimeout(settings, gateway));
+
+        settings.setReadTimeout(Duration.ofSeconds(15));
+        assertEquals(Duration.ofSeconds(15), OpenAiClientConfig.readTimeout(settings, gateway));
+    }
+}
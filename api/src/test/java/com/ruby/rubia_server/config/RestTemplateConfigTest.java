@@ -0,0 +1,151 @@
+package com.ruby.rubia_server.config;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa os clientes HTTP contra um servidor local (com.sun.net.httpserver) no papel de Z-API
+ */
+@DisplayName("RestTemplateConfig Unit Tests")
+class RestTemplateConfigTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final CountDownLatch releaseSlow = new CountDownLatch(1);
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/status", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            respond(exchange, "{\"connected\":true}");
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                releaseSlow.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, "{}");
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseSlow.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should reuse one keep-alive connection for sequential requests")
+    void shouldReuseConnection() {
+        RestTemplate restTemplate = create(settings(2, Duration.ofSeconds(5), Duration.ofSeconds(1)));
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("{\"connected\":true}", restTemplate.getForObject(baseUrl + "/status", String.class));
+        }
+
+        assertEquals(1, clientPorts.size(), "All requests should share one pooled connection");
+    }
+
+    @Test
+    @DisplayName("Should fail with ResourceAccessException when the read timeout expires")
+    void shouldApplyReadTimeout() {
+        RestTemplate restTemplate = create(settings(2, Duration.ofMillis(200), Duration.ofSeconds(1)));
+
+        assertThrows(ResourceAccessException.class, () -> restTemplate.getForObject(baseUrl + "/slow", String.class));
+        assertEquals(0.0, meterRegistry.get("http.client.upstream.in_flight").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should reject requests above the per-route limit and release permits afterwards")
+    void shouldLimitConcurrentRequestsPerRoute() throws Exception {
+        RestTemplate restTemplate = create(settings(2, Duration.ofSeconds(5), Duration.ofMillis(100)));
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = callers.submit(() -> restTemplate.getForObject(baseUrl + "/slow", String.class));
+            Future<String> second = callers.submit(() -> restTemplate.getForObject(baseUrl + "/slow", String.class));
+            awaitInFlight(2);
+
+            assertThrows(ResourceAccessException.class, () -> restTemplate.getForObject(baseUrl + "/status", String.class));
+            assertEquals(1.0, meterRegistry.get("http.client.upstream.rejected").tag("client", "zapi").counter().count());
+
+            releaseSlow.countDown();
+            assertEquals("{}", first.get(5, TimeUnit.SECONDS));
+            assertEquals("{}", second.get(5, TimeUnit.SECONDS));
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertEquals("{\"connected\":true}", restTemplate.getForObject(baseUrl + "/status", String.class));
+        assertEquals(0.0, meterRegistry.get("http.client.upstream.in_flight").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should record request latency per client, host and status")
+    void shouldRecordLatencyMetrics() {
+        RestTemplate restTemplate = create(settings(2, Duration.ofSeconds(5), Duration.ofSeconds(1)));
+
+        restTemplate.getForObject(baseUrl + "/status", String.class);
+        restTemplate.getForObject(baseUrl + "/status", String.class);
+
+        assertEquals(2, meterRegistry.get("http.client.upstream.requests")
+            .tags("client", "zapi", "host", "127.0.0.1", "status", "200").timer().count());
+        assertEquals(2.0, meterRegistry.get("http.client.upstream.max_per_route").gauge().value());
+    }
+
+    private RestTemplate create(HttpClientProperties.Client settings) {
+        return RestTemplateConfig.create(new RestTemplateBuilder(), "zapi", settings, meterRegistry);
+    }
+
+    private static HttpClientProperties.Client settings(int maxPerRoute, Duration readTimeout, Duration acquireTimeout) {
+        return new HttpClientProperties.Client(Duration.ofSeconds(2), readTimeout, maxPerRoute, acquireTimeout, true);
+    }
+
+    private void awaitInFlight(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("http.client.upstream.in_flight").gauge().value() < expected
+            && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, meterRegistry.get("http.client.upstream.in_flight").gauge().value());
+    }
+
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -1,48 +1,50 @@
 package com.ruby.rubia_server.core.event;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruby.rubia_server.core.service.CampaignQueueItemCodec;
+import com.ruby.rubia_server.core.service.CampaignQueueProcessor.CampaignQueueItem;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.ZSetOperations;
+import com.ruby.rubia_server.core.service.CampaignQueueStore;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
-import static org.mockito.Mockito.lenient;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("Campaign Retry Event Handler Tests")
 class CampaignRetryEventHandlerTest {
 
     @Mock
-    private RedisTemplate<String, Object> redisTemplate;
+    private CampaignQueueStore campaignQueueStore;
 
-    @Mock
-    private ZSetOperations<String, Object> zSetOperations;
-
-    private ObjectMapper objectMapper;
+    private CampaignQueueItemCodec queueItemCodec;
     private CampaignRetryEventHandler eventHandler;
 
     @BeforeEach
     void setUp() {
-        objectMapper = new ObjectMapper();
-        eventHandler = new CampaignRetryEventHandler(redisTemplate, objectMapper);
-        lenient().when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        queueItemCodec = new CampaignQueueItemCodec(new ObjectMapper());
+        eventHandler = new CampaignRetryEventHandler(campaignQueueStore, queueItemCodec);
     }
 
     @Test
     @DisplayName("Should handle retry event successfully")
-    void shouldHandleRetryEventSuccessfully() {
+    @SuppressWarnings("unchecked")
+    void shouldHandleRetryEventSuccessfully() throws Exception {
         // Given
         UUID campaignId = UUID.randomUUID();
         UUID contactId = UUID.randomUUID();
-        String companyId = "company-123";
+        String companyId = UUID.randomUUID().toString();
 
         CampaignRetryEvent event = new CampaignRetryEvent(
                 this, campaignId, contactId, companyId
@@ -51,8 +53,13 @@ class CampaignRetryEventHandlerTest {
         // When - Should not throw exception
         assertDoesNotThrow(() -> eventHandler.handleCampaignRetryEvent(event));
 
-        // Then - Should interact with Redis (any parameters)
-        verify(redisTemplate, atLeastOnce()).opsForZSet();
+        // Then - Enqueues a single binary item for immediate processing
+        ArgumentCaptor<List<byte[]>> items = ArgumentCaptor.forClass(List.class);
+        verify(campaignQueueStore).enqueueAll(items.capture(), anyLong(), eq(0L));
+        CampaignQueueItem item = queueItemCodec.decode(items.getValue().get(0));
+        assertEquals(campaignId, item.getCampaignId());
+        assertEquals(contactId, item.getCampaignContactId());
+        assertEquals(companyId, item.getCompanyId());
     }
 
     @Test
@@ -67,29 +74,26 @@ class CampaignRetryEventHandlerTest {
         assertDoesNotThrow(() -> eventHandler.handleCampaignRetryEvent(eventWithNulls));
         
         // Should still interact with Redis
-        verify(redisTemplate, atLeastOnce()).opsForZSet();
+        verify(campaignQueueStore).enqueueAll(anyList(), anyLong(), anyLong());
     }
 
     @Test
     @DisplayName("Should handle Redis errors gracefully")
     void shouldHandleRedisErrorsGracefully() {
         // Given
-        UUID campaignId = UUID.randomUUID();
-        UUID contactId = UUID.randomUUID();
-        String companyId = "company-123";
-
         CampaignRetryEvent event = new CampaignRetryEvent(
-                this, campaignId, contactId, companyId
+                this, UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID().toString()
         );
 
         // Mock Redis to throw exception
-        when(redisTemplate.opsForZSet()).thenThrow(new RuntimeException("Redis connection failed"));
+        when(campaignQueueStore.enqueueAll(anyList(), anyLong(), anyLong()))
+                .thenThrow(new RuntimeException("Redis connection failed"));
 
         // When & Then - Should not throw exception (graceful error handling)
         assertDoesNotThrow(() -> eventHandler.handleCampaignRetryEvent(event));
 
         // Verify Redis operation was attempted
-        verify(redisTemplate, atLeastOnce()).opsForZSet();
+        verify(campaignQueueStore).enqueueAll(anyList(), anyLong(), anyLong());
     }
 
     @Test
@@ -97,8 +101,8 @@ class CampaignRetryEventHandlerTest {
     void shouldCreateEventHandlerWithoutErrors() {
         // When & Then - Constructor should work
         assertDoesNotThrow(() -> {
-            CampaignRetryEventHandler handler = new CampaignRetryEventHandler(redisTemplate, objectMapper);
+            CampaignRetryEventHandler handler = new CampaignRetryEventHandler(campaignQueueStore, queueItemCodec);
             assertNotNull(handler);
         });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,68 @@
+package com.ruby.rubia_server.core.repository;
+
+import com.ruby.rubia_server.config.AbstractIntegrationTest;
+import com.ruby.rubia_server.core.entity.WebhookInboxEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("WebhookInboxRepository per-chat ordering")
+class WebhookInboxRepositoryIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private WebhookInboxRepository inboxRepository;
+
+    @BeforeEach
+    void setUp() {
+        inboxRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should not claim or dispatch a later entry while an earlier one of the same chat is unfinished")
+    void shouldHoldLaterEntriesBehindUnfinishedEarlierOne() {
+        LocalDateTime now = LocalDateTime.now();
+        Long first = append("msg-1", "chat-a", now);
+        Long second = append("msg-2", "chat-a", now);
+        Long other = append("msg-3", "chat-b", now);
+
+        // A primeira entrada falhou e aguarda nova tentativa
+        inboxRepository.markFailedAttempt(first, "PENDING", now.plusMinutes(1), "boom");
+
+        assertThat(inboxRepository.findDispatchable(now, 100))
+            .extracting(WebhookInboxEntry::getId)
+            .containsExactly(other);
+        assertThat(inboxRepository.claim(second, now, now.plusMinutes(1))).isZero();
+
+        // Concluída a primeira, a segunda é liberada
+        inboxRepository.markDone(first, now);
+        assertThat(inboxRepository.findDispatchable(now, 100))
+            .extracting(WebhookInboxEntry::getId)
+            .containsExactly(second, other);
+        assertThat(inboxRepository.claim(second, now, now.plusMinutes(1))).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should delete only processed entries older than the cutoff")
+    void shouldDeleteOldDoneEntries() {
+        LocalDateTime now = LocalDateTime.now();
+        Long old = append("msg-1", "chat-a", now);
+        Long recent = append("msg-2", "chat-a", now);
+        Long pending = append("msg-3", "chat-b", now);
+        inboxRepository.markDone(old, now.minusDays(10));
+        inboxRepository.markDone(recent, now);
+
+        assertThat(inboxRepository.deleteDoneBefore(now.minusDays(7), 100)).isEqualTo(1);
+        assertThat(inboxRepository.findById(old)).isEmpty();
+        assertThat(inboxRepository.findById(recent)).isPresent();
+        assertThat(inboxRepository.findById(pending)).isPresent();
+    }
+
+    private Long append(String messageId, String chatKey, LocalDateTime receivedAt) {
+        return inboxRepository.appendIfAbsent("z-api", messageId, chatKey, "{}", receivedAt).orElseThrow();
+    }
+}
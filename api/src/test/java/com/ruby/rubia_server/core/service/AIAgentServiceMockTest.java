@@ -6,6 +6,7 @@ import com.ruby.rubia_server.core.entity.AIAgent;
 import com.ruby.rubia_server.core.entity.AIModel;
 import com.ruby.rubia_server.core.entity.Company;
 import com.ruby.rubia_server.core.entity.CompanyGroup;
+import com.ruby.rubia_server.core.event.AIAgentChangedEvent;
 import com.ruby.rubia_server.core.repository.AIAgentRepository;
 import com.ruby.rubia_server.core.repository.AIModelRepository;
 import com.ruby.rubia_server.core.repository.CompanyRepository;
@@ -15,6 +16,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -43,6 +45,9 @@ class AIAgentServiceMockTest {
     @Mock
     private AIModelRepository aiModelRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private AIAgentService aiAgentService;
 
@@ -274,6 +279,7 @@ class AIAgentServiceMockTest {
         verify(aiAgentRepository).findById(aiAgentId);
         verify(aiModelRepository).findById(testClaudeModel.getId());
         verify(aiAgentRepository).save(any(AIAgent.class));
+        verify(eventPublisher).publishEvent(any(AIAgentChangedEvent.class));
     }
 
     @Test
@@ -304,6 +310,7 @@ class AIAgentServiceMockTest {
         
         verify(aiAgentRepository).existsById(aiAgentId);
         verify(aiAgentRepository).deleteById(aiAgentId);
+        verify(eventPublisher).publishEvent(any(AIAgentChangedEvent.class));
     }
 
     @Test
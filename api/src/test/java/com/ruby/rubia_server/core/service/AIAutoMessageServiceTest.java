@@ -0,0 +1,56 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.core.dto.FAQDTO;
+import com.ruby.rubia_server.core.dto.FAQMatchDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("AIAutoMessageService Unit Tests")
+class AIAutoMessageServiceTest {
+
+    @Test
+    @DisplayName("Should answer directly only with confident trigger or keyword FAQ matches")
+    void shouldAnswerDirectlyOnlyWithTriggerOrKeywordMatches() {
+        assertThat(AIAutoMessageService.canAnswerDirectly(match("exact_trigger", 0.95))).isTrue();
+        assertThat(AIAutoMessageService.canAnswerDirectly(match("exact_keyword", 0.85))).isTrue();
+        assertThat(AIAutoMessageService.canAnswerDirectly(match("exact_keyword", 0.6))).isFalse();
+        assertThat(AIAutoMessageService.canAnswerDirectly(match("partial_match", 0.75))).isFalse();
+        // Similaridade de embedding alta não basta para enviar a resposta da FAQ sem o modelo
+        assertThat(AIAutoMessageService.canAnswerDirectly(match("semantic_match", 0.92))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should not answer directly when a short FAQ question only overlaps incidentally")
+    void shouldNotAnswerDirectlyWithShortQuestionOverlap() {
+        FAQDTO process = FAQDTO.builder()
+                .id(UUID.randomUUID())
+                .question("Como funciona?")
+                .answer("A doação leva cerca de uma hora, da triagem ao lanche.")
+                .keywords(List.of())
+                .triggers(List.of())
+                .isActive(true)
+                .build();
+        CompanyFAQIndex index = CompanyFAQIndex.of(List.of(process));
+
+        assertThat(index.search("como funciona o estacionamento?", 0.3, null))
+                .singleElement()
+                .satisfies(match -> {
+                    assertThat(match.getMatchReason()).isEqualTo("partial_match");
+                    assertThat(match.getConfidenceScore()).isEqualTo(1.0);
+                    assertThat(AIAutoMessageService.canAnswerDirectly(match)).isFalse();
+                });
+    }
+
+    private static FAQMatchDTO match(String reason, double score) {
+        return FAQMatchDTO.builder()
+                .faq(FAQDTO.builder().id(UUID.randomUUID()).question("Pergunta").answer("Resposta").build())
+                .confidenceScore(score)
+                .matchReason(reason)
+                .build();
+    }
+}
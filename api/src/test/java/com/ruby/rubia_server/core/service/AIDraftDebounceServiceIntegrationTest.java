@@ -0,0 +1,73 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.config.AbstractIntegrationTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = {
+        "ai.draft.debounce.delay=0ms",
+        "ai.draft.debounce.poll-interval-ms=3600000"
+})
+@DisplayName("AI draft debounce")
+class AIDraftDebounceServiceIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private AIDraftDebounceService debounceService;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.delete(AIDraftDebounceService.DEBOUNCE_KEY);
+    }
+
+    @Test
+    @DisplayName("Should coalesce a burst of messages into a single dispatch")
+    void shouldCoalesceBurstIntoOneDispatch() {
+        UUID conversationId = UUID.randomUUID();
+        UUID companyId = UUID.randomUUID();
+        double coalescedBefore = counter("ai.draft.debounce.coalesced");
+        double firedBefore = counter("ai.draft.debounce.fired");
+
+        debounceService.schedule(conversationId, companyId);
+        debounceService.schedule(conversationId, companyId);
+        debounceService.schedule(conversationId, companyId);
+
+        assertThat(redisTemplate.opsForZSet().zCard(AIDraftDebounceService.DEBOUNCE_KEY)).isEqualTo(1L);
+        assertThat(counter("ai.draft.debounce.coalesced") - coalescedBefore).isEqualTo(2);
+
+        debounceService.dispatchDue();
+        debounceService.dispatchDue();
+
+        assertThat(redisTemplate.opsForZSet().zCard(AIDraftDebounceService.DEBOUNCE_KEY)).isZero();
+        assertThat(counter("ai.draft.debounce.fired") - firedBefore).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should leave conversations that are not due yet")
+    void shouldNotClaimConversationsBeforeFireTime() {
+        String member = AIDraftDebounceService.member(UUID.randomUUID(), UUID.randomUUID());
+        redisTemplate.opsForZSet().add(AIDraftDebounceService.DEBOUNCE_KEY, member, System.currentTimeMillis() + 60_000);
+
+        debounceService.dispatchDue();
+
+        assertThat(redisTemplate.opsForZSet().score(AIDraftDebounceService.DEBOUNCE_KEY, member)).isNotNull();
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+}
@@ -0,0 +1,296 @@
+package com.ruby.rubia_server.core.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruby.rubia_server.config.AIGatewayProperties;
+import com.ruby.rubia_server.core.dto.AIEnhancementResult;
+import com.ruby.rubia_server.core.exception.AIGatewayException;
+import com.ruby.rubia_server.core.util.CircuitBreaker;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa o AIGateway contra um servidor local (com.sun.net.httpserver) no papel da OpenAI
+ */
+@DisplayName("AIGateway Unit Tests")
+class AIGatewayTest {
+
+    private static final String MODEL = "gpt-4o-mini";
+    private static final UUID COMPANY_ID = UUID.randomUUID();
+
+    private HttpServer server;
+    private volatile String chatMode = "ok";
+    private volatile String lastAuthorization;
+    private volatile String lastTranscriptionBody;
+    private final CountDownLatch chatReceived = new CountDownLatch(1);
+    private final CountDownLatch releaseSlow = new CountDownLatch(1);
+    private final MutableClock clock = new MutableClock();
+    private SimpleMeterRegistry meterRegistry;
+    private OpenAIService openAIService;
+    private AIGateway gateway;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/v1/chat/completions", exchange -> {
+            lastAuthorization = exchange.getRequestHeaders().getFirst("Authorization");
+            String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            chatReceived.countDown();
+            if (request.contains("\"stream\":true")) {
+                stream(exchange, "{{nome}}", ", venha ", "doar sangue!");
+                return;
+            }
+            switch (chatMode) {
+                case "slow" -> {
+                    try {
+                        releaseSlow.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    respond(exchange, 200, completion("Resposta lenta"));
+                }
+                case "error" -> respond(exchange, 400,
+                        "{\"error\":{\"message\":\"invalid model\",\"type\":\"invalid_request_error\"}}");
+                default -> respond(exchange, 200, completion("{{nome}}, venha doar sangue!"));
+            }
+        });
+        server.createContext("/v1/audio/transcriptions", exchange -> {
+            lastAuthorization = exchange.getRequestHeaders().getFirst("Authorization");
+            lastTranscriptionBody = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.ISO_8859_1);
+            respond(exchange, 200, "{\"text\":\"quero doar sangue\"}");
+        });
+        server.start();
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        OpenAiChatModel chatModel = new OpenAiChatModel(new OpenAiApi(baseUrl, "test-key"));
+        openAIService = new OpenAIService(chatModel, new ObjectMapper(), new RestTemplate());
+        ReflectionTestUtils.setField(openAIService, "defaultModel", MODEL);
+        ReflectionTestUtils.setField(openAIService, "defaultMaxTokens", 150);
+        ReflectionTestUtils.setField(openAIService, "defaultTemperature", 0.7);
+        ReflectionTestUtils.setField(openAIService, "openAiApiKey", "test-key");
+        ReflectionTestUtils.setField(openAIService, "openAiBaseUrl", baseUrl);
+
+        meterRegistry = new SimpleMeterRegistry();
+        gateway = gateway(Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseSlow.countDown();
+        gateway.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should return the completion and record tokens and latency per company")
+    void shouldReturnCompletionAndRecordMetrics() {
+        AIEnhancementResult result = gateway.chat(COMPANY_ID, "Melhore: venha doar", MODEL, 0.5, 100);
+
+        assertEquals("{{nome}}, venha doar sangue!", result.getEnhancedMessage());
+        assertEquals(42, result.getTokensUsed());
+        assertEquals("Bearer test-key", lastAuthorization);
+        assertEquals(42.0, meterRegistry.get("ai.gateway.tokens")
+                .tag("company", COMPANY_ID.toString()).tag("model", MODEL).counter().count());
+        assertEquals(1, meterRegistry.get("ai.gateway.requests")
+                .tag("company", COMPANY_ID.toString()).tag("operation", "chat").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should deliver streamed chunks in order and return the full completion")
+    void shouldStreamChunks() {
+        List<String> chunks = new CopyOnWriteArrayList<>();
+
+        AIEnhancementResult result = gateway.chatStream(COMPANY_ID, "Melhore: venha doar", MODEL, 0.5, 100, chunks::add);
+
+        assertEquals(List.of("{{nome}}", ", venha ", "doar sangue!"), chunks);
+        assertEquals("{{nome}}, venha doar sangue!", result.getEnhancedMessage());
+        assertEquals(1, meterRegistry.get("ai.gateway.requests")
+                .tag("operation", "chat_stream").tag("outcome", "success").timer().count());
+        assertTrue(meterRegistry.get("ai.gateway.tokens").tag("company", COMPANY_ID.toString()).counter().count() > 0);
+    }
+
+    @Test
+    @DisplayName("Should transcribe audio through the gateway")
+    void shouldTranscribeAudio() {
+        String transcription = gateway.transcribe(COMPANY_ID, new byte[]{1, 2, 3}, "pt");
+
+        assertEquals("quero doar sangue", transcription);
+        assertEquals("Bearer test-key", lastAuthorization);
+        assertTrue(lastTranscriptionBody.contains(OpenAIService.TRANSCRIPTION_MODEL));
+        assertEquals(1, meterRegistry.get("ai.gateway.requests")
+                .tag("model", OpenAIService.TRANSCRIPTION_MODEL).tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should give up at the deadline, open the circuit and close it after a successful probe")
+    void shouldTimeOutAndOpenCircuit() {
+        gateway.shutdown();
+        gateway = gateway(Duration.ofMillis(300));
+        chatMode = "slow";
+
+        for (int i = 0; i < 2; i++) {
+            long start = System.nanoTime();
+            AIGatewayException e = assertThrows(AIGatewayException.class,
+                    () -> gateway.chat(COMPANY_ID, "prompt", MODEL, null, null));
+            assertEquals(AIGatewayException.Reason.TIMEOUT, e.getReason());
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(3), "Caller must not wait for the upstream");
+        }
+        assertEquals(CircuitBreaker.State.OPEN, gateway.circuitState(MODEL));
+
+        AIGatewayException open = assertThrows(AIGatewayException.class,
+                () -> gateway.chat(COMPANY_ID, "prompt", MODEL, null, null));
+        assertEquals(AIGatewayException.Reason.CIRCUIT_OPEN, open.getReason());
+        assertTrue(open.isRetryable());
+
+        chatMode = "ok";
+        releaseSlow.countDown();
+        clock.advance(Duration.ofSeconds(30));
+        assertEquals("{{nome}}, venha doar sangue!",
+                gateway.chat(COMPANY_ID, "prompt", MODEL, null, null).getEnhancedMessage());
+        assertEquals(CircuitBreaker.State.CLOSED, gateway.circuitState(MODEL));
+    }
+
+    @Test
+    @DisplayName("Should reject immediately when the model queue is full without opening the circuit")
+    void shouldRejectWhenQueueFull() throws Exception {
+        chatMode = "slow";
+        CompletableFuture<AIEnhancementResult> running = CompletableFuture.supplyAsync(
+                () -> gateway.chat(COMPANY_ID, "primeira", MODEL, null, null));
+        assertTrue(chatReceived.await(5, TimeUnit.SECONDS));
+        CompletableFuture<AIEnhancementResult> queued = CompletableFuture.supplyAsync(
+                () -> gateway.chat(COMPANY_ID, "segunda", MODEL, null, null));
+        waitForQueueDepth(1);
+
+        long start = System.nanoTime();
+        AIGatewayException e = assertThrows(AIGatewayException.class,
+                () -> gateway.chat(COMPANY_ID, "terceira", MODEL, null, null));
+        assertEquals(AIGatewayException.Reason.REJECTED, e.getReason());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+
+        releaseSlow.countDown();
+        assertNotNull(running.get(5, TimeUnit.SECONDS));
+        assertNotNull(queued.get(5, TimeUnit.SECONDS));
+        assertEquals(CircuitBreaker.State.CLOSED, gateway.circuitState(MODEL));
+        assertEquals(1, meterRegistry.get("ai.gateway.requests").tag("outcome", "rejected").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should surface provider errors and open the circuit after consecutive failures")
+    void shouldOpenCircuitOnProviderErrors() {
+        chatMode = "error";
+
+        for (int i = 0; i < 2; i++) {
+            AIGatewayException e = assertThrows(AIGatewayException.class,
+                    () -> gateway.chat(COMPANY_ID, "prompt", MODEL, null, null));
+            assertEquals(AIGatewayException.Reason.FAILED, e.getReason());
+            assertFalse(e.isRetryable());
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, gateway.circuitState(MODEL));
+        assertEquals(2, meterRegistry.get("ai.gateway.requests").tag("outcome", "error").timer().count());
+    }
+
+    private AIGateway gateway(Duration chatDeadline) {
+        AIGatewayProperties properties = new AIGatewayProperties();
+        properties.setMaxConcurrencyPerModel(1);
+        properties.setQueueCapacityPerModel(1);
+        properties.setMaxInFlightPerKey(4);
+        properties.setChatDeadline(chatDeadline);
+        properties.setTranscriptionDeadline(Duration.ofSeconds(5));
+        properties.setCircuitFailureThreshold(2);
+        properties.setCircuitOpenDuration(Duration.ofSeconds(30));
+        return new AIGateway(openAIService, properties, meterRegistry, MODEL, clock);
+    }
+
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("ai.gateway.queue.depth").tag("model", MODEL).gauge().value() < depth) {
+            assertTrue(System.nanoTime() < deadline, "Second call was never queued");
+            Thread.sleep(10);
+        }
+    }
+
+    private static String completion(String content) {
+        return """
+                {"id":"chatcmpl-1","object":"chat.completion","created":1700000000,"model":"gpt-4o-mini",
+                 "choices":[{"index":0,"message":{"role":"assistant","content":"%s"},"finish_reason":"stop"}],
+                 "usage":{"prompt_tokens":30,"completion_tokens":12,"total_tokens":42}}
+                """.formatted(content);
+    }
+
+    private static void stream(HttpExchange exchange, String... contents) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (String content : contents) {
+                String chunk = """
+                        {"id":"chatcmpl-1","object":"chat.completion.chunk","created":1700000000,"model":"gpt-4o-mini",\
+                        "choices":[{"index":0,"delta":{"role":"assistant","content":"%s"},"finish_reason":null}]}\
+                        """.formatted(content);
+                out.write(("data: " + chunk + "\n\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            }
+            out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.core.entity.AIAgent;
+import com.ruby.rubia_server.core.entity.AIModel;
+import com.ruby.rubia_server.core.event.AIAgentChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AIResponseCache Unit Tests")
+class AIResponseCacheTest {
+
+    private static final String PROMPT = "x".repeat(4_000);
+
+    private SimpleMeterRegistry meterRegistry;
+    private AIResponseCache cache;
+    private AIAgent agent;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new AIResponseCache(meterRegistry, Duration.ofHours(1), 100, 50, 0.75);
+        agent = AIAgent.builder()
+                .id(UUID.randomUUID())
+                .name("Rubi")
+                .temperament("EMPATICO")
+                .maxResponseLength(300)
+                .temperature(BigDecimal.valueOf(0.7))
+                .aiModel(AIModel.builder().name("gpt-4o-mini").costPer1kTokens(2).build())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should serve the same question regardless of case, accents and punctuation")
+    void shouldHitExactQuestion() {
+        cache.put(agent, "Qual a idade mínima?", PROMPT, "16 anos com autorização.");
+
+        assertEquals(Optional.of("16 anos com autorização."), cache.find(agent, "qual a idade minima"));
+        assertEquals(1.0, meterRegistry.get("ai.response.cache.lookups").tag("result", "hit").counter().count());
+        assertEquals(1_006.0, meterRegistry.get("ai.response.cache.tokens.saved").counter().count());
+        assertEquals(2.012, meterRegistry.get("ai.response.cache.credits.saved").counter().count(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should serve near-duplicate questions but not ones with different numbers or negation")
+    void shouldHitNearDuplicatesOnly() {
+        cache.put(agent, "qual idade mínima?", PROMPT, "16 anos.");
+        cache.put(agent, "tenho 16 anos posso doar", PROMPT, "Sim, com autorização.");
+        cache.put(agent, "posso doar gripado", PROMPT, "Aguarde 7 dias.");
+
+        assertEquals(Optional.of("16 anos."), cache.find(agent, "Qual a idade minima"));
+        assertTrue(cache.find(agent, "qual idade máxima").isEmpty());
+        assertTrue(cache.find(agent, "tenho 61 anos posso doar").isEmpty());
+        assertTrue(cache.find(agent, "não posso doar gripado?").isEmpty());
+        assertEquals(1.0, meterRegistry.get("ai.response.cache.lookups").tag("result", "near_hit").counter().count());
+        assertEquals(3.0, meterRegistry.get("ai.response.cache.lookups").tag("result", "miss").counter().count());
+        assertEquals(0.25, meterRegistry.get("ai.response.cache.hit.ratio").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should miss after the agent configuration changes and drop entries on change events")
+    void shouldInvalidateOnAgentChanges() {
+        cache.put(agent, "preciso estar em jejum?", PROMPT, "Não, faça uma refeição leve.");
+
+        agent.setTemperament("ENGRAÇADO");
+        assertTrue(cache.find(agent, "preciso estar em jejum?").isEmpty());
+
+        agent.setTemperament("EMPATICO");
+        assertTrue(cache.find(agent, "preciso estar em jejum?").isPresent());
+
+        cache.onAIAgentChanged(AIAgentChangedEvent.builder().agentId(agent.getId()).build());
+        assertTrue(cache.find(agent, "preciso estar em jejum?").isEmpty());
+        assertEquals(0.0, meterRegistry.get("ai.response.cache.agents").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should keep agents isolated")
+    void shouldIsolateAgents() {
+        AIAgent other = AIAgent.builder()
+                .id(UUID.randomUUID())
+                .name(agent.getName())
+                .temperament(agent.getTemperament())
+                .maxResponseLength(agent.getMaxResponseLength())
+                .temperature(agent.getTemperature())
+                .aiModel(agent.getAiModel())
+                .build();
+        cache.put(agent, "qual o horário?", PROMPT, "Das 7h às 18h.");
+
+        assertTrue(cache.find(other, "qual o horário?").isEmpty());
+    }
+}
@@ -0,0 +1,25 @@
+package com.ruby.rubia_server.core.service;
+
+/**
+ * Linhas "[benchmark]" impressas pelos benchmarks dos testes
+ */
+public final class BenchmarkReport {
+
+    private BenchmarkReport() {
+    }
+
+    /**
+     * Throughput de um lote: itens processados no tempo medido
+     */
+    public static void report(String label, int processed, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        print("%-26s %6d itens em %7.1f ms -> %,.0f itens/s", label, processed, elapsedNanos / 1_000_000.0, processed / seconds);
+    }
+
+    /**
+     * Linha livre, para medições que não são throughput de itens
+     */
+    public static void print(String format, Object... args) {
+        System.out.printf("[benchmark] " + format + "%n", args);
+    }
+}
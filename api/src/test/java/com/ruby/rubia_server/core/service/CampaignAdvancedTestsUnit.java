@@ -92,7 +92,7 @@ class CampaignAdvancedTestsUnit {
         when(messagingService.sendMessage(anyString(), anyString()))
                 .thenReturn(MessageResult.success("msg-123", "sent", "test"));
 
-        when(delaySchedulingService.scheduleMessageSend(any(CampaignContact.class), anyInt(), any()))
+        when(delaySchedulingService.scheduleAsyncSend(any(CampaignContact.class), anyInt(), any()))
                 .thenReturn(CompletableFuture.completedFuture(true));
 
         // Create multiple contacts to simulate batch processing
@@ -112,7 +112,7 @@ class CampaignAdvancedTestsUnit {
         CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
 
         // Verify all were processed
-        verify(delaySchedulingService, times(10)).scheduleMessageSend(any(), anyInt(), any());
+        verify(delaySchedulingService, times(10)).scheduleAsyncSend(any(), anyInt(), any());
     }
 
     @Test
@@ -121,7 +121,7 @@ class CampaignAdvancedTestsUnit {
         // Test with 100 contacts
         List<CampaignContact> contacts = createMultipleContacts(100);
         
-        when(delaySchedulingService.scheduleMessageSend(any(CampaignContact.class), anyInt(), any()))
+        when(delaySchedulingService.scheduleAsyncSend(any(CampaignContact.class), anyInt(), any()))
                 .thenReturn(CompletableFuture.completedFuture(true));
 
         long startTime = System.currentTimeMillis();
@@ -153,7 +153,7 @@ class CampaignAdvancedTestsUnit {
 
         CountDownLatch concurrentLatch = new CountDownLatch(15);
 
-        when(delaySchedulingService.scheduleMessageSend(any(CampaignContact.class), anyInt(), any()))
+        when(delaySchedulingService.scheduleAsyncSend(any(CampaignContact.class), anyInt(), any()))
                 .thenAnswer(invocation -> {
                     concurrentLatch.countDown();
                     return CompletableFuture.completedFuture(true);
@@ -174,7 +174,7 @@ class CampaignAdvancedTestsUnit {
         CompletableFuture.allOf(allFutures.toArray(new CompletableFuture[0])).join();
 
         // Verify isolation - each campaign processed independently
-        verify(delaySchedulingService, times(15)).scheduleMessageSend(any(), anyInt(), any());
+        verify(delaySchedulingService, times(15)).scheduleAsyncSend(any(), anyInt(), any());
     }
 
     @Test
@@ -187,7 +187,7 @@ class CampaignAdvancedTestsUnit {
                 .thenReturn(MessageResult.success("msg-success", "sent", "test"));
 
         // Mock retry behavior with delays
-        when(delaySchedulingService.scheduleMessageSend(any(CampaignContact.class), anyInt(), any()))
+        when(delaySchedulingService.scheduleAsyncSend(any(CampaignContact.class), anyInt(), any()))
                 .thenReturn(CompletableFuture.completedFuture(false))
                 .thenReturn(CompletableFuture.completedFuture(false))
                 .thenReturn(CompletableFuture.completedFuture(true));
@@ -202,21 +202,21 @@ class CampaignAdvancedTestsUnit {
         CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
 
         // Verify retry attempts
-        verify(delaySchedulingService, times(3)).scheduleMessageSend(any(), anyInt(), any());
+        verify(delaySchedulingService, times(3)).scheduleAsyncSend(any(), anyInt(), any());
     }
 
     @Test
     @DisplayName("Message Failure Handling")
     void shouldHandleMessagingFailures() {
         // Mock messaging failure
-        when(delaySchedulingService.scheduleMessageSend(any(CampaignContact.class), anyInt(), any()))
+        when(delaySchedulingService.scheduleAsyncSend(any(CampaignContact.class), anyInt(), any()))
                 .thenReturn(CompletableFuture.completedFuture(false));
 
         // Process with failure
         CompletableFuture<Boolean> result = campaignMessagingService.sendSingleMessageAsync(campaignContact);
         
         assertFalse(result.join(), "Should return false on messaging failure");
-        verify(delaySchedulingService).scheduleMessageSend(eq(campaignContact), anyInt(), any());
+        verify(delaySchedulingService).scheduleAsyncSend(eq(campaignContact), anyInt(), any());
     }
 
     @Test
@@ -226,7 +226,7 @@ class CampaignAdvancedTestsUnit {
         when(messagingService.sendMessage(anyString(), anyString()))
                 .thenReturn(MessageResult.success("msg-123", "sent", "test"));
 
-        when(delaySchedulingService.scheduleMessageSend(any(CampaignContact.class), anyInt(), any()))
+        when(delaySchedulingService.scheduleAsyncSend(any(CampaignContact.class), anyInt(), any()))
                 .thenReturn(CompletableFuture.completedFuture(true));
 
         // Test with different template content
@@ -235,7 +235,7 @@ class CampaignAdvancedTestsUnit {
         CompletableFuture<Boolean> result = campaignMessagingService.sendSingleMessageAsync(campaignContact);
         
         assertTrue(result.join(), "Should process template successfully");
-        verify(delaySchedulingService).scheduleMessageSend(eq(campaignContact), anyInt(), any());
+        verify(delaySchedulingService).scheduleAsyncSend(eq(campaignContact), anyInt(), any());
     }
 
     @Test
@@ -257,7 +257,7 @@ class CampaignAdvancedTestsUnit {
         assertFalse(nullCampaignResult.join(), "Should handle null campaign gracefully");
 
         // Verify no service calls made for invalid inputs
-        verify(delaySchedulingService, never()).scheduleMessageSend(any(), anyInt(), any());
+        verify(delaySchedulingService, never()).scheduleAsyncSend(any(), anyInt(), any());
     }
 
     private List<CampaignContact> createMultipleContacts(int count) {
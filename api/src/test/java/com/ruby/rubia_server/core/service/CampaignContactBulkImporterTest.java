@@ -0,0 +1,252 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.core.entity.Campaign;
+import com.ruby.rubia_server.core.entity.CampaignContact;
+import com.ruby.rubia_server.core.entity.Company;
+import com.ruby.rubia_server.core.entity.Conversation;
+import com.ruby.rubia_server.core.entity.ConversationLastMessage;
+import com.ruby.rubia_server.core.entity.ConversationParticipant;
+import com.ruby.rubia_server.core.entity.Customer;
+import com.ruby.rubia_server.core.entity.Message;
+import com.ruby.rubia_server.core.entity.MessageTemplate;
+import com.ruby.rubia_server.core.enums.CampaignContactStatus;
+import com.ruby.rubia_server.core.enums.MessageStatus;
+import com.ruby.rubia_server.core.enums.SenderType;
+import com.ruby.rubia_server.core.event.CustomerChangedEvent;
+import com.ruby.rubia_server.core.repository.CampaignContactRepository;
+import com.ruby.rubia_server.core.repository.CampaignRepository;
+import com.ruby.rubia_server.core.repository.CompanyRepository;
+import com.ruby.rubia_server.core.repository.ConversationLastMessageRepository;
+import com.ruby.rubia_server.core.repository.ConversationParticipantRepository;
+import com.ruby.rubia_server.core.repository.ConversationRepository;
+import com.ruby.rubia_server.core.repository.CustomerRepository;
+import com.ruby.rubia_server.core.repository.MessageRepository;
+import com.ruby.rubia_server.core.repository.MessageTemplateRepository;
+import com.ruby.rubia_server.core.service.CampaignProcessingService.ContactChunkResult;
+import com.ruby.rubia_server.core.service.CampaignProcessingService.ContactData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("CampaignContactBulkImporter Unit Tests")
+class CampaignContactBulkImporterTest {
+
+    @Mock private CustomerRepository customerRepository;
+    @Mock private CampaignContactRepository campaignContactRepository;
+    @Mock private ConversationRepository conversationRepository;
+    @Mock private ConversationParticipantRepository participantRepository;
+    @Mock private MessageRepository messageRepository;
+    @Mock private ConversationLastMessageRepository conversationLastMessageRepository;
+    @Mock private CompanyRepository companyRepository;
+    @Mock private CampaignRepository campaignRepository;
+    @Mock private MessageTemplateRepository messageTemplateRepository;
+    @Mock private PhoneService phoneService;
+    @Mock private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private CampaignContactBulkImporter importer;
+
+    private UUID companyId;
+    private Campaign campaign;
+    private List<MessageTemplate> templates;
+
+    @BeforeEach
+    void setUp() {
+        companyId = UUID.randomUUID();
+        campaign = Campaign.builder().id(UUID.randomUUID()).name("Campanha").build();
+        MessageTemplate template = MessageTemplate.builder().id(UUID.randomUUID()).content("Olá {{nome}}").build();
+        templates = List.of(template);
+
+        when(phoneService.normalize(anyString())).thenAnswer(invocation -> "+55" + invocation.getArgument(0));
+        when(companyRepository.getReferenceById(companyId)).thenReturn(Company.builder().id(companyId).build());
+        when(campaignRepository.getReferenceById(campaign.getId())).thenReturn(campaign);
+        when(messageTemplateRepository.getReferenceById(template.getId())).thenReturn(template);
+
+        when(customerRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            invocation.<List<Customer>>getArgument(0).forEach(c -> c.setId(UUID.randomUUID()));
+            return invocation.getArgument(0);
+        });
+        when(campaignContactRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            invocation.<List<CampaignContact>>getArgument(0).forEach(c -> c.setId(UUID.randomUUID()));
+            return invocation.getArgument(0);
+        });
+        when(conversationRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            invocation.<List<Conversation>>getArgument(0).forEach(c -> c.setId(UUID.randomUUID()));
+            return invocation.getArgument(0);
+        });
+        when(messageRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            invocation.<List<Message>>getArgument(0).forEach(m -> m.setId(UUID.randomUUID()));
+            return invocation.getArgument(0);
+        });
+    }
+
+    @Test
+    @DisplayName("Should create customers, contacts, conversations and drafts with one query per lookup")
+    void shouldImportChunkWithSetBasedLookups() {
+        List<ContactData> chunk = List.of(contact("Maria", "11911110000"), contact("João", "11922220000"));
+        when(customerRepository.findByCompanyIdAndPhoneIn(eq(companyId), anyCollection())).thenReturn(List.of());
+
+        ContactChunkResult result = importer.importChunk(campaign, chunk, templates, companyId);
+
+        assertEquals(2, result.getProcessed());
+        assertEquals(2, result.getCreated());
+        assertEquals(0, result.getDuplicates());
+        assertTrue(result.getErrors().isEmpty());
+
+        verify(customerRepository, times(1)).findByCompanyIdAndPhoneIn(eq(companyId), anyCollection());
+        verify(customerRepository, never()).findByPhoneAndCompanyId(anyString(), any());
+        // Customers novos não têm histórico nem conversas a consultar
+        verify(campaignContactRepository, never()).findByCustomerIdIn(anyCollection());
+        verify(participantRepository, never()).findCampaignParticipantsByCustomerIds(any(), anyCollection());
+
+        ArgumentCaptor<List<Message>> drafts = messageCaptor();
+        verify(messageRepository).saveAll(drafts.capture());
+        assertEquals(List.of("Olá Maria", "Olá João"), drafts.getValue().stream().map(Message::getContent).toList());
+        assertTrue(drafts.getValue().stream().allMatch(m ->
+            m.getStatus() == MessageStatus.DRAFT && m.getSenderType() == SenderType.AGENT && m.getCampaignContact() != null));
+
+        ArgumentCaptor<List<ConversationParticipant>> participants = participantCaptor();
+        verify(participantRepository).saveAll(participants.capture());
+        assertEquals(2, participants.getValue().size());
+
+        ArgumentCaptor<List<ConversationLastMessage>> lastMessages = lastMessageCaptor();
+        verify(conversationLastMessageRepository).saveAll(lastMessages.capture());
+        assertEquals(2, lastMessages.getValue().size());
+        verify(conversationLastMessageRepository, never()).upsertLastMessage(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should skip customers already in the campaign, with global opt-out or repeated in the chunk")
+    void shouldSkipDuplicatesAndOptOuts() {
+        Customer inCampaign = customer("+5511911110000", "Maria");
+        Customer optedOut = customer("+5511922220000", "João");
+        List<ContactData> chunk = List.of(
+            contact("Maria", "11911110000"),
+            contact("João", "11922220000"),
+            contact("Ana", "11933330000"),
+            contact("Ana repetida", "11933330000"));
+
+        when(customerRepository.findByCompanyIdAndPhoneIn(eq(companyId), anyCollection()))
+            .thenReturn(List.of(inCampaign, optedOut));
+        Campaign otherCampaign = Campaign.builder().id(UUID.randomUUID()).build();
+        when(campaignContactRepository.findByCustomerIdIn(anyCollection())).thenReturn(List.of(
+            CampaignContact.builder().campaign(campaign).customer(inCampaign).status(CampaignContactStatus.PENDING).build(),
+            CampaignContact.builder().campaign(otherCampaign).customer(optedOut).status(CampaignContactStatus.OPT_OUT).build()));
+
+        ContactChunkResult result = importer.importChunk(campaign, chunk, templates, companyId);
+
+        assertEquals(4, result.getProcessed());
+        assertEquals(1, result.getCreated());
+        assertEquals(3, result.getDuplicates());
+        assertEquals("Ana", result.getContacts().get(0).getCustomer().getName());
+        verify(campaignContactRepository, times(1)).findByCustomerIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should reuse the existing campaign conversation without adding a second draft")
+    void shouldReuseExistingConversationWithDraft() {
+        Customer existing = customer("+5511911110000", "Maria");
+        Conversation conversation = Conversation.builder().id(UUID.randomUUID()).campaign(campaign).build();
+
+        when(customerRepository.findByCompanyIdAndPhoneIn(eq(companyId), anyCollection())).thenReturn(List.of(existing));
+        when(campaignContactRepository.findByCustomerIdIn(anyCollection())).thenReturn(List.of());
+        when(participantRepository.findCampaignParticipantsByCustomerIds(eq(campaign.getId()), anyCollection()))
+            .thenReturn(List.of(ConversationParticipant.builder().conversation(conversation).customer(existing).build()));
+        when(messageRepository.findConversationIdsWithStatus(anyCollection(), eq(MessageStatus.DRAFT)))
+            .thenReturn(List.of(conversation.getId()));
+
+        ContactChunkResult result = importer.importChunk(campaign, List.of(contact("Maria", "11911110000")), templates, companyId);
+
+        assertEquals(1, result.getCreated());
+        ArgumentCaptor<List<Conversation>> conversations = conversationCaptor();
+        verify(conversationRepository).saveAll(conversations.capture());
+        assertTrue(conversations.getValue().isEmpty());
+        ArgumentCaptor<List<Message>> drafts = messageCaptor();
+        verify(messageRepository).saveAll(drafts.capture());
+        assertTrue(drafts.getValue().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should report rows without phone as errors")
+    void shouldReportRowsWithoutPhone() {
+        ContactData withoutPhone = contact("Sem telefone", null);
+        when(phoneService.normalize(null)).thenReturn(null);
+
+        ContactChunkResult result = importer.importChunk(campaign, List.of(withoutPhone), templates, companyId);
+
+        assertEquals(1, result.getProcessed());
+        assertEquals(0, result.getCreated());
+        assertEquals(1, result.getErrors().size());
+        verifyNoInteractions(customerRepository, campaignContactRepository, messageRepository);
+    }
+
+    @Test
+    @DisplayName("Should publish one invalidation with the phones of created and updated customers")
+    void shouldPublishCustomerChangesForTouchedPhones() {
+        Customer unchanged = customer("+5511911110000", "Maria");
+        Customer updated = customer("+5511922220000", "João");
+        ContactData updatedRow = contact("João", "11922220000");
+        updatedRow.setBirthDate(LocalDate.of(1990, 1, 1));
+        when(customerRepository.findByCompanyIdAndPhoneIn(eq(companyId), anyCollection()))
+            .thenReturn(List.of(unchanged, updated));
+        when(campaignContactRepository.findByCustomerIdIn(anyCollection())).thenReturn(List.of());
+
+        importer.importChunk(campaign,
+            List.of(contact("Maria", "11911110000"), updatedRow, contact("Ana", "11933330000")), templates, companyId);
+
+        ArgumentCaptor<CustomerChangedEvent> event = ArgumentCaptor.forClass(CustomerChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(companyId, event.getValue().getCompanyId());
+        assertEquals(Set.of("+5511922220000", "+5511933330000"), event.getValue().getPhones());
+    }
+
+    private ContactData contact(String name, String phone) {
+        ContactData contact = new ContactData();
+        contact.setName(name);
+        contact.setPhone(phone);
+        return contact;
+    }
+
+    private Customer customer(String phone, String name) {
+        return Customer.builder().id(UUID.randomUUID()).phone(phone).name(name).build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<Message>> messageCaptor() {
+        return ArgumentCaptor.forClass((Class<List<Message>>) (Class<?>) List.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<Conversation>> conversationCaptor() {
+        return ArgumentCaptor.forClass((Class<List<Conversation>>) (Class<?>) List.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<ConversationParticipant>> participantCaptor() {
+        return ArgumentCaptor.forClass((Class<List<ConversationParticipant>>) (Class<?>) List.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<ConversationLastMessage>> lastMessageCaptor() {
+        return ArgumentCaptor.forClass((Class<List<ConversationLastMessage>>) (Class<?>) List.class);
+    }
+}
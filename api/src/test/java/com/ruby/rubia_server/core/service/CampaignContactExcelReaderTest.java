@@ -0,0 +1,128 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.core.service.CampaignProcessingService.ContactData;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CampaignContactExcelReader Unit Tests")
+class CampaignContactExcelReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private CampaignContactExcelReader reader;
+
+    @BeforeEach
+    void setUp() {
+        reader = new CampaignContactExcelReader();
+    }
+
+    @Test
+    @DisplayName("Should stream contacts in fixed-size chunks")
+    void shouldStreamContactsInChunks() throws Exception {
+        Path file = writeWorkbook(7, true);
+        List<List<ContactData>> chunks = new ArrayList<>();
+
+        int total = reader.read(file, 3, chunks::add);
+
+        assertEquals(7, total);
+        assertEquals(List.of(3, 3, 1), chunks.stream().map(List::size).toList());
+    }
+
+    @Test
+    @DisplayName("Should map columns, numeric phones and date cells")
+    void shouldMapColumnsAndCellTypes() throws Exception {
+        Path file = writeWorkbook(1, true);
+        List<ContactData> contacts = new ArrayList<>();
+
+        reader.read(file, 10, contacts::addAll);
+
+        ContactData contact = contacts.get(0);
+        assertEquals("Doador 0", contact.getName());
+        assertEquals("11987650000", contact.getPhone());
+        assertEquals("O+", contact.getBloodType());
+        assertEquals(LocalDate.of(1990, 5, 20), contact.getBirthDate());
+        assertEquals(LocalDate.of(2024, 1, 15), contact.getLastDonation());
+    }
+
+    @Test
+    @DisplayName("Should skip rows without name")
+    void shouldSkipRowsWithoutName() throws Exception {
+        Path file = tempDir.resolve("contacts.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            Sheet sheet = workbook.createSheet();
+            sheet.createRow(0).createCell(0).setCellValue("Nome");
+            sheet.createRow(1).createCell(0).setCellValue("Maria");
+            sheet.createRow(2).createCell(1).setCellValue("sem nome");
+            sheet.createRow(3).createCell(0).setCellValue("João");
+            workbook.write(out);
+        }
+        List<ContactData> contacts = new ArrayList<>();
+
+        assertEquals(2, reader.read(file, 10, contacts::addAll));
+        assertEquals(List.of("Maria", "João"), contacts.stream().map(ContactData::getName).toList());
+    }
+
+    @Test
+    @DisplayName("Should reject sheet without name column")
+    void shouldRejectSheetWithoutNameColumn() throws Exception {
+        Path file = writeWorkbook(2, false);
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> reader.read(file, 10, chunk -> {}));
+        assertEquals("Coluna 'Nome' é obrigatória no arquivo Excel", error.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should reject files that are not xlsx")
+    void shouldRejectInvalidFile() throws Exception {
+        Path file = tempDir.resolve("invalid.xlsx");
+        Files.writeString(file, "not a spreadsheet");
+
+        assertThrows(IllegalArgumentException.class, () -> reader.read(file, 10, chunk -> {}));
+    }
+
+    private Path writeWorkbook(int rows, boolean withNameColumn) throws Exception {
+        Path file = tempDir.resolve("contacts.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            Sheet sheet = workbook.createSheet("Doadores");
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("dd/mm/yyyy"));
+
+            Row header = sheet.createRow(0);
+            String[] columns = {withNameColumn ? "Nome" : "Apelido", "DDDTelefoneCelular", "TelefoneCelular",
+                "TipoSanguineo", "DataNascimento", "DataUltimaDoacao"};
+            for (int i = 0; i < columns.length; i++) {
+                header.createCell(i).setCellValue(columns[i]);
+            }
+
+            for (int i = 0; i < rows; i++) {
+                Row row = sheet.createRow(i + 1);
+                row.createCell(0).setCellValue("Doador " + i);
+                row.createCell(1).setCellValue(11);
+                row.createCell(2).setCellValue(987650000 + i);
+                row.createCell(3).setCellValue("O+");
+                row.createCell(4).setCellValue(LocalDate.of(1990, 5, 20));
+                row.getCell(4).setCellStyle(dateStyle);
+                row.createCell(5).setCellValue("2024-01-15 00:00:00.000");
+            }
+            workbook.write(out);
+        }
+        return file;
+    }
+}
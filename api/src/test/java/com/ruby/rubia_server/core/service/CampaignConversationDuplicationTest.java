@@ -37,6 +37,9 @@ class CampaignConversationDuplicationTest {
     @Mock
     private ConversationService conversationService;
 
+    @Mock
+    private ChatLidRoutingCache routingCache;
+
     @InjectMocks
     private ChatLidMappingService chatLidMappingService;
 
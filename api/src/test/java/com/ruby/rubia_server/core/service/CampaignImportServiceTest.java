@@ -0,0 +1,206 @@
+package com.ruby.rubia_server.core.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruby.rubia_server.core.entity.Campaign;
+import com.ruby.rubia_server.core.entity.CampaignContact;
+import com.ruby.rubia_server.core.entity.MessageTemplate;
+import com.ruby.rubia_server.core.enums.CampaignImportStatus;
+import com.ruby.rubia_server.core.service.CampaignProcessingService.ContactChunkResult;
+import com.ruby.rubia_server.dto.campaign.CampaignImportJobDTO;
+import com.ruby.rubia_server.dto.campaign.ProcessCampaignDTO;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("CampaignImportService Unit Tests")
+class CampaignImportServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private CampaignProcessingService processingService;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    private ThreadPoolTaskExecutor importExecutor;
+    private CampaignImportService importService;
+
+    private Campaign campaign;
+    private List<MessageTemplate> templates;
+
+    @BeforeEach
+    void setUp() {
+        importExecutor = new ThreadPoolTaskExecutor();
+        importExecutor.setCorePoolSize(2);
+        importExecutor.setMaxPoolSize(2);
+        importExecutor.setQueueCapacity(0);
+        importExecutor.initialize();
+
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+
+        importService = new CampaignImportService(processingService, new CampaignContactExcelReader(),
+            redisTemplate, new ObjectMapper(), importExecutor);
+
+        campaign = Campaign.builder().id(UUID.randomUUID()).name("Campanha").build();
+        templates = List.of(MessageTemplate.builder().id(UUID.randomUUID()).content("Olá {{nome}}").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        importExecutor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should process every chunk and activate the campaign")
+    void shouldProcessChunksAndActivateCampaign() throws Exception {
+        int rows = CampaignProcessingService.IMPORT_CHUNK_SIZE * 2 + 10;
+        Path file = writeWorkbook(rows);
+        when(processingService.processContactChunk(eq(campaign), anyList(), eq(templates), any()))
+            .thenAnswer(invocation -> chunkResult(invocation.<List<?>>getArgument(1).size()));
+
+        CampaignImportJobDTO job = newJob();
+        importService.runImport(job, file, campaign, templates);
+
+        verify(processingService, times(3)).processContactChunk(eq(campaign), anyList(), eq(templates), any());
+        verify(processingService).activateCampaign(eq(campaign), argThat(ids -> ids.size() == rows), eq(job.getCompanyId()));
+        verify(processingService).deleteUpload(file);
+        assertEquals(CampaignImportStatus.COMPLETED, job.getStatus());
+        assertEquals(rows, job.getProcessed());
+        assertEquals(rows, job.getCreated());
+        assertNotNull(job.getFinishedAt());
+    }
+
+    @Test
+    @DisplayName("Should fail the job without activating the campaign when the sheet is invalid")
+    void shouldFailJobWhenSheetIsInvalid() throws Exception {
+        Path file = tempDir.resolve("invalid.xlsx");
+        Files.writeString(file, "not a spreadsheet");
+
+        CampaignImportJobDTO job = newJob();
+        importService.runImport(job, file, campaign, templates);
+
+        assertEquals(CampaignImportStatus.FAILED, job.getStatus());
+        assertNotNull(job.getFailureReason());
+        verify(processingService, never()).activateCampaign(any(), anyList(), any());
+        verify(processingService).deleteUpload(file);
+    }
+
+    @Test
+    @DisplayName("Should stop reading and fail the job when a chunk cannot be saved")
+    void shouldStopWhenChunkProcessingFails() throws Exception {
+        Path file = writeWorkbook(CampaignProcessingService.IMPORT_CHUNK_SIZE * 5);
+        when(processingService.processContactChunk(any(), anyList(), anyList(), any()))
+            .thenThrow(new RuntimeException("database unavailable"));
+
+        CampaignImportJobDTO job = newJob();
+        importService.runImport(job, file, campaign, templates);
+
+        assertEquals(CampaignImportStatus.FAILED, job.getStatus());
+        assertEquals("database unavailable", job.getFailureReason());
+        verify(processingService, times(1)).processContactChunk(any(), anyList(), anyList(), any());
+        verify(processingService, never()).activateCampaign(any(), anyList(), any());
+    }
+
+    @Test
+    @DisplayName("Should refuse a new import before creating the campaign while all slots are busy")
+    void shouldRefuseImportWhenNoSlotIsFree() throws Exception {
+        Path file = writeWorkbook(10);
+        CountDownLatch chunkStarted = new CountDownLatch(1);
+        CountDownLatch releaseChunk = new CountDownLatch(1);
+        when(processingService.validateTemplates(anyList(), any())).thenReturn(templates);
+        when(processingService.storeUpload(any())).thenReturn(file);
+        when(processingService.createCampaign(any(), any(), any(), any(), any(), any(), any(), any())).thenReturn(campaign);
+        when(processingService.processContactChunk(any(), anyList(), anyList(), any())).thenAnswer(invocation -> {
+            chunkStarted.countDown();
+            releaseChunk.await(10, TimeUnit.SECONDS);
+            return chunkResult(invocation.<List<?>>getArgument(1).size());
+        });
+
+        ProcessCampaignDTO request = ProcessCampaignDTO.builder()
+            .companyId(UUID.randomUUID())
+            .templateIds(List.of(templates.get(0).getId()))
+            .name("Campanha")
+            .build();
+        MultipartFile upload = mock(MultipartFile.class);
+
+        // The test executor has two threads, enough for exactly one import
+        importService.startImport(upload, request);
+        assertTrue(chunkStarted.await(10, TimeUnit.SECONDS));
+
+        assertThrows(IllegalStateException.class, () -> importService.startImport(upload, request));
+        verify(processingService, times(1)).createCampaign(any(), any(), any(), any(), any(), any(), any(), any());
+
+        releaseChunk.countDown();
+    }
+
+    private CampaignImportJobDTO newJob() {
+        return CampaignImportJobDTO.builder()
+            .jobId(UUID.randomUUID())
+            .campaignId(campaign.getId())
+            .companyId(UUID.randomUUID())
+            .status(CampaignImportStatus.QUEUED)
+            .errors(new ArrayList<>())
+            .startedAt(LocalDateTime.now())
+            .build();
+    }
+
+    private ContactChunkResult chunkResult(int size) {
+        ContactChunkResult result = mock(ContactChunkResult.class);
+        when(result.getProcessed()).thenReturn(size);
+        when(result.getCreated()).thenReturn(size);
+        when(result.getErrors()).thenReturn(List.of());
+        List<CampaignContact> contacts = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            contacts.add(CampaignContact.builder().id(UUID.randomUUID()).build());
+        }
+        when(result.getContacts()).thenReturn(contacts);
+        return result;
+    }
+
+    private Path writeWorkbook(int rows) throws Exception {
+        Path file = tempDir.resolve("contacts.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            Sheet sheet = workbook.createSheet();
+            sheet.createRow(0).createCell(0).setCellValue("Nome");
+            for (int i = 1; i <= rows; i++) {
+                sheet.createRow(i).createCell(0).setCellValue("Doador " + i);
+            }
+            workbook.write(out);
+        }
+        return file;
+    }
+}
@@ -78,7 +78,8 @@ class CampaignMessagingServiceRetryTest {
         
         service = new CampaignMessagingService(messagingService, delaySchedulingService, properties, 
                                              mockChatLidMappingService, mockConversationService, mockEventPublisher,
-                                             mockScheduledExecutor, mockMeterRegistry);
+                                             mockScheduledExecutor, Runnable::run, mockMeterRegistry,
+                                             mock(WhatsAppInstanceRateLimiter.class));
         
         // Setup basic mocks with UUIDs
         UUID campaignContactId = UUID.randomUUID();
@@ -327,14 +328,14 @@ class CampaignMessagingServiceRetryTest {
     @DisplayName("Should calculate random delay within configured range")
     void shouldCalculateRandomDelayWithinConfiguredRange() throws Exception {
         // Given
-        when(delaySchedulingService.scheduleMessageSend(any(), anyInt(), any()))
+        when(delaySchedulingService.scheduleAsyncSend(any(), anyInt(), any()))
             .thenReturn(CompletableFuture.completedFuture(true));
         
         // When
         service.sendSingleMessageAsync(campaignContact);
         
         // Then
-        verify(delaySchedulingService).scheduleMessageSend(
+        verify(delaySchedulingService).scheduleAsyncSend(
             eq(campaignContact),
             intThat(delay -> delay >= 15000 && delay <= 45000),
             any()
@@ -56,6 +56,9 @@ class CampaignMessagingServiceTest {
     @Mock
     private io.micrometer.core.instrument.MeterRegistry meterRegistry;
 
+    @Mock
+    private WhatsAppInstanceRateLimiter instanceRateLimiter;
+
     @InjectMocks
     private CampaignMessagingService campaignMessagingService;
 
@@ -112,7 +115,7 @@ class CampaignMessagingServiceTest {
     void sendSingleMessageAsync_WithValidCampaignContact_ShouldReturnCompletedFuture() {
         // Arrange
         CompletableFuture<Boolean> expectedFuture = CompletableFuture.completedFuture(true);
-        when(delaySchedulingService.scheduleMessageSend(eq(campaignContact), anyInt(), any()))
+        when(delaySchedulingService.scheduleAsyncSend(eq(campaignContact), anyInt(), any()))
                 .thenReturn(expectedFuture);
 
         // Act
@@ -122,7 +125,7 @@ class CampaignMessagingServiceTest {
         assertNotNull(result);
         assertTrue(result.isDone());
         assertTrue(result.join());
-        verify(delaySchedulingService).scheduleMessageSend(eq(campaignContact), anyInt(), any());
+        verify(delaySchedulingService).scheduleAsyncSend(eq(campaignContact), anyInt(), any());
     }
 
     @Test
@@ -134,7 +137,7 @@ class CampaignMessagingServiceTest {
         assertNotNull(result);
         assertTrue(result.isDone());
         assertFalse(result.join());
-        verify(delaySchedulingService, never()).scheduleMessageSend(any(), anyInt(), any());
+        verify(delaySchedulingService, never()).scheduleAsyncSend(any(), anyInt(), any());
     }
 
     @Test
@@ -149,7 +152,7 @@ class CampaignMessagingServiceTest {
         assertNotNull(result);
         assertTrue(result.isDone());
         assertFalse(result.join());
-        verify(delaySchedulingService, never()).scheduleMessageSend(any(), anyInt(), any());
+        verify(delaySchedulingService, never()).scheduleAsyncSend(any(), anyInt(), any());
     }
 
     @Test
@@ -164,7 +167,7 @@ class CampaignMessagingServiceTest {
         assertNotNull(result);
         assertTrue(result.isDone());
         assertFalse(result.join());
-        verify(delaySchedulingService, never()).scheduleMessageSend(any(), anyInt(), any());
+        verify(delaySchedulingService, never()).scheduleAsyncSend(any(), anyInt(), any());
     }
 
     @Test
@@ -179,7 +182,7 @@ class CampaignMessagingServiceTest {
         assertNotNull(result);
         assertTrue(result.isDone());
         assertFalse(result.join());
-        verify(delaySchedulingService, never()).scheduleMessageSend(any(), anyInt(), any());
+        verify(delaySchedulingService, never()).scheduleAsyncSend(any(), anyInt(), any());
     }
 
     @Test
@@ -194,6 +197,6 @@ class CampaignMessagingServiceTest {
         assertNotNull(result);
         assertTrue(result.isDone());
         assertFalse(result.join());
-        verify(delaySchedulingService, never()).scheduleMessageSend(any(), anyInt(), any());
+        verify(delaySchedulingService, never()).scheduleAsyncSend(any(), anyInt(), any());
     }
 }
\ No newline at end of file
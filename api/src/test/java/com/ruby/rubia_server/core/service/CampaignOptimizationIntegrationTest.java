@@ -78,7 +78,7 @@ class CampaignOptimizationIntegrationTest {
         campaignMessagingService = new CampaignMessagingService(
             messagingService, delaySchedulingService, properties, 
             mockChatLidMappingService, mockConversationService, mockEventPublisher,
-            mockScheduledExecutor, mockMeterRegistry);
+            mockScheduledExecutor, Runnable::run, mockMeterRegistry, mock(WhatsAppInstanceRateLimiter.class));
     }
 
     @Test
@@ -0,0 +1,105 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.core.entity.Campaign;
+import com.ruby.rubia_server.core.entity.MessageTemplate;
+import com.ruby.rubia_server.core.service.CampaignProcessingService.ContactChunkResult;
+import com.ruby.rubia_server.core.service.CampaignProcessingService.ContactData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CampaignProcessingService Unit Tests")
+class CampaignProcessingServiceTest {
+
+    @Mock private CampaignService campaignService;
+    @Mock private MessageTemplateService messageTemplateService;
+    @Mock private CampaignMessagingService campaignMessagingService;
+    @Mock private CampaignQueueStore campaignQueueStore;
+    @Mock private CampaignQueueItemCodec queueItemCodec;
+    @Mock private CampaignContactExcelReader contactReader;
+    @Mock private CampaignContactBulkImporter bulkImporter;
+
+    @InjectMocks
+    private CampaignProcessingService processingService;
+
+    private Campaign campaign;
+    private List<MessageTemplate> templates;
+    private UUID companyId;
+
+    @BeforeEach
+    void setUp() {
+        campaign = Campaign.builder().id(UUID.randomUUID()).build();
+        templates = List.of(MessageTemplate.builder().id(UUID.randomUUID()).content("Olá").build());
+        companyId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Should retry a failed chunk row by row and report only the bad row")
+    void shouldFallBackToRowByRowWhenChunkFails() {
+        ContactData good = contact("Maria");
+        ContactData bad = contact("João");
+        List<ContactData> chunk = List.of(good, bad);
+        when(bulkImporter.importChunk(campaign, chunk, templates, companyId))
+            .thenThrow(new DataIntegrityViolationException("value too long"));
+        when(bulkImporter.importChunk(campaign, List.of(good), templates, companyId)).thenReturn(processed(1));
+        when(bulkImporter.importChunk(campaign, List.of(bad), templates, companyId))
+            .thenThrow(new DataIntegrityViolationException("value too long"));
+
+        ContactChunkResult result = processingService.processContactChunk(campaign, chunk, templates, companyId);
+
+        assertEquals(2, result.getProcessed());
+        assertEquals(1, result.getErrors().size());
+        assertTrue(result.getErrors().get(0).contains("João"));
+    }
+
+    @Test
+    @DisplayName("Should propagate the chunk failure when no row can be saved")
+    void shouldPropagateWhenEveryRowFails() {
+        List<ContactData> chunk = List.of(contact("Maria"), contact("João"));
+        when(bulkImporter.importChunk(eq(campaign), anyList(), eq(templates), eq(companyId)))
+            .thenThrow(new IllegalStateException("database unavailable"));
+
+        assertThrows(IllegalStateException.class,
+            () -> processingService.processContactChunk(campaign, chunk, templates, companyId));
+        verify(bulkImporter, times(3)).importChunk(eq(campaign), anyList(), eq(templates), eq(companyId));
+    }
+
+    @Test
+    @DisplayName("Should reject legacy .xls uploads before reading them")
+    void shouldRejectLegacyXlsUpload() {
+        MockMultipartFile legacy = new MockMultipartFile("file", "contatos.xls",
+            "application/vnd.ms-excel", new byte[] {1, 2, 3});
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> processingService.validateExcelUpload(legacy));
+        assertTrue(error.getMessage().contains(".xlsx"));
+        verifyNoInteractions(contactReader);
+    }
+
+    private ContactData contact(String name) {
+        ContactData contact = new ContactData();
+        contact.setName(name);
+        contact.setPhone("11900000000");
+        return contact;
+    }
+
+    private ContactChunkResult processed(int rows) {
+        ContactChunkResult result = new ContactChunkResult();
+        result.addProcessed(rows);
+        return result;
+    }
+}
@@ -68,9 +68,9 @@ class CampaignQueueIntegrationTest extends AbstractIntegrationTest {
     private CompanyGroup companyGroup;
     private MessageTemplate messageTemplate;
 
-    private static final String QUEUE_KEY = "rubia:campaign:queue";
-    private static final String PROCESSING_KEY = "rubia:campaign:processing";
-    private static final String ERROR_KEY = "rubia:campaign:error";
+    private static final String QUEUE_KEY = CampaignQueueStore.QUEUE_KEY;
+    private static final String PROCESSING_KEY = CampaignQueueStore.PROCESSING_KEY;
+    private static final String ERROR_KEY = CampaignQueueStore.ERROR_KEY;
 
     @BeforeEach
     void setUp() {
@@ -78,6 +78,7 @@ class CampaignQueueIntegrationTest extends AbstractIntegrationTest {
         redisTemplate.delete(QUEUE_KEY);
         redisTemplate.delete(PROCESSING_KEY);
         redisTemplate.delete(ERROR_KEY);
+        redisTemplate.delete(CampaignQueueStore.LEGACY_PROCESSING_KEY);
 
         // Create test data
         companyGroup = new CompanyGroup();
@@ -169,9 +170,9 @@ class CampaignQueueIntegrationTest extends AbstractIntegrationTest {
     }
 
     @Test
-    @DisplayName("Should recover stuck messages after timeout")
+    @DisplayName("Should recover stuck messages after lease expires")
     void shouldRecoverStuckMessagesAfterTimeout() throws Exception {
-        // Given - Create stuck message in processing queue
+        // Given - Create stuck message in processing set with an expired lease
         Campaign campaign = createTestCampaign();
         List<Customer> customers = createTestCustomers(1);
         CampaignContact contact = createCampaignContacts(campaign, customers).get(0);
@@ -185,18 +186,77 @@ class CampaignQueueIntegrationTest extends AbstractIntegrationTest {
         String stuckItemJson = new com.fasterxml.jackson.databind.ObjectMapper()
                 .writeValueAsString(stuckItem);
         
-        // Add to processing queue
-        redisTemplate.opsForList().rightPush(PROCESSING_KEY, stuckItemJson);
+        // Add to processing set with lease deadline in the past
+        redisTemplate.opsForZSet().add(PROCESSING_KEY, stuckItemJson, System.currentTimeMillis() - 1000);
 
-        // Verify it's in processing queue
-        assertEquals(1L, redisTemplate.opsForList().size(PROCESSING_KEY));
+        // Verify it's in processing set
+        assertEquals(1L, redisTemplate.opsForZSet().zCard(PROCESSING_KEY));
         assertEquals(0L, redisTemplate.opsForZSet().count(QUEUE_KEY, 0, Double.MAX_VALUE));
 
         // When - Run recovery
         campaignQueueProcessor.recoverStuckMessages();
 
         // Then - Should move back to main queue
-        assertEquals(0L, redisTemplate.opsForList().size(PROCESSING_KEY));
+        assertEquals(0L, redisTemplate.opsForZSet().zCard(PROCESSING_KEY));
+        assertEquals(1L, redisTemplate.opsForZSet().count(QUEUE_KEY, 0, Double.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Should not recover messages with active lease")
+    void shouldNotRecoverMessagesWithActiveLease() {
+        // Given - Lease still valid for another minute
+        redisTemplate.opsForZSet().add(PROCESSING_KEY, "leased-item", System.currentTimeMillis() + 60000);
+
+        // When
+        campaignQueueProcessor.recoverStuckMessages();
+
+        // Then
+        assertEquals(1L, redisTemplate.opsForZSet().zCard(PROCESSING_KEY));
+        assertEquals(0L, redisTemplate.opsForZSet().count(QUEUE_KEY, 0, Double.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Should move items left in the legacy processing list back to the queue on startup")
+    void shouldDrainLegacyProcessingListOnStartup() throws Exception {
+        // Given - Items claimed by the previous version, stored as JSON in a plain LIST
+        Campaign campaign = createTestCampaign();
+        List<Customer> customers = createTestCustomers(3);
+        List<CampaignContact> contacts = createCampaignContacts(campaign, customers);
+        com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
+        for (CampaignContact contact : contacts) {
+            redisTemplate.opsForList().rightPush(CampaignQueueStore.LEGACY_PROCESSING_KEY,
+                objectMapper.writeValueAsString(new CampaignQueueProcessor.CampaignQueueItem(
+                    campaign.getId(), contact.getId(), company.getId().toString())));
+        }
+
+        // When
+        campaignQueueProcessor.migrateLegacyProcessingList();
+
+        // Then - list is gone and every item is due in the new queue
+        assertEquals(0L, redisTemplate.opsForList().size(CampaignQueueStore.LEGACY_PROCESSING_KEY));
+        assertEquals(3L, redisTemplate.opsForZSet().count(QUEUE_KEY, 0, System.currentTimeMillis()));
+    }
+
+    @Test
+    @DisplayName("Should only claim items whose scheduled time is due")
+    void shouldOnlyClaimDueItems() throws Exception {
+        // Given - One item due now and one scheduled for the future
+        Campaign campaign = createTestCampaign();
+        List<Customer> customers = createTestCustomers(2);
+        List<CampaignContact> contacts = createCampaignContacts(campaign, customers);
+        com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
+
+        String dueJson = objectMapper.writeValueAsString(new CampaignQueueProcessor.CampaignQueueItem(
+            campaign.getId(), contacts.get(0).getId(), company.getId().toString()));
+        String futureJson = objectMapper.writeValueAsString(new CampaignQueueProcessor.CampaignQueueItem(
+            campaign.getId(), contacts.get(1).getId(), company.getId().toString()));
+        redisTemplate.opsForZSet().add(QUEUE_KEY, dueJson, System.currentTimeMillis() - 1000);
+        redisTemplate.opsForZSet().add(QUEUE_KEY, futureJson, System.currentTimeMillis() + 600000);
+
+        // When
+        campaignQueueProcessor.processCampaignQueue();
+
+        // Then - future item stays in the queue
         assertEquals(1L, redisTemplate.opsForZSet().count(QUEUE_KEY, 0, Double.MAX_VALUE));
     }
 
@@ -292,7 +352,7 @@ class CampaignQueueIntegrationTest extends AbstractIntegrationTest {
         enqueueCampaignContacts(campaign, contacts);
 
         // Add some items to processing and error queues for testing
-        redisTemplate.opsForList().rightPush(PROCESSING_KEY, "processing-item-1");
+        redisTemplate.opsForZSet().add(PROCESSING_KEY, "processing-item-1", System.currentTimeMillis() + 60000);
         redisTemplate.opsForList().rightPush(ERROR_KEY, "error-item-1");
 
         // When
@@ -310,7 +370,7 @@ class CampaignQueueIntegrationTest extends AbstractIntegrationTest {
     @Test
     @DisplayName("Should handle shutdown gracefully")
     void shouldHandleShutdownGracefully() throws Exception {
-        // Given - Items in processing
+        // Given - Items leased by another node
         Campaign campaign = createTestCampaign();
         List<Customer> customers = createTestCustomers(2);
         List<CampaignContact> contacts = createCampaignContacts(campaign, customers);
@@ -325,18 +385,19 @@ class CampaignQueueIntegrationTest extends AbstractIntegrationTest {
         String item1Json = new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsString(item1);
         String item2Json = new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsString(item2);
 
-        redisTemplate.opsForList().rightPush(PROCESSING_KEY, item1Json);
-        redisTemplate.opsForList().rightPush(PROCESSING_KEY, item2Json);
+        long leaseDeadline = System.currentTimeMillis() + 60000;
+        redisTemplate.opsForZSet().add(PROCESSING_KEY, item1Json, leaseDeadline);
+        redisTemplate.opsForZSet().add(PROCESSING_KEY, item2Json, leaseDeadline);
 
-        assertEquals(2L, redisTemplate.opsForList().size(PROCESSING_KEY));
+        assertEquals(2L, redisTemplate.opsForZSet().zCard(PROCESSING_KEY));
         assertEquals(0L, redisTemplate.opsForZSet().count(QUEUE_KEY, 0, Double.MAX_VALUE));
 
         // When - Shutdown
         campaignQueueProcessor.shutdown();
 
-        // Then - Items should be moved back to main queue
-        assertEquals(0L, redisTemplate.opsForList().size(PROCESSING_KEY));
-        assertEquals(2L, redisTemplate.opsForZSet().count(QUEUE_KEY, 0, Double.MAX_VALUE));
+        // Then - Leases owned by other nodes are left for lease recovery
+        assertEquals(2L, redisTemplate.opsForZSet().zCard(PROCESSING_KEY));
+        assertEquals(0L, redisTemplate.opsForZSet().count(QUEUE_KEY, 0, Double.MAX_VALUE));
     }
 
     private Campaign createTestCampaign() {
@@ -376,7 +437,8 @@ class CampaignQueueIntegrationTest extends AbstractIntegrationTest {
         com.fasterxml.jackson.databind.ObjectMapper objectMapper = 
             new com.fasterxml.jackson.databind.ObjectMapper();
         
-        long baseTimestamp = System.currentTimeMillis();
+        // Agenda todos os itens no passado para que estejam vencidos no claim
+        long baseTimestamp = System.currentTimeMillis() - (contacts.size() * 1000L);
         
         for (int i = 0; i < contacts.size(); i++) {
             CampaignContact contact = contacts.get(i);
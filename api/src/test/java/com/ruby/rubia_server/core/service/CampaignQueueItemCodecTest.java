@@ -0,0 +1,129 @@
+package com.ruby.rubia_server.core.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruby.rubia_server.core.service.CampaignQueueProcessor.CampaignQueueItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CampaignQueueItemCodec Unit Tests")
+class CampaignQueueItemCodecTest {
+
+    private static final int BENCHMARK_ITERATIONS = 200_000;
+
+    private ObjectMapper objectMapper;
+    private CampaignQueueItemCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        codec = new CampaignQueueItemCodec(objectMapper);
+    }
+
+    @Test
+    @DisplayName("Should round-trip items in a fixed 57-byte payload")
+    void shouldRoundTripItems() throws Exception {
+        CampaignQueueItem original = newItem();
+
+        byte[] payload = codec.encode(original);
+        CampaignQueueItem decoded = codec.decode(payload);
+
+        assertEquals(CampaignQueueItemCodec.ENCODED_SIZE, payload.length);
+        assertEquals(57, payload.length);
+        assertEquals(original.getCampaignId(), decoded.getCampaignId());
+        assertEquals(original.getCampaignContactId(), decoded.getCampaignContactId());
+        assertEquals(original.getCompanyId(), decoded.getCompanyId());
+        assertEquals(original.getProcessingStartedAt(), decoded.getProcessingStartedAt());
+    }
+
+    @Test
+    @DisplayName("Should decode items written in the legacy double-encoded JSON format")
+    void shouldDecodeLegacyJsonItems() throws Exception {
+        CampaignQueueItem original = newItem();
+        String json = objectMapper.writeValueAsString(original);
+        String doubleEncoded = objectMapper.writeValueAsString(json);
+
+        CampaignQueueItem fromJson = codec.decode(json.getBytes(StandardCharsets.UTF_8));
+        CampaignQueueItem fromDoubleEncoded = codec.decode(doubleEncoded.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(original.getCampaignContactId(), fromJson.getCampaignContactId());
+        assertEquals(original.getCampaignContactId(), fromDoubleEncoded.getCampaignContactId());
+        assertEquals(original.getProcessingStartedAt(), fromDoubleEncoded.getProcessingStartedAt());
+    }
+
+    @Test
+    @DisplayName("Should keep null ids as null")
+    void shouldKeepNullIds() throws Exception {
+        CampaignQueueItem decoded = codec.decode(codec.encode(new CampaignQueueItem(null, null, null)));
+
+        assertNull(decoded.getCampaignId());
+        assertNull(decoded.getCampaignContactId());
+        assertNull(decoded.getCompanyId());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown payloads")
+    void shouldRejectUnknownPayloads() {
+        assertThrows(IOException.class, () -> codec.decode(new byte[0]));
+        assertThrows(IOException.class, () -> codec.decode(new byte[] {2, 0, 0}));
+        byte[] truncated = new byte[CampaignQueueItemCodec.ENCODED_SIZE - 1];
+        truncated[0] = CampaignQueueItemCodec.FORMAT_VERSION;
+        assertThrows(IOException.class, () -> codec.decode(truncated));
+    }
+
+    @Test
+    @DisplayName("Binary codec should be well over 3x smaller than the legacy encoding")
+    void binaryCodecShouldBeSmallerAndFasterThanJson() throws Exception {
+        CampaignQueueItem item = newItem();
+        byte[] binary = codec.encode(item);
+        byte[] legacy = objectMapper.writeValueAsString(objectMapper.writeValueAsString(item))
+            .getBytes(StandardCharsets.UTF_8);
+
+        // 57 bytes contra ~215 do JSON duplamente codificado
+        assertTrue(legacy.length * 10 >= binary.length * 35,
+            "legado=" + legacy.length + " bytes, binário=" + binary.length + " bytes");
+
+        // Aquecimento antes da medição
+        runBinary(item, BENCHMARK_ITERATIONS / 10);
+        runLegacy(item, BENCHMARK_ITERATIONS / 10);
+
+        long binaryNanos = runBinary(item, BENCHMARK_ITERATIONS);
+        long legacyNanos = runLegacy(item, BENCHMARK_ITERATIONS);
+
+        BenchmarkReport.print("queue item codec: binário %d bytes %.0f ns/op | json duplo %d bytes %.0f ns/op",
+            binary.length, (double) binaryNanos / BENCHMARK_ITERATIONS,
+            legacy.length, (double) legacyNanos / BENCHMARK_ITERATIONS);
+    }
+
+    private long runBinary(CampaignQueueItem item, int iterations) throws IOException {
+        long start = System.nanoTime();
+        long checksum = 0;
+        for (int i = 0; i < iterations; i++) {
+            checksum += codec.decode(codec.encode(item)).getProcessingStartedAt();
+        }
+        assertTrue(checksum != 0);
+        return System.nanoTime() - start;
+    }
+
+    private long runLegacy(CampaignQueueItem item, int iterations) throws IOException {
+        long start = System.nanoTime();
+        long checksum = 0;
+        for (int i = 0; i < iterations; i++) {
+            String stored = objectMapper.writeValueAsString(objectMapper.writeValueAsString(item));
+            String json = objectMapper.readValue(stored, String.class);
+            checksum += objectMapper.readValue(json, CampaignQueueItem.class).getProcessingStartedAt();
+        }
+        assertTrue(checksum != 0);
+        return System.nanoTime() - start;
+    }
+
+    private CampaignQueueItem newItem() {
+        return new CampaignQueueItem(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID().toString());
+    }
+}
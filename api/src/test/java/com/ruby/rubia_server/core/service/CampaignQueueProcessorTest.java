@@ -6,6 +6,7 @@ import com.ruby.rubia_server.core.entity.CampaignContact;
 import com.ruby.rubia_server.core.entity.Customer;
 import com.ruby.rubia_server.core.entity.Company;
 import com.ruby.rubia_server.core.enums.CampaignContactStatus;
+import com.ruby.rubia_server.core.exception.CampaignSendDeferredException;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,13 +16,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.ZSetOperations;
-import org.springframework.data.redis.core.ListOperations;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -33,50 +35,44 @@ import static org.mockito.Mockito.lenient;
 @DisplayName("CampaignQueueProcessor Unit Tests")
 class CampaignQueueProcessorTest {
 
+    private static final String COMPANY_ID = UUID.randomUUID().toString();
+
     @Mock
-    private RedisTemplate<String, Object> redisTemplate;
+    private CampaignQueueStore queueStore;
     
     @Mock
     private CampaignMessagingService messageService;
     
     @Mock
     private CampaignContactService campaignContactService;
-    
+
     @Mock
-    private ZSetOperations<String, Object> zSetOperations;
+    private ScheduledExecutorService scheduledExecutor;
     
-    @Mock
-    private ListOperations<String, Object> listOperations;
-
     private ObjectMapper objectMapper;
+    private CampaignQueueItemCodec codec;
     private Semaphore concurrencyLimiter;
     private Semaphore queueProcessingLimiter;
     private MeterRegistry meterRegistry;
     private CampaignQueueProcessor processor;
 
-    private static final String QUEUE_KEY = "rubia:campaign:queue";
-    private static final String PROCESSING_KEY = "rubia:campaign:processing";
-    private static final String ERROR_KEY = "rubia:campaign:error";
-
     @BeforeEach
     void setUp() {
         objectMapper = new ObjectMapper();
+        codec = new CampaignQueueItemCodec(objectMapper);
         concurrencyLimiter = new Semaphore(10);
         queueProcessingLimiter = new Semaphore(1);
         meterRegistry = new SimpleMeterRegistry();
 
-        // Setup Redis template mocks
-        lenient().when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
-        lenient().when(redisTemplate.opsForList()).thenReturn(listOperations);
-
         processor = new CampaignQueueProcessor(
-                redisTemplate,
+                queueStore,
                 messageService,
                 campaignContactService,
-                objectMapper,
+                codec,
                 concurrencyLimiter,
                 queueProcessingLimiter,
-                meterRegistry
+                meterRegistry,
+                scheduledExecutor
         );
     }
 
@@ -86,11 +82,11 @@ class CampaignQueueProcessorTest {
         // Given
         UUID campaignId = UUID.randomUUID();
         UUID contactId = UUID.randomUUID();
-        String companyId = "company-123";
+        String companyId = UUID.randomUUID().toString();
 
         CampaignQueueProcessor.CampaignQueueItem queueItem = 
             new CampaignQueueProcessor.CampaignQueueItem(campaignId, contactId, companyId);
-        String itemJson = objectMapper.writeValueAsString(queueItem);
+        byte[] itemJson = codec.encode(queueItem);
 
         CampaignContact mockContact = createMockCampaignContact(contactId, campaignId);
 
@@ -98,13 +94,12 @@ class CampaignQueueProcessorTest {
         when(campaignContactService.findByIdWithRelations(contactId)).thenReturn(Optional.of(mockContact));
         when(messageService.sendSingleMessageAsync(mockContact))
                 .thenReturn(CompletableFuture.completedFuture(true));
-        when(zSetOperations.count(QUEUE_KEY, 0, Double.MAX_VALUE)).thenReturn(1L);
-        when(listOperations.size(PROCESSING_KEY)).thenReturn(0L);
-        when(listOperations.size(ERROR_KEY)).thenReturn(0L);
+        when(queueStore.queueSize()).thenReturn(1L);
+        when(queueStore.processingSize()).thenReturn(0L);
+        when(queueStore.errorSize()).thenReturn(0L);
 
-        // Mock Redis pipeline operations
-        List<Object> pipelineResults = Arrays.asList(itemJson);
-        when(redisTemplate.executePipelined(any(org.springframework.data.redis.core.RedisCallback.class))).thenReturn(pipelineResults);
+        // Mock atomic claim from Redis
+        when(queueStore.claimDueItems(anyInt(), any())).thenReturn(List.of(itemJson));
 
         // When
         processor.processCampaignQueue();
@@ -112,7 +107,7 @@ class CampaignQueueProcessorTest {
         // Then
         verify(campaignContactService).findByIdWithRelations(contactId);
         verify(messageService).sendSingleMessageAsync(mockContact);
-        verify(listOperations).rightPush(PROCESSING_KEY, itemJson);
+        verify(queueStore).ack(itemJson);
     }
 
     @Test
@@ -121,21 +116,20 @@ class CampaignQueueProcessorTest {
         // Given
         UUID campaignId = UUID.randomUUID();
         UUID contactId = UUID.randomUUID();
-        String companyId = "company-123";
+        String companyId = UUID.randomUUID().toString();
 
         CampaignQueueProcessor.CampaignQueueItem queueItem = 
             new CampaignQueueProcessor.CampaignQueueItem(campaignId, contactId, companyId);
-        String itemJson = objectMapper.writeValueAsString(queueItem);
+        byte[] itemJson = codec.encode(queueItem);
 
         // Setup mocks - contact not found
         when(campaignContactService.findByIdWithRelations(contactId)).thenReturn(Optional.empty());
-        when(zSetOperations.count(QUEUE_KEY, 0, Double.MAX_VALUE)).thenReturn(1L);
-        when(listOperations.size(PROCESSING_KEY)).thenReturn(0L);
-        when(listOperations.size(ERROR_KEY)).thenReturn(0L);
+        when(queueStore.queueSize()).thenReturn(1L);
+        when(queueStore.processingSize()).thenReturn(0L);
+        when(queueStore.errorSize()).thenReturn(0L);
 
-        // Mock Redis pipeline operations
-        List<Object> pipelineResults = Arrays.asList(itemJson);
-        when(redisTemplate.executePipelined(any(org.springframework.data.redis.core.RedisCallback.class))).thenReturn(pipelineResults);
+        // Mock atomic claim from Redis
+        when(queueStore.claimDueItems(anyInt(), any())).thenReturn(List.of(itemJson));
 
         // When
         processor.processCampaignQueue();
@@ -143,7 +137,9 @@ class CampaignQueueProcessorTest {
         // Then
         verify(campaignContactService).findByIdWithRelations(contactId);
         verify(messageService, never()).sendSingleMessageAsync(any());
-        verify(listOperations).remove(PROCESSING_KEY, 1, itemJson);
+        verify(queueStore).deadLetter(itemJson);
+        // Concluído na própria thread: a tarefa não pode ficar registrada como ativa
+        assertEquals(0, processor.getProcessorStatus().get("activeTasks"));
     }
 
     @Test
@@ -152,24 +148,23 @@ class CampaignQueueProcessorTest {
         // Given
         UUID campaignId = UUID.randomUUID();
         UUID contactId = UUID.randomUUID();
-        String companyId = "company-123";
+        String companyId = UUID.randomUUID().toString();
 
         CampaignQueueProcessor.CampaignQueueItem queueItem = 
             new CampaignQueueProcessor.CampaignQueueItem(campaignId, contactId, companyId);
-        String itemJson = objectMapper.writeValueAsString(queueItem);
+        byte[] itemJson = codec.encode(queueItem);
 
         CampaignContact mockContact = createMockCampaignContact(contactId, campaignId);
         mockContact.setStatus(CampaignContactStatus.SENT); // Already sent
 
         // Setup mocks
         when(campaignContactService.findByIdWithRelations(contactId)).thenReturn(Optional.of(mockContact));
-        when(zSetOperations.count(QUEUE_KEY, 0, Double.MAX_VALUE)).thenReturn(1L);
-        when(listOperations.size(PROCESSING_KEY)).thenReturn(0L);
-        when(listOperations.size(ERROR_KEY)).thenReturn(0L);
+        when(queueStore.queueSize()).thenReturn(1L);
+        when(queueStore.processingSize()).thenReturn(0L);
+        when(queueStore.errorSize()).thenReturn(0L);
 
-        // Mock Redis pipeline operations
-        List<Object> pipelineResults = Arrays.asList(itemJson);
-        when(redisTemplate.executePipelined(any(org.springframework.data.redis.core.RedisCallback.class))).thenReturn(pipelineResults);
+        // Mock atomic claim from Redis
+        when(queueStore.claimDueItems(anyInt(), any())).thenReturn(List.of(itemJson));
 
         // When
         processor.processCampaignQueue();
@@ -177,7 +172,8 @@ class CampaignQueueProcessorTest {
         // Then
         verify(campaignContactService).findByIdWithRelations(contactId);
         verify(messageService, never()).sendSingleMessageAsync(any());
-        verify(listOperations).remove(PROCESSING_KEY, 1, itemJson);
+        verify(queueStore).ack(itemJson);
+        verify(queueStore, never()).deadLetter(any());
     }
 
     @Test
@@ -196,59 +192,77 @@ class CampaignQueueProcessorTest {
         assertEquals(0, concurrencyLimiter.availablePermits());
         
         // Verify that no Redis operations were called because of concurrency limit
-        verify(redisTemplate, never()).executePipelined(any(org.springframework.data.redis.core.RedisCallback.class));
+        verify(queueStore, never()).claimDueItems(anyInt(), any());
     }
 
     @Test
-    @DisplayName("Should recover stuck messages based on timeout")
-    void shouldRecoverStuckMessagesBasedOnTimeout() throws Exception {
+    @DisplayName("Should recover messages with expired leases")
+    void shouldRecoverMessagesWithExpiredLeases() {
         // Given
-        UUID campaignId = UUID.randomUUID();
-        UUID contactId = UUID.randomUUID();
-        String companyId = "company-123";
+        when(queueStore.reclaimExpired(anyInt())).thenReturn(2L);
 
-        // Create stuck item with old timestamp
-        CampaignQueueProcessor.CampaignQueueItem stuckItem = 
-            new CampaignQueueProcessor.CampaignQueueItem(campaignId, contactId, companyId);
-        stuckItem.setProcessingStartedAt(System.currentTimeMillis() - 400000L); // 6+ minutes ago
-        String stuckItemJson = objectMapper.writeValueAsString(stuckItem);
+        // When
+        processor.recoverStuckMessages();
 
-        // Setup mocks
-        when(listOperations.range(PROCESSING_KEY, 0, -1))
-                .thenReturn(Arrays.asList(stuckItemJson));
+        // Then
+        verify(queueStore).reclaimExpired(anyInt());
+        assertEquals(2.0, meterRegistry.counter("campaign.recovery.messages").count());
+    }
+
+    @Test
+    @DisplayName("Should not count recovery when no lease expired")
+    void shouldNotCountRecoveryWhenNoLeaseExpired() {
+        // Given
+        when(queueStore.reclaimExpired(anyInt())).thenReturn(0L);
 
         // When
         processor.recoverStuckMessages();
 
         // Then
-        verify(listOperations).remove(PROCESSING_KEY, 1, stuckItemJson);
-        verify(zSetOperations).add(eq(QUEUE_KEY), eq(stuckItemJson), anyDouble());
+        assertEquals(0.0, meterRegistry.counter("campaign.recovery.messages").count());
     }
 
     @Test
-    @DisplayName("Should not recover fresh messages")
-    void shouldNotRecoverFreshMessages() throws Exception {
+    @DisplayName("Should claim items with processing lease")
+    void shouldClaimItemsWithProcessingLease() {
         // Given
-        UUID campaignId = UUID.randomUUID();
-        UUID contactId = UUID.randomUUID();
-        String companyId = "company-123";
+        when(queueStore.claimDueItems(anyInt(), any())).thenReturn(List.of());
 
-        // Create fresh item with recent timestamp
-        CampaignQueueProcessor.CampaignQueueItem freshItem = 
-            new CampaignQueueProcessor.CampaignQueueItem(campaignId, contactId, companyId);
-        freshItem.setProcessingStartedAt(System.currentTimeMillis() - 60000L); // 1 minute ago
-        String freshItemJson = objectMapper.writeValueAsString(freshItem);
+        // When
+        processor.processCampaignQueue();
 
-        // Setup mocks
-        when(listOperations.range(PROCESSING_KEY, 0, -1))
-                .thenReturn(Arrays.asList(freshItemJson));
+        // Then - claims at most the batch size with the processing timeout as lease
+        verify(queueStore).claimDueItems(eq(10), eq(java.time.Duration.ofMinutes(5)));
+        verifyNoInteractions(campaignContactService);
+    }
+
+    @Test
+    @DisplayName("Should requeue claimed item when no concurrency slot is left")
+    void shouldRequeueClaimedItemWhenNoConcurrencySlotIsLeft() throws Exception {
+        // Given - only one permit available but two items claimed
+        concurrencyLimiter.acquire(9);
+        CampaignQueueProcessor.CampaignQueueItem first =
+            new CampaignQueueProcessor.CampaignQueueItem(UUID.randomUUID(), UUID.randomUUID(), COMPANY_ID);
+        CampaignQueueProcessor.CampaignQueueItem second =
+            new CampaignQueueProcessor.CampaignQueueItem(UUID.randomUUID(), UUID.randomUUID(), COMPANY_ID);
+        byte[] firstJson = codec.encode(first);
+        byte[] secondJson = codec.encode(second);
+
+        when(queueStore.claimDueItems(anyInt(), any())).thenReturn(List.of(firstJson, secondJson));
+        CampaignContact pendingContact = createMockCampaignContact(first.getCampaignContactId(), first.getCampaignId());
+        when(campaignContactService.findByIdWithRelations(first.getCampaignContactId())).thenReturn(Optional.of(pendingContact));
+        // First send stays in flight, holding the last permit
+        when(messageService.sendSingleMessageAsync(pendingContact)).thenReturn(new CompletableFuture<>());
 
         // When
-        processor.recoverStuckMessages();
+        long before = System.currentTimeMillis();
+        processor.processCampaignQueue();
 
-        // Then
-        verify(listOperations, never()).remove(eq(PROCESSING_KEY), eq(1), eq(freshItemJson));
-        verify(zSetOperations, never()).add(eq(QUEUE_KEY), eq(freshItemJson), anyDouble());
+        // Then - requeued with a backoff so the next claim does not pick it straight back up
+        ArgumentCaptor<Long> score = ArgumentCaptor.forClass(Long.class);
+        verify(queueStore).requeue(eq(secondJson), score.capture());
+        assertTrue(score.getValue() >= before + 1000);
+        verify(queueStore, never()).requeue(eq(firstJson), anyLong());
     }
 
     @Test
@@ -257,11 +271,11 @@ class CampaignQueueProcessorTest {
         // Given - Create a scenario where items are processed to trigger updateMetrics()
         UUID campaignId = UUID.randomUUID();
         UUID contactId = UUID.randomUUID();
-        String companyId = "company-123";
+        String companyId = UUID.randomUUID().toString();
 
         CampaignQueueProcessor.CampaignQueueItem queueItem = 
             new CampaignQueueProcessor.CampaignQueueItem(campaignId, contactId, companyId);
-        String itemJson = objectMapper.writeValueAsString(queueItem);
+        byte[] itemJson = codec.encode(queueItem);
 
         CampaignContact mockContact = createMockCampaignContact(contactId, campaignId);
 
@@ -269,21 +283,20 @@ class CampaignQueueProcessorTest {
         when(campaignContactService.findByIdWithRelations(contactId)).thenReturn(Optional.of(mockContact));
         when(messageService.sendSingleMessageAsync(mockContact))
                 .thenReturn(CompletableFuture.completedFuture(true));
-        when(zSetOperations.count(QUEUE_KEY, 0, Double.MAX_VALUE)).thenReturn(5L);
-        when(listOperations.size(PROCESSING_KEY)).thenReturn(2L);
-        when(listOperations.size(ERROR_KEY)).thenReturn(1L);
+        when(queueStore.queueSize()).thenReturn(5L);
+        when(queueStore.processingSize()).thenReturn(2L);
+        when(queueStore.errorSize()).thenReturn(1L);
 
-        // Mock Redis pipeline operations with at least one item
-        List<Object> pipelineResults = Arrays.asList(itemJson);
-        when(redisTemplate.executePipelined(any(org.springframework.data.redis.core.RedisCallback.class))).thenReturn(pipelineResults);
+        // Mock atomic claim with at least one item
+        when(queueStore.claimDueItems(anyInt(), any())).thenReturn(List.of(itemJson));
 
         // When
         processor.processCampaignQueue();
 
         // Then - Verify that Redis operations were called for metrics during updateMetrics()
-        verify(zSetOperations).count(QUEUE_KEY, 0, Double.MAX_VALUE);
-        verify(listOperations).size(PROCESSING_KEY);
-        verify(listOperations).size(ERROR_KEY);
+        verify(queueStore).queueSize();
+        verify(queueStore).processingSize();
+        verify(queueStore).errorSize();
         
         // Verify that the meterRegistry was used to record gauge metrics
         assertTrue(meterRegistry.getMeters().stream()
@@ -300,11 +313,11 @@ class CampaignQueueProcessorTest {
         // Given
         UUID campaignId = UUID.randomUUID();
         UUID contactId = UUID.randomUUID();
-        String companyId = "company-123";
+        String companyId = UUID.randomUUID().toString();
 
         CampaignQueueProcessor.CampaignQueueItem queueItem = 
             new CampaignQueueProcessor.CampaignQueueItem(campaignId, contactId, companyId);
-        String itemJson = objectMapper.writeValueAsString(queueItem);
+        byte[] itemJson = codec.encode(queueItem);
 
         CampaignContact mockContact = createMockCampaignContact(contactId, campaignId);
 
@@ -313,13 +326,12 @@ class CampaignQueueProcessorTest {
         when(messageService.sendSingleMessageAsync(mockContact))
                 .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Messaging failed")));
 
-        when(zSetOperations.count(QUEUE_KEY, 0, Double.MAX_VALUE)).thenReturn(1L);
-        when(listOperations.size(PROCESSING_KEY)).thenReturn(0L);
-        when(listOperations.size(ERROR_KEY)).thenReturn(0L);
+        when(queueStore.queueSize()).thenReturn(1L);
+        when(queueStore.processingSize()).thenReturn(0L);
+        when(queueStore.errorSize()).thenReturn(0L);
 
-        // Mock Redis pipeline operations
-        List<Object> pipelineResults = Arrays.asList(itemJson);
-        when(redisTemplate.executePipelined(any(org.springframework.data.redis.core.RedisCallback.class))).thenReturn(pipelineResults);
+        // Mock atomic claim from Redis
+        when(queueStore.claimDueItems(anyInt(), any())).thenReturn(List.of(itemJson));
 
         // When
         processor.processCampaignQueue();
@@ -327,8 +339,55 @@ class CampaignQueueProcessorTest {
         // Then
         verify(campaignContactService).findByIdWithRelations(contactId);
         verify(messageService).sendSingleMessageAsync(mockContact);
-        verify(listOperations).remove(PROCESSING_KEY, 1, itemJson);
-        verify(listOperations).rightPush(ERROR_KEY, itemJson);
+        verify(queueStore).deadLetter(itemJson);
+        verify(queueStore, never()).ack(itemJson);
+    }
+
+    @Test
+    @DisplayName("Should reschedule item when instance rate limit defers the send")
+    void shouldRescheduleItemWhenSendIsDeferred() throws Exception {
+        // Given
+        UUID campaignId = UUID.randomUUID();
+        UUID contactId = UUID.randomUUID();
+
+        byte[] itemJson = codec.encode(
+            new CampaignQueueProcessor.CampaignQueueItem(campaignId, contactId, COMPANY_ID));
+        CampaignContact mockContact = createMockCampaignContact(contactId, campaignId);
+
+        when(campaignContactService.findByIdWithRelations(contactId)).thenReturn(Optional.of(mockContact));
+        when(messageService.sendSingleMessageAsync(mockContact))
+                .thenReturn(CompletableFuture.failedFuture(new CompletionException(
+                    new CampaignSendDeferredException(60_000L, "rate limited"))));
+        when(queueStore.claimDueItems(anyInt(), any())).thenReturn(List.of(itemJson));
+
+        long before = System.currentTimeMillis();
+
+        // When
+        processor.processCampaignQueue();
+
+        // Then
+        ArgumentCaptor<Long> score = ArgumentCaptor.forClass(Long.class);
+        verify(queueStore).requeue(eq(itemJson), score.capture());
+        assertTrue(score.getValue() >= before + 60_000L);
+        verify(queueStore, never()).deadLetter(itemJson);
+        verify(queueStore, never()).ack(itemJson);
+        assertEquals(1.0, meterRegistry.counter("campaign.processing.deferred").count());
+    }
+
+    @Test
+    @DisplayName("Should dead-letter unreadable queue items without touching the database")
+    void shouldDeadLetterUnreadableItems() {
+        // Given
+        byte[] garbage = {9, 9, 9};
+        when(queueStore.claimDueItems(anyInt(), any())).thenReturn(List.of(garbage));
+
+        // When
+        processor.processCampaignQueue();
+
+        // Then
+        verify(queueStore).deadLetter(garbage);
+        verifyNoInteractions(campaignContactService, messageService);
+        assertEquals(10, concurrencyLimiter.availablePermits());
     }
 
     @Test
@@ -360,9 +419,9 @@ class CampaignQueueProcessorTest {
     @DisplayName("Should return processor status correctly")
     void shouldReturnProcessorStatusCorrectly() {
         // Given
-        when(zSetOperations.count(QUEUE_KEY, 0, Double.MAX_VALUE)).thenReturn(3L);
-        when(listOperations.size(PROCESSING_KEY)).thenReturn(1L);
-        when(listOperations.size(ERROR_KEY)).thenReturn(0L);
+        when(queueStore.queueSize()).thenReturn(3L);
+        when(queueStore.processingSize()).thenReturn(1L);
+        when(queueStore.errorSize()).thenReturn(0L);
 
         // When
         Map<String, Object> status = processor.getProcessorStatus();
@@ -378,6 +437,98 @@ class CampaignQueueProcessorTest {
         assertEquals(true, status.get("canProcessQueue"));
     }
 
+    @Test
+    @DisplayName("Should drain all due items in a single pass")
+    void shouldDrainAllDueItemsInSinglePass() throws Exception {
+        // Given - a full batch followed by a partial one
+        List<byte[]> fullBatch = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            fullBatch.add(codec.encode(
+                new CampaignQueueProcessor.CampaignQueueItem(UUID.randomUUID(), UUID.randomUUID(), COMPANY_ID)));
+        }
+        byte[] lastItem = codec.encode(
+            new CampaignQueueProcessor.CampaignQueueItem(UUID.randomUUID(), UUID.randomUUID(), COMPANY_ID));
+        when(queueStore.claimDueItems(anyInt(), any()))
+            .thenReturn(fullBatch)
+            .thenReturn(List.of(lastItem));
+        when(campaignContactService.findByIdWithRelations(any())).thenReturn(Optional.empty());
+
+        // When
+        processor.processCampaignQueue();
+
+        // Then
+        verify(queueStore, times(2)).claimDueItems(anyInt(), any());
+        verify(campaignContactService, times(11)).findByIdWithRelations(any());
+    }
+
+    @Test
+    @DisplayName("Should schedule next poll at the next due item")
+    void shouldScheduleNextPollAtNextDueItem() {
+        // Given
+        when(queueStore.claimDueItems(anyInt(), any())).thenReturn(List.of());
+        when(queueStore.nextDueAt()).thenReturn(Optional.of(System.currentTimeMillis() + 2_000));
+
+        // When
+        processor.processCampaignQueue();
+
+        // Then - sleeps until the item is due instead of a fixed interval
+        ArgumentCaptor<Long> delay = ArgumentCaptor.forClass(Long.class);
+        verify(scheduledExecutor).schedule(any(Runnable.class), delay.capture(), eq(TimeUnit.MILLISECONDS));
+        assertTrue(delay.getValue() > 1_000 && delay.getValue() <= 2_000);
+    }
+
+    @Test
+    @DisplayName("Should cap idle sleep when queue is empty")
+    void shouldCapIdleSleepWhenQueueIsEmpty() {
+        // Given
+        when(queueStore.claimDueItems(anyInt(), any())).thenReturn(List.of());
+        when(queueStore.nextDueAt()).thenReturn(Optional.empty());
+
+        // When
+        processor.processCampaignQueue();
+
+        // Then
+        ArgumentCaptor<Long> delay = ArgumentCaptor.forClass(Long.class);
+        verify(scheduledExecutor).schedule(any(Runnable.class), delay.capture(), eq(TimeUnit.MILLISECONDS));
+        assertTrue(delay.getValue() <= 30_000);
+    }
+
+    @Test
+    @DisplayName("Should wake up earlier when items are enqueued")
+    void shouldWakeUpEarlierWhenItemsAreEnqueued() {
+        // Given - next poll scheduled for the idle cap
+        ScheduledFuture<?> idleWakeUp = mock(ScheduledFuture.class);
+        doReturn(idleWakeUp).when(scheduledExecutor).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        when(queueStore.claimDueItems(anyInt(), any())).thenReturn(List.of());
+        when(queueStore.nextDueAt()).thenReturn(Optional.empty());
+        processor.processCampaignQueue();
+
+        // When - an item is enqueued for right now
+        processor.onItemsEnqueued(System.currentTimeMillis());
+
+        // Then
+        verify(idleWakeUp).cancel(false);
+        verify(scheduledExecutor, times(2)).schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("Should keep earlier wake up when later items are enqueued")
+    void shouldKeepEarlierWakeUpWhenLaterItemsAreEnqueued() {
+        // Given
+        ScheduledFuture<?> wakeUp = mock(ScheduledFuture.class);
+        doReturn(wakeUp).when(scheduledExecutor).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        when(queueStore.claimDueItems(anyInt(), any())).thenReturn(List.of());
+        when(queueStore.nextDueAt()).thenReturn(Optional.of(System.currentTimeMillis() + 1_000));
+        processor.processCampaignQueue();
+
+        // When
+        processor.onItemsEnqueued(System.currentTimeMillis() + 10_000);
+
+        // Then
+        verify(wakeUp, never()).cancel(anyBoolean());
+        verify(scheduledExecutor, times(1)).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
     private CampaignContact createMockCampaignContact(UUID contactId, UUID campaignId) {
         CampaignContact contact = new CampaignContact();
         contact.setId(contactId);
@@ -0,0 +1,212 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.config.TestRedisContainerConfiguration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.testcontainers.containers.GenericContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.ruby.rubia_server.core.service.BenchmarkReport.report;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark de throughput do protocolo de claim/ack da fila de campanhas contra um Redis real.
+ * Compara o fluxo antigo (zPopMin em pipeline + LIST de processamento com LREM) com o
+ * claim via script Lua + ZSET de leases.
+ */
+@DisplayName("Campaign Queue Store Benchmark")
+class CampaignQueueStoreBenchmarkIntegrationTest {
+
+    private static final int ITEM_COUNT = 10_000;
+    private static final int BATCH_SIZE = 10;
+    private static final String LEGACY_PROCESSING_KEY = "rubia:campaign:processing";
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+    private static RedisTemplate<String, byte[]> queueTemplate;
+
+    private CampaignQueueStore queueStore;
+
+    @BeforeAll
+    static void startRedis() {
+        GenericContainer<?> redis = TestRedisContainerConfiguration.getRedisContainer();
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        queueTemplate = new RedisTemplate<>();
+        queueTemplate.setConnectionFactory(connectionFactory);
+        queueTemplate.setKeySerializer(new StringRedisSerializer());
+        queueTemplate.setValueSerializer(RedisSerializer.byteArray());
+        queueTemplate.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.delete(List.of(
+            CampaignQueueStore.QUEUE_KEY,
+            CampaignQueueStore.PROCESSING_KEY,
+            CampaignQueueStore.ERROR_KEY,
+            LEGACY_PROCESSING_KEY));
+        queueStore = new CampaignQueueStore(queueTemplate);
+    }
+
+    @Test
+    @DisplayName("Lua claim/ack should drain the queue without losing items")
+    void luaClaimAckShouldDrainQueue() {
+        enqueueDueItems(ITEM_COUNT);
+
+        long start = System.nanoTime();
+        int processed = 0;
+        List<byte[]> batch;
+        while (!(batch = queueStore.claimDueItems(BATCH_SIZE, Duration.ofMinutes(5))).isEmpty()) {
+            for (byte[] item : batch) {
+                assertTrue(queueStore.ack(item));
+                processed++;
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        assertEquals(ITEM_COUNT, processed);
+        assertEquals(0L, queueStore.queueSize());
+        assertEquals(0L, queueStore.processingSize());
+        report("lua-claim + zrem-ack", processed, elapsedNanos);
+    }
+
+    @Test
+    @DisplayName("Legacy pipelined zPopMin + LREM baseline")
+    void legacyPopAndListShouldDrainQueue() {
+        enqueueDueItems(ITEM_COUNT);
+
+        long start = System.nanoTime();
+        int processed = 0;
+        while (true) {
+            List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (int i = 0; i < BATCH_SIZE; i++) {
+                    connection.zSetCommands().zPopMin(CampaignQueueStore.QUEUE_KEY.getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            });
+
+            List<String> batch = new ArrayList<>();
+            for (Object result : results) {
+                if (result instanceof TypedTuple<?> tuple && tuple.getValue() != null) {
+                    String item = tuple.getValue().toString();
+                    batch.add(item);
+                    redisTemplate.opsForList().rightPush(LEGACY_PROCESSING_KEY, item);
+                }
+            }
+            if (batch.isEmpty()) {
+                break;
+            }
+            for (String item : batch) {
+                redisTemplate.opsForList().remove(LEGACY_PROCESSING_KEY, 1, item);
+                processed++;
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        assertEquals(ITEM_COUNT, processed);
+        report("pipelined zpopmin + lrem", processed, elapsedNanos);
+    }
+
+    @Test
+    @DisplayName("Claim should skip future items and reclaim expired leases")
+    void claimShouldRespectDueTimeAndLeases() {
+        long now = System.currentTimeMillis();
+        redisTemplate.opsForZSet().add(CampaignQueueStore.QUEUE_KEY, "due", now - 1000);
+        redisTemplate.opsForZSet().add(CampaignQueueStore.QUEUE_KEY, "future", now + 600_000);
+
+        List<byte[]> claimed = queueStore.claimDueItems(BATCH_SIZE, Duration.ofMillis(1));
+        assertEquals(List.of("due"), asStrings(claimed));
+        assertEquals(1L, queueStore.processingSize());
+
+        // Lease de 1ms já expirou: item volta para a fila
+        sleepQuietly(5);
+        assertEquals(1L, queueStore.reclaimExpired(100));
+        assertEquals(0L, queueStore.processingSize());
+        assertEquals(2L, queueStore.queueSize());
+
+        // Ack de item cujo lease foi recuperado não tem efeito
+        assertFalse(queueStore.ack(bytes("due")));
+
+        List<byte[]> reclaimed = queueStore.claimDueItems(BATCH_SIZE, Duration.ofMinutes(5));
+        assertEquals(List.of("due"), asStrings(reclaimed));
+        assertTrue(queueStore.deadLetter(bytes("due")));
+        assertFalse(queueStore.requeue(bytes("due"), now));
+        assertEquals(1L, queueStore.errorSize());
+    }
+
+    @Test
+    @DisplayName("Chunked ZADD enqueue should keep spacing and beat one ZADD per item")
+    void bulkEnqueueShouldKeepScoresAndOrdering() {
+        List<byte[]> items = new ArrayList<>(ITEM_COUNT);
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            items.add(bytes(UUID.randomUUID().toString()));
+        }
+        long firstScore = System.currentTimeMillis();
+
+        long start = System.nanoTime();
+        assertEquals(ITEM_COUNT, queueStore.enqueueAll(items, firstScore, 1000));
+        report("chunked zadd enqueue", ITEM_COUNT, System.nanoTime() - start);
+
+        assertEquals(ITEM_COUNT, queueStore.queueSize());
+        assertEquals(firstScore, queueStore.nextDueAt().orElseThrow());
+        Double lastScore = queueTemplate.opsForZSet().score(CampaignQueueStore.QUEUE_KEY, items.get(ITEM_COUNT - 1));
+        assertEquals(firstScore + (ITEM_COUNT - 1) * 1000.0, lastScore);
+
+        redisTemplate.delete(CampaignQueueStore.QUEUE_KEY);
+        start = System.nanoTime();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            queueTemplate.opsForZSet().add(CampaignQueueStore.QUEUE_KEY, items.get(i), firstScore + i * 1000.0);
+        }
+        report("zadd per item", ITEM_COUNT, System.nanoTime() - start);
+    }
+
+    private void enqueueDueItems(int count) {
+        long baseScore = System.currentTimeMillis() - count;
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            byte[] key = CampaignQueueStore.QUEUE_KEY.getBytes(StandardCharsets.UTF_8);
+            for (int i = 0; i < count; i++) {
+                connection.zSetCommands().zAdd(key, baseScore + i,
+                    UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> asStrings(List<byte[]> items) {
+        return items.stream().map(item -> new String(item, StandardCharsets.UTF_8)).toList();
+    }
+
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
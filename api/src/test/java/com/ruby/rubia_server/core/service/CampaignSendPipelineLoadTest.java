@@ -0,0 +1,133 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.core.config.CampaignConfiguration;
+import com.ruby.rubia_server.core.config.CampaignMessagingProperties;
+import com.ruby.rubia_server.core.entity.Campaign;
+import com.ruby.rubia_server.core.entity.CampaignContact;
+import com.ruby.rubia_server.core.entity.Company;
+import com.ruby.rubia_server.core.entity.Customer;
+import com.ruby.rubia_server.core.entity.MessageResult;
+import com.ruby.rubia_server.core.entity.MessageTemplate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Carga sobre o pipeline de envio real (scheduler com uma única thread, como o padrão do
+ * Spring Boot): com 1.000 envios presos na chamada HTTP, o scheduler precisa continuar livre.
+ */
+@DisplayName("Campaign send pipeline load test")
+class CampaignSendPipelineLoadTest {
+
+    private static final int SENDS = 1_000;
+
+    private ThreadPoolTaskScheduler taskScheduler;
+    private ThreadPoolTaskExecutor sendExecutor;
+    private ScheduledExecutorService retryExecutor;
+    private MessagingService messagingService;
+    private CampaignMessagingService campaignMessagingService;
+
+    @BeforeEach
+    void setUp() {
+        taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.setPoolSize(1);
+        taskScheduler.setThreadNamePrefix("test-scheduler-");
+        taskScheduler.initialize();
+
+        sendExecutor = (ThreadPoolTaskExecutor) new CampaignConfiguration().campaignSendExecutor(false, 50);
+        retryExecutor = Executors.newSingleThreadScheduledExecutor();
+
+        CampaignMessagingProperties properties = new CampaignMessagingProperties();
+        properties.setBusinessHoursOnly(false);
+        properties.setMinDelayMs(0);
+        properties.setMaxDelayMs(0);
+
+        messagingService = mock(MessagingService.class);
+
+        campaignMessagingService = new CampaignMessagingService(
+            messagingService,
+            new CampaignDelaySchedulingService(taskScheduler, properties),
+            properties,
+            mock(ChatLidMappingService.class),
+            mock(ConversationService.class),
+            mock(ApplicationEventPublisher.class),
+            retryExecutor,
+            sendExecutor,
+            new SimpleMeterRegistry(),
+            mock(WhatsAppInstanceRateLimiter.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        sendExecutor.shutdown();
+        retryExecutor.shutdownNow();
+        taskScheduler.shutdown();
+    }
+
+    @Test
+    @DisplayName("Scheduler thread stays free while 1,000 sends are in flight")
+    void schedulerStaysFreeWhileSendsAreInFlight() throws Exception {
+        CountDownLatch sendsStarted = new CountDownLatch(sendExecutor.getMaxPoolSize());
+        CountDownLatch releaseSends = new CountDownLatch(1);
+        when(messagingService.sendMessage(anyString(), anyString(), any(Company.class))).thenAnswer(invocation -> {
+            sendsStarted.countDown();
+            releaseSends.await();
+            return MessageResult.success("msg-" + UUID.randomUUID(), "sent", "test");
+        });
+
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (CampaignContact contact : createContacts(SENDS)) {
+            futures.add(campaignMessagingService.sendSingleMessageAsync(contact));
+        }
+
+        // Todas as threads de envio ocupadas e o restante enfileirado no pool de envio
+        assertTrue(sendsStarted.await(10, TimeUnit.SECONDS), "Send pool should be saturated");
+        assertTrue(futures.stream().noneMatch(CompletableFuture::isDone));
+
+        long probeStart = System.nanoTime();
+        CompletableFuture<Long> probe = new CompletableFuture<>();
+        taskScheduler.schedule(() -> probe.complete(System.nanoTime()), Instant.now());
+        long probeLatencyMs = TimeUnit.NANOSECONDS.toMillis(probe.get(2, TimeUnit.SECONDS) - probeStart);
+        BenchmarkReport.print("scheduler probe latency with %d sends in flight: %d ms", SENDS, probeLatencyMs);
+
+        releaseSends.countDown();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+
+        assertTrue(futures.stream().allMatch(CompletableFuture::join));
+        verify(messagingService, times(SENDS)).sendMessage(anyString(), anyString(), any(Company.class));
+    }
+
+    private List<CampaignContact> createContacts(int count) {
+        Company company = Company.builder().id(UUID.randomUUID()).name("Empresa").build();
+        MessageTemplate template = MessageTemplate.builder().id(UUID.randomUUID()).content("Olá {{nome}}").build();
+        Campaign campaign = Campaign.builder().id(UUID.randomUUID()).name("Campanha")
+            .initialMessageTemplate(template).build();
+
+        List<CampaignContact> contacts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Customer customer = Customer.builder().id(UUID.randomUUID()).name("Doador " + i)
+                .phone("+55119" + String.format("%08d", i)).company(company).build();
+            contacts.add(CampaignContact.builder().id(UUID.randomUUID()).campaign(campaign).customer(customer).build());
+        }
+        return contacts;
+    }
+}
@@ -29,6 +29,9 @@ class ChatLidMappingServiceTest {
     @Mock
     private ConversationService conversationService;
 
+    @Mock
+    private ChatLidRoutingCache routingCache;
+
     @InjectMocks
     private ChatLidMappingService service;
 
@@ -149,6 +152,7 @@ class ChatLidMappingServiceTest {
             m.getFromCampaign().equals(true) &&
             m.getChatLid() == null // Campaign mappings start without chatLid
         ));
+        verify(routingCache).onCampaignMappingCreated(companyId, phone, conversationId);
     }
 
     @Test
@@ -175,6 +179,7 @@ class ChatLidMappingServiceTest {
             m.getChatLid().equals(chatLid)
         ));
         assertThat(result).isPresent();
+        verify(routingCache).onChatLidMapped(chatLid, conversationId, companyId, phone);
     }
 
     @Test
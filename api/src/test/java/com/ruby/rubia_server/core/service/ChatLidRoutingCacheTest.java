@@ -0,0 +1,114 @@
+package com.ruby.rubia_server.core.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ChatLidRoutingCache Unit Tests")
+class ChatLidRoutingCacheTest {
+
+    private static final String CHAT_LID = "269161355821173@lid";
+    private static final String PHONE = "5511999998888";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ChatLidRoutingCache cache;
+    private UUID companyId;
+    private UUID conversationId;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ChatLidRoutingCache(redisTemplate, new PhoneService(), meterRegistry, 100, Duration.ofMinutes(30));
+        companyId = UUID.randomUUID();
+        conversationId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Should route a known chat from memory")
+    void shouldRouteKnownChat() {
+        assertTrue(cache.findConversationId(CHAT_LID).isEmpty());
+
+        cache.putChatLid(CHAT_LID, conversationId, companyId, PHONE);
+
+        assertEquals(Optional.of(conversationId), cache.findConversationId(CHAT_LID));
+        assertEquals(1.0, meterRegistry.get("chatlid.routing.cache").tags("cache", "chatLid", "result", "hit").counter().count());
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Should cache the absence of a campaign conversation for a phone")
+    void shouldCacheMissingCampaignConversation() {
+        assertTrue(cache.findCampaignConversationId(companyId, PHONE).isEmpty());
+
+        cache.putCampaignConversationId(companyId, PHONE, null);
+
+        Optional<Optional<UUID>> cached = cache.findCampaignConversationId(companyId, PHONE);
+        assertTrue(cached.isPresent());
+        assertTrue(cached.get().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should write through a new campaign mapping and drop routes of the same phone")
+    void shouldWriteThroughCampaignMapping() {
+        cache.putChatLid(CHAT_LID, UUID.randomUUID(), companyId, PHONE);
+        cache.putCampaignConversationId(companyId, PHONE, null);
+
+        // Variação sem o nono dígito também deve ser afetada
+        cache.onCampaignMappingCreated(companyId, "551199998888", conversationId);
+
+        assertTrue(cache.findConversationId(CHAT_LID).isEmpty());
+        assertEquals(Optional.of(Optional.of(conversationId)), cache.findCampaignConversationId(companyId, "551199998888"));
+        verify(redisTemplate).convertAndSend(eq(ChatLidRoutingCache.INVALIDATE_CHANNEL), contains(" phone " + companyId + "|551199998888"));
+    }
+
+    @Test
+    @DisplayName("Should apply invalidations from other nodes and ignore its own")
+    void shouldApplyRemoteInvalidations() {
+        cache.onChatLidMapped(CHAT_LID, conversationId, companyId, PHONE);
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate, times(2)).convertAndSend(eq(ChatLidRoutingCache.INVALIDATE_CHANNEL), published.capture());
+
+        // A própria mensagem chega de volta pelo pub/sub e não pode apagar o write-through
+        cache.applyRemoteInvalidation(published.getAllValues().get(0));
+        assertEquals(Optional.of(conversationId), cache.findConversationId(CHAT_LID));
+
+        cache.applyRemoteInvalidation("other-node chatLid " + CHAT_LID);
+        assertTrue(cache.findConversationId(CHAT_LID).isEmpty());
+
+        cache.putChatLid(CHAT_LID, conversationId, companyId, PHONE);
+        cache.applyRemoteInvalidation("other-node phone " + companyId + "|" + PHONE);
+        assertTrue(cache.findConversationId(CHAT_LID).isEmpty());
+
+        cache.putChatLid(CHAT_LID, conversationId, companyId, PHONE);
+        cache.applyRemoteInvalidation("other-node all ");
+        assertTrue(cache.findConversationId(CHAT_LID).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep working when Redis publish fails")
+    void shouldTolerateRedisFailure() {
+        doThrow(new RuntimeException("redis down")).when(redisTemplate).convertAndSend(anyString(), anyString());
+
+        cache.onChatLidMapped(CHAT_LID, conversationId, companyId, PHONE);
+
+        assertEquals(Optional.of(conversationId), cache.findConversationId(CHAT_LID));
+    }
+}
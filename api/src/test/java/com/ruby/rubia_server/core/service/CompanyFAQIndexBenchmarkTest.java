@@ -0,0 +1,202 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.core.dto.FAQDTO;
+import com.ruby.rubia_server.core.dto.FAQMatchDTO;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.ruby.rubia_server.core.service.BenchmarkReport.report;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark da busca de FAQs de uma empresa com 10 mil FAQs ativas. Compara o índice em memória com a
+ * varredura linear que FAQService fazia sobre a lista de FAQs (sem contar as consultas ao banco que ela
+ * também disparava a cada mensagem).
+ */
+@DisplayName("Company FAQ index benchmark")
+class CompanyFAQIndexBenchmarkTest {
+
+    private static final int FAQ_COUNT = 10_000;
+    private static final int MESSAGE_COUNT = 2_000;
+    private static final String[] VOCABULARY = {
+        "doação", "sangue", "agendamento", "horário", "hemocentro", "plaquetas", "medula", "jejum",
+        "tatuagem", "vacina", "idade", "peso", "documento", "intervalo", "gripe", "remédio", "viagem",
+        "gravidez", "amamentação", "cirurgia", "endereço", "estacionamento", "carteirinha", "resultado"
+    };
+
+    private static List<FAQDTO> faqs;
+    private static List<String> messages;
+
+    @BeforeAll
+    static void generateData() {
+        Random random = new Random(42);
+        faqs = new ArrayList<>(FAQ_COUNT);
+        for (int i = 0; i < FAQ_COUNT; i++) {
+            String a = word(random);
+            String b = word(random);
+            faqs.add(FAQDTO.builder()
+                    .id(UUID.randomUUID())
+                    .companyId(UUID.randomUUID())
+                    .question("Pergunta " + i + " sobre " + a + " e " + b + " no hemocentro")
+                    .answer("Resposta " + i)
+                    .keywords(List.of(a + i))
+                    .triggers(List.of("gatilho " + i + " " + b))
+                    .isActive(true)
+                    .build());
+        }
+
+        messages = new ArrayList<>(MESSAGE_COUNT);
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            int target = random.nextInt(FAQ_COUNT);
+            messages.add("olá, gatilho " + target + " " + faqs.get(target).getTriggers().get(0).split(" ")[2]
+                    + " e dúvida sobre " + word(random) + " e " + word(random));
+        }
+    }
+
+    @Test
+    @DisplayName("Index search should agree with the linear scan on trigger matches")
+    void indexShouldAgreeWithLinearScan() {
+        long start = System.nanoTime();
+        CompanyFAQIndex index = CompanyFAQIndex.of(faqs);
+        report("build index", FAQ_COUNT, System.nanoTime() - start);
+
+        // Aquecimento do JIT
+        for (int i = 0; i < 200; i++) {
+            index.search(messages.get(i), 0.3, 3);
+            linearTriggerMatches(messages.get(i));
+        }
+
+        start = System.nanoTime();
+        int indexMatches = 0;
+        for (String message : messages) {
+            indexMatches += index.search(message, 0.3, 3).size();
+        }
+        long indexNanos = System.nanoTime() - start;
+        report("in-memory index", MESSAGE_COUNT, indexNanos);
+
+        start = System.nanoTime();
+        int linearMatches = 0;
+        for (String message : messages) {
+            linearMatches += linearScan(message).size();
+        }
+        long linearNanos = System.nanoTime() - start;
+        report("linear scan", MESSAGE_COUNT, linearNanos);
+
+        assertTrue(indexMatches > 0);
+        assertTrue(linearMatches > 0);
+        for (String message : messages.subList(0, 100)) {
+            Set<UUID> expected = linearTriggerMatches(message);
+            Set<UUID> actual = index.search(message, 1.0, null).stream()
+                    .filter(match -> "exact_trigger".equals(match.getMatchReason()))
+                    .map(match -> match.getFaq().getId())
+                    .collect(Collectors.toSet());
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    @DisplayName("Single FAQ update should not require a reload")
+    void incrementalUpdateShouldBeCheap() {
+        CompanyFAQIndex index = CompanyFAQIndex.of(faqs);
+        FAQDTO changed = faqs.get(0);
+
+        long start = System.nanoTime();
+        CompanyFAQIndex updated = index.with(changed);
+        report("replace one FAQ", 1, System.nanoTime() - start);
+
+        assertEquals(FAQ_COUNT, updated.size());
+        List<FAQMatchDTO> matches = updated.search(changed.getTriggers().get(0), 1.0, null);
+        assertEquals(changed.getId(), matches.get(0).getFaq().getId());
+    }
+
+    @Test
+    @DisplayName("Brute-force semantic top-k over 10k embeddings")
+    void semanticSearchOverTenThousandEmbeddings() {
+        LocalHashingEmbeddingProvider embeddings = new LocalHashingEmbeddingProvider();
+        Map<UUID, float[]> questionEmbeddings = new HashMap<>();
+        long start = System.nanoTime();
+        for (FAQDTO faq : faqs) {
+            questionEmbeddings.put(faq.getId(), embeddings.embed(faq.getQuestion()));
+        }
+        report("embed questions", FAQ_COUNT, System.nanoTime() - start);
+        CompanyFAQIndex index = CompanyFAQIndex.of(faqs, questionEmbeddings);
+
+        List<float[]> messageEmbeddings = messages.stream().map(embeddings::embed).toList();
+        for (int i = 0; i < 200; i++) {
+            index.search(messages.get(i), messageEmbeddings.get(i), 0.5, 0.4, 3);
+        }
+
+        start = System.nanoTime();
+        int semanticMatches = 0;
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            semanticMatches += (int) index.search(messages.get(i), messageEmbeddings.get(i), 0.5, 0.4, 3).stream()
+                    .filter(match -> "semantic_match".equals(match.getMatchReason()))
+                    .count();
+        }
+        long semanticNanos = System.nanoTime() - start;
+        report("lexical + semantic", MESSAGE_COUNT, semanticNanos);
+
+        assertTrue(semanticMatches > 0);
+    }
+
+    /**
+     * Algoritmo anterior de FAQService: contains por trigger, keywords contra as palavras da mensagem e
+     * pontuação parcial O(palavras da pergunta × palavras da mensagem)
+     */
+    private static List<UUID> linearScan(String rawMessage) {
+        String message = rawMessage.toLowerCase().trim();
+        Set<String> messageWords = Arrays.stream(message.split("\\s+"))
+                .filter(word -> !CompanyFAQIndex.STOP_WORDS.contains(word))
+                .collect(Collectors.toSet());
+        String[] words = message.split("\\s+");
+
+        List<UUID> matches = new ArrayList<>();
+        for (FAQDTO faq : faqs) {
+            if (faq.getTriggers().stream().anyMatch(message::contains)
+                    || faq.getKeywords().stream().anyMatch(messageWords::contains)) {
+                matches.add(faq.getId());
+                continue;
+            }
+            int matched = 0;
+            int total = 0;
+            for (String qWord : faq.getQuestion().toLowerCase().split("\\s+")) {
+                if (!CompanyFAQIndex.STOP_WORDS.contains(qWord)) {
+                    total++;
+                    for (String mWord : words) {
+                        if (qWord.contains(mWord) || mWord.contains(qWord)) {
+                            matched++;
+                            break;
+                        }
+                    }
+                }
+            }
+            if (total > 0 && (double) matched / total >= 0.3) {
+                matches.add(faq.getId());
+            }
+        }
+        return matches;
+    }
+
+    private static Set<UUID> linearTriggerMatches(String rawMessage) {
+        String message = rawMessage.toLowerCase().trim();
+        return faqs.stream()
+                .filter(faq -> faq.getTriggers().stream().anyMatch(message::contains))
+                .map(FAQDTO::getId)
+                .collect(Collectors.toSet());
+    }
+
+    private static String word(Random random) {
+        return VOCABULARY[random.nextInt(VOCABULARY.length)];
+    }
+}
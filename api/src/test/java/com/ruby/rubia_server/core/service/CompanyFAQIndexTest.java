@@ -0,0 +1,175 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.core.dto.FAQDTO;
+import com.ruby.rubia_server.core.dto.FAQMatchDTO;
+import com.ruby.rubia_server.core.util.FloatVectors;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Company FAQ index")
+class CompanyFAQIndexTest {
+
+    private final FAQDTO schedule = faq("Como faço para agendar uma doação?", List.of("agendamento"), List.of("quero agendar"));
+    private final FAQDTO hours = faq("Qual o horário de funcionamento do hemocentro?", List.of("horário"), List.of());
+    private final FAQDTO requirements = faq("Quais são os requisitos para doar sangue?", List.of(), List.of("posso doar"));
+
+    @Test
+    @DisplayName("Should rank trigger, keyword and partial matches like the database search")
+    void shouldRankMatchesByReason() {
+        CompanyFAQIndex index = CompanyFAQIndex.of(List.of(schedule, hours, requirements));
+
+        List<FAQMatchDTO> matches = index.search("Oi, quero agendar! Qual o horário? Requisitos para doar sangue", 0.3, null);
+
+        assertThat(matches).extracting(match -> match.getFaq().getId())
+                .containsExactly(schedule.getId(), hours.getId(), requirements.getId());
+        assertThat(matches.get(0).getMatchReason()).isEqualTo("exact_trigger");
+        assertThat(matches.get(0).getMatchedText()).isEqualTo("quero agendar");
+        assertThat(matches.get(1).getMatchReason()).isEqualTo("exact_keyword");
+        assertThat(matches.get(1).getMatchedText()).isEqualTo("horário");
+        assertThat(matches.get(2).getMatchReason()).isEqualTo("partial_match");
+    }
+
+    @Test
+    @DisplayName("Should find overlapping triggers in a single pass")
+    void shouldMatchOverlappingTriggers() {
+        FAQDTO donate = faq("Posso doar?", List.of(), List.of("doar"));
+        FAQDTO donateBlood = faq("Como doar sangue?", List.of(), List.of("doar sangue"));
+        CompanyFAQIndex index = CompanyFAQIndex.of(List.of(donate, donateBlood));
+
+        List<FAQMatchDTO> matches = index.search("quero doar sangue", 0.3, 10);
+
+        assertThat(matches).extracting(match -> match.getFaq().getId())
+                .containsExactlyInAnyOrder(donate.getId(), donateBlood.getId());
+    }
+
+    @Test
+    @DisplayName("Should apply updates and removals without reloading")
+    void shouldUpdateIncrementally() {
+        CompanyFAQIndex index = CompanyFAQIndex.of(List.of(schedule, hours));
+
+        FAQDTO editedHours = faq("Qual o horário de funcionamento do hemocentro?", List.of("expediente"), List.of());
+        editedHours.setId(hours.getId());
+        CompanyFAQIndex updated = index.with(editedHours).without(schedule.getId());
+
+        assertThat(updated.size()).isEqualTo(1);
+        assertThat(updated.search("qual o expediente?", 0.9, null))
+                .singleElement()
+                .satisfies(match -> assertThat(match.getMatchReason()).isEqualTo("exact_keyword"));
+        assertThat(updated.search("quero agendar", 0.9, null)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+
+        editedHours.setIsActive(false);
+        assertThat(updated.with(editedHours).size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should honour limit and minimum partial score")
+    void shouldApplyLimitAndMinimumScore() {
+        CompanyFAQIndex index = CompanyFAQIndex.of(List.of(schedule, hours, requirements));
+
+        assertThat(index.search("hemocentro", 0.5, null)).isEmpty();
+        assertThat(index.search("hemocentro", 0.1, null)).hasSize(1);
+        assertThat(index.search("quero agendar horário posso doar", 0.3, 2)).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should score partial matches by exact question tokens shared with the message")
+    void shouldScorePartialMatchesByExactTokens() {
+        CompanyFAQIndex index = CompanyFAQIndex.of(List.of(hours));
+
+        // Pergunta: qual, horário, funcionamento, hemocentro; a mensagem não precisa aparecer inteira nela
+        assertThat(index.search("Hemocentro: funcionamento?", 0.1, null))
+                .singleElement()
+                .satisfies(match -> {
+                    assertThat(match.getMatchReason()).isEqualTo("partial_match");
+                    assertThat(match.getConfidenceScore()).isEqualTo(0.5);
+                });
+        assertThat(index.search("qual o funcionamento do hemocentro", 0.1, null))
+                .singleElement()
+                .satisfies(match -> assertThat(match.getConfidenceScore()).isEqualTo(0.75));
+        // Sem substring: "hemocentros" e "funciona" não contam para "hemocentro" e "funcionamento"
+        assertThat(index.search("hemocentros funciona", 0.1, null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should find differently worded questions by embedding similarity")
+    void shouldMatchSemantically() {
+        LocalHashingEmbeddingProvider embeddings = new LocalHashingEmbeddingProvider();
+        FAQDTO medication = faq("Quais medicamentos impedem a doação?", List.of(), List.of());
+        CompanyFAQIndex index = CompanyFAQIndex.of(List.of(medication, hours), Map.of(
+                medication.getId(), stored(embeddings.embed(medication.getQuestion())),
+                hours.getId(), stored(embeddings.embed(hours.getQuestion()))));
+        String message = "tomo medicamento, impede doar?";
+
+        assertThat(index.search(message, 0.3, 3)).isEmpty();
+        assertThat(index.search(message, embeddings.embed(message), 0.3, 0.4, 3))
+                .singleElement()
+                .satisfies(match -> {
+                    assertThat(match.getFaq().getId()).isEqualTo(medication.getId());
+                    assertThat(match.getMatchReason()).isEqualTo("semantic_match");
+                    assertThat(match.getConfidenceScore()).isBetween(0.4, 0.5);
+                    assertThat(CompanyFAQIndex.isDirectMatch(match)).isFalse();
+                });
+        // O mínimo de confiança pedido vale também para o cosseno
+        assertThat(index.search(message, embeddings.embed(message), 0.5, 0.4, 3)).isEmpty();
+        assertThat(index.search("bom dia, tudo bem?", embeddings.embed("bom dia, tudo bem?"), 0.3, 0.4, 3)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep the lexical match when a FAQ is also found semantically")
+    void shouldPreferLexicalMatchOverSemantic() {
+        LocalHashingEmbeddingProvider embeddings = new LocalHashingEmbeddingProvider();
+        CompanyFAQIndex index = CompanyFAQIndex.of(List.of(hours), Map.of(hours.getId(), embeddings.embed(hours.getQuestion())));
+        String message = "qual o horário do hemocentro";
+
+        assertThat(index.search(message, embeddings.embed(message), 0.3, 0.4, null))
+                .singleElement()
+                .satisfies(match -> {
+                    assertThat(match.getMatchReason()).isEqualTo("exact_keyword");
+                    assertThat(match.getConfidenceScore()).isEqualTo(CompanyFAQIndex.KEYWORD_SCORE);
+                    assertThat(CompanyFAQIndex.isDirectMatch(match)).isTrue();
+                });
+    }
+
+    @Test
+    @DisplayName("Should drop a FAQ from semantic search when updated without an embedding")
+    void shouldUpdateEmbeddingsIncrementally() {
+        LocalHashingEmbeddingProvider embeddings = new LocalHashingEmbeddingProvider();
+        String message = "que horas abre o hemocentro";
+        CompanyFAQIndex index = CompanyFAQIndex.of(List.of(hours), Map.of()).with(hours, embeddings.embed(hours.getQuestion()));
+
+        assertThat(index.hasEmbeddings()).isTrue();
+        assertThat(index.search(message, embeddings.embed(message), 0.5, 0.4, null))
+                .singleElement()
+                .satisfies(match -> assertThat(match.getMatchReason()).isEqualTo("semantic_match"));
+
+        CompanyFAQIndex withoutEmbedding = index.with(hours, null);
+        assertThat(withoutEmbedding.hasEmbeddings()).isFalse();
+        assertThat(withoutEmbedding.search(message, embeddings.embed(message), 0.5, 0.4, null)).isEmpty();
+    }
+
+    /**
+     * Ida e volta pelo formato gravado em faqs.question_embedding
+     */
+    private static float[] stored(float[] embedding) {
+        return FloatVectors.fromBytes(FloatVectors.toBytes(embedding));
+    }
+
+    private static FAQDTO faq(String question, List<String> keywords, List<String> triggers) {
+        return FAQDTO.builder()
+                .id(UUID.randomUUID())
+                .companyId(UUID.randomUUID())
+                .question(question)
+                .answer("Resposta")
+                .keywords(keywords)
+                .triggers(triggers)
+                .isActive(true)
+                .build();
+    }
+}
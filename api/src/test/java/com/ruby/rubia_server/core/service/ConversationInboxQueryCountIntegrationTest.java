@@ -0,0 +1,163 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.config.AbstractIntegrationTest;
+import com.ruby.rubia_server.core.dto.ConversationDTO;
+import com.ruby.rubia_server.core.dto.CreateConversationDTO;
+import com.ruby.rubia_server.core.entity.*;
+import com.ruby.rubia_server.core.enums.Channel;
+import com.ruby.rubia_server.core.enums.ConversationStatus;
+import com.ruby.rubia_server.core.enums.SenderType;
+import com.ruby.rubia_server.core.enums.UserRole;
+import com.ruby.rubia_server.core.repository.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Conta os statements JDBC de uma página da inbox. Com a projeção ConversationListRow o número
+ * é constante (página + count + não lidas em lote + limite de IA), independente do tamanho da página.
+ */
+@Transactional
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DisplayName("Conversation inbox query count")
+class ConversationInboxQueryCountIntegrationTest extends AbstractIntegrationTest {
+
+    private static final int PAGE_SIZE = 50;
+    private static final long MAX_STATEMENTS_PER_PAGE = 4;
+
+    @Autowired
+    private ConversationService conversationService;
+
+    @Autowired
+    private UnreadMessageCountService unreadCountService;
+
+    @Autowired
+    private CompanyGroupRepository companyGroupRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private ConversationLastMessageRepository conversationLastMessageRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Company company;
+    private User agent;
+
+    @BeforeEach
+    void setUp() {
+        CompanyGroup group = new CompanyGroup();
+        group.setName("Inbox Group");
+        group = companyGroupRepository.save(group);
+
+        company = new Company();
+        company.setName("Inbox Company");
+        company.setSlug("inbox-company-" + System.nanoTime());
+        company.setContactPhone("5511999990000");
+        company.setCompanyGroup(group);
+        company = companyRepository.save(company);
+
+        agent = new User();
+        agent.setName("Agent");
+        agent.setEmail("agent-" + System.nanoTime() + "@inbox.com");
+        agent.setPasswordHash("hashedpassword");
+        agent.setRole(UserRole.AGENT);
+        agent.setCompany(company);
+        agent = userRepository.save(agent);
+
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Customer customer = new Customer();
+            customer.setName("Doador " + i);
+            customer.setPhone("55119800000" + String.format("%02d", i));
+            customer.setCompany(company);
+            customer = customerRepository.save(customer);
+
+            CreateConversationDTO createDTO = new CreateConversationDTO();
+            createDTO.setCustomerId(customer.getId());
+            createDTO.setChannel(Channel.WHATSAPP);
+            createDTO.setPriority(1);
+            createDTO.setAssignedUserId(agent.getId());
+            ConversationDTO conversation = conversationService.create(createDTO, company.getId());
+
+            Message message = messageRepository.save(Message.builder()
+                    .conversation(conversationRepository.getReferenceById(conversation.getId()))
+                    .content("Olá " + i)
+                    .senderType(SenderType.CUSTOMER)
+                    .build());
+            conversationLastMessageRepository.upsertLastMessage(
+                    conversation.getId(), LocalDateTime.now().minusMinutes(i), message.getId(), message.getContent());
+            unreadCountService.incrementUnreadCount(agent.getId(), conversation.getId(), message.getId());
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Inbox page ordered by last message should use a constant number of statements")
+    void orderedByLastMessagePageShouldNotIssueQueriesPerRow() {
+        Statistics statistics = statistics();
+
+        Page<ConversationDTO> page = conversationService.findConversationsOrderByLastMessageDateWithPagination(
+                company.getId(), PageRequest.of(0, PAGE_SIZE));
+
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        assertThat(page.getContent().get(0).getCustomerName()).isEqualTo("Doador 0");
+        assertThat(page.getContent().get(0).getLastMessage().getContent()).isEqualTo("Olá 0");
+        assertThat(page.getContent().get(0).getAssignedUserName()).isEqualTo("Agent");
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(MAX_STATEMENTS_PER_PAGE);
+    }
+
+    @Test
+    @DisplayName("Inbox page by status with unread counts should use a constant number of statements")
+    void statusPageWithUnreadCountsShouldNotIssueQueriesPerRow() {
+        Statistics statistics = statistics();
+
+        Page<ConversationDTO> page = conversationService.findByStatusAndCompanyWithPagination(
+                ConversationStatus.ENTRADA, company.getId(), PageRequest.of(0, PAGE_SIZE), agent.getId());
+
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        assertThat(page.getContent()).allSatisfy(conversation -> {
+            assertThat(conversation.getUnreadCount()).isEqualTo(1L);
+            assertThat(conversation.getCustomerId()).isNotNull();
+            assertThat(conversation.getAiMessageLimit()).isNotNull();
+        });
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(MAX_STATEMENTS_PER_PAGE);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
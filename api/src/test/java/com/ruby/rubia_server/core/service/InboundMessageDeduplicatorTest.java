@@ -0,0 +1,100 @@
+package com.ruby.rubia_server.core.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InboundMessageDeduplicator Unit Tests")
+class InboundMessageDeduplicatorTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private SimpleMeterRegistry meterRegistry;
+    private InboundMessageDeduplicator deduplicator;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        deduplicator = new InboundMessageDeduplicator(redisTemplate, meterRegistry, Duration.ofMinutes(10));
+    }
+
+    @Test
+    @DisplayName("Should let unknown deliveries through without writing to Redis")
+    void shouldLetUnknownDeliveryThrough() {
+        when(redisTemplate.hasKey("rubia:dedup:inbound:z-api:msg-1")).thenReturn(false);
+
+        assertFalse(deduplicator.isAlreadyStored("z-api", "msg-1"));
+        verify(redisTemplate, never()).opsForValue();
+        assertNull(meterRegistry.find("messaging.inbound.duplicates").counter());
+    }
+
+    @Test
+    @DisplayName("Should drop redeliveries of stored messages and count them")
+    void shouldDropRedelivery() {
+        when(redisTemplate.hasKey("rubia:dedup:inbound:z-api:msg-1")).thenReturn(true);
+
+        assertTrue(deduplicator.isAlreadyStored("z-api", "msg-1"));
+        assertEquals(1.0, meterRegistry.get("messaging.inbound.duplicates").tag("layer", "redis").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should mark stored messages with a TTL-bound key")
+    void shouldMarkStoredMessage() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        deduplicator.markStored("z-api", "msg-1");
+
+        verify(valueOperations).set("rubia:dedup:inbound:z-api:msg-1", "1", Duration.ofMinutes(10));
+    }
+
+    @Test
+    @DisplayName("Should fail open when Redis is unavailable")
+    void shouldFailOpenWithoutRedis() {
+        when(redisTemplate.hasKey(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+        when(redisTemplate.opsForValue()).thenThrow(new RedisConnectionFailureException("down"));
+
+        assertFalse(deduplicator.isAlreadyStored("z-api", "msg-1"));
+        assertDoesNotThrow(() -> deduplicator.markStored("z-api", "msg-1"));
+    }
+
+    @Test
+    @DisplayName("Should not touch Redis for messages without external id")
+    void shouldSkipMessagesWithoutExternalId() {
+        assertFalse(deduplicator.isAlreadyStored("z-api", null));
+        deduplicator.markStored("z-api", " ");
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Should recognize only violations of the external id unique index")
+    void shouldRecognizeExternalIdViolation() {
+        DataIntegrityViolationException duplicate = new DataIntegrityViolationException("could not execute statement",
+            new SQLException("duplicate key value violates unique constraint \"uk_messages_external_message_id\""));
+        DataIntegrityViolationException other = new DataIntegrityViolationException("could not execute statement",
+            new SQLException("duplicate key value violates unique constraint \"messages_conversation_media_id_key\""));
+
+        assertTrue(InboundMessageDeduplicator.isDuplicateExternalId(duplicate));
+        assertFalse(InboundMessageDeduplicator.isDuplicateExternalId(other));
+    }
+}
@@ -0,0 +1,100 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.core.entity.Company;
+import com.ruby.rubia_server.core.event.CustomerChangedEvent;
+import com.ruby.rubia_server.core.event.WhatsAppInstanceChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("InboundTenantCache Unit Tests")
+class InboundTenantCacheTest {
+
+    private static final String CONNECTED_PHONE = "5511999990000";
+    private static final String CUSTOMER_PHONE = "5511988887777";
+
+    private SimpleMeterRegistry meterRegistry;
+    private InboundTenantCache cache;
+    private UUID companyId;
+    private UUID instanceId;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new InboundTenantCache(meterRegistry, 100, Duration.ofMinutes(10));
+        companyId = UUID.randomUUID();
+        instanceId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Should serve cached company snapshot and count hits and misses")
+    void shouldServeCachedCompany() {
+        assertTrue(cache.getCompany(CONNECTED_PHONE).isEmpty());
+
+        Company company = Company.builder().id(companyId).name("Hemocentro").build();
+        cache.putCompany(CONNECTED_PHONE, InboundTenantCache.CachedCompany.of(company, instanceId));
+
+        Company cached = cache.getCompany(CONNECTED_PHONE).orElseThrow().toCompany();
+        assertEquals(companyId, cached.getId());
+        assertEquals("Hemocentro", cached.getName());
+        assertEquals(1.0, meterRegistry.get("inbound.tenant.cache").tags("cache", "company", "result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("inbound.tenant.cache").tags("cache", "company", "result", "miss").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should scope customers by company")
+    void shouldScopeCustomersByCompany() {
+        UUID customerId = UUID.randomUUID();
+        cache.putCustomer(CUSTOMER_PHONE, new InboundTenantCache.CachedCustomer(customerId, companyId, CUSTOMER_PHONE, "Maria"));
+
+        assertEquals(customerId, cache.getCustomer(companyId, CUSTOMER_PHONE).orElseThrow().customerId());
+        assertTrue(cache.getCustomer(UUID.randomUUID(), CUSTOMER_PHONE).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should drop company entries when an instance of the company changes")
+    void shouldInvalidateOnInstanceChange() {
+        Company company = Company.builder().id(companyId).name("Hemocentro").build();
+        cache.putCompany(CONNECTED_PHONE, InboundTenantCache.CachedCompany.of(company, instanceId));
+
+        cache.onWhatsAppInstanceChanged(WhatsAppInstanceChangedEvent.builder().instanceId(instanceId).companyId(companyId).build());
+
+        assertTrue(cache.getCompany(CONNECTED_PHONE).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should drop a single customer or all customers of a company")
+    void shouldInvalidateOnCustomerChange() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        cache.putCustomer("5511911111111", new InboundTenantCache.CachedCustomer(first, companyId, "5511911111111", "A"));
+        cache.putCustomer("5511922222222", new InboundTenantCache.CachedCustomer(second, companyId, "5511922222222", "B"));
+
+        cache.onCustomerChanged(CustomerChangedEvent.builder().customerId(first).companyId(companyId).build());
+        assertTrue(cache.getCustomer(companyId, "5511911111111").isEmpty());
+        assertTrue(cache.getCustomer(companyId, "5511922222222").isPresent());
+
+        cache.onCustomerChanged(CustomerChangedEvent.builder().companyId(companyId).build());
+        assertTrue(cache.getCustomer(companyId, "5511922222222").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should invalidate only the phones listed in a bulk customer change")
+    void shouldInvalidateListedPhones() {
+        UUID companyId = UUID.randomUUID();
+        cache.putCustomer("5511911111111", new InboundTenantCache.CachedCustomer(UUID.randomUUID(), companyId, "5511911111111", "A"));
+        cache.putCustomer("5511922222222", new InboundTenantCache.CachedCustomer(UUID.randomUUID(), companyId, "5511922222222", "B"));
+
+        cache.onCustomerChanged(CustomerChangedEvent.builder().companyId(companyId).phones(Set.of("5511911111111")).build());
+
+        assertTrue(cache.getCustomer(companyId, "5511911111111").isEmpty());
+        assertTrue(cache.getCustomer(companyId, "5511922222222").isPresent());
+    }
+}
@@ -0,0 +1,147 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.config.AbstractIntegrationTest;
+import com.ruby.rubia_server.core.dto.ConversationDTO;
+import com.ruby.rubia_server.core.dto.CreateConversationDTO;
+import com.ruby.rubia_server.core.dto.MessageDTO;
+import com.ruby.rubia_server.core.entity.*;
+import com.ruby.rubia_server.core.enums.Channel;
+import com.ruby.rubia_server.core.enums.SenderType;
+import com.ruby.rubia_server.core.repository.*;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Transactional
+@DisplayName("Message full-text search")
+class MessageSearchIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private ConversationService conversationService;
+
+    @Autowired
+    private CompanyGroupRepository companyGroupRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Company company;
+    private UUID conversationId;
+
+    @BeforeEach
+    void setUp() {
+        CompanyGroup group = new CompanyGroup();
+        group.setName("Search Group");
+        group = companyGroupRepository.save(group);
+
+        company = createCompany(group, "search-company-");
+        Company otherCompany = createCompany(group, "other-search-company-");
+
+        conversationId = createConversation(company, "5511970001000");
+        UUID otherConversationId = createConversation(otherCompany, "5511970001001");
+
+        saveMessage(conversationId, "Olá, quero fazer um agendamento para doar sangue");
+        saveMessage(conversationId, "Qual o horário de funcionamento?");
+        saveMessage(conversationId, "Meu agendamento foi confirmado");
+        saveMessage(otherConversationId, "Preciso remarcar meu agendamento");
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Should match stemmed words only within the current company")
+    void shouldSearchWithinCompany() {
+        Page<MessageDTO> page = messageService.searchInContent(company.getId(), "agendamentos", PageRequest.of(0, 20));
+
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(MessageDTO::getConversationId).containsOnly(conversationId);
+        assertThat(page.getContent()).extracting(MessageDTO::getContent)
+                .allSatisfy(content -> assertThat(content).contains("agendamento"));
+    }
+
+    @Test
+    @DisplayName("Should paginate ranked results")
+    void shouldPaginateResults() {
+        Page<MessageDTO> first = messageService.searchInContent(company.getId(), "agendamento", PageRequest.of(0, 1));
+        Page<MessageDTO> second = messageService.searchInContent(company.getId(), "agendamento", PageRequest.of(1, 1));
+
+        assertThat(first.getTotalElements()).isEqualTo(2);
+        assertThat(first.getContent()).hasSize(1);
+        assertThat(second.getContent()).hasSize(1);
+        assertThat(second.getContent().get(0).getId()).isNotEqualTo(first.getContent().get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Should search inside a conversation in chronological order")
+    void shouldSearchInConversation() {
+        List<MessageDTO> messages = messageService.searchInConversation(company.getId(), conversationId, "agendamento");
+
+        assertThat(messages).extracting(MessageDTO::getContent).containsExactly(
+                "Olá, quero fazer um agendamento para doar sangue",
+                "Meu agendamento foi confirmado");
+    }
+
+    @Test
+    @DisplayName("Should return an empty page for blank terms")
+    void shouldReturnEmptyPageForBlankTerm() {
+        assertThat(messageService.searchInContent(company.getId(), "  ", PageRequest.of(0, 20))).isEmpty();
+    }
+
+    private Company createCompany(CompanyGroup group, String slugPrefix) {
+        Company newCompany = new Company();
+        newCompany.setName("Search Company");
+        newCompany.setSlug(slugPrefix + System.nanoTime());
+        newCompany.setContactPhone("5511999990000");
+        newCompany.setCompanyGroup(group);
+        return companyRepository.save(newCompany);
+    }
+
+    private UUID createConversation(Company owner, String phone) {
+        Customer customer = new Customer();
+        customer.setName("Doador " + phone);
+        customer.setPhone(phone);
+        customer.setCompany(owner);
+        customer = customerRepository.save(customer);
+
+        CreateConversationDTO createDTO = new CreateConversationDTO();
+        createDTO.setCustomerId(customer.getId());
+        createDTO.setChannel(Channel.WHATSAPP);
+        createDTO.setPriority(1);
+        ConversationDTO conversation = conversationService.create(createDTO, owner.getId());
+        return conversation.getId();
+    }
+
+    private void saveMessage(UUID targetConversationId, String content) {
+        messageRepository.save(Message.builder()
+                .conversation(conversationRepository.getReferenceById(targetConversationId))
+                .content(content)
+                .senderType(SenderType.CUSTOMER)
+                .build());
+    }
+}
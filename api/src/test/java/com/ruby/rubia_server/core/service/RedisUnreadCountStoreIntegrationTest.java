@@ -0,0 +1,162 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.config.AbstractIntegrationTest;
+import com.ruby.rubia_server.core.dto.ConversationDTO;
+import com.ruby.rubia_server.core.dto.CreateConversationDTO;
+import com.ruby.rubia_server.core.entity.*;
+import com.ruby.rubia_server.core.enums.Channel;
+import com.ruby.rubia_server.core.enums.UserRole;
+import com.ruby.rubia_server.core.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = {
+        "messaging.unread-counters.store=redis",
+        "messaging.unread-counters.checkpoint-interval-ms=3600000"
+})
+@DisplayName("Redis unread counters with Postgres checkpoint")
+class RedisUnreadCountStoreIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private UnreadMessageCountService unreadCountService;
+
+    @Autowired
+    private UnreadCountStore unreadCountStore;
+
+    @Autowired
+    private UnreadCountCheckpointer checkpointer;
+
+    @Autowired
+    private UnreadMessageCountRepository unreadCountRepository;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private ConversationService conversationService;
+
+    @Autowired
+    private CompanyGroupRepository companyGroupRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Company company;
+    private User firstUser;
+    private User secondUser;
+    private UUID conversationId;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.delete(List.of(RedisUnreadCountStore.DIRTY_KEY, RedisUnreadCountStore.CHECKPOINT_KEY));
+
+        String suffix = String.valueOf(System.nanoTime());
+        CompanyGroup group = new CompanyGroup();
+        group.setName("Unread Group " + suffix);
+        group = companyGroupRepository.save(group);
+
+        company = new Company();
+        company.setName("Unread Company");
+        company.setSlug("unread-company-" + suffix);
+        company.setContactPhone("5511999990000");
+        company.setCompanyGroup(group);
+        company = companyRepository.save(company);
+
+        firstUser = createUser("first-" + suffix + "@unread.com");
+        secondUser = createUser("second-" + suffix + "@unread.com");
+
+        Customer customer = new Customer();
+        customer.setName("Unread Customer");
+        customer.setPhone("5511988887777");
+        customer.setCompany(company);
+        customer = customerRepository.save(customer);
+
+        CreateConversationDTO createDTO = new CreateConversationDTO();
+        createDTO.setCustomerId(customer.getId());
+        createDTO.setChannel(Channel.WHATSAPP);
+        createDTO.setPriority(1);
+        ConversationDTO conversation = conversationService.create(createDTO, company.getId());
+        conversationId = conversation.getId();
+    }
+
+    @Test
+    @DisplayName("Should keep counters in Redis and write them to Postgres on checkpoint")
+    void shouldCheckpointRedisCountersToDatabase() {
+        assertThat(unreadCountStore).isInstanceOf(RedisUnreadCountStore.class);
+
+        unreadCountService.createUnreadCountsForNewMessage(null, conversationId, company);
+        unreadCountService.createUnreadCountsForNewMessage(null, conversationId, company);
+        unreadCountService.markAsRead(secondUser.getId(), conversationId);
+
+        assertThat(unreadCountService.getUnreadCountsForConversations(firstUser.getId(), List.of(conversationId)))
+                .containsEntry(conversationId, 2);
+        assertThat(unreadCountService.getUnreadCount(secondUser.getId(), conversationId)).isZero();
+        assertThat(unreadCountRepository.findByUserIdAndConversationId(firstUser.getId(), conversationId)).isEmpty();
+
+        checkpointer.checkpoint();
+
+        assertThat(unreadCountRepository.findByUserIdAndConversationId(firstUser.getId(), conversationId))
+                .hasValueSatisfying(count -> assertThat(count.getUnreadCount()).isEqualTo(2));
+        assertThat(unreadCountRepository.findByUserIdAndConversationId(secondUser.getId(), conversationId))
+                .hasValueSatisfying(count -> assertThat(count.getUnreadCount()).isZero());
+        assertThat(redisTemplate.hasKey(RedisUnreadCountStore.DIRTY_KEY)).isFalse();
+        assertThat(redisTemplate.hasKey(RedisUnreadCountStore.CHECKPOINT_KEY)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should serve a batch of conversations from one hash")
+    void shouldReadCountersForManyConversations() {
+        UUID unknownConversation = UUID.randomUUID();
+        unreadCountService.createUnreadCountsForNewMessage(null, conversationId, company);
+
+        Map<UUID, Integer> counts = unreadCountService.getUnreadCountsForConversations(
+                firstUser.getId(), List.of(conversationId, unknownConversation));
+
+        assertThat(counts).containsOnly(Map.entry(conversationId, 1), Map.entry(unknownConversation, 0));
+        assertThat(unreadCountService.getTotalUnreadCount(firstUser.getId())).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should clear all counters of a user and mark each conversation for checkpoint")
+    void shouldResetAllCountersOfUser() {
+        UUID otherConversation = UUID.randomUUID();
+        unreadCountStore.increment(firstUser.getId(), conversationId, null);
+        unreadCountStore.increment(firstUser.getId(), otherConversation, null);
+        redisTemplate.delete(RedisUnreadCountStore.DIRTY_KEY);
+
+        unreadCountStore.resetAll(firstUser.getId());
+
+        assertThat(unreadCountStore.getTotal(firstUser.getId())).isZero();
+        assertThat(redisTemplate.hasKey(RedisUnreadCountStore.counterKey(firstUser.getId()))).isFalse();
+        assertThat(redisTemplate.<String, String>opsForHash().keys(RedisUnreadCountStore.DIRTY_KEY))
+                .containsExactlyInAnyOrder(
+                        RedisUnreadCountStore.dirtyField(firstUser.getId(), conversationId),
+                        RedisUnreadCountStore.dirtyField(firstUser.getId(), otherConversation));
+    }
+
+    private User createUser(String email) {
+        User user = new User();
+        user.setName(email);
+        user.setEmail(email);
+        user.setPasswordHash("hashedpassword");
+        user.setRole(UserRole.AGENT);
+        user.setCompany(company);
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,158 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.config.AbstractIntegrationTest;
+import com.ruby.rubia_server.core.dto.ConversationDTO;
+import com.ruby.rubia_server.core.dto.CreateConversationDTO;
+import com.ruby.rubia_server.core.dto.CursorPageDTO;
+import com.ruby.rubia_server.core.dto.MessageDTO;
+import com.ruby.rubia_server.core.entity.*;
+import com.ruby.rubia_server.core.enums.Channel;
+import com.ruby.rubia_server.core.enums.SenderType;
+import com.ruby.rubia_server.core.repository.*;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Transactional
+@DisplayName("Timeline cursor pagination")
+class TimelineCursorPaginationIntegrationTest extends AbstractIntegrationTest {
+
+    private static final int MESSAGE_COUNT = 120;
+    private static final int CONVERSATION_COUNT = 7;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private ConversationService conversationService;
+
+    @Autowired
+    private CompanyGroupRepository companyGroupRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private ConversationLastMessageRepository conversationLastMessageRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Company company;
+    private UUID conversationId;
+
+    @BeforeEach
+    void setUp() {
+        CompanyGroup group = new CompanyGroup();
+        group.setName("Timeline Group");
+        group = companyGroupRepository.save(group);
+
+        company = new Company();
+        company.setName("Timeline Company");
+        company.setSlug("timeline-company-" + System.nanoTime());
+        company.setContactPhone("5511999990000");
+        company.setCompanyGroup(group);
+        company = companyRepository.save(company);
+
+        for (int i = 0; i < CONVERSATION_COUNT; i++) {
+            Customer customer = new Customer();
+            customer.setName("Doador " + i);
+            customer.setPhone("5511970000" + String.format("%03d", i));
+            customer.setCompany(company);
+            customer = customerRepository.save(customer);
+
+            CreateConversationDTO createDTO = new CreateConversationDTO();
+            createDTO.setCustomerId(customer.getId());
+            createDTO.setChannel(Channel.WHATSAPP);
+            createDTO.setPriority(1);
+            ConversationDTO conversation = conversationService.create(createDTO, company.getId());
+            if (i == 0) {
+                conversationId = conversation.getId();
+            } else {
+                // Duas conversas com a mesma data de atividade para exercitar o desempate por id
+                conversationLastMessageRepository.save(ConversationLastMessage.builder()
+                        .conversation(conversationRepository.getReferenceById(conversation.getId()))
+                        .lastMessageDate(LocalDateTime.of(2025, 1, 1, 12, 0).minusHours(i / 2))
+                        .build());
+            }
+        }
+
+        Conversation conversation = conversationRepository.getReferenceById(conversationId);
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            messageRepository.save(Message.builder()
+                    .conversation(conversation)
+                    .content("Mensagem " + i)
+                    .senderType(SenderType.CUSTOMER)
+                    .build());
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Should walk the whole message timeline without gaps or duplicates")
+    void shouldWalkMessageTimeline() {
+        List<MessageDTO> walked = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPageDTO<MessageDTO> page = messageService.findTimeline(conversationId, cursor, 50);
+            walked.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+            assertThat(page.isHasMore()).isEqualTo(cursor != null);
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(walked).hasSize(MESSAGE_COUNT);
+        assertThat(new HashSet<>(walked.stream().map(MessageDTO::getId).toList())).hasSize(MESSAGE_COUNT);
+        for (int i = 1; i < walked.size(); i++) {
+            assertThat(walked.get(i).getCreatedAt()).isBeforeOrEqualTo(walked.get(i - 1).getCreatedAt());
+        }
+    }
+
+    @Test
+    @DisplayName("Should walk the inbox by last activity without gaps or duplicates")
+    void shouldWalkInboxTimeline() {
+        List<UUID> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageDTO<ConversationDTO> page = conversationService.findInboxTimeline(company.getId(), null, cursor, 2);
+            page.getItems().forEach(conversation -> walked.add(conversation.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(walked).hasSize(CONVERSATION_COUNT).doesNotHaveDuplicates();
+        // Sem registro em conversation_last_message, a conversa com mensagens recentes entra pela data de criação
+        assertThat(walked.get(0)).isEqualTo(conversationId);
+    }
+
+    @Test
+    @DisplayName("Should reject malformed cursors")
+    void shouldRejectMalformedCursor() {
+        assertThatThrownBy(() -> messageService.findTimeline(conversationId, "not-a-cursor", 50))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,93 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.core.entity.Company;
+import com.ruby.rubia_server.core.repository.UnreadMessageCountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UnreadMessageCountServiceTest {
+
+    @Mock
+    private UnreadCountStore unreadCountStore;
+
+    @Mock
+    private UnreadMessageCountRepository unreadCountRepository;
+
+    @Mock
+    private WebSocketNotificationService webSocketNotificationService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UnreadMessageCountService service;
+
+    private UUID messageId;
+    private UUID conversationId;
+    private Company company;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new UnreadMessageCountService(unreadCountStore, unreadCountRepository, meterRegistry);
+        ReflectionTestUtils.setField(service, "webSocketNotificationService", webSocketNotificationService);
+
+        messageId = UUID.randomUUID();
+        conversationId = UUID.randomUUID();
+        company = Company.builder().id(UUID.randomUUID()).name("Hemocentro").build();
+    }
+
+    @Test
+    void createUnreadCountsForNewMessage_ShouldIncrementOnceAndFanOutReturnedCounts() {
+        UUID firstUser = UUID.randomUUID();
+        UUID secondUser = UUID.randomUUID();
+        when(unreadCountStore.name()).thenReturn("database");
+        when(unreadCountStore.incrementForCompanyUsers(company.getId(), conversationId, messageId))
+                .thenReturn(Map.of(firstUser, 1, secondUser, 4));
+
+        service.createUnreadCountsForNewMessage(messageId, conversationId, company);
+
+        verify(webSocketNotificationService).sendUnreadCountUpdate(firstUser, conversationId, 1);
+        verify(webSocketNotificationService).sendUnreadCountUpdate(secondUser, conversationId, 4);
+        verify(unreadCountStore, times(1)).incrementForCompanyUsers(any(), any(), any());
+        verifyNoInteractions(unreadCountRepository);
+        assertThat(meterRegistry.get("messaging.unread.write").tag("store", "database").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void getUnreadCountsForConversations_ShouldFillMissingConversationsWithZero() {
+        UUID otherConversation = UUID.randomUUID();
+        when(unreadCountStore.name()).thenReturn("redis");
+        when(unreadCountStore.getForConversations(any(), any()))
+                .thenReturn(new HashMap<>(Map.of(conversationId, 3)));
+
+        Map<UUID, Integer> counts = service.getUnreadCountsForConversations(
+                UUID.randomUUID(), List.of(conversationId, otherConversation));
+
+        assertThat(counts).containsOnly(Map.entry(conversationId, 3), Map.entry(otherConversation, 0));
+        assertThat(meterRegistry.get("messaging.unread.read").tag("store", "redis").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void createUnreadCountsForNewMessage_ShouldSwallowStoreFailures() {
+        when(unreadCountStore.name()).thenReturn("database");
+        when(unreadCountStore.incrementForCompanyUsers(any(), any(), any()))
+                .thenThrow(new RuntimeException("db down"));
+
+        service.createUnreadCountsForNewMessage(messageId, conversationId, company);
+
+        verifyNoInteractions(webSocketNotificationService);
+    }
+}
@@ -0,0 +1,188 @@
+package com.ruby.rubia_server.core.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruby.rubia_server.core.entity.IncomingMessage;
+import com.ruby.rubia_server.core.entity.WebhookInboxEntry;
+import com.ruby.rubia_server.core.repository.MessageRepository;
+import com.ruby.rubia_server.core.repository.WebhookInboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("WebhookInboxProcessor Unit Tests")
+class WebhookInboxProcessorTest {
+
+    @Mock
+    private WebhookInboxRepository inboxRepository;
+
+    @Mock
+    private MessagingService messagingService;
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpleMeterRegistry meterRegistry;
+    private WebhookInboxProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        processor = new WebhookInboxProcessor(inboxRepository, messagingService, messageRepository, objectMapper,
+            meterRegistry, 4, 3, Duration.ofSeconds(60), Duration.ofSeconds(10), 500);
+
+        when(inboxRepository.claim(anyLong(), any(), any())).thenReturn(1);
+        when(messagingService.parseIncomingMessage(any(Object.class))).thenAnswer(invocation -> {
+            Map<?, ?> payload = invocation.getArgument(0);
+            return IncomingMessage.builder()
+                .messageId((String) payload.get("messageId"))
+                .chatLid((String) payload.get("chatLid"))
+                .provider("z-api")
+                .build();
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        processor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should process the claimed entry and mark it done")
+    void shouldProcessClaimedEntry() throws Exception {
+        stubEntry(1L, "chat-1", "msg-1", 1);
+
+        processor.process(1L);
+
+        verify(messagingService).processIncomingMessage(argThat(m -> "msg-1".equals(m.getMessageId())));
+        verify(inboxRepository).markDone(eq(1L), any());
+        assertEquals(1, meterRegistry.get("webhook.inbox.processing").tag("outcome", "processed").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should skip entries claimed by another worker")
+    void shouldSkipUnclaimedEntry() {
+        when(inboxRepository.claim(eq(1L), any(), any())).thenReturn(0);
+
+        processor.process(1L);
+
+        verify(inboxRepository, never()).findById(any());
+        verifyNoInteractions(messagingService);
+    }
+
+    @Test
+    @DisplayName("Should not process again a message that is already stored")
+    void shouldSkipAlreadyStoredMessage() throws Exception {
+        stubEntry(1L, "chat-1", "msg-1", 1);
+        when(messageRepository.existsByExternalMessageId("msg-1")).thenReturn(true);
+
+        processor.process(1L);
+
+        verify(messagingService, never()).processIncomingMessage(any());
+        verify(inboxRepository).markDone(eq(1L), any());
+        assertEquals(1.0, meterRegistry.get("webhook.inbox.duplicates").tag("stage", "process").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should return failed entries to PENDING with backoff until attempts are exhausted")
+    void shouldRetryThenFail() throws Exception {
+        doThrow(new RuntimeException("db down")).when(messagingService).processIncomingMessage(any());
+
+        stubEntry(1L, "chat-1", "msg-1", 1);
+        processor.process(1L);
+        verify(inboxRepository).markFailedAttempt(eq(1L), eq("PENDING"), argThat(retryAt -> retryAt.isAfter(LocalDateTime.now())), eq("db down"));
+
+        stubEntry(2L, "chat-1", "msg-2", 3);
+        processor.process(2L);
+        verify(inboxRepository).markFailedAttempt(eq(2L), eq("FAILED"), isNull(), eq("db down"));
+        verify(inboxRepository, never()).markDone(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should keep per-chat order while chats are processed in parallel")
+    void shouldPreserveOrderPerChat() throws Exception {
+        int chats = 10;
+        int messagesPerChat = 30;
+        Map<String, List<Integer>> processedOrder = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(chats * messagesPerChat);
+
+        doAnswer(invocation -> {
+            IncomingMessage message = invocation.getArgument(0);
+            Thread.sleep(ThreadLocalRandom.current().nextInt(2));
+            processedOrder.computeIfAbsent(message.getChatLid(), k -> java.util.Collections.synchronizedList(new ArrayList<>()))
+                .add(Integer.parseInt(message.getMessageId().split("-")[1]));
+            done.countDown();
+            return null;
+        }).when(messagingService).processIncomingMessage(any());
+
+        // Stubs antes do dispatch: o Mockito não suporta stubbing concorrente com as partições rodando
+        Map<Long, String> chatKeys = new java.util.LinkedHashMap<>();
+        long id = 1;
+        for (int seq = 0; seq < messagesPerChat; seq++) {
+            for (int chat = 0; chat < chats; chat++) {
+                String chatKey = "chat" + chat;
+                stubEntry(id, chatKey, chatKey + "-" + seq, 1);
+                chatKeys.put(id++, chatKey);
+            }
+        }
+        chatKeys.forEach(processor::dispatch);
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(chats, processedOrder.size());
+        List<Integer> expected = java.util.stream.IntStream.range(0, messagesPerChat).boxed().toList();
+        processedOrder.values().forEach(order -> assertEquals(expected, order));
+    }
+
+    @Test
+    @DisplayName("Should dispatch recovered entries and publish lag")
+    void shouldRecoverPendingEntriesAndPublishLag() throws Exception {
+        WebhookInboxEntry entry = stubEntry(7L, "chat-7", "msg-7", 1);
+        when(inboxRepository.findDispatchable(any(), eq(500))).thenReturn(List.of(entry));
+        when(inboxRepository.countUnprocessed()).thenReturn(1L);
+        when(inboxRepository.findOldestUnprocessedReceivedAt()).thenReturn(Optional.of(LocalDateTime.now().minusSeconds(30)));
+
+        processor.recoverPending();
+
+        verify(inboxRepository, timeout(2000)).markDone(eq(7L), any());
+        assertTrue(meterRegistry.get("webhook.inbox.lag.seconds").gauge().value() >= 30);
+        assertEquals(1.0, meterRegistry.get("webhook.inbox.unprocessed").gauge().value());
+    }
+
+    private WebhookInboxEntry stubEntry(long id, String chatKey, String messageId, int attempts) throws Exception {
+        WebhookInboxEntry entry = WebhookInboxEntry.builder()
+            .id(id)
+            .provider("z-api")
+            .chatKey(chatKey)
+            .externalMessageId(messageId)
+            .payload(objectMapper.writeValueAsString(Map.of("messageId", messageId, "chatLid", chatKey)))
+            .attempts(attempts)
+            .receivedAt(LocalDateTime.now())
+            .build();
+        when(inboxRepository.findById(id)).thenReturn(Optional.of(entry));
+        return entry;
+    }
+}
@@ -0,0 +1,49 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.core.repository.WebhookInboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WebhookInboxRetention Unit Tests")
+class WebhookInboxRetentionTest {
+
+    @Mock
+    private WebhookInboxRepository inboxRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private WebhookInboxRetention retention;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        retention = new WebhookInboxRetention(inboxRepository, meterRegistry, Duration.ofDays(7), 100);
+    }
+
+    @Test
+    @DisplayName("Should delete processed entries older than the retention in batches until a partial batch")
+    void shouldDeleteInBatches() {
+        when(inboxRepository.deleteDoneBefore(any(), eq(100))).thenReturn(100, 100, 42);
+
+        LocalDateTime before = LocalDateTime.now().minusDays(7);
+        retention.purgeProcessed();
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(inboxRepository, times(3)).deleteDoneBefore(cutoff.capture(), eq(100));
+        assertFalse(cutoff.getValue().isBefore(before));
+        assertEquals(242.0, meterRegistry.counter("webhook.inbox.retention.deleted").count());
+    }
+}
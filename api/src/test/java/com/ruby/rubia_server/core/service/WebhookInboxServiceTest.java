@@ -0,0 +1,96 @@
+package com.ruby.rubia_server.core.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruby.rubia_server.core.entity.IncomingMessage;
+import com.ruby.rubia_server.core.enums.WebhookInboxStatus;
+import com.ruby.rubia_server.core.repository.WebhookInboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WebhookInboxService Unit Tests")
+class WebhookInboxServiceTest {
+
+    @Mock
+    private WebhookInboxRepository inboxRepository;
+
+    @Mock
+    private WebhookInboxProcessor inboxProcessor;
+
+    @Mock
+    private InboundMessageDeduplicator inboundMessageDeduplicator;
+
+    private WebhookInboxService inboxService;
+
+    @BeforeEach
+    void setUp() {
+        inboxService = new WebhookInboxService(inboxRepository, inboxProcessor, new ObjectMapper(), new SimpleMeterRegistry(),
+            inboundMessageDeduplicator);
+    }
+
+    @Test
+    @DisplayName("Should persist the raw payload and dispatch it to the chat partition")
+    void shouldPersistAndDispatch() throws Exception {
+        IncomingMessage message = IncomingMessage.builder().messageId("msg-1").chatLid("123@lid").from("5511999990000").build();
+        when(inboxRepository.appendIfAbsent(eq("z-api"), eq("msg-1"), eq("123@lid"), contains("\"messageId\":\"msg-1\""), any()))
+            .thenReturn(Optional.of(42L));
+
+        assertTrue(inboxService.append("z-api", message, Map.of("messageId", "msg-1")));
+
+        verify(inboxProcessor).dispatch(42L, "123@lid");
+    }
+
+    @Test
+    @DisplayName("Should ack duplicate deliveries without dispatching")
+    void shouldIgnoreDuplicateDelivery() throws Exception {
+        IncomingMessage message = IncomingMessage.builder().messageId("msg-1").from("5511999990000").build();
+        when(inboxRepository.appendIfAbsent(any(), any(), any(), any(), any())).thenReturn(Optional.empty());
+
+        assertFalse(inboxService.append("z-api", message, Map.of("messageId", "msg-1")));
+
+        verifyNoInteractions(inboxProcessor);
+    }
+
+    @Test
+    @DisplayName("Should drop redeliveries of already stored messages before writing to the inbox")
+    void shouldDropStoredMessageBeforeInsert() throws Exception {
+        IncomingMessage message = IncomingMessage.builder().messageId("msg-1").from("5511999990000").build();
+        when(inboundMessageDeduplicator.isAlreadyStored("z-api", "msg-1")).thenReturn(true);
+
+        assertFalse(inboxService.append("z-api", message, Map.of("messageId", "msg-1")));
+
+        verifyNoInteractions(inboxRepository, inboxProcessor);
+    }
+
+    @Test
+    @DisplayName("Should fall back to the sender phone as chat key")
+    void shouldUsePhoneWhenChatLidIsMissing() {
+        assertEquals("5511999990000", WebhookInboxService.chatKeyOf(IncomingMessage.builder().from("5511999990000").build()));
+        assertEquals("unknown", WebhookInboxService.chatKeyOf(IncomingMessage.builder().chatLid(" ").build()));
+    }
+
+    @Test
+    @DisplayName("Should requeue selected statuses and trigger recovery")
+    void shouldReplayEntries() {
+        LocalDateTime since = LocalDateTime.now().minusHours(1);
+        when(inboxRepository.requeue(List.of("FAILED"), since)).thenReturn(3);
+
+        assertEquals(3, inboxService.replay(List.of(WebhookInboxStatus.FAILED), since));
+
+        verify(inboxProcessor).recoverPending();
+    }
+}
@@ -0,0 +1,144 @@
+package com.ruby.rubia_server.core.service;
+
+import com.ruby.rubia_server.core.config.CampaignMessagingProperties;
+import com.ruby.rubia_server.core.entity.Company;
+import com.ruby.rubia_server.core.entity.WhatsAppInstance;
+import com.ruby.rubia_server.core.event.WhatsAppInstanceChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WhatsAppInstanceRateLimiter Unit Tests")
+class WhatsAppInstanceRateLimiterTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private WhatsAppInstanceService whatsAppInstanceService;
+
+    private CampaignMessagingProperties properties;
+    private MeterRegistry meterRegistry;
+    private WhatsAppInstanceRateLimiter rateLimiter;
+
+    private Company company;
+    private WhatsAppInstance instance;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CampaignMessagingProperties();
+        properties.setInstanceRateLimitEnabled(true);
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new WhatsAppInstanceRateLimiter(redisTemplate, whatsAppInstanceService, properties, meterRegistry);
+
+        company = Company.builder().id(UUID.randomUUID()).build();
+        instance = WhatsAppInstance.builder().id(UUID.randomUUID()).company(company).build();
+    }
+
+    @Test
+    @DisplayName("Should allow send when bucket has tokens")
+    @SuppressWarnings("unchecked")
+    void shouldAllowSendWhenBucketHasTokens() {
+        when(whatsAppInstanceService.findActiveConnectedInstance(company)).thenReturn(Optional.of(instance));
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+            .thenReturn(List.of(1L, 0L));
+
+        assertEquals(0L, rateLimiter.tryAcquire(company));
+
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        verify(redisTemplate).execute(any(RedisScript.class), keys.capture(), any(Object[].class));
+        assertEquals(WhatsAppInstanceRateLimiter.bucketKey(instance.getId()), keys.getValue().get(0));
+        assertEquals(WhatsAppInstanceRateLimiter.dailyKey(instance.getId(), LocalDate.now()), keys.getValue().get(1));
+    }
+
+    @Test
+    @DisplayName("Should return wait time when bucket is empty")
+    @SuppressWarnings("unchecked")
+    void shouldReturnWaitTimeWhenBucketIsEmpty() {
+        when(whatsAppInstanceService.findActiveConnectedInstance(company)).thenReturn(Optional.of(instance));
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+            .thenReturn(List.of(0L, 7_500L));
+
+        assertEquals(7_500L, rateLimiter.tryAcquire(company));
+        assertEquals(1.0, meterRegistry.counter("campaign.ratelimit.denied", "reason", "bucket").count());
+    }
+
+    @Test
+    @DisplayName("Should defer until next day when daily limit is reached")
+    @SuppressWarnings("unchecked")
+    void shouldDeferUntilNextDayWhenDailyLimitIsReached() {
+        when(whatsAppInstanceService.findActiveConnectedInstance(company)).thenReturn(Optional.of(instance));
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+            .thenReturn(List.of(0L, -1L));
+
+        long waitMs = rateLimiter.tryAcquire(company);
+
+        assertTrue(waitMs > 0 && waitMs <= 24 * 60 * 60 * 1000L);
+        assertEquals(1.0, meterRegistry.counter("campaign.ratelimit.denied", "reason", "daily").count());
+    }
+
+    @Test
+    @DisplayName("Should not consult Redis when there is no connected instance or limit is disabled")
+    void shouldSkipRedisWithoutInstanceOrWhenDisabled() {
+        when(whatsAppInstanceService.findActiveConnectedInstance(company)).thenReturn(Optional.empty());
+        assertEquals(0L, rateLimiter.tryAcquire(company));
+
+        properties.setInstanceRateLimitEnabled(false);
+        assertEquals(0L, rateLimiter.tryAcquire(company));
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Should fail open when Redis is unavailable")
+    @SuppressWarnings("unchecked")
+    void shouldFailOpenWhenRedisIsUnavailable() {
+        when(whatsAppInstanceService.findActiveConnectedInstance(company)).thenReturn(Optional.of(instance));
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+            .thenThrow(new RuntimeException("connection refused"));
+
+        assertEquals(0L, rateLimiter.tryAcquire(company));
+    }
+
+    @Test
+    @DisplayName("Should be disabled by default")
+    void shouldBeDisabledByDefault() {
+        assertFalse(new CampaignMessagingProperties().isInstanceRateLimitEnabled());
+    }
+
+    @Test
+    @DisplayName("Should cache the active instance per company until it changes")
+    @SuppressWarnings("unchecked")
+    void shouldCacheActiveInstanceUntilItChanges() {
+        when(whatsAppInstanceService.findActiveConnectedInstance(company)).thenReturn(Optional.of(instance));
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+            .thenReturn(List.of(1L, 0L));
+
+        rateLimiter.tryAcquire(company);
+        rateLimiter.tryAcquire(company);
+        verify(whatsAppInstanceService, times(1)).findActiveConnectedInstance(company);
+
+        rateLimiter.onWhatsAppInstanceChanged(WhatsAppInstanceChangedEvent.builder()
+            .instanceId(instance.getId()).companyId(company.getId()).build());
+        rateLimiter.tryAcquire(company);
+        verify(whatsAppInstanceService, times(2)).findActiveConnectedInstance(company);
+    }
+}
@@ -58,7 +58,7 @@ class ZApiActivationServiceTest {
 
     @BeforeEach
     void setUp() {
-        zapiActivationService = new ZApiActivationService(whatsAppInstanceService, companyContextUtil, instanceValidator, urlFactory);
+        zapiActivationService = new ZApiActivationService(restTemplate, whatsAppInstanceService, companyContextUtil, instanceValidator, urlFactory);
         
         // Mock company and instance setup
         Company mockCompany = new Company();
@@ -84,7 +84,6 @@ class ZApiActivationServiceTest {
         lenient().doNothing().when(instanceValidator).validateInstanceConfiguration(any());
         
         ReflectionTestUtils.setField(zapiActivationService, "clientToken", CLIENT_TOKEN);
-        ReflectionTestUtils.setField(zapiActivationService, "restTemplate", restTemplate);
     }
 
     @Test
@@ -0,0 +1,98 @@
+package com.ruby.rubia_server.core.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BoundedTtlCache Unit Tests")
+class BoundedTtlCacheTest {
+
+    @Test
+    @DisplayName("Should expire entries after the TTL")
+    void shouldExpireEntries() {
+        MutableClock clock = new MutableClock();
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(5), clock);
+
+        cache.put("a", "1");
+        clock.advance(Duration.ofMinutes(4));
+        assertEquals(Optional.of("1"), cache.get("a"));
+
+        clock.advance(Duration.ofMinutes(1));
+        assertEquals(Optional.empty(), cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used entry when full")
+    void shouldEvictLeastRecentlyUsed() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(2, Duration.ofMinutes(5));
+
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+        cache.put("c", "3");
+
+        assertTrue(cache.get("a").isPresent());
+        assertTrue(cache.get("b").isEmpty());
+        assertTrue(cache.get("c").isPresent());
+    }
+
+    @Test
+    @DisplayName("Should load once and not cache null results")
+    void shouldLoadOnceAndSkipNulls() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(5));
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("a", key -> { loads.incrementAndGet(); return "1"; });
+        cache.get("a", key -> { loads.incrementAndGet(); return "1"; });
+        cache.get("missing", key -> null);
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should invalidate entries matching a predicate")
+    void shouldInvalidateByPredicate() {
+        BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(5));
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 1);
+
+        assertEquals(2, cache.invalidateIf((key, value) -> value == 1));
+        assertEquals(1, cache.size());
+        assertTrue(cache.get("b").isPresent());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}